@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link MapSession} and {@link MapSessionRepository}.
+ *
+ * @author agent (agent@local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapSessionRepositoryBenchmark {
+
+	@Param({ "1", "10", "50" })
+	int attributeCount;
+
+	private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+	private MapSessionRepository repository;
+
+	private MapSession session;
+
+	@Setup
+	public void setup() {
+		this.repository = new MapSessionRepository(this.sessions);
+		this.session = this.repository.createSession();
+		for (int i = 0; i < this.attributeCount; i++) {
+			this.session.setAttribute("attribute" + i, "value" + i);
+		}
+		this.repository.save(this.session);
+	}
+
+	@Benchmark
+	public MapSession copySession() {
+		return new MapSession(this.session);
+	}
+
+	@Benchmark
+	public MapSession findById() {
+		return this.repository.findById(this.session.getId());
+	}
+
+	@Benchmark
+	public MapSession findByIdAndSave() {
+		MapSession session = this.repository.findById(this.session.getId());
+		session.setLastAccessedTime(Instant.now());
+		session.setAttribute("attribute0", "value0");
+		this.repository.save(session);
+		return session;
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.data.redis;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.session.MapSession;
+
+/**
+ * Benchmarks for {@link RedisSessionMapper}, which maps the session hash read from Redis
+ * to a {@link MapSession} and does not require a Redis server.
+ *
+ * @author agent (agent@local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RedisSessionMapperBenchmark {
+
+	@Param({ "1", "10", "50" })
+	int attributeCount;
+
+	private final RedisSessionMapper mapper = new RedisSessionMapper();
+
+	private final String sessionId = UUID.randomUUID().toString();
+
+	private final Map<String, Object> entries = new HashMap<>();
+
+	@Setup
+	public void setup() {
+		long now = System.currentTimeMillis();
+		this.entries.put(RedisSessionMapper.CREATION_TIME_KEY, now);
+		this.entries.put(RedisSessionMapper.LAST_ACCESSED_TIME_KEY, now);
+		this.entries.put(RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY,
+				MapSession.DEFAULT_MAX_INACTIVE_INTERVAL_SECONDS);
+		for (int i = 0; i < this.attributeCount; i++) {
+			this.entries.put(RedisSessionMapper.ATTRIBUTE_PREFIX + "attribute" + i, "value" + i);
+		}
+	}
+
+	@Benchmark
+	public MapSession apply() {
+		return this.mapper.apply(this.sessionId, this.entries);
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.jdbc;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository.JdbcSession;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmarks for {@link JdbcIndexedSessionRepository} against an embedded H2 database,
+ * covering the mapping of the session query results and the save of a session.
+ *
+ * @author agent (agent@local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JdbcIndexedSessionRepositoryBenchmark {
+
+	@Param({ "1", "10", "50" })
+	int attributeCount;
+
+	@Param({ "false", "true" })
+	boolean selectiveAttributeFetch;
+
+	private EmbeddedDatabase database;
+
+	private JdbcIndexedSessionRepository repository;
+
+	private String sessionId;
+
+	@Setup
+	public void setup() {
+		this.database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+			.generateUniqueName(true)
+			.addScript("org/springframework/session/jdbc/schema-h2.sql")
+			.build();
+		this.repository = new JdbcIndexedSessionRepository(new JdbcTemplate(this.database),
+				new TransactionTemplate(new DataSourceTransactionManager(this.database)));
+		this.repository.setSelectiveAttributeFetch(this.selectiveAttributeFetch);
+		JdbcSession session = this.repository.createSession();
+		for (int i = 0; i < this.attributeCount; i++) {
+			session.setAttribute("attribute" + i, "value" + i);
+		}
+		this.repository.save(session);
+		this.sessionId = session.getId();
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.database.shutdown();
+	}
+
+	@Benchmark
+	public void findByIdAndGetAttribute(Blackhole blackhole) {
+		JdbcSession session = this.repository.findById(this.sessionId);
+		blackhole.consume(session.<String>getAttribute("attribute0"));
+	}
+
+	@Benchmark
+	public JdbcSession findByIdAndSave() {
+		JdbcSession session = this.repository.findById(this.sessionId);
+		session.setLastAccessedTime(Instant.now());
+		session.setAttribute("attribute0", "value0");
+		this.repository.save(session);
+		return session;
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.web.http;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.session.web.http.CookieSerializer.CookieValue;
+
+/**
+ * Benchmarks for {@link DefaultCookieSerializer}.
+ *
+ * @author agent (agent@local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DefaultCookieSerializerBenchmark {
+
+	private final DefaultCookieSerializer cookieSerializer = new DefaultCookieSerializer();
+
+	private final String sessionId = UUID.randomUUID().toString();
+
+	private MockHttpServletRequest request;
+
+	@Setup
+	public void setup() {
+		this.request = new MockHttpServletRequest();
+		this.request.setCookies(new Cookie("locale", "en"), new Cookie("theme", "dark"),
+				new Cookie("SESSION", Base64.getEncoder().encodeToString(this.sessionId.getBytes())),
+				new Cookie("tracking", UUID.randomUUID().toString()));
+	}
+
+	@Benchmark
+	public List<String> readCookieValues() {
+		return this.cookieSerializer.readCookieValues(this.request);
+	}
+
+	@Benchmark
+	public MockHttpServletResponse writeCookieValue() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.cookieSerializer.writeCookieValue(new CookieValue(this.request, response, this.sessionId));
+		return response;
+	}
+
+}
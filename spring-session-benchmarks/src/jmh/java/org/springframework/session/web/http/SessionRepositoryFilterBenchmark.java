@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.web.http;
+
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.Session;
+
+/**
+ * Benchmarks for the request cycle of {@link SessionRepositoryFilter}, from resolving the
+ * session of the request to committing it once the response is written.
+ *
+ * @author agent (agent@local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SessionRepositoryFilterBenchmark {
+
+	private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+	private final FilterChain readingChain = (request, response) -> ((HttpServletRequest) request).getSession()
+		.getAttribute("name");
+
+	private final FilterChain writingChain = (request, response) -> ((HttpServletRequest) request).getSession()
+		.setAttribute("name", "value");
+
+	private SessionRepositoryFilter<MapSession> filter;
+
+	private Cookie sessionCookie;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		this.sessions.clear();
+		MapSessionRepository sessionRepository = new MapSessionRepository(this.sessions);
+		this.filter = new SessionRepositoryFilter<>(sessionRepository);
+		MapSession session = sessionRepository.createSession();
+		session.setAttribute("name", "value");
+		sessionRepository.save(session);
+		this.sessionCookie = new Cookie("SESSION", Base64.getEncoder().encodeToString(session.getId().getBytes()));
+	}
+
+	@Benchmark
+	public MockHttpServletResponse newSession() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, this.writingChain);
+		return response;
+	}
+
+	@Benchmark
+	public MockHttpServletResponse existingSessionRead() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(this.sessionCookie);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, this.readingChain);
+		return response;
+	}
+
+	@Benchmark
+	public MockHttpServletResponse existingSessionWrite() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(this.sessionCookie);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, this.writingChain);
+		return response;
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.web.server.session;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.session.MapSession;
+import org.springframework.session.ReactiveMapSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.web.server.WebSession;
+
+/**
+ * Benchmarks for {@link SpringSessionWebSessionStore}.
+ *
+ * @author agent (agent@local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpringSessionWebSessionStoreBenchmark {
+
+	private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+	private SpringSessionWebSessionStore<MapSession> sessionStore;
+
+	private String sessionId;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		this.sessions.clear();
+		this.sessionStore = new SpringSessionWebSessionStore<>(new ReactiveMapSessionRepository(this.sessions));
+		WebSession session = this.sessionStore.createWebSession().block();
+		session.getAttributes().put("name", "value");
+		session.save().block();
+		this.sessionId = session.getId();
+	}
+
+	@Benchmark
+	public WebSession createAndSave() {
+		WebSession session = this.sessionStore.createWebSession().block();
+		session.getAttributes().put("name", "value");
+		session.save().block();
+		return session;
+	}
+
+	@Benchmark
+	public WebSession retrieveAndSave() {
+		WebSession session = this.sessionStore.retrieveSession(this.sessionId)
+			.flatMap(this.sessionStore::updateLastAccessTime)
+			.block();
+		session.getAttributes().put("name", "value");
+		session.save().block();
+		return session;
+	}
+
+}
@@ -0,0 +1,466 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.session.events.SessionDeletedEvent;
+import org.springframework.session.events.SessionExpiredEvent;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link SessionRepository} that keeps {@link MapSession} instances in memory, like
+ * {@link MapSessionRepository}, but bounds the memory they use. It is meant for single
+ * node applications that must not run out of memory when many sessions are created, for
+ * instance by crawlers that do not send back the session cookie.
+ * <p>
+ * Stored sessions are indexed by their expiration time, so that expired sessions are
+ * removed by a periodic cleanup, see {@link #setCleanupInterval(Duration)}, at a cost
+ * proportional to the number of expired sessions rather than to the number of stored
+ * sessions. Expired sessions are also removed when they are looked up and before any
+ * session is evicted.
+ * <p>
+ * The number of stored sessions is bounded by {@link #setMaximumSessions(int)}.
+ * Optionally, the total weight of the stored sessions, for example their estimated size
+ * in bytes, can be bounded using {@link #setMaximumWeight(long)} and
+ * {@link #setWeigher(ToLongFunction)}. When a bound is exceeded, sessions are evicted
+ * according to the configured {@link EvictionPolicy}. A session that alone weighs more
+ * than the maximum weight is evicted as soon as it is saved, without evicting any other
+ * session.
+ * <p>
+ * The implementation publishes a {@link SessionExpiredEvent} for each expired session and
+ * a {@link SessionDeletedEvent} for each session that is deleted or evicted, see
+ * {@link #setApplicationEventPublisher(ApplicationEventPublisher)}.
+ * <p>
+ * Sessions are looked up without acquiring any lock. Saving, deleting and removing
+ * sessions synchronize on the indexes used to select the sessions to expire and evict.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ * @see MapSessionRepository
+ */
+public class BoundedMapSessionRepository implements SessionRepository<MapSession>, InitializingBean, DisposableBean {
+
+	/**
+	 * The default maximum number of stored sessions.
+	 */
+	public static final int DEFAULT_MAXIMUM_SESSIONS = 10000;
+
+	/**
+	 * The default interval between two runs of the expired session cleanup.
+	 */
+	public static final Duration DEFAULT_CLEANUP_INTERVAL = Duration.ofSeconds(60);
+
+	private static final Log logger = LogFactory.getLog(BoundedMapSessionRepository.class);
+
+	private final Map<String, StoredSession> sessions = new ConcurrentHashMap<>();
+
+	private final Map<String, StoredSession> evictionQueue = new LinkedHashMap<>();
+
+	private final TreeSet<StoredSession> expirations = new TreeSet<>(
+			Comparator.comparingLong(StoredSession::getExpiryMillis).thenComparingLong(StoredSession::getSequence));
+
+	private long sequence;
+
+	private long totalWeight;
+
+	private Duration defaultMaxInactiveInterval = Duration.ofSeconds(MapSession.DEFAULT_MAX_INACTIVE_INTERVAL_SECONDS);
+
+	private int maximumSessions = DEFAULT_MAXIMUM_SESSIONS;
+
+	private long maximumWeight = Long.MAX_VALUE;
+
+	private ToLongFunction<? super MapSession> weigher = (session) -> 0;
+
+	private EvictionPolicy evictionPolicy = EvictionPolicy.LEAST_RECENTLY_USED;
+
+	private Duration cleanupInterval = DEFAULT_CLEANUP_INTERVAL;
+
+	private ApplicationEventPublisher eventPublisher = (event) -> {
+	};
+
+	private Clock clock = Clock.systemUTC();
+
+	private SessionIdGenerator sessionIdGenerator = UuidSessionIdGenerator.getInstance();
+
+	private @Nullable ThreadPoolTaskScheduler taskScheduler;
+
+	@Override
+	public void afterPropertiesSet() {
+		if (!this.cleanupInterval.isZero()) {
+			this.taskScheduler = createTaskScheduler();
+			this.taskScheduler.initialize();
+			this.taskScheduler.scheduleWithFixedDelay(this::cleanUpExpiredSessions, this.cleanupInterval);
+		}
+	}
+
+	private static ThreadPoolTaskScheduler createTaskScheduler() {
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.setThreadNamePrefix("spring-session-");
+		return taskScheduler;
+	}
+
+	@Override
+	public void destroy() {
+		if (this.taskScheduler != null) {
+			this.taskScheduler.destroy();
+		}
+	}
+
+	/**
+	 * Set the maximum inactive interval in seconds between requests before newly created
+	 * sessions will be invalidated. A negative time indicates that the session will never
+	 * time out. The default is 30 minutes.
+	 * @param defaultMaxInactiveInterval the default maxInactiveInterval
+	 */
+	public void setDefaultMaxInactiveInterval(Duration defaultMaxInactiveInterval) {
+		Assert.notNull(defaultMaxInactiveInterval, "defaultMaxInactiveInterval must not be null");
+		this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+	}
+
+	/**
+	 * Set the maximum number of stored sessions. Default is
+	 * {@link #DEFAULT_MAXIMUM_SESSIONS}.
+	 * @param maximumSessions the maximum number of stored sessions
+	 */
+	public void setMaximumSessions(int maximumSessions) {
+		Assert.isTrue(maximumSessions > 0, "maximumSessions must be greater than 0");
+		this.maximumSessions = maximumSessions;
+	}
+
+	/**
+	 * Set the maximum total weight of the stored sessions, as computed by the
+	 * {@link #setWeigher(ToLongFunction) weigher}. By default, the total weight is not
+	 * bounded. A session that weighs more than the maximum weight is not stored and a
+	 * {@link SessionDeletedEvent} is published for it when it is saved.
+	 * @param maximumWeight the maximum total weight of the stored sessions
+	 */
+	public void setMaximumWeight(long maximumWeight) {
+		Assert.isTrue(maximumWeight > 0, "maximumWeight must be greater than 0");
+		this.maximumWeight = maximumWeight;
+	}
+
+	/**
+	 * Set the function that computes the weight of a session, for example an estimate of
+	 * its size in bytes. The weight is computed each time a session is saved and must not
+	 * be negative. By default, all sessions weigh 0.
+	 * @param weigher the function that computes the weight of a session
+	 */
+	public void setWeigher(ToLongFunction<? super MapSession> weigher) {
+		Assert.notNull(weigher, "weigher must not be null");
+		this.weigher = weigher;
+	}
+
+	/**
+	 * Set the {@link EvictionPolicy} used to select the sessions to evict when the
+	 * maximum number of sessions or the maximum weight is exceeded. Default is
+	 * {@link EvictionPolicy#LEAST_RECENTLY_USED}.
+	 * @param evictionPolicy the eviction policy to use
+	 */
+	public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+		Assert.notNull(evictionPolicy, "evictionPolicy must not be null");
+		this.evictionPolicy = evictionPolicy;
+	}
+
+	/**
+	 * Set the interval between two runs of the expired session cleanup, which is
+	 * scheduled when the repository is initialized. A value of {@link Duration#ZERO}
+	 * disables the cleanup task. Default is {@link #DEFAULT_CLEANUP_INTERVAL}.
+	 * @param cleanupInterval the interval between two cleanup runs
+	 */
+	public void setCleanupInterval(Duration cleanupInterval) {
+		Assert.notNull(cleanupInterval, "cleanupInterval must not be null");
+		Assert.isTrue(!cleanupInterval.isNegative(), "cleanupInterval must not be negative");
+		this.cleanupInterval = cleanupInterval;
+	}
+
+	/**
+	 * Set the {@link ApplicationEventPublisher} that is used to publish
+	 * {@link SessionExpiredEvent} and {@link SessionDeletedEvent}. The default is to not
+	 * publish any event.
+	 * @param applicationEventPublisher the {@link ApplicationEventPublisher} to use
+	 */
+	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+		Assert.notNull(applicationEventPublisher, "applicationEventPublisher cannot be null");
+		this.eventPublisher = applicationEventPublisher;
+	}
+
+	/**
+	 * Set the {@link Clock} used to determine whether sessions are expired.
+	 * @param clock the clock to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Set the {@link SessionIdGenerator} to use to generate session ids.
+	 * @param sessionIdGenerator the {@link SessionIdGenerator} to use
+	 */
+	public void setSessionIdGenerator(SessionIdGenerator sessionIdGenerator) {
+		Assert.notNull(sessionIdGenerator, "sessionIdGenerator cannot be null");
+		this.sessionIdGenerator = sessionIdGenerator;
+	}
+
+	@Override
+	public MapSession createSession() {
+		MapSession result = new MapSession(this.sessionIdGenerator);
+		result.setMaxInactiveInterval(this.defaultMaxInactiveInterval);
+		return result;
+	}
+
+	@Override
+	public void save(MapSession session) {
+		MapSession saved = session.copyOnWrite();
+		saved.setSessionIdGenerator(this.sessionIdGenerator);
+		long weight = this.weigher.applyAsLong(saved);
+		Assert.state(weight >= 0, "weight must not be negative");
+		List<ApplicationEvent> events = new ArrayList<>();
+		synchronized (this.evictionQueue) {
+			if (!session.getId().equals(session.getOriginalId())) {
+				remove(session.getOriginalId());
+			}
+			remove(session.getId());
+			if (weight > this.maximumWeight) {
+				// evicting the other sessions would not make room for it
+				events.add(new SessionDeletedEvent(this, saved));
+			}
+			else {
+				StoredSession stored = new StoredSession(saved, getExpiryTime(saved), weight, this.sequence++);
+				this.sessions.put(saved.getId(), stored);
+				this.evictionQueue.put(saved.getId(), stored);
+				if (stored.expiryTime != null) {
+					this.expirations.add(stored);
+				}
+				this.totalWeight += weight;
+				if (isOverCapacity()) {
+					removeExpiredSessions(events);
+					evict(stored, events);
+				}
+			}
+		}
+		events.forEach(this::publishEvent);
+	}
+
+	@Override
+	public @Nullable MapSession findById(String id) {
+		StoredSession stored = this.sessions.get(id);
+		if (stored == null) {
+			return null;
+		}
+		if (!isExpired(stored, this.clock.instant())) {
+			stored.accessed = true;
+			MapSession result = stored.session.copyOnWrite();
+			result.setSessionIdGenerator(this.sessionIdGenerator);
+			return result;
+		}
+		synchronized (this.evictionQueue) {
+			if (this.sessions.get(id) != stored) {
+				// removed or saved again in the meantime
+				return null;
+			}
+			remove(id);
+		}
+		publishEvent(new SessionExpiredEvent(this, stored.session));
+		return null;
+	}
+
+	@Override
+	public void deleteById(String id) {
+		StoredSession removed;
+		synchronized (this.evictionQueue) {
+			removed = remove(id);
+		}
+		if (removed != null) {
+			publishEvent(new SessionDeletedEvent(this, removed.session));
+		}
+	}
+
+	/**
+	 * Remove all expired sessions and publish a {@link SessionExpiredEvent} for each of
+	 * them. Invoked periodically once the repository is initialized, unless the cleanup
+	 * interval is {@link Duration#ZERO}.
+	 */
+	public void cleanUpExpiredSessions() {
+		List<ApplicationEvent> events = new ArrayList<>();
+		synchronized (this.evictionQueue) {
+			removeExpiredSessions(events);
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Cleaned up " + events.size() + " expired sessions");
+		}
+		events.forEach(this::publishEvent);
+	}
+
+	/**
+	 * Return the number of stored sessions, including expired sessions that have not been
+	 * removed yet.
+	 * @return the number of stored sessions
+	 */
+	public int getSessionCount() {
+		return this.sessions.size();
+	}
+
+	private boolean isOverCapacity() {
+		return this.sessions.size() > this.maximumSessions || this.totalWeight > this.maximumWeight;
+	}
+
+	private void removeExpiredSessions(List<ApplicationEvent> events) {
+		Instant now = this.clock.instant();
+		Iterator<StoredSession> iterator = this.expirations.iterator();
+		while (iterator.hasNext()) {
+			StoredSession stored = iterator.next();
+			if (!isExpired(stored, now)) {
+				return;
+			}
+			iterator.remove();
+			this.sessions.remove(stored.session.getId());
+			this.evictionQueue.remove(stored.session.getId());
+			this.totalWeight -= stored.weight;
+			events.add(new SessionExpiredEvent(this, stored.session));
+		}
+	}
+
+	private void evict(StoredSession saved, List<ApplicationEvent> events) {
+		while (isOverCapacity()) {
+			StoredSession eldest = (this.evictionPolicy == EvictionPolicy.EARLIEST_EXPIRATION
+					&& !this.expirations.isEmpty()) ? this.expirations.first() : leastRecentlyUsed(saved);
+			remove(eldest.session.getId());
+			events.add(new SessionDeletedEvent(this, eldest.session));
+		}
+	}
+
+	private StoredSession leastRecentlyUsed(StoredSession saved) {
+		while (true) {
+			StoredSession eldest = this.evictionQueue.values().iterator().next();
+			if (eldest != saved && !eldest.accessed) {
+				return eldest;
+			}
+			// looked up since it was queued, or just saved, so give it another chance
+			eldest.accessed = false;
+			this.evictionQueue.remove(eldest.session.getId());
+			this.evictionQueue.put(eldest.session.getId(), eldest);
+		}
+	}
+
+	private @Nullable StoredSession remove(String id) {
+		StoredSession stored = this.sessions.remove(id);
+		if (stored != null) {
+			this.evictionQueue.remove(id);
+			if (stored.expiryTime != null) {
+				this.expirations.remove(stored);
+			}
+			this.totalWeight -= stored.weight;
+		}
+		return stored;
+	}
+
+	private static boolean isExpired(StoredSession stored, Instant now) {
+		return stored.expiryTime != null && !stored.expiryTime.isAfter(now);
+	}
+
+	private static @Nullable Instant getExpiryTime(MapSession session) {
+		Duration maxInactiveInterval = session.getMaxInactiveInterval();
+		if (maxInactiveInterval.isNegative()) {
+			return null;
+		}
+		return session.getLastAccessedTime().plus(maxInactiveInterval);
+	}
+
+	private void publishEvent(ApplicationEvent event) {
+		try {
+			this.eventPublisher.publishEvent(event);
+		}
+		catch (Throwable ex) {
+			logger.error("Error publishing " + event + ".", ex);
+		}
+	}
+
+	/**
+	 * The policy used to select the sessions to evict when a bound of a
+	 * {@link BoundedMapSessionRepository} is exceeded. Expired sessions are always
+	 * removed first.
+	 */
+	public enum EvictionPolicy {
+
+		/**
+		 * Evict the sessions that have been looked up or saved least recently. As
+		 * sessions are looked up without acquiring a lock, the order of the lookups is
+		 * approximated: a session that has been looked up since it was saved or last
+		 * considered for eviction is given a second chance.
+		 */
+		LEAST_RECENTLY_USED,
+
+		/**
+		 * Evict the sessions that would expire first. Sessions that never expire are only
+		 * evicted once no other session is left.
+		 */
+		EARLIEST_EXPIRATION
+
+	}
+
+	private static final class StoredSession {
+
+		private final MapSession session;
+
+		private final @Nullable Instant expiryTime;
+
+		private final long weight;
+
+		private final long sequence;
+
+		private volatile boolean accessed;
+
+		StoredSession(MapSession session, @Nullable Instant expiryTime, long weight, long sequence) {
+			this.session = session;
+			this.expiryTime = expiryTime;
+			this.weight = weight;
+			this.sequence = sequence;
+		}
+
+		long getExpiryMillis() {
+			return (this.expiryTime != null) ? this.expiryTime.toEpochMilli() : Long.MAX_VALUE;
+		}
+
+		long getSequence() {
+			return this.sequence;
+		}
+
+	}
+
+}
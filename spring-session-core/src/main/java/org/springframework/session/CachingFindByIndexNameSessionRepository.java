@@ -0,0 +1,50 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session;
+
+import java.util.Map;
+
+/**
+ * A {@link CachingSessionRepository} for a delegate
+ * {@link FindByIndexNameSessionRepository}. Lookups by index are always served by the
+ * delegate.
+ *
+ * @param <S> the {@link Session} type
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+public class CachingFindByIndexNameSessionRepository<S extends Session> extends CachingSessionRepository<S>
+		implements FindByIndexNameSessionRepository<S> {
+
+	private final FindByIndexNameSessionRepository<S> delegate;
+
+	/**
+	 * Create a new {@link CachingFindByIndexNameSessionRepository} instance.
+	 * @param delegate the {@link FindByIndexNameSessionRepository} to cache the sessions
+	 * of
+	 */
+	public CachingFindByIndexNameSessionRepository(FindByIndexNameSessionRepository<S> delegate) {
+		super(delegate);
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Map<String, S> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+		return this.delegate.findByIndexNameAndIndexValue(indexName, indexValue);
+	}
+
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link SessionRepository} that keeps recently saved sessions of a delegate
+ * {@link SessionRepository} in a bounded local cache, so that subsequent lookups of the
+ * same session, typically on an instance that receives all requests of a session due to
+ * sticky sessions, do not need to access the underlying store. Saves and deletes are
+ * always written through to the delegate.
+ * <p>
+ * A cached session is handed out to a single caller at a time: {@link #findById(String)}
+ * checks the session out of the cache and {@link #save(Session)} checks it back in.
+ * Concurrent lookups of a session that is checked out are served by the delegate, and a
+ * session is only put back into the cache if no other instance of it has been saved in
+ * the meantime. Hence, the session implementation of the delegate must support being
+ * saved multiple times, which is the case for all implementations provided by Spring
+ * Session.
+ * <p>
+ * Instances running on other nodes are notified of saved and deleted sessions using the
+ * optional {@link #setInvalidationChannel(SessionCacheInvalidationChannel) invalidation
+ * channel}. As notifications might get lost, cached sessions are also evicted once their
+ * {@link #setTimeToLive(Duration) time to live} has elapsed.
+ *
+ * @param <S> the {@link Session} type
+ * @author agent (agent@local)
+ * @since 4.2
+ * @see CachingFindByIndexNameSessionRepository
+ */
+public class CachingSessionRepository<S extends Session> implements SessionRepository<S> {
+
+	/**
+	 * The default maximum number of cached sessions.
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+	/**
+	 * The default time to live of cached sessions.
+	 */
+	public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(1);
+
+	private final SessionRepository<S> delegate;
+
+	private final Map<String, CachedSession<S>> cache = new LinkedHashMap<>(16, 0.75f, true) {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CachedSession<S>> eldest) {
+			if (size() <= CachingSessionRepository.this.maximumSize) {
+				return false;
+			}
+			CachingSessionRepository.this.checkedOut.remove(eldest.getValue().session);
+			return true;
+		}
+
+	};
+
+	private final Map<S, String> checkedOut = new IdentityHashMap<>();
+
+	private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+	private Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+	private @Nullable SessionCacheInvalidationChannel invalidationChannel;
+
+	/**
+	 * Create a new {@link CachingSessionRepository} instance.
+	 * @param delegate the {@link SessionRepository} to cache the sessions of
+	 */
+	public CachingSessionRepository(SessionRepository<S> delegate) {
+		Assert.notNull(delegate, "delegate must not be null");
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Set the maximum number of cached sessions. When exceeded, the least recently used
+	 * session is evicted. Default is {@link #DEFAULT_MAXIMUM_SIZE}.
+	 * @param maximumSize the maximum number of cached sessions
+	 */
+	public void setMaximumSize(int maximumSize) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Set the time a session is served from the cache after it has last been saved.
+	 * Default is {@link #DEFAULT_TIME_TO_LIVE}.
+	 * @param timeToLive the time to live of cached sessions
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+		Assert.notNull(timeToLive, "timeToLive must not be null");
+		Assert.isTrue(!timeToLive.isNegative(), "timeToLive must not be negative");
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Set the {@link SessionCacheInvalidationChannel} used to notify other instances of
+	 * saved and deleted sessions, and to be notified of the sessions they saved or
+	 * deleted.
+	 * @param invalidationChannel the invalidation channel
+	 */
+	public void setInvalidationChannel(SessionCacheInvalidationChannel invalidationChannel) {
+		Assert.notNull(invalidationChannel, "invalidationChannel must not be null");
+		invalidationChannel.subscribe(this::evict);
+		this.invalidationChannel = invalidationChannel;
+	}
+
+	/**
+	 * Return the {@link SessionRepository} whose sessions are cached.
+	 * @return the delegate
+	 */
+	public SessionRepository<S> getDelegate() {
+		return this.delegate;
+	}
+
+	@Override
+	public S createSession() {
+		S session = this.delegate.createSession();
+		synchronized (this.cache) {
+			checkOut(session.getId(), session);
+		}
+		return session;
+	}
+
+	@Override
+	public void save(S session) {
+		@Nullable String originalId;
+		synchronized (this.cache) {
+			originalId = this.checkedOut.get(session);
+		}
+		this.delegate.save(session);
+		String id = session.getId();
+		synchronized (this.cache) {
+			CachedSession<S> cached = (originalId != null) ? this.cache.get(originalId) : null;
+			if (originalId != null && cached != null && cached.session == session) {
+				evictInternal(originalId);
+				evictInternal(id);
+				this.cache.put(id, new CachedSession<>(session, Instant.now()));
+			}
+			else {
+				// another instance of the session has been saved or the session has been
+				// evicted while it was checked out, so the cached state is stale
+				evictInternal(id);
+			}
+		}
+		publish(id);
+		if (originalId != null && !originalId.equals(id)) {
+			publish(originalId);
+		}
+	}
+
+	@Override
+	public @Nullable S findById(String id) {
+		synchronized (this.cache) {
+			CachedSession<S> cached = this.cache.get(id);
+			if (cached != null && !this.checkedOut.containsKey(cached.session)) {
+				if (!isExpired(cached)) {
+					checkOut(id, cached.session);
+					return cached.session;
+				}
+				evictInternal(id);
+			}
+		}
+		S session = this.delegate.findById(id);
+		if (session != null) {
+			synchronized (this.cache) {
+				if (!this.cache.containsKey(id)) {
+					checkOut(id, session);
+				}
+			}
+		}
+		return session;
+	}
+
+	@Override
+	public void deleteById(String id) {
+		evict(id);
+		this.delegate.deleteById(id);
+		publish(id);
+	}
+
+	/**
+	 * Evict the session with the given id from the cache.
+	 * @param id the id of the session to evict
+	 */
+	public void evict(String id) {
+		synchronized (this.cache) {
+			evictInternal(id);
+		}
+	}
+
+	private void checkOut(String id, S session) {
+		this.cache.put(id, new CachedSession<>(session, null));
+		this.checkedOut.put(session, id);
+	}
+
+	private void evictInternal(String id) {
+		CachedSession<S> cached = this.cache.remove(id);
+		if (cached != null) {
+			this.checkedOut.remove(cached.session);
+		}
+	}
+
+	private boolean isExpired(CachedSession<S> cached) {
+		return cached.savedAt == null || cached.session.isExpired()
+				|| cached.savedAt.plus(this.timeToLive).isBefore(Instant.now());
+	}
+
+	private void publish(String id) {
+		if (this.invalidationChannel != null) {
+			this.invalidationChannel.publish(id);
+		}
+	}
+
+	private static final class CachedSession<S> {
+
+		private final S session;
+
+		private final @Nullable Instant savedAt;
+
+		CachedSession(S session, @Nullable Instant savedAt) {
+			this.session = session;
+			this.savedAt = savedAt;
+		}
+
+	}
+
+}
@@ -67,6 +67,12 @@ public final class MapSession implements Session, Serializable {
 
 	private Map<String, Object> sessionAttrs = new HashMap<>();
 
+	/**
+	 * Whether {@link #sessionAttrs} is shared with another {@link MapSession} and must be
+	 * copied before being modified.
+	 */
+	private transient boolean attributesShared;
+
 	private Instant creationTime = Instant.now();
 
 	private Instant lastAccessedTime = this.creationTime;
@@ -130,6 +136,24 @@ public final class MapSession implements Session, Serializable {
 		this.maxInactiveInterval = session.getMaxInactiveInterval();
 	}
 
+	/**
+	 * Create a copy of this session that shares the attributes of this session instead of
+	 * copying them. The attributes are only copied by whichever of the two sessions
+	 * modifies them first, so both sessions remain isolated from each other. Must only be
+	 * invoked by the thread that uses this session, or if this session is never modified.
+	 * @return a copy of this session
+	 */
+	MapSession copyOnWrite() {
+		MapSession copy = new MapSession(this.id);
+		copy.sessionAttrs = this.sessionAttrs;
+		copy.attributesShared = true;
+		copy.lastAccessedTime = this.lastAccessedTime;
+		copy.creationTime = this.creationTime;
+		copy.maxInactiveInterval = this.maxInactiveInterval;
+		this.attributesShared = true;
+		return copy;
+	}
+
 	@Override
 	public void setLastAccessedTime(Instant lastAccessedTime) {
 		this.lastAccessedTime = lastAccessedTime;
@@ -205,13 +229,23 @@ public final class MapSession implements Session, Serializable {
 			removeAttribute(attributeName);
 		}
 		else {
-			this.sessionAttrs.put(attributeName, attributeValue);
+			getWritableAttributes().put(attributeName, attributeValue);
 		}
 	}
 
 	@Override
 	public void removeAttribute(String attributeName) {
-		this.sessionAttrs.remove(attributeName);
+		if (this.sessionAttrs.containsKey(attributeName)) {
+			getWritableAttributes().remove(attributeName);
+		}
+	}
+
+	private Map<String, Object> getWritableAttributes() {
+		if (this.attributesShared) {
+			this.sessionAttrs = new HashMap<>(this.sessionAttrs);
+			this.attributesShared = false;
+		}
+		return this.sessionAttrs;
 	}
 
 	/**
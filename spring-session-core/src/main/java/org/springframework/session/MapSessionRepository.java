@@ -29,7 +29,9 @@ import org.springframework.util.Assert;
  * A {@link SessionRepository} backed by a {@link java.util.Map} and that uses a
  * {@link MapSession}. The injected {@link java.util.Map} can be backed by a distributed
  * NoSQL store like Hazelcast, for instance. Note that the supplied map itself is
- * responsible for purging the expired sessions.
+ * responsible for purging the expired sessions. For an in-memory store that purges
+ * expired sessions and bounds the number of stored sessions, see
+ * {@link BoundedMapSessionRepository}.
  *
  * <p>
  * The implementation does NOT support firing {@link SessionDeletedEvent} or
@@ -75,7 +77,7 @@ public class MapSessionRepository implements SessionRepository<MapSession> {
 		if (!session.getId().equals(session.getOriginalId())) {
 			this.sessions.remove(session.getOriginalId());
 		}
-		MapSession saved = new MapSession(session);
+		MapSession saved = session.copyOnWrite();
 		saved.setSessionIdGenerator(this.sessionIdGenerator);
 		this.sessions.put(session.getId(), saved);
 	}
@@ -90,7 +92,7 @@ public class MapSessionRepository implements SessionRepository<MapSession> {
 			deleteById(saved.getId());
 			return null;
 		}
-		MapSession result = new MapSession(saved);
+		MapSession result = (saved instanceof MapSession mapSession) ? mapSession.copyOnWrite() : new MapSession(saved);
 		result.setSessionIdGenerator(this.sessionIdGenerator);
 		return result;
 	}
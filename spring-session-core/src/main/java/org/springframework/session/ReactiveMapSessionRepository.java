@@ -78,7 +78,7 @@ public class ReactiveMapSessionRepository implements ReactiveSessionRepository<M
 			if (!session.getId().equals(session.getOriginalId())) {
 				this.sessions.remove(session.getOriginalId());
 			}
-			this.sessions.put(session.getId(), new MapSession(session));
+			this.sessions.put(session.getId(), session.copyOnWrite());
 		});
 	}
 
@@ -87,7 +87,7 @@ public class ReactiveMapSessionRepository implements ReactiveSessionRepository<M
 		// @formatter:off
 		return Mono.defer(() -> Mono.justOrEmpty(this.sessions.get(id))
 				.filter((session) -> !session.isExpired())
-				.map(MapSession::new)
+				.map((session) -> (session instanceof MapSession mapSession) ? mapSession.copyOnWrite() : new MapSession(session))
 				.doOnNext((session) -> session.setSessionIdGenerator(this.sessionIdGenerator))
 				.switchIfEmpty(deleteById(id).then(Mono.empty())));
 		// @formatter:on
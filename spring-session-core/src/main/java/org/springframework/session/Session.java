@@ -55,6 +55,22 @@ public interface Session {
 	 */
 	<T> @Nullable T getAttribute(String attributeName);
 
+	/**
+	 * Gets the Object associated with the specified name without any side effect on the
+	 * session, such as marking the attribute as changed when using
+	 * {@link SaveMode#ON_GET_ATTRIBUTE}. This is intended for infrastructure that needs
+	 * to inspect the current value of an attribute it is about to replace or remove. The
+	 * default implementation delegates to {@link #getAttribute(String)}.
+	 * @param <T> the return type of the attribute
+	 * @param attributeName the name of the attribute to get
+	 * @return the Object associated with the specified name or null if no Object is
+	 * associated to that name
+	 * @since 4.2
+	 */
+	default <T> @Nullable T peekAttribute(String attributeName) {
+		return getAttribute(attributeName);
+	}
+
 	/**
 	 * Return the session attribute value or if not present raise an
 	 * {@link IllegalArgumentException}.
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session;
+
+import java.util.function.Consumer;
+
+/**
+ * A channel used by {@link CachingSessionRepository} instances to notify each other that
+ * a {@link Session} has changed and must be evicted from their local caches.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ * @see CachingSessionRepository#setInvalidationChannel(SessionCacheInvalidationChannel)
+ */
+public interface SessionCacheInvalidationChannel {
+
+	/**
+	 * Notify the other subscribers of this channel that the {@link Session} with the
+	 * given id has been saved or deleted. Implementations are not expected to notify the
+	 * subscribers of the instance that published the notification.
+	 * @param sessionId the id of the session that changed
+	 */
+	void publish(String sessionId);
+
+	/**
+	 * Register a listener that is invoked with the id of each {@link Session} that is
+	 * published on this channel by another instance.
+	 * @param listener the listener to register
+	 */
+	void subscribe(Consumer<String> listener);
+
+}
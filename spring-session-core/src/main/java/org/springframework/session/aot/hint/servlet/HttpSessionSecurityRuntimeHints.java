@@ -50,6 +50,8 @@ class HttpSessionSecurityRuntimeHints implements RuntimeHintsRegistrar {
 					TypeReference.of(WebAuthenticationDetails.class), TypeReference.of(SavedCookie.class),
 					TypeReference.of("java.lang.String$CaseInsensitiveComparator"))
 			.forEach(hints.serialization()::registerType);
+		hints.reflection()
+			.registerType(DefaultSavedRequest.class, (hint) -> hint.withField("matchingRequestParameterName"));
 	}
 
 }
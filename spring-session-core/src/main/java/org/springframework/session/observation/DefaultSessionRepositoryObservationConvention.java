@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.observation;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+
+import org.springframework.session.observation.SessionRepositoryObservationDocumentation.HighCardinalityKeyNames;
+import org.springframework.session.observation.SessionRepositoryObservationDocumentation.LowCardinalityKeyNames;
+
+/**
+ * Default {@link SessionRepositoryObservationConvention} implementation.
+ * <p>
+ * Observations are named {@value #DEFAULT_NAME} and are tagged with the session store,
+ * the operation and its outcome. The number of attributes, changed entries and sessions
+ * involved are only added as high cardinality key values, when known.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+public class DefaultSessionRepositoryObservationConvention implements SessionRepositoryObservationConvention {
+
+	/**
+	 * The default name of the session repository observations.
+	 */
+	public static final String DEFAULT_NAME = "spring.session.repository.operations";
+
+	/**
+	 * A shared instance of {@link DefaultSessionRepositoryObservationConvention}.
+	 */
+	public static final DefaultSessionRepositoryObservationConvention INSTANCE = new DefaultSessionRepositoryObservationConvention();
+
+	private static final KeyValue OUTCOME_SUCCESS = KeyValue.of(LowCardinalityKeyNames.OUTCOME, "SUCCESS");
+
+	private static final KeyValue OUTCOME_ERROR = KeyValue.of(LowCardinalityKeyNames.OUTCOME, "ERROR");
+
+	private final String name;
+
+	/**
+	 * Create a convention with the default name {@value #DEFAULT_NAME}.
+	 */
+	public DefaultSessionRepositoryObservationConvention() {
+		this(DEFAULT_NAME);
+	}
+
+	/**
+	 * Create a convention with a custom name.
+	 * @param name the observation name
+	 */
+	public DefaultSessionRepositoryObservationConvention(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public String getContextualName(SessionRepositoryObservationContext context) {
+		return "session " + context.getOperation().getValue();
+	}
+
+	@Override
+	public KeyValues getLowCardinalityKeyValues(SessionRepositoryObservationContext context) {
+		return KeyValues.of(KeyValue.of(LowCardinalityKeyNames.BACKEND, context.getBackend()),
+				KeyValue.of(LowCardinalityKeyNames.OPERATION, context.getOperation().getValue()),
+				(context.getError() != null) ? OUTCOME_ERROR : OUTCOME_SUCCESS);
+	}
+
+	@Override
+	public KeyValues getHighCardinalityKeyValues(SessionRepositoryObservationContext context) {
+		KeyValues keyValues = KeyValues.empty();
+		if (context.getAttributeCount() >= 0) {
+			keyValues = keyValues
+				.and(KeyValue.of(HighCardinalityKeyNames.ATTRIBUTE_COUNT, String.valueOf(context.getAttributeCount())));
+		}
+		if (context.getDeltaSize() >= 0) {
+			keyValues = keyValues
+				.and(KeyValue.of(HighCardinalityKeyNames.DELTA_SIZE, String.valueOf(context.getDeltaSize())));
+		}
+		if (context.getResultCount() >= 0) {
+			keyValues = keyValues
+				.and(KeyValue.of(HighCardinalityKeyNames.RESULT_COUNT, String.valueOf(context.getResultCount())));
+		}
+		return keyValues;
+	}
+
+}
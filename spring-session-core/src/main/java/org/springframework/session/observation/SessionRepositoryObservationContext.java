@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.observation;
+
+import io.micrometer.observation.Observation;
+
+import org.springframework.util.Assert;
+
+/**
+ * Context that holds information for the observation of a session repository operation.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ * @see SessionRepositoryObservationDocumentation
+ */
+public class SessionRepositoryObservationContext extends Observation.Context {
+
+	private final String backend;
+
+	private final Operation operation;
+
+	private int attributeCount = -1;
+
+	private int deltaSize = -1;
+
+	private int resultCount = -1;
+
+	/**
+	 * Create a new {@link SessionRepositoryObservationContext} instance.
+	 * @param backend the name of the session store, for example {@code jdbc} or
+	 * {@code redis}
+	 * @param operation the observed operation
+	 */
+	public SessionRepositoryObservationContext(String backend, Operation operation) {
+		Assert.hasText(backend, "backend must not be empty");
+		Assert.notNull(operation, "operation must not be null");
+		this.backend = backend;
+		this.operation = operation;
+	}
+
+	/**
+	 * Return the name of the session store.
+	 * @return the name of the session store
+	 */
+	public String getBackend() {
+		return this.backend;
+	}
+
+	/**
+	 * Return the observed operation.
+	 * @return the observed operation
+	 */
+	public Operation getOperation() {
+		return this.operation;
+	}
+
+	/**
+	 * Return the number of attributes held by the session that was retrieved or saved, or
+	 * {@code -1} if unknown.
+	 * @return the number of attributes
+	 */
+	public int getAttributeCount() {
+		return this.attributeCount;
+	}
+
+	/**
+	 * Set the number of attributes held by the session that was retrieved or saved.
+	 * @param attributeCount the number of attributes
+	 */
+	public void setAttributeCount(int attributeCount) {
+		this.attributeCount = attributeCount;
+	}
+
+	/**
+	 * Return the number of changed entries written by a save operation, or {@code -1} if
+	 * unknown. Depending on the session store, session metadata such as the last access
+	 * time may be counted as well as attributes.
+	 * @return the number of changed entries
+	 */
+	public int getDeltaSize() {
+		return this.deltaSize;
+	}
+
+	/**
+	 * Set the number of changed entries written by a save operation.
+	 * @param deltaSize the number of changed entries
+	 */
+	public void setDeltaSize(int deltaSize) {
+		this.deltaSize = deltaSize;
+	}
+
+	/**
+	 * Return the number of sessions found by an index lookup or removed by a cleanup run,
+	 * or {@code -1} if unknown.
+	 * @return the number of sessions
+	 */
+	public int getResultCount() {
+		return this.resultCount;
+	}
+
+	/**
+	 * Set the number of sessions found by an index lookup or removed by a cleanup run.
+	 * @param resultCount the number of sessions
+	 */
+	public void setResultCount(int resultCount) {
+		this.resultCount = resultCount;
+	}
+
+	/**
+	 * The session repository operations that are observed.
+	 */
+	public enum Operation {
+
+		/**
+		 * Retrieval of a session by its id.
+		 */
+		FIND_BY_ID("find_by_id"),
+
+		/**
+		 * Saving of a session.
+		 */
+		SAVE("save"),
+
+		/**
+		 * Deletion of a session by its id.
+		 */
+		DELETE_BY_ID("delete_by_id"),
+
+		/**
+		 * Retrieval of sessions by index name and value.
+		 */
+		FIND_BY_INDEX_NAME_AND_INDEX_VALUE("find_by_index_name_and_index_value"),
+
+		/**
+		 * A run of the expired session cleanup.
+		 */
+		CLEANUP("cleanup");
+
+		private final String value;
+
+		Operation(String value) {
+			this.value = value;
+		}
+
+		/**
+		 * Return the value used to tag observations of this operation.
+		 * @return the tag value
+		 */
+		public String getValue() {
+			return this.value;
+		}
+
+	}
+
+}
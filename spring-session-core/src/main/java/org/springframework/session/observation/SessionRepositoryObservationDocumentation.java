@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.observation;
+
+import io.micrometer.common.docs.KeyName;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationConvention;
+import io.micrometer.observation.docs.ObservationDocumentation;
+
+/**
+ * Documented {@link io.micrometer.common.KeyValue KeyValues} for the observations of
+ * session repository operations.
+ * <p>
+ * This class is used by automated tools to document KeyValues attached to the session
+ * repository observations.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+public enum SessionRepositoryObservationDocumentation implements ObservationDocumentation {
+
+	/**
+	 * Operation performed by a session repository.
+	 */
+	SESSION_REPOSITORY_OPERATION {
+		@Override
+		public Class<? extends ObservationConvention<? extends Observation.Context>> getDefaultConvention() {
+			return DefaultSessionRepositoryObservationConvention.class;
+		}
+
+		@Override
+		public KeyName[] getLowCardinalityKeyNames() {
+			return LowCardinalityKeyNames.values();
+		}
+
+		@Override
+		public KeyName[] getHighCardinalityKeyNames() {
+			return HighCardinalityKeyNames.values();
+		}
+
+	};
+
+	public enum LowCardinalityKeyNames implements KeyName {
+
+		/**
+		 * Name of the session store, for example {@code jdbc} or {@code redis}.
+		 */
+		BACKEND {
+			@Override
+			public String asString() {
+				return "spring.session.backend";
+			}
+
+		},
+
+		/**
+		 * Name of the session repository operation.
+		 */
+		OPERATION {
+			@Override
+			public String asString() {
+				return "spring.session.operation";
+			}
+
+		},
+
+		/**
+		 * Outcome of the session repository operation, either {@code SUCCESS} or
+		 * {@code ERROR}.
+		 */
+		OUTCOME {
+			@Override
+			public String asString() {
+				return "outcome";
+			}
+
+		}
+
+	}
+
+	public enum HighCardinalityKeyNames implements KeyName {
+
+		/**
+		 * Number of attributes held by the session that was retrieved or saved.
+		 */
+		ATTRIBUTE_COUNT {
+			@Override
+			public String asString() {
+				return "spring.session.attribute.count";
+			}
+
+		},
+
+		/**
+		 * Number of changed entries written by a save operation.
+		 */
+		DELTA_SIZE {
+			@Override
+			public String asString() {
+				return "spring.session.delta.size";
+			}
+
+		},
+
+		/**
+		 * Number of sessions found by an index lookup or removed by a cleanup run.
+		 */
+		RESULT_COUNT {
+			@Override
+			public String asString() {
+				return "spring.session.result.count";
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * A {@link SessionAttributeSerializer} that writes values of registered types in a
+ * compact binary format, and delegates to another {@link SessionAttributeSerializer}, by
+ * default {@link JdkSessionAttributeSerializer}, for any other type.
+ * <p>
+ * Each registered type is identified by a single byte type id and written by a
+ * {@link SessionAttributeCodec}, without the class descriptors Java serialization
+ * includes. Types are matched exactly, so subclasses of a registered type are handed to
+ * the delegate. Values of registered types are prefixed with a format marker byte, values
+ * written by the delegate are stored as is, so that values stored before this serializer
+ * was configured are still read. This relies on the delegate output not starting with the
+ * marker byte {@code 0x01}, which holds for Java serialization and JSON.
+ * <p>
+ * Codecs for {@code String}, {@code Boolean}, {@code Integer}, {@code Long} and
+ * {@code Instant} are always registered. Codecs for the Spring Security types typically
+ * stored in the session, such as {@code SecurityContextImpl},
+ * {@code UsernamePasswordAuthenticationToken}, {@code DefaultSavedRequest} and
+ * {@code DefaultCsrfToken}, are registered when Spring Security is present. Applications
+ * can register codecs for their own types using type ids from
+ * {@link #MIN_APPLICATION_TYPE_ID} to {@link #MAX_TYPE_ID}. A type id must not be
+ * reassigned to another type once values have been stored with it.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+public class BinarySessionAttributeSerializer implements SessionAttributeSerializer {
+
+	/**
+	 * The lowest type id available to application types.
+	 */
+	public static final int MIN_APPLICATION_TYPE_ID = 64;
+
+	/**
+	 * The highest type id.
+	 */
+	public static final int MAX_TYPE_ID = 255;
+
+	private static final byte FORMAT = 1;
+
+	private static final int NULL_TYPE_ID = 0;
+
+	private static final int DELEGATE_TYPE_ID = 1;
+
+	private static final String SECURITY_CONTEXT_CLASS = "org.springframework.security.core.context.SecurityContextImpl";
+
+	private static final String SAVED_REQUEST_CLASS = "org.springframework.security.web.savedrequest.DefaultSavedRequest";
+
+	private static final String COOKIE_CLASS = "jakarta.servlet.http.Cookie";
+
+	private final SessionAttributeSerializer delegate;
+
+	private final Map<Class<?>, Registration<?>> registrationsByType = new ConcurrentHashMap<>();
+
+	private final Map<Integer, Registration<?>> registrationsById = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a new {@link BinarySessionAttributeSerializer} instance that delegates to a
+	 * {@link JdkSessionAttributeSerializer} for unregistered types.
+	 */
+	public BinarySessionAttributeSerializer() {
+		this(new JdkSessionAttributeSerializer());
+	}
+
+	/**
+	 * Create a new {@link BinarySessionAttributeSerializer} instance.
+	 * @param delegate the serializer to use for unregistered types
+	 */
+	public BinarySessionAttributeSerializer(SessionAttributeSerializer delegate) {
+		Assert.notNull(delegate, "delegate must not be null");
+		this.delegate = delegate;
+		registerCodec(2, String.class, SessionAttributeCodec.of((value, output) -> output.writeString(value),
+				(input) -> nonNull(input.readString())));
+		registerCodec(3, Boolean.class,
+				SessionAttributeCodec.of((value, output) -> output.writeBoolean(value), Input::readBoolean));
+		registerCodec(4, Integer.class,
+				SessionAttributeCodec.of((value, output) -> output.writeInt(value), Input::readInt));
+		registerCodec(5, Long.class,
+				SessionAttributeCodec.of((value, output) -> output.writeLong(value), Input::readLong));
+		registerCodec(6, Instant.class, SessionAttributeCodec.of((value, output) -> {
+			output.writeLong(value.getEpochSecond());
+			output.writeInt(value.getNano());
+		}, (input) -> Instant.ofEpochSecond(input.readLong(), input.readInt())));
+		ClassLoader classLoader = getClass().getClassLoader();
+		if (ClassUtils.isPresent(SECURITY_CONTEXT_CLASS, classLoader)) {
+			SecuritySessionAttributeCodecs.registerWith(this);
+			if (ClassUtils.isPresent(SAVED_REQUEST_CLASS, classLoader)
+					&& ClassUtils.isPresent(COOKIE_CLASS, classLoader)) {
+				WebSecuritySessionAttributeCodecs.registerWith(this);
+			}
+		}
+	}
+
+	/**
+	 * Register a codec for the given application type.
+	 * @param <T> the type of the values
+	 * @param typeId the type id to write the values with, from
+	 * {@link #MIN_APPLICATION_TYPE_ID} to {@link #MAX_TYPE_ID}
+	 * @param type the type of the values
+	 * @param codec the codec to write and read the values with
+	 */
+	public <T> void register(int typeId, Class<T> type, SessionAttributeCodec<T> codec) {
+		Assert.isTrue(typeId >= MIN_APPLICATION_TYPE_ID && typeId <= MAX_TYPE_ID,
+				() -> "typeId must be between " + MIN_APPLICATION_TYPE_ID + " and " + MAX_TYPE_ID);
+		registerCodec(typeId, type, codec);
+	}
+
+	<T> void registerCodec(int typeId, Class<T> type, SessionAttributeCodec<T> codec) {
+		Assert.notNull(type, "type must not be null");
+		Assert.notNull(codec, "codec must not be null");
+		Assert.isTrue(!this.registrationsById.containsKey(typeId), () -> "typeId " + typeId + " is already registered");
+		Assert.isTrue(!this.registrationsByType.containsKey(type),
+				() -> "type " + type.getName() + " is already registered");
+		Registration<T> registration = new Registration<>(typeId, type, codec);
+		this.registrationsById.put(typeId, registration);
+		this.registrationsByType.put(type, registration);
+	}
+
+	/**
+	 * Return whether values of the given type are written by a registered codec rather
+	 * than by the delegate.
+	 * @param type the type to check
+	 * @return {@code true} if a codec is registered for the type
+	 */
+	public boolean isRegistered(Class<?> type) {
+		return this.registrationsByType.containsKey(type);
+	}
+
+	@Override
+	public byte[] serialize(Object value) {
+		Assert.notNull(value, "value must not be null");
+		if (!isRegistered(value.getClass())) {
+			return this.delegate.serialize(value);
+		}
+		Output output = new Output();
+		output.buffer.write(FORMAT);
+		output.writeValue(value);
+		return output.buffer.toByteArray();
+	}
+
+	@Override
+	public @Nullable Object deserialize(byte[] bytes) {
+		Assert.notNull(bytes, "bytes must not be null");
+		if (bytes.length == 0 || bytes[0] != FORMAT) {
+			return this.delegate.deserialize(bytes);
+		}
+		Input input = new Input(ByteBuffer.wrap(bytes, 1, bytes.length - 1));
+		try {
+			Object value = input.readValue();
+			Assert.state(!input.buffer.hasRemaining(), "Cannot deserialize, unexpected trailing bytes");
+			return value;
+		}
+		catch (BufferUnderflowException ex) {
+			throw new IllegalStateException("Cannot deserialize, unexpected end of input", ex);
+		}
+	}
+
+	private static <T> T nonNull(@Nullable T value) {
+		Assert.state(value != null, "Unexpected null value");
+		return value;
+	}
+
+	/**
+	 * The output a {@link SessionAttributeCodec} writes a value to.
+	 */
+	public final class Output {
+
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+
+		private Output() {
+		}
+
+		/**
+		 * Write a {@code boolean}.
+		 * @param value the value to write
+		 */
+		public void writeBoolean(boolean value) {
+			this.buffer.write(value ? 1 : 0);
+		}
+
+		/**
+		 * Write an {@code int}.
+		 * @param value the value to write
+		 */
+		public void writeInt(int value) {
+			for (int shift = 24; shift >= 0; shift -= 8) {
+				this.buffer.write(value >>> shift);
+			}
+		}
+
+		/**
+		 * Write a {@code long}.
+		 * @param value the value to write
+		 */
+		public void writeLong(long value) {
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				this.buffer.write((int) (value >>> shift));
+			}
+		}
+
+		/**
+		 * Write the size of a collection, map or array, using a variable length encoding.
+		 * @param size the size to write
+		 */
+		public void writeSize(int size) {
+			Assert.isTrue(size >= 0, "size must not be negative");
+			int remaining = size;
+			while ((remaining & ~0x7F) != 0) {
+				this.buffer.write((remaining & 0x7F) | 0x80);
+				remaining >>>= 7;
+			}
+			this.buffer.write(remaining);
+		}
+
+		/**
+		 * Write a {@link String}, which may be {@code null}, using UTF-8.
+		 * @param value the value to write
+		 */
+		public void writeString(@Nullable String value) {
+			if (value == null) {
+				writeSize(0);
+				return;
+			}
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeSize(bytes.length + 1);
+			this.buffer.writeBytes(bytes);
+		}
+
+		/**
+		 * Write a value of any type, which may be {@code null}. Values of registered
+		 * types are written by their codec, other values by the delegate serializer.
+		 * @param value the value to write
+		 */
+		public void writeValue(@Nullable Object value) {
+			if (value == null) {
+				this.buffer.write(NULL_TYPE_ID);
+				return;
+			}
+			Registration<?> registration = BinarySessionAttributeSerializer.this.registrationsByType
+				.get(value.getClass());
+			if (registration == null) {
+				byte[] bytes = BinarySessionAttributeSerializer.this.delegate.serialize(value);
+				this.buffer.write(DELEGATE_TYPE_ID);
+				writeSize(bytes.length);
+				this.buffer.writeBytes(bytes);
+				return;
+			}
+			this.buffer.write(registration.typeId);
+			registration.write(value, this);
+		}
+
+	}
+
+	/**
+	 * The input a {@link SessionAttributeCodec} reads a value from.
+	 */
+	public final class Input {
+
+		private final ByteBuffer buffer;
+
+		private Input(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		/**
+		 * Read a {@code boolean}.
+		 * @return the value
+		 */
+		public boolean readBoolean() {
+			return this.buffer.get() != 0;
+		}
+
+		/**
+		 * Read an {@code int}.
+		 * @return the value
+		 */
+		public int readInt() {
+			return this.buffer.getInt();
+		}
+
+		/**
+		 * Read a {@code long}.
+		 * @return the value
+		 */
+		public long readLong() {
+			return this.buffer.getLong();
+		}
+
+		/**
+		 * Read the size of a collection, map or array. As every element takes at least
+		 * one byte, sizes exceeding the remaining input are rejected.
+		 * @return the size
+		 */
+		public int readSize() {
+			int size = 0;
+			for (int shift = 0; shift < 32; shift += 7) {
+				int next = this.buffer.get();
+				size |= (next & 0x7F) << shift;
+				if ((next & 0x80) == 0) {
+					Assert.state(size >= 0 && size <= this.buffer.remaining() + 1, "Cannot deserialize, invalid size");
+					return size;
+				}
+			}
+			throw new IllegalStateException("Cannot deserialize, invalid size");
+		}
+
+		/**
+		 * Read a {@link String} previously written by {@link Output#writeString}.
+		 * @return the value, possibly {@code null}
+		 */
+		public @Nullable String readString() {
+			int length = readSize();
+			if (length == 0) {
+				return null;
+			}
+			byte[] bytes = new byte[length - 1];
+			this.buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * Read a value previously written by {@link Output#writeValue}.
+		 * @return the value, possibly {@code null}
+		 */
+		public @Nullable Object readValue() {
+			int typeId = this.buffer.get() & 0xFF;
+			if (typeId == NULL_TYPE_ID) {
+				return null;
+			}
+			if (typeId == DELEGATE_TYPE_ID) {
+				byte[] bytes = new byte[readSize()];
+				this.buffer.get(bytes);
+				return BinarySessionAttributeSerializer.this.delegate.deserialize(bytes);
+			}
+			Registration<?> registration = BinarySessionAttributeSerializer.this.registrationsById.get(typeId);
+			Assert.state(registration != null, () -> "Cannot deserialize, unknown typeId " + typeId);
+			return registration.codec.read(this);
+		}
+
+	}
+
+	private static final class Registration<T> {
+
+		private final int typeId;
+
+		private final Class<T> type;
+
+		private final SessionAttributeCodec<T> codec;
+
+		private Registration(int typeId, Class<T> type, SessionAttributeCodec<T> codec) {
+			this.typeId = typeId;
+			this.type = type;
+			this.codec = codec;
+		}
+
+		private void write(Object value, Output output) {
+			this.codec.write(this.type.cast(value), output);
+		}
+
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.serializer;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializationFailedException;
+import org.springframework.core.serializer.support.SerializingConverter;
+
+/**
+ * A {@link SessionAttributeSerializer} that uses Java serialization, the format the
+ * session repositories use by default.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+public class JdkSessionAttributeSerializer implements SessionAttributeSerializer {
+
+	private final SerializingConverter serializer = new SerializingConverter();
+
+	private final DeserializingConverter deserializer;
+
+	/**
+	 * Create a new {@link JdkSessionAttributeSerializer} instance that uses the default
+	 * class loader.
+	 */
+	public JdkSessionAttributeSerializer() {
+		this.deserializer = new DeserializingConverter();
+	}
+
+	/**
+	 * Create a new {@link JdkSessionAttributeSerializer} instance.
+	 * @param classLoader the class loader to use for deserialization
+	 */
+	public JdkSessionAttributeSerializer(@Nullable ClassLoader classLoader) {
+		this.deserializer = new DeserializingConverter(classLoader);
+	}
+
+	@Override
+	public byte[] serialize(Object value) {
+		try {
+			return this.serializer.convert(value);
+		}
+		catch (SerializationFailedException ex) {
+			throw new IllegalStateException("Cannot serialize " + value.getClass().getName(), ex);
+		}
+	}
+
+	@Override
+	public @Nullable Object deserialize(byte[] bytes) {
+		try {
+			return this.deserializer.convert(bytes);
+		}
+		catch (SerializationFailedException ex) {
+			throw new IllegalStateException("Cannot deserialize", ex);
+		}
+	}
+
+}
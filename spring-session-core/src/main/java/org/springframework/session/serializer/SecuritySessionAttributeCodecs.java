@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.serializer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.FactorGrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.session.serializer.BinarySessionAttributeSerializer.Input;
+import org.springframework.session.serializer.BinarySessionAttributeSerializer.Output;
+import org.springframework.util.Assert;
+
+/**
+ * Registers the {@link SessionAttributeCodec codecs} for the Spring Security core types
+ * with a {@link BinarySessionAttributeSerializer}. Only loaded when Spring Security is
+ * present.
+ *
+ * @author agent (agent@local)
+ */
+final class SecuritySessionAttributeCodecs {
+
+	private SecuritySessionAttributeCodecs() {
+	}
+
+	static void registerWith(BinarySessionAttributeSerializer serializer) {
+		serializer.registerCodec(16, SecurityContextImpl.class,
+				SessionAttributeCodec.of((context, output) -> output.writeValue(context.getAuthentication()),
+						SecuritySessionAttributeCodecs::readSecurityContext));
+		serializer.registerCodec(17, UsernamePasswordAuthenticationToken.class,
+				SessionAttributeCodec.of(SecuritySessionAttributeCodecs::writeAuthenticationToken,
+						SecuritySessionAttributeCodecs::readAuthenticationToken));
+		serializer.registerCodec(18, SimpleGrantedAuthority.class, SessionAttributeCodec
+			.of((authority, output) -> output.writeString(authority.getAuthority()), (input) -> {
+				String authority = input.readString();
+				Assert.state(authority != null, "authority must not be null");
+				return new SimpleGrantedAuthority(authority);
+			}));
+		serializer.registerCodec(19, FactorGrantedAuthority.class, SessionAttributeCodec.of((authority, output) -> {
+			output.writeString(authority.getAuthority());
+			output.writeValue(authority.getIssuedAt());
+		}, SecuritySessionAttributeCodecs::readFactorGrantedAuthority));
+		serializer.registerCodec(20, User.class, SessionAttributeCodec.of(SecuritySessionAttributeCodecs::writeUser,
+				SecuritySessionAttributeCodecs::readUser));
+	}
+
+	private static SecurityContextImpl readSecurityContext(Input input) {
+		SecurityContextImpl context = new SecurityContextImpl();
+		Authentication authentication = (Authentication) input.readValue();
+		if (authentication != null) {
+			context.setAuthentication(authentication);
+		}
+		return context;
+	}
+
+	private static void writeAuthenticationToken(UsernamePasswordAuthenticationToken token, Output output) {
+		output.writeValue(token.getPrincipal());
+		output.writeValue(token.getCredentials());
+		writeAuthorities(token.getAuthorities(), output);
+		output.writeValue(token.getDetails());
+		output.writeBoolean(token.isAuthenticated());
+	}
+
+	private static UsernamePasswordAuthenticationToken readAuthenticationToken(Input input) {
+		Object principal = input.readValue();
+		Assert.state(principal != null, "principal must not be null");
+		Object credentials = input.readValue();
+		List<GrantedAuthority> authorities = readAuthorities(input);
+		Object details = input.readValue();
+		boolean authenticated = input.readBoolean();
+		UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(principal, credentials,
+				authorities);
+		token.setDetails(details);
+		if (!authenticated) {
+			token.setAuthenticated(false);
+		}
+		return token;
+	}
+
+	private static FactorGrantedAuthority readFactorGrantedAuthority(Input input) {
+		String authority = input.readString();
+		Assert.state(authority != null, "authority must not be null");
+		Instant issuedAt = (Instant) input.readValue();
+		Assert.state(issuedAt != null, "issuedAt must not be null");
+		return FactorGrantedAuthority.withAuthority(authority).issuedAt(issuedAt).build();
+	}
+
+	private static void writeUser(User user, Output output) {
+		output.writeString(user.getUsername());
+		output.writeString(user.getPassword());
+		writeAuthorities(user.getAuthorities(), output);
+		output.writeBoolean(user.isEnabled());
+		output.writeBoolean(user.isAccountNonExpired());
+		output.writeBoolean(user.isCredentialsNonExpired());
+		output.writeBoolean(user.isAccountNonLocked());
+	}
+
+	private static User readUser(Input input) {
+		String username = input.readString();
+		Assert.state(username != null, "username must not be null");
+		String password = input.readString();
+		List<GrantedAuthority> authorities = readAuthorities(input);
+		User user = new User(username, (password != null) ? password : "", input.readBoolean(), input.readBoolean(),
+				input.readBoolean(), input.readBoolean(), authorities);
+		if (password == null) {
+			user.eraseCredentials();
+		}
+		return user;
+	}
+
+	private static void writeAuthorities(Collection<? extends GrantedAuthority> authorities, Output output) {
+		output.writeSize(authorities.size());
+		for (GrantedAuthority authority : authorities) {
+			output.writeValue(authority);
+		}
+	}
+
+	private static List<GrantedAuthority> readAuthorities(Input input) {
+		int size = input.readSize();
+		List<GrantedAuthority> authorities = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			GrantedAuthority authority = (GrantedAuthority) input.readValue();
+			Assert.state(authority != null, "authority must not be null");
+			authorities.add(authority);
+		}
+		return authorities;
+	}
+
+}
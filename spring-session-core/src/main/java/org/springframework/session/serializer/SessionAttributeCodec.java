@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.serializer;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.session.serializer.BinarySessionAttributeSerializer.Input;
+import org.springframework.session.serializer.BinarySessionAttributeSerializer.Output;
+import org.springframework.util.Assert;
+
+/**
+ * Writes and reads the values of a single type registered with a
+ * {@link BinarySessionAttributeSerializer}. The fields of a value must be read in the
+ * order they were written.
+ *
+ * @param <T> the type of the values
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+public interface SessionAttributeCodec<T> {
+
+	/**
+	 * Write the given value.
+	 * @param value the value to write
+	 * @param output the output to write the value to
+	 */
+	void write(T value, Output output);
+
+	/**
+	 * Read a value previously written by {@link #write(Object, Output)}.
+	 * @param input the input to read the value from
+	 * @return the value
+	 */
+	T read(Input input);
+
+	/**
+	 * Create a {@link SessionAttributeCodec} from the given functions.
+	 * @param <T> the type of the values
+	 * @param writer the function writing a value
+	 * @param reader the function reading a value
+	 * @return the codec
+	 */
+	static <T> SessionAttributeCodec<T> of(BiConsumer<T, Output> writer, Function<Input, T> reader) {
+		Assert.notNull(writer, "writer must not be null");
+		Assert.notNull(reader, "reader must not be null");
+		return new SessionAttributeCodec<>() {
+
+			@Override
+			public void write(T value, Output output) {
+				writer.accept(value, output);
+			}
+
+			@Override
+			public T read(Input input) {
+				return reader.apply(input);
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.util.Assert;
+
+/**
+ * Compresses serialized session attribute values that exceed a configurable threshold
+ * using the Deflate algorithm. Compressed values are prefixed with a two byte header, a
+ * zero marker byte followed by the algorithm, so that values stored before compression
+ * was enabled are still read as is. This relies on the serialized values not starting
+ * with a zero byte, which holds for Java serialization and JSON. Values written by this
+ * class that do start with a zero byte are prefixed with a header as well.
+ * <p>
+ * The number of compressed values, their size before and after compression, and the time
+ * spent compressing and decompressing them are recorded and can be used to monitor the
+ * compression ratio and its cost.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+public class SessionAttributeCompressor {
+
+	/**
+	 * The default size in bytes above which serialized values are compressed.
+	 */
+	public static final int DEFAULT_THRESHOLD = 1024;
+
+	private static final byte MARKER = 0;
+
+	private static final byte STORED = 0;
+
+	private static final byte DEFLATE = 1;
+
+	private static final int HEADER_LENGTH = 2;
+
+	private int threshold = DEFAULT_THRESHOLD;
+
+	private int level = Deflater.BEST_SPEED;
+
+	private final LongAdder compressedCount = new LongAdder();
+
+	private final LongAdder uncompressedBytes = new LongAdder();
+
+	private final LongAdder compressedBytes = new LongAdder();
+
+	private final LongAdder compressionNanos = new LongAdder();
+
+	private final LongAdder decompressionNanos = new LongAdder();
+
+	/**
+	 * Set the size in bytes above which serialized values are compressed. Default is
+	 * {@link #DEFAULT_THRESHOLD}.
+	 * @param threshold the threshold in bytes
+	 */
+	public void setThreshold(int threshold) {
+		Assert.isTrue(threshold >= 0, "threshold must not be negative");
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Set the Deflate compression level, from {@link Deflater#BEST_SPEED} to
+	 * {@link Deflater#BEST_COMPRESSION}. Default is {@link Deflater#BEST_SPEED}.
+	 * @param level the compression level
+	 */
+	public void setLevel(int level) {
+		Assert.isTrue(level >= Deflater.BEST_SPEED && level <= Deflater.BEST_COMPRESSION,
+				"level must be between 1 and 9");
+		this.level = level;
+	}
+
+	/**
+	 * Compress the given serialized value if it exceeds the threshold and compression
+	 * actually reduces its size.
+	 * @param value the serialized value
+	 * @return the value to store
+	 */
+	public byte[] compress(byte[] value) {
+		if (value.length > this.threshold) {
+			long start = System.nanoTime();
+			byte[] compressed = deflate(value);
+			this.compressionNanos.add(System.nanoTime() - start);
+			if (compressed.length < value.length) {
+				this.compressedCount.increment();
+				this.uncompressedBytes.add(value.length);
+				this.compressedBytes.add(compressed.length);
+				return compressed;
+			}
+		}
+		if (value.length > 0 && value[0] == MARKER) {
+			return withHeader(STORED, value);
+		}
+		return value;
+	}
+
+	/**
+	 * Decompress the given stored value if it was compressed by this class.
+	 * @param value the stored value
+	 * @return the serialized value
+	 */
+	public byte[] decompress(byte[] value) {
+		if (value.length < HEADER_LENGTH || value[0] != MARKER) {
+			return value;
+		}
+		byte algorithm = value[1];
+		if (algorithm == STORED) {
+			return Arrays.copyOfRange(value, HEADER_LENGTH, value.length);
+		}
+		if (algorithm == DEFLATE) {
+			long start = System.nanoTime();
+			byte[] decompressed = inflate(value);
+			this.decompressionNanos.add(System.nanoTime() - start);
+			return decompressed;
+		}
+		throw new IllegalStateException("Unsupported compression algorithm " + algorithm);
+	}
+
+	/**
+	 * Return the number of values that have been compressed.
+	 * @return the number of compressed values
+	 */
+	public long getCompressedCount() {
+		return this.compressedCount.sum();
+	}
+
+	/**
+	 * Return the total size in bytes of the compressed values before compression.
+	 * @return the size before compression
+	 */
+	public long getUncompressedBytes() {
+		return this.uncompressedBytes.sum();
+	}
+
+	/**
+	 * Return the total size in bytes of the compressed values after compression.
+	 * @return the size after compression
+	 */
+	public long getCompressedBytes() {
+		return this.compressedBytes.sum();
+	}
+
+	/**
+	 * Return the ratio of the size of the compressed values after compression to their
+	 * size before compression, or {@code 1.0} if no value has been compressed yet.
+	 * @return the compression ratio
+	 */
+	public double getCompressionRatio() {
+		long uncompressed = getUncompressedBytes();
+		return (uncompressed != 0) ? (double) getCompressedBytes() / uncompressed : 1.0;
+	}
+
+	/**
+	 * Return the total time spent compressing values, including values that were not
+	 * stored compressed because compression did not reduce their size.
+	 * @return the time spent compressing
+	 */
+	public Duration getCompressionTime() {
+		return Duration.ofNanos(this.compressionNanos.sum());
+	}
+
+	/**
+	 * Return the total time spent decompressing values.
+	 * @return the time spent decompressing
+	 */
+	public Duration getDecompressionTime() {
+		return Duration.ofNanos(this.decompressionNanos.sum());
+	}
+
+	private byte[] deflate(byte[] value) {
+		Deflater deflater = new Deflater(this.level);
+		try {
+			deflater.setInput(value);
+			deflater.finish();
+			ByteArrayOutputStream output = new ByteArrayOutputStream(value.length / 2 + HEADER_LENGTH);
+			output.write(MARKER);
+			output.write(DEFLATE);
+			byte[] buffer = new byte[4096];
+			while (!deflater.finished()) {
+				output.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return output.toByteArray();
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	private static byte[] inflate(byte[] value) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(value, HEADER_LENGTH, value.length - HEADER_LENGTH);
+			ByteArrayOutputStream output = new ByteArrayOutputStream(value.length * 4);
+			byte[] buffer = new byte[4096];
+			while (!inflater.finished()) {
+				int length = inflater.inflate(buffer);
+				if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IllegalStateException("Unable to decompress truncated value");
+				}
+				output.write(buffer, 0, length);
+			}
+			return output.toByteArray();
+		}
+		catch (DataFormatException ex) {
+			throw new IllegalStateException("Unable to decompress value", ex);
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+	private static byte[] withHeader(byte algorithm, byte[] value) {
+		byte[] result = new byte[HEADER_LENGTH + value.length];
+		result[0] = MARKER;
+		result[1] = algorithm;
+		System.arraycopy(value, 0, result, HEADER_LENGTH, value.length);
+		return result;
+	}
+
+}
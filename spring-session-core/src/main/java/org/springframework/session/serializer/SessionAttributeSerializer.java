@@ -0,0 +1,50 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.serializer;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Strategy for converting session attribute values to and from the bytes stored by a
+ * session repository. Implementations can be adapted to the serialization abstractions of
+ * the individual session stores, for example a {@code RedisSerializer} or a
+ * {@code ConversionService}.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ * @see JdkSessionAttributeSerializer
+ * @see BinarySessionAttributeSerializer
+ */
+public interface SessionAttributeSerializer {
+
+	/**
+	 * Serialize the given attribute value.
+	 * @param value the value to serialize
+	 * @return the serialized value
+	 * @throws IllegalStateException if the value cannot be serialized
+	 */
+	byte[] serialize(Object value);
+
+	/**
+	 * Deserialize the given bytes, previously produced by {@link #serialize(Object)}.
+	 * @param bytes the bytes to deserialize
+	 * @return the deserialized value
+	 * @throws IllegalStateException if the bytes cannot be deserialized
+	 */
+	@Nullable Object deserialize(byte[] bytes);
+
+}
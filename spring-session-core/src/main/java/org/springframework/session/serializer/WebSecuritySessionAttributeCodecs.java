@@ -0,0 +1,188 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.serializer;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jakarta.servlet.http.Cookie;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.security.web.savedrequest.DefaultSavedRequest;
+import org.springframework.security.web.savedrequest.SavedCookie;
+import org.springframework.session.serializer.BinarySessionAttributeSerializer.Input;
+import org.springframework.session.serializer.BinarySessionAttributeSerializer.Output;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Registers the {@link SessionAttributeCodec codecs} for the Spring Security web types
+ * with a {@link BinarySessionAttributeSerializer}. Only loaded when Spring Security Web
+ * and the Servlet API are present.
+ *
+ * @author agent (agent@local)
+ */
+final class WebSecuritySessionAttributeCodecs {
+
+	/**
+	 * The {@link DefaultSavedRequest} field that has no accessor.
+	 */
+	static final String MATCHING_REQUEST_PARAMETER_NAME_FIELD = "matchingRequestParameterName";
+
+	private WebSecuritySessionAttributeCodecs() {
+	}
+
+	static void registerWith(BinarySessionAttributeSerializer serializer) {
+		serializer.registerCodec(32, WebAuthenticationDetails.class, SessionAttributeCodec.of((details, output) -> {
+			output.writeString(details.getRemoteAddress());
+			output.writeString(details.getSessionId());
+		}, (input) -> new WebAuthenticationDetails(nonNull(input.readString()), input.readString())));
+		serializer.registerCodec(33, DefaultCsrfToken.class, SessionAttributeCodec.of((token, output) -> {
+			output.writeString(token.getHeaderName());
+			output.writeString(token.getParameterName());
+			output.writeString(token.getToken());
+		}, WebSecuritySessionAttributeCodecs::readCsrfToken));
+		Field matchingRequestParameterName = ReflectionUtils.findField(DefaultSavedRequest.class,
+				MATCHING_REQUEST_PARAMETER_NAME_FIELD);
+		Assert.state(matchingRequestParameterName != null,
+				"Unable to find DefaultSavedRequest." + MATCHING_REQUEST_PARAMETER_NAME_FIELD);
+		ReflectionUtils.makeAccessible(matchingRequestParameterName);
+		serializer.registerCodec(34, DefaultSavedRequest.class,
+				SessionAttributeCodec.of(
+						(request, output) -> writeSavedRequest(request, matchingRequestParameterName, output),
+						WebSecuritySessionAttributeCodecs::readSavedRequest));
+	}
+
+	private static DefaultCsrfToken readCsrfToken(Input input) {
+		String headerName = input.readString();
+		String parameterName = input.readString();
+		String token = input.readString();
+		Assert.state(headerName != null && parameterName != null && token != null, "Invalid CSRF token");
+		return new DefaultCsrfToken(headerName, parameterName, token);
+	}
+
+	private static void writeSavedRequest(DefaultSavedRequest request, Field matchingRequestParameterName,
+			Output output) {
+		List<Cookie> cookies = request.getCookies();
+		output.writeSize(cookies.size());
+		for (Cookie cookie : cookies) {
+			output.writeString(cookie.getName());
+			output.writeString(cookie.getValue());
+			output.writeString(cookie.getDomain());
+			output.writeInt(cookie.getMaxAge());
+			output.writeString(cookie.getPath());
+			output.writeBoolean(cookie.getSecure());
+		}
+		List<Locale> locales = request.getLocales();
+		output.writeSize(locales.size());
+		for (Locale locale : locales) {
+			output.writeString(locale.toLanguageTag());
+		}
+		output.writeSize(request.getHeaderNames().size());
+		for (String name : request.getHeaderNames()) {
+			output.writeString(name);
+			List<String> values = request.getHeaderValues(name);
+			output.writeSize(values.size());
+			values.forEach(output::writeString);
+		}
+		Map<String, String[]> parameters = request.getParameterMap();
+		output.writeSize(parameters.size());
+		parameters.forEach((name, values) -> {
+			output.writeString(name);
+			output.writeSize(values.length);
+			for (String value : values) {
+				output.writeString(value);
+			}
+		});
+		output.writeString(request.getContextPath());
+		output.writeString(request.getMethod());
+		output.writeString(request.getPathInfo());
+		output.writeString(request.getQueryString());
+		output.writeString(request.getRequestURI());
+		output.writeString(request.getRequestURL());
+		output.writeString(request.getScheme());
+		output.writeString(request.getServerName());
+		output.writeString(request.getServletPath());
+		output.writeInt(request.getServerPort());
+		output.writeString((String) ReflectionUtils.getField(matchingRequestParameterName, request));
+	}
+
+	@SuppressWarnings("NullAway") // Saved cookies and requests may hold null values
+	private static DefaultSavedRequest readSavedRequest(Input input) {
+		DefaultSavedRequest.Builder builder = new DefaultSavedRequest.Builder();
+		int cookieCount = input.readSize();
+		List<SavedCookie> cookies = new ArrayList<>(cookieCount);
+		for (int i = 0; i < cookieCount; i++) {
+			cookies.add(new SavedCookie(input.readString(), input.readString(), input.readString(), input.readInt(),
+					input.readString(), input.readBoolean()));
+		}
+		builder.setCookies(cookies);
+		int localeCount = input.readSize();
+		List<Locale> locales = new ArrayList<>(localeCount);
+		for (int i = 0; i < localeCount; i++) {
+			locales.add(Locale.forLanguageTag(nonNull(input.readString())));
+		}
+		builder.setLocales(locales);
+		int headerCount = input.readSize();
+		Map<String, List<String>> headers = new LinkedHashMap<>();
+		for (int i = 0; i < headerCount; i++) {
+			String name = nonNull(input.readString());
+			int valueCount = input.readSize();
+			List<String> values = new ArrayList<>(valueCount);
+			for (int j = 0; j < valueCount; j++) {
+				values.add(nonNull(input.readString()));
+			}
+			headers.put(name, values);
+		}
+		builder.setHeaders(headers);
+		int parameterCount = input.readSize();
+		Map<String, String[]> parameters = new LinkedHashMap<>();
+		for (int i = 0; i < parameterCount; i++) {
+			String name = nonNull(input.readString());
+			String[] values = new String[input.readSize()];
+			for (int j = 0; j < values.length; j++) {
+				values[j] = nonNull(input.readString());
+			}
+			parameters.put(name, values);
+		}
+		builder.setParameters(parameters);
+		return builder.setContextPath(input.readString())
+			.setMethod(input.readString())
+			.setPathInfo(input.readString())
+			.setQueryString(input.readString())
+			.setRequestURI(input.readString())
+			.setRequestURL(input.readString())
+			.setScheme(input.readString())
+			.setServerName(input.readString())
+			.setServletPath(input.readString())
+			.setServerPort(input.readInt())
+			.setMatchingRequestParameterName(input.readString())
+			.build();
+	}
+
+	private static String nonNull(@Nullable String value) {
+		Assert.state(value != null, "Unexpected null value");
+		return value;
+	}
+
+}
@@ -46,11 +46,17 @@ class HttpSessionAdapter<S extends Session> implements HttpSession {
 
 	private final ServletContext servletContext;
 
+	private final boolean notifyBindingListeners;
+
 	private boolean invalidated;
 
 	private boolean old;
 
 	HttpSessionAdapter(S session, ServletContext servletContext) {
+		this(session, servletContext, true);
+	}
+
+	HttpSessionAdapter(S session, ServletContext servletContext, boolean notifyBindingListeners) {
 		if (session == null) {
 			throw new IllegalArgumentException("session cannot be null");
 		}
@@ -59,6 +65,7 @@ class HttpSessionAdapter<S extends Session> implements HttpSession {
 		}
 		this.session = session;
 		this.servletContext = servletContext;
+		this.notifyBindingListeners = notifyBindingListeners;
 	}
 
 	S getSession() {
@@ -112,7 +119,11 @@ class HttpSessionAdapter<S extends Session> implements HttpSession {
 	@Override
 	public void setAttribute(String name, Object value) {
 		checkState();
-		Object oldValue = this.session.getAttribute(name);
+		if (!this.notifyBindingListeners) {
+			this.session.setAttribute(name, value);
+			return;
+		}
+		Object oldValue = this.session.peekAttribute(name);
 		this.session.setAttribute(name, value);
 		if (value != oldValue) {
 			if (oldValue instanceof HttpSessionBindingListener) {
@@ -138,7 +149,11 @@ class HttpSessionAdapter<S extends Session> implements HttpSession {
 	@Override
 	public void removeAttribute(String name) {
 		checkState();
-		Object oldValue = this.session.getAttribute(name);
+		if (!this.notifyBindingListeners) {
+			this.session.removeAttribute(name);
+			return;
+		}
+		Object oldValue = this.session.peekAttribute(name);
 		this.session.removeAttribute(name);
 		if (oldValue instanceof HttpSessionBindingListener) {
 			try {
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.web.http;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.util.Assert;
+
+/**
+ * Keeps track of the sessions used by in-flight requests, so that concurrent requests for
+ * the same session share a single session instance. The session is retrieved from the
+ * {@link SessionRepository} by the first of these requests and saved once the last of
+ * them completes, with the changes made by all of them. Once its id is changed, a session
+ * is no longer shared with subsequent requests and is saved each time it is released, so
+ * that the new id is valid as soon as it is sent to the client.
+ *
+ * @param <S> the {@link Session} type
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+final class InFlightSessionRegistry<S extends Session> {
+
+	private final SessionRepository<S> sessionRepository;
+
+	private final Map<String, InFlightSession<S>> sessions = new HashMap<>();
+
+	InFlightSessionRegistry(SessionRepository<S> sessionRepository) {
+		this.sessionRepository = sessionRepository;
+	}
+
+	/**
+	 * Acquire the session with the given id, retrieving it from the
+	 * {@link SessionRepository} unless another in-flight request already did. Each
+	 * acquired session must be released using {@link #release(InFlightSession)}.
+	 * @param sessionId the session id
+	 * @return the acquired session or {@code null} if no session with the given id exists
+	 */
+	@Nullable InFlightSession<S> acquire(String sessionId) {
+		InFlightSession<S> inFlightSession;
+		synchronized (this.sessions) {
+			inFlightSession = this.sessions.computeIfAbsent(sessionId, InFlightSession::new);
+			inFlightSession.references++;
+		}
+		boolean found = false;
+		try {
+			synchronized (inFlightSession) {
+				if (!inFlightSession.loaded) {
+					S session = this.sessionRepository.findById(sessionId);
+					if (session != null) {
+						inFlightSession.session = session;
+						inFlightSession.view = new SynchronizedSession(session, inFlightSession);
+					}
+					inFlightSession.loaded = true;
+				}
+				found = inFlightSession.session != null && !inFlightSession.invalidated;
+			}
+		}
+		finally {
+			if (!found) {
+				release(inFlightSession);
+			}
+		}
+		return found ? inFlightSession : null;
+	}
+
+	/**
+	 * Release a session acquired using {@link #acquire(String)}. If no other in-flight
+	 * request uses the session or if its id has been changed, it is saved, unless it has
+	 * been invalidated.
+	 * @param inFlightSession the session to release
+	 */
+	void release(InFlightSession<S> inFlightSession) {
+		boolean lastReference;
+		synchronized (this.sessions) {
+			lastReference = --inFlightSession.references == 0;
+		}
+		if (!lastReference && !isSessionIdChanged(inFlightSession)) {
+			return;
+		}
+		try {
+			save(inFlightSession);
+		}
+		finally {
+			synchronized (this.sessions) {
+				if (inFlightSession.references == 0) {
+					this.sessions.remove(inFlightSession.sessionId, inFlightSession);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Change the id of a session acquired using {@link #acquire(String)} and save it
+	 * right away. The session is no longer handed out to subsequent requests for its
+	 * original id, which retrieve it from the {@link SessionRepository} instead.
+	 * @param inFlightSession the session to change the id of
+	 * @return the new session id
+	 */
+	String changeSessionId(InFlightSession<S> inFlightSession) {
+		String sessionId;
+		synchronized (inFlightSession) {
+			S session = inFlightSession.getSession();
+			sessionId = session.changeSessionId();
+			inFlightSession.sessionIdChanged = true;
+			if (!inFlightSession.invalidated) {
+				this.sessionRepository.save(session);
+			}
+		}
+		synchronized (this.sessions) {
+			this.sessions.remove(inFlightSession.sessionId, inFlightSession);
+		}
+		return sessionId;
+	}
+
+	private boolean isSessionIdChanged(InFlightSession<S> inFlightSession) {
+		synchronized (inFlightSession) {
+			return inFlightSession.sessionIdChanged;
+		}
+	}
+
+	/**
+	 * Save a session acquired using {@link #acquire(String)} regardless of other
+	 * in-flight requests, unless it has been invalidated.
+	 * @param inFlightSession the session to save
+	 */
+	void save(InFlightSession<S> inFlightSession) {
+		synchronized (inFlightSession) {
+			if (inFlightSession.session != null && !inFlightSession.invalidated) {
+				this.sessionRepository.save(inFlightSession.session);
+			}
+		}
+	}
+
+	/**
+	 * Mark a session acquired using {@link #acquire(String)} as invalidated, so that it
+	 * is neither handed out to subsequent requests nor saved. The session must still be
+	 * released by each request that acquired it.
+	 * @param inFlightSession the session to invalidate
+	 */
+	void invalidate(InFlightSession<S> inFlightSession) {
+		synchronized (inFlightSession) {
+			inFlightSession.invalidated = true;
+		}
+		synchronized (this.sessions) {
+			this.sessions.remove(inFlightSession.sessionId, inFlightSession);
+		}
+	}
+
+	/**
+	 * A session shared by in-flight requests.
+	 *
+	 * @param <S> the {@link Session} type
+	 */
+	static final class InFlightSession<S extends Session> {
+
+		private final String sessionId;
+
+		private int references;
+
+		private boolean loaded;
+
+		private boolean invalidated;
+
+		private boolean sessionIdChanged;
+
+		private @Nullable S session;
+
+		private @Nullable Session view;
+
+		private InFlightSession(String sessionId) {
+			this.sessionId = sessionId;
+		}
+
+		/**
+		 * Return the id of the shared session as requested.
+		 * @return the requested session id
+		 */
+		String getSessionId() {
+			return this.sessionId;
+		}
+
+		/**
+		 * Return the shared session, only to be used to save it.
+		 * @return the shared session
+		 */
+		S getSession() {
+			synchronized (this) {
+				Assert.state(this.session != null, "Session not loaded");
+				return this.session;
+			}
+		}
+
+		/**
+		 * Return a view of the shared session that is safe to use concurrently.
+		 * @return the view of the shared session
+		 */
+		Session getView() {
+			synchronized (this) {
+				Assert.state(this.view != null, "Session not loaded");
+				return this.view;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.web.http;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Runs session commits on an {@link Executor} once the request that made the changes has
+ * completed. Commits for the same session id run one at a time and in the order they were
+ * submitted, while commits for different session ids may run concurrently. The number of
+ * pending commits is bounded, so that callers can commit synchronously instead when the
+ * backend cannot keep up.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+final class SessionCommitQueue {
+
+	private static final Log logger = LogFactory.getLog(SessionCommitQueue.class);
+
+	private final Executor executor;
+
+	private final Map<String, Deque<Runnable>> queues = new HashMap<>();
+
+	private int pending;
+
+	SessionCommitQueue(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Submit a commit for the session with the given id.
+	 * @param sessionId the session id
+	 * @param commit the commit to run
+	 * @param capacity the maximum number of pending commits
+	 * @return {@code true} if the commit was submitted, {@code false} if the maximum
+	 * number of pending commits has been reached
+	 */
+	boolean submit(String sessionId, Runnable commit, int capacity) {
+		synchronized (this.queues) {
+			if (this.pending >= capacity) {
+				return false;
+			}
+			this.pending++;
+			Deque<Runnable> queue = this.queues.get(sessionId);
+			if (queue != null) {
+				queue.add(commit);
+				return true;
+			}
+			this.queues.put(sessionId, new ArrayDeque<>());
+		}
+		try {
+			this.executor.execute(() -> run(sessionId, commit));
+		}
+		catch (RejectedExecutionException ex) {
+			run(sessionId, commit);
+		}
+		return true;
+	}
+
+	/**
+	 * Wait for the pending commits to complete.
+	 * @param timeout the maximum time to wait
+	 * @return {@code true} if all pending commits completed, {@code false} if the timeout
+	 * elapsed first
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	boolean drain(Duration timeout) throws InterruptedException {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		synchronized (this.queues) {
+			while (this.pending > 0) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(this.queues, remaining);
+			}
+		}
+		return true;
+	}
+
+	private void run(String sessionId, Runnable commit) {
+		Runnable next = commit;
+		while (next != null) {
+			boolean completed = false;
+			try {
+				next.run();
+				completed = true;
+			}
+			catch (RuntimeException ex) {
+				logger.error("Unable to commit session " + sessionId, ex);
+				completed = true;
+			}
+			finally {
+				next = complete(sessionId, completed);
+			}
+		}
+	}
+
+	/**
+	 * Complete a commit for the session with the given id.
+	 * @param sessionId the session id
+	 * @param pollNext whether to return the next commit for the session, otherwise the
+	 * commits still queued for the session are discarded
+	 * @return the next commit to run, or {@code null} if there is none
+	 */
+	private @Nullable Runnable complete(String sessionId, boolean pollNext) {
+		synchronized (this.queues) {
+			this.pending--;
+			Deque<Runnable> queue = this.queues.get(sessionId);
+			Runnable next = (pollNext && queue != null) ? queue.poll() : null;
+			if (next == null) {
+				if (queue != null && !queue.isEmpty()) {
+					logger.error("Discarding " + queue.size() + " pending commits of session " + sessionId);
+					this.pending -= queue.size();
+				}
+				this.queues.remove(sessionId);
+				this.queues.notifyAll();
+			}
+			return next;
+		}
+	}
+
+}
@@ -17,8 +17,14 @@
 package org.springframework.session.web.http;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.RequestDispatcher;
@@ -37,6 +43,8 @@ import org.jspecify.annotations.Nullable;
 import org.springframework.core.annotation.Order;
 import org.springframework.session.Session;
 import org.springframework.session.SessionRepository;
+import org.springframework.session.web.http.InFlightSessionRegistry.InFlightSession;
+import org.springframework.util.Assert;
 
 /**
  * Switches the {@link jakarta.servlet.http.HttpSession} implementation to be backed by a
@@ -71,6 +79,28 @@ import org.springframework.session.SessionRepository;
  * persisted properly.
  * </p>
  *
+ * <p>
+ * By default, each request retrieves and saves its own copy of the session. When
+ * {@link #setCoalesceConcurrentRequests(boolean) coalescing} is enabled, concurrent
+ * requests for the same session share a single session instance instead, which is
+ * retrieved once and saved once the last of these requests completes.
+ * </p>
+ *
+ * <p>
+ * By default, the session is saved on the request thread before the response is released.
+ * When an {@link #setAsyncCommitExecutor(Executor) asynchronous commit executor} is
+ * configured, changes to an existing session are saved on that executor once the request
+ * has completed instead, so that the latency of the session store is not added to the
+ * response time.
+ * </p>
+ *
+ * <p>
+ * Similarly, the requested session is retrieved the first time it is accessed. When a
+ * {@link #setPrefetchExecutor(Executor) prefetch executor} is configured, it is retrieved
+ * on that executor as soon as the request enters this filter instead, so that the latency
+ * of the session store overlaps with the rest of the filter chain.
+ * </p>
+ *
  * @param <S> the {@link Session} type.
  * @author Rob Winch
  * @author Vedran Pavic
@@ -106,6 +136,18 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 
 	private HttpSessionIdResolver httpSessionIdResolver = new CookieHttpSessionIdResolver();
 
+	private @Nullable InFlightSessionRegistry<S> inFlightSessionRegistry;
+
+	private @Nullable SessionCommitQueue asyncCommitQueue;
+
+	private int asyncCommitQueueCapacity = 1000;
+
+	private Duration asyncCommitShutdownTimeout = Duration.ofSeconds(10);
+
+	private @Nullable Executor prefetchExecutor;
+
+	private boolean notifyBindingListeners = true;
+
 	/**
 	 * Creates a new instance.
 	 * @param sessionRepository the <code>SessionRepository</code> to use. Cannot be null.
@@ -130,6 +172,115 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 		this.httpSessionIdResolver = httpSessionIdResolver;
 	}
 
+	/**
+	 * Sets whether concurrent requests for the same session should share a single session
+	 * instance. If enabled, the session is retrieved from the {@link SessionRepository}
+	 * only by the first of the concurrent requests and saved only once the last of them
+	 * completes, with the changes made by all of them. Access to the shared session is
+	 * synchronized. Changes made to a session that is invalidated by one of the
+	 * concurrent requests are discarded. Once its id is changed, for instance by session
+	 * fixation protection, a session is saved right away and no longer shared with
+	 * subsequent requests for its original id. Coalescing only applies to requests
+	 * handled by this filter instance. The default is {@code false}.
+	 * @param coalesceConcurrentRequests whether to coalesce concurrent requests
+	 * @since 4.2
+	 */
+	public void setCoalesceConcurrentRequests(boolean coalesceConcurrentRequests) {
+		this.inFlightSessionRegistry = coalesceConcurrentRequests
+				? new InFlightSessionRegistry<>(this.sessionRepository) : null;
+	}
+
+	/**
+	 * Sets the {@link Executor} used to save the changes made to existing sessions once
+	 * the request has completed. If set, only the decision whether to write the session
+	 * id to the response is made on the request thread, which no longer waits for the
+	 * session to be saved. Saves of the same session run one at a time and in order. New
+	 * sessions and sessions whose id changed are still saved on the request thread, so
+	 * that the session exists once the client receives its id. Note that a subsequent
+	 * request may read the session before the changes made by the previous request are
+	 * saved. The default is {@code null}, which saves all sessions on the request thread.
+	 * @param asyncCommitExecutor the executor to use, or {@code null} to save sessions on
+	 * the request thread
+	 * @since 4.2
+	 * @see #setAsyncCommitQueueCapacity(int)
+	 */
+	public void setAsyncCommitExecutor(@Nullable Executor asyncCommitExecutor) {
+		this.asyncCommitQueue = (asyncCommitExecutor != null) ? new SessionCommitQueue(asyncCommitExecutor) : null;
+	}
+
+	/**
+	 * Sets the maximum number of pending asynchronous session saves. Once reached,
+	 * sessions are saved on the request thread until pending saves complete. The default
+	 * is 1000.
+	 * @param asyncCommitQueueCapacity the maximum number of pending saves
+	 * @since 4.2
+	 * @see #setAsyncCommitExecutor(Executor)
+	 */
+	public void setAsyncCommitQueueCapacity(int asyncCommitQueueCapacity) {
+		Assert.isTrue(asyncCommitQueueCapacity > 0, "asyncCommitQueueCapacity must be greater than 0");
+		this.asyncCommitQueueCapacity = asyncCommitQueueCapacity;
+	}
+
+	/**
+	 * Sets the maximum time that {@link #destroy()} waits for pending asynchronous
+	 * session saves to complete. The default is 10 seconds.
+	 * @param asyncCommitShutdownTimeout the maximum time to wait
+	 * @since 4.2
+	 * @see #setAsyncCommitExecutor(Executor)
+	 */
+	public void setAsyncCommitShutdownTimeout(Duration asyncCommitShutdownTimeout) {
+		Assert.notNull(asyncCommitShutdownTimeout, "asyncCommitShutdownTimeout cannot be null");
+		this.asyncCommitShutdownTimeout = asyncCommitShutdownTimeout;
+	}
+
+	/**
+	 * Sets the {@link Executor} used to retrieve the requested session as soon as the
+	 * request enters this filter, rather than the first time the session is accessed. The
+	 * request thread then only waits for the lookup to complete, if at all, when the
+	 * session is first accessed. Note that the session is retrieved even if the request
+	 * does not access it. Prefetching does not apply when
+	 * {@link #setCoalesceConcurrentRequests(boolean) coalescing} is enabled. The default
+	 * is {@code null}, which retrieves the session on the request thread.
+	 * @param prefetchExecutor the executor to use, or {@code null} to disable prefetching
+	 * @since 4.2
+	 */
+	public void setPrefetchExecutor(@Nullable Executor prefetchExecutor) {
+		this.prefetchExecutor = prefetchExecutor;
+	}
+
+	/**
+	 * Sets whether {@link jakarta.servlet.http.HttpSessionBindingListener} attributes are
+	 * notified when they are bound to or unbound from the session. Notifying them
+	 * requires the current value of an attribute that is replaced or removed, which for
+	 * session repositories that store attributes in serialized form means deserializing
+	 * it. Applications that do not store binding listeners in the session can disable
+	 * this to avoid that work. The default is {@code true}.
+	 * @param notifyBindingListeners whether to notify binding listeners
+	 * @since 4.2
+	 */
+	public void setNotifyBindingListeners(boolean notifyBindingListeners) {
+		this.notifyBindingListeners = notifyBindingListeners;
+	}
+
+	/**
+	 * Waits for pending asynchronous session saves to complete, if any.
+	 */
+	@Override
+	public void destroy() {
+		SessionCommitQueue asyncCommitQueue = this.asyncCommitQueue;
+		if (asyncCommitQueue == null) {
+			return;
+		}
+		try {
+			if (!asyncCommitQueue.drain(this.asyncCommitShutdownTimeout)) {
+				SESSION_LOGGER.warn("Timed out waiting for pending session saves to complete");
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
@@ -138,12 +289,16 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 		SessionRepositoryRequestWrapper wrappedRequest = new SessionRepositoryRequestWrapper(request, response);
 		SessionRepositoryResponseWrapper wrappedResponse = new SessionRepositoryResponseWrapper(wrappedRequest,
 				response);
+		Executor prefetchExecutor = this.prefetchExecutor;
+		if (prefetchExecutor != null && this.inFlightSessionRegistry == null) {
+			wrappedRequest.prefetchRequestedSession(prefetchExecutor);
+		}
 
 		try {
 			filterChain.doFilter(wrappedRequest, wrappedResponse);
 		}
 		finally {
-			wrappedRequest.commitSession();
+			wrappedRequest.commitSession(true);
 		}
 	}
 
@@ -178,7 +333,7 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 
 		@Override
 		protected void onResponseCommitted() {
-			this.request.commitSession();
+			this.request.commitSession(false);
 		}
 
 	}
@@ -197,6 +352,8 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 
 		private @Nullable S requestedSession;
 
+		private @Nullable InFlightSession<S> inFlightSession;
+
 		private boolean requestedSessionCached;
 
 		private @Nullable String requestedSessionId;
@@ -207,6 +364,10 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 
 		private boolean hasCommittedInInclude;
 
+		private @Nullable String prefetchedSessionId;
+
+		private @Nullable CompletableFuture<Optional<S>> prefetchedSession;
+
 		private SessionRepositoryRequestWrapper(HttpServletRequest request, HttpServletResponse response) {
 			super(request);
 			this.response = response;
@@ -214,25 +375,59 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 
 		/**
 		 * Uses the {@link HttpSessionIdResolver} to write the session id to the response
-		 * and persist the Session.
+		 * and persist the Session. If the session is committed asynchronously, it is only
+		 * persisted once the request completes.
+		 * @param requestCompleted whether the request has completed
 		 */
-		private void commitSession() {
+		private void commitSession(boolean requestCompleted) {
 			HttpSessionWrapper wrappedSession = getCurrentSession();
 			if (wrappedSession == null) {
 				if (isInvalidateClientSession()) {
 					SessionRepositoryFilter.this.httpSessionIdResolver.expireSession(this, this.response);
 				}
 			}
+			else if (isAsyncCommit(wrappedSession)) {
+				if (requestCompleted) {
+					wrappedSession.saveAsync();
+				}
+			}
 			else {
-				S session = wrappedSession.getSession();
 				String requestedSessionId = getRequestedSessionId();
 				clearRequestedSessionCache();
-				SessionRepositoryFilter.this.sessionRepository.save(session);
-				String sessionId = session.getId();
+				wrappedSession.save();
+				String sessionId = wrappedSession.getSession().getId();
 				if (!isRequestedSessionIdValid() || !sessionId.equals(requestedSessionId)) {
 					SessionRepositoryFilter.this.httpSessionIdResolver.setSessionId(this, this.response, sessionId);
 				}
 			}
+			releaseInFlightSession();
+		}
+
+		/**
+		 * Whether the session can be saved asynchronously, which is the case if it
+		 * already existed and its id has not changed, so that the session id written to
+		 * the client remains valid regardless of when the session is saved.
+		 * @param wrappedSession the session to commit
+		 * @return whether the session can be saved asynchronously
+		 */
+		private boolean isAsyncCommit(HttpSessionWrapper wrappedSession) {
+			return SessionRepositoryFilter.this.asyncCommitQueue != null && wrappedSession.inFlightSession == null
+					&& Boolean.TRUE.equals(this.requestedSessionIdValid)
+					&& wrappedSession.getSession().getId().equals(this.requestedSessionId);
+		}
+
+		private void releaseInFlightSession() {
+			InFlightSession<S> inFlightSession = this.inFlightSession;
+			if (inFlightSession != null) {
+				this.inFlightSession = null;
+				getInFlightSessionRegistry().release(inFlightSession);
+			}
+		}
+
+		private InFlightSessionRegistry<S> getInFlightSessionRegistry() {
+			InFlightSessionRegistry<S> inFlightSessionRegistry = SessionRepositoryFilter.this.inFlightSessionRegistry;
+			Assert.state(inFlightSessionRegistry != null, "Concurrent requests are not coalesced");
+			return inFlightSessionRegistry;
 		}
 
 		@SuppressWarnings("unchecked")
@@ -259,6 +454,10 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 						"Cannot change session ID. There is no session associated with this request.");
 			}
 
+			InFlightSession<S> inFlightSession = getCurrentSession().inFlightSession;
+			if (inFlightSession != null) {
+				return getInFlightSessionRegistry().changeSessionId(inFlightSession);
+			}
 			return getCurrentSession().getSession().changeSessionId();
 		}
 
@@ -267,7 +466,7 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 			if (this.requestedSessionIdValid == null) {
 				S requestedSession = getRequestedSession();
 				if (requestedSession != null) {
-					requestedSession.setLastAccessedTime(Instant.now());
+					getRequestedSessionView(requestedSession).setLastAccessedTime(Instant.now());
 				}
 				this.requestedSessionIdValid = (requestedSession != null);
 			}
@@ -287,9 +486,10 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 			S requestedSession = getRequestedSession();
 			if (requestedSession != null) {
 				if (getAttribute(INVALID_SESSION_ID_ATTR) == null) {
-					requestedSession.setLastAccessedTime(Instant.now());
+					getRequestedSessionView(requestedSession).setLastAccessedTime(Instant.now());
 					this.requestedSessionIdValid = true;
-					currentSession = new HttpSessionWrapper(requestedSession, getServletContext());
+					currentSession = new HttpSessionWrapper(requestedSession, this.inFlightSession,
+							getServletContext());
 					currentSession.markNotNew();
 					setCurrentSession(currentSession);
 					return currentSession;
@@ -319,7 +519,7 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 			}
 			S session = SessionRepositoryFilter.this.sessionRepository.createSession();
 			session.setLastAccessedTime(Instant.now());
-			currentSession = new HttpSessionWrapper(session, getServletContext());
+			currentSession = new HttpSessionWrapper(session, null, getServletContext());
 			setCurrentSession(currentSession);
 			return currentSession;
 		}
@@ -350,7 +550,7 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 					if (this.requestedSessionId == null) {
 						this.requestedSessionId = sessionId;
 					}
-					S session = SessionRepositoryFilter.this.sessionRepository.findById(sessionId);
+					S session = findRequestedSession(sessionId);
 					if (session != null) {
 						this.requestedSession = session;
 						break;
@@ -361,6 +561,69 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 			return this.requestedSession;
 		}
 
+		/**
+		 * Starts retrieving the session with the first of the requested session ids on
+		 * the given executor.
+		 * @param executor the executor to use
+		 */
+		private void prefetchRequestedSession(Executor executor) {
+			List<String> sessionIds = SessionRepositoryFilter.this.httpSessionIdResolver.resolveSessionIds(this);
+			if (sessionIds.isEmpty()) {
+				return;
+			}
+			String sessionId = sessionIds.get(0);
+			try {
+				this.prefetchedSession = CompletableFuture.supplyAsync(
+						() -> Optional.ofNullable(SessionRepositoryFilter.this.sessionRepository.findById(sessionId)),
+						executor);
+				this.prefetchedSessionId = sessionId;
+			}
+			catch (RejectedExecutionException ex) {
+				SESSION_LOGGER.debug("Unable to prefetch session, it will be retrieved on first access", ex);
+			}
+		}
+
+		private @Nullable S findRequestedSession(String sessionId) {
+			InFlightSessionRegistry<S> inFlightSessionRegistry = SessionRepositoryFilter.this.inFlightSessionRegistry;
+			if (inFlightSessionRegistry == null) {
+				CompletableFuture<Optional<S>> prefetchedSession = this.prefetchedSession;
+				if (prefetchedSession != null && sessionId.equals(this.prefetchedSessionId)) {
+					this.prefetchedSession = null;
+					this.prefetchedSessionId = null;
+					return joinPrefetchedSession(prefetchedSession);
+				}
+				return SessionRepositoryFilter.this.sessionRepository.findById(sessionId);
+			}
+			InFlightSession<S> inFlightSession = this.inFlightSession;
+			if (inFlightSession != null && inFlightSession.getSessionId().equals(sessionId)) {
+				return inFlightSession.getSession();
+			}
+			inFlightSession = inFlightSessionRegistry.acquire(sessionId);
+			if (inFlightSession == null) {
+				return null;
+			}
+			releaseInFlightSession();
+			this.inFlightSession = inFlightSession;
+			return inFlightSession.getSession();
+		}
+
+		private @Nullable S joinPrefetchedSession(CompletableFuture<Optional<S>> prefetchedSession) {
+			try {
+				return prefetchedSession.join().orElse(null);
+			}
+			catch (CompletionException ex) {
+				if (ex.getCause() instanceof RuntimeException cause) {
+					throw cause;
+				}
+				throw ex;
+			}
+		}
+
+		private Session getRequestedSessionView(S requestedSession) {
+			InFlightSession<S> inFlightSession = this.inFlightSession;
+			return (inFlightSession != null) ? inFlightSession.getView() : requestedSession;
+		}
+
 		private void clearRequestedSessionCache() {
 			this.requestedSessionCached = false;
 			this.requestedSession = null;
@@ -373,10 +636,40 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 		 * @author Rob Winch
 		 * @since 1.0
 		 */
-		private final class HttpSessionWrapper extends HttpSessionAdapter<S> {
+		private final class HttpSessionWrapper extends HttpSessionAdapter<Session> {
+
+			private final S session;
+
+			private final @Nullable InFlightSession<S> inFlightSession;
+
+			HttpSessionWrapper(S session, @Nullable InFlightSession<S> inFlightSession, ServletContext servletContext) {
+				super((inFlightSession != null) ? inFlightSession.getView() : session, servletContext,
+						SessionRepositoryFilter.this.notifyBindingListeners);
+				this.session = session;
+				this.inFlightSession = inFlightSession;
+			}
+
+			private void saveAsync() {
+				SessionCommitQueue asyncCommitQueue = SessionRepositoryFilter.this.asyncCommitQueue;
+				S session = this.session;
+				if (asyncCommitQueue == null || !asyncCommitQueue.submit(session.getId(),
+						() -> SessionRepositoryFilter.this.sessionRepository.save(session),
+						SessionRepositoryFilter.this.asyncCommitQueueCapacity)) {
+					save();
+				}
+			}
 
-			HttpSessionWrapper(S session, ServletContext servletContext) {
-				super(session, servletContext);
+			private void save() {
+				InFlightSession<S> inFlightSession = this.inFlightSession;
+				if (inFlightSession == null) {
+					SessionRepositoryFilter.this.sessionRepository.save(this.session);
+				}
+				else if (inFlightSession == SessionRepositoryRequestWrapper.this.inFlightSession) {
+					releaseInFlightSession();
+				}
+				else {
+					getInFlightSessionRegistry().save(inFlightSession);
+				}
 			}
 
 			@Override
@@ -385,6 +678,10 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 				SessionRepositoryRequestWrapper.this.requestedSessionInvalidated = true;
 				setCurrentSession(null);
 				clearRequestedSessionCache();
+				if (this.inFlightSession != null) {
+					getInFlightSessionRegistry().invalidate(this.inFlightSession);
+					releaseInFlightSession();
+				}
 				SessionRepositoryFilter.this.sessionRepository.deleteById(getId());
 			}
 
@@ -411,7 +708,7 @@ public class SessionRepositoryFilter<S extends Session> extends OncePerRequestFi
 			@Override
 			public void include(ServletRequest request, ServletResponse response) throws ServletException, IOException {
 				if (!SessionRepositoryRequestWrapper.this.hasCommittedInInclude) {
-					SessionRepositoryRequestWrapper.this.commitSession();
+					SessionRepositoryRequestWrapper.this.commitSession(false);
 					SessionRepositoryRequestWrapper.this.hasCommittedInInclude = true;
 				}
 				this.delegate.include(request, response);
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.web.http;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.session.Session;
+
+/**
+ * A {@link Session} that delegates to a {@link Session} shared by concurrent requests,
+ * synchronizing each access on a mutex.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+final class SynchronizedSession implements Session {
+
+	private final Session delegate;
+
+	private final Object mutex;
+
+	SynchronizedSession(Session delegate, Object mutex) {
+		this.delegate = delegate;
+		this.mutex = mutex;
+	}
+
+	@Override
+	public String getId() {
+		synchronized (this.mutex) {
+			return this.delegate.getId();
+		}
+	}
+
+	@Override
+	public String changeSessionId() {
+		synchronized (this.mutex) {
+			return this.delegate.changeSessionId();
+		}
+	}
+
+	@Override
+	public <T> @Nullable T getAttribute(String attributeName) {
+		synchronized (this.mutex) {
+			return this.delegate.getAttribute(attributeName);
+		}
+	}
+
+	@Override
+	public <T> @Nullable T peekAttribute(String attributeName) {
+		synchronized (this.mutex) {
+			return this.delegate.peekAttribute(attributeName);
+		}
+	}
+
+	@Override
+	public Set<String> getAttributeNames() {
+		synchronized (this.mutex) {
+			return this.delegate.getAttributeNames();
+		}
+	}
+
+	@Override
+	public void setAttribute(String attributeName, Object attributeValue) {
+		synchronized (this.mutex) {
+			this.delegate.setAttribute(attributeName, attributeValue);
+		}
+	}
+
+	@Override
+	public void removeAttribute(String attributeName) {
+		synchronized (this.mutex) {
+			this.delegate.removeAttribute(attributeName);
+		}
+	}
+
+	@Override
+	public Instant getCreationTime() {
+		synchronized (this.mutex) {
+			return this.delegate.getCreationTime();
+		}
+	}
+
+	@Override
+	public void setLastAccessedTime(Instant lastAccessedTime) {
+		synchronized (this.mutex) {
+			this.delegate.setLastAccessedTime(lastAccessedTime);
+		}
+	}
+
+	@Override
+	public Instant getLastAccessedTime() {
+		synchronized (this.mutex) {
+			return this.delegate.getLastAccessedTime();
+		}
+	}
+
+	@Override
+	public void setMaxInactiveInterval(Duration interval) {
+		synchronized (this.mutex) {
+			this.delegate.setMaxInactiveInterval(interval);
+		}
+	}
+
+	@Override
+	public Duration getMaxInactiveInterval() {
+		synchronized (this.mutex) {
+			return this.delegate.getMaxInactiveInterval();
+		}
+	}
+
+	@Override
+	public boolean isExpired() {
+		synchronized (this.mutex) {
+			return this.delegate.isExpired();
+		}
+	}
+
+}
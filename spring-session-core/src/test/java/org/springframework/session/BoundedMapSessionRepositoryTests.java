@@ -0,0 +1,266 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.session.BoundedMapSessionRepository.EvictionPolicy;
+import org.springframework.session.events.AbstractSessionEvent;
+import org.springframework.session.events.SessionDeletedEvent;
+import org.springframework.session.events.SessionExpiredEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link BoundedMapSessionRepository}.
+ *
+ * @author agent (agent@local)
+ */
+class BoundedMapSessionRepositoryTests {
+
+	private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+	private final List<ApplicationEvent> events = new ArrayList<>();
+
+	private BoundedMapSessionRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		this.repository = new BoundedMapSessionRepository();
+		this.repository.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+		this.repository.setApplicationEventPublisher((event) -> this.events.add((ApplicationEvent) event));
+	}
+
+	@Test
+	void findByIdWhenSessionSavedThenReturnsCopy() {
+		MapSession session = createSession(Duration.ofMinutes(30));
+		session.setAttribute("name", "value");
+		this.repository.save(session);
+
+		MapSession found = this.repository.findById(session.getId());
+
+		assertThat(found).isNotNull().isNotSameAs(session);
+		assertThat(found.<String>getAttribute("name")).isEqualTo("value");
+		assertThat(this.events).isEmpty();
+	}
+
+	@Test
+	void findByIdWhenSessionExpiredThenPublishesSessionExpiredEvent() {
+		MapSession session = createSession(Duration.ofMinutes(30));
+		this.repository.save(session);
+		advanceClock(Duration.ofMinutes(31));
+
+		assertThat(this.repository.findById(session.getId())).isNull();
+		assertThat(this.repository.getSessionCount()).isZero();
+		assertThat(this.events).singleElement()
+			.isInstanceOf(SessionExpiredEvent.class)
+			.extracting((event) -> ((AbstractSessionEvent) event).getSessionId())
+			.isEqualTo(session.getId());
+	}
+
+	@Test
+	void cleanUpExpiredSessionsRemovesOnlyExpiredSessions() {
+		MapSession expired = createSession(Duration.ofMinutes(10));
+		MapSession active = createSession(Duration.ofMinutes(30));
+		MapSession eternal = createSession(Duration.ofSeconds(-1));
+		this.repository.save(expired);
+		this.repository.save(active);
+		this.repository.save(eternal);
+		advanceClock(Duration.ofMinutes(20));
+
+		this.repository.cleanUpExpiredSessions();
+
+		assertThat(this.repository.getSessionCount()).isEqualTo(2);
+		assertThat(this.repository.findById(active.getId())).isNotNull();
+		assertThat(this.repository.findById(eternal.getId())).isNotNull();
+		assertThat(this.events).singleElement()
+			.isInstanceOf(SessionExpiredEvent.class)
+			.extracting((event) -> ((AbstractSessionEvent) event).getSessionId())
+			.isEqualTo(expired.getId());
+	}
+
+	@Test
+	void saveWhenMaximumSessionsExceededThenEvictsLeastRecentlyUsed() {
+		this.repository.setMaximumSessions(2);
+		MapSession first = createSession(Duration.ofMinutes(30));
+		MapSession second = createSession(Duration.ofMinutes(30));
+		this.repository.save(first);
+		this.repository.save(second);
+		this.repository.findById(first.getId());
+
+		this.repository.save(createSession(Duration.ofMinutes(30)));
+
+		assertThat(this.repository.getSessionCount()).isEqualTo(2);
+		assertThat(this.repository.findById(first.getId())).isNotNull();
+		assertThat(this.repository.findById(second.getId())).isNull();
+		assertThat(this.events).singleElement()
+			.isInstanceOf(SessionDeletedEvent.class)
+			.extracting((event) -> ((AbstractSessionEvent) event).getSessionId())
+			.isEqualTo(second.getId());
+	}
+
+	@Test
+	void saveWhenMaximumSessionsExceededAndAllSessionsUsedThenEvictsLeastRecentlySaved() {
+		this.repository.setMaximumSessions(2);
+		MapSession first = createSession(Duration.ofMinutes(30));
+		MapSession second = createSession(Duration.ofMinutes(30));
+		this.repository.save(first);
+		this.repository.save(second);
+		this.repository.findById(first.getId());
+		this.repository.findById(second.getId());
+		MapSession third = createSession(Duration.ofMinutes(30));
+
+		this.repository.save(third);
+
+		assertThat(this.events).singleElement()
+			.isInstanceOf(SessionDeletedEvent.class)
+			.extracting((event) -> ((AbstractSessionEvent) event).getSessionId())
+			.isEqualTo(first.getId());
+		assertThat(this.repository.findById(third.getId())).isNotNull();
+	}
+
+	@Test
+	void saveWhenMaximumSessionsExceededThenRemovesExpiredSessionsFirst() {
+		this.repository.setMaximumSessions(2);
+		MapSession expired = createSession(Duration.ofMinutes(10));
+		MapSession active = createSession(Duration.ofMinutes(30));
+		this.repository.save(active);
+		this.repository.save(expired);
+		advanceClock(Duration.ofMinutes(20));
+
+		this.repository.save(createSession(Duration.ofMinutes(30)));
+
+		assertThat(this.repository.findById(active.getId())).isNotNull();
+		assertThat(this.events).singleElement().isInstanceOf(SessionExpiredEvent.class);
+	}
+
+	@Test
+	void saveWhenMaximumSessionsExceededAndEarliestExpirationThenEvictsSessionExpiringFirst() {
+		this.repository.setMaximumSessions(2);
+		this.repository.setEvictionPolicy(EvictionPolicy.EARLIEST_EXPIRATION);
+		MapSession longLived = createSession(Duration.ofMinutes(60));
+		MapSession shortLived = createSession(Duration.ofMinutes(5));
+		this.repository.save(shortLived);
+		this.repository.save(longLived);
+
+		this.repository.save(createSession(Duration.ofMinutes(30)));
+
+		assertThat(this.repository.findById(shortLived.getId())).isNull();
+		assertThat(this.repository.findById(longLived.getId())).isNotNull();
+	}
+
+	@Test
+	void saveWhenMaximumWeightExceededThenEvicts() {
+		this.repository.setMaximumWeight(10);
+		this.repository.setWeigher((session) -> session.<Integer>getAttribute("weight"));
+		MapSession first = createSession(Duration.ofMinutes(30));
+		first.setAttribute("weight", 6);
+		MapSession second = createSession(Duration.ofMinutes(30));
+		second.setAttribute("weight", 4);
+		this.repository.save(first);
+		this.repository.save(second);
+		assertThat(this.repository.getSessionCount()).isEqualTo(2);
+
+		second.setAttribute("weight", 5);
+		this.repository.save(second);
+
+		assertThat(this.repository.getSessionCount()).isEqualTo(1);
+		assertThat(this.repository.findById(first.getId())).isNull();
+	}
+
+	@Test
+	void saveWhenSessionHeavierThanMaximumWeightThenEvictsOnlyThatSession() {
+		this.repository.setMaximumWeight(10);
+		this.repository.setWeigher((session) -> session.<Integer>getAttribute("weight"));
+		MapSession first = createSession(Duration.ofMinutes(30));
+		first.setAttribute("weight", 6);
+		MapSession oversized = createSession(Duration.ofMinutes(30));
+		oversized.setAttribute("weight", 4);
+		this.repository.save(first);
+		this.repository.save(oversized);
+
+		oversized.setAttribute("weight", 11);
+		this.repository.save(oversized);
+
+		assertThat(this.repository.getSessionCount()).isEqualTo(1);
+		assertThat(this.repository.findById(first.getId())).isNotNull();
+		assertThat(this.repository.findById(oversized.getId())).isNull();
+		assertThat(this.events).singleElement()
+			.isInstanceOfSatisfying(SessionDeletedEvent.class,
+					(event) -> assertThat(event.getSessionId()).isEqualTo(oversized.getId()));
+
+		MapSession second = createSession(Duration.ofMinutes(30));
+		second.setAttribute("weight", 4);
+		this.repository.save(second);
+
+		assertThat(this.repository.getSessionCount()).isEqualTo(2);
+	}
+
+	@Test
+	void saveWhenSessionIdChangedThenRemovesOriginalSession() {
+		MapSession session = createSession(Duration.ofMinutes(30));
+		this.repository.save(session);
+		String originalId = session.getId();
+		session.changeSessionId();
+
+		this.repository.save(session);
+
+		assertThat(this.repository.findById(originalId)).isNull();
+		assertThat(this.repository.findById(session.getId())).isNotNull();
+		assertThat(this.repository.getSessionCount()).isEqualTo(1);
+	}
+
+	@Test
+	void deleteByIdPublishesSessionDeletedEvent() {
+		MapSession session = createSession(Duration.ofMinutes(30));
+		this.repository.save(session);
+
+		this.repository.deleteById(session.getId());
+		this.repository.deleteById(session.getId());
+
+		assertThat(this.repository.findById(session.getId())).isNull();
+		assertThat(this.events).singleElement().isInstanceOf(SessionDeletedEvent.class);
+	}
+
+	@Test
+	void setMaximumSessionsWhenZeroThenThrowsException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.repository.setMaximumSessions(0))
+			.withMessage("maximumSessions must be greater than 0");
+	}
+
+	private MapSession createSession(Duration maxInactiveInterval) {
+		MapSession session = this.repository.createSession();
+		session.setLastAccessedTime(NOW);
+		session.setMaxInactiveInterval(maxInactiveInterval);
+		return session;
+	}
+
+	private void advanceClock(Duration duration) {
+		this.repository.setClock(Clock.fixed(NOW.plus(duration), ZoneOffset.UTC));
+	}
+
+}
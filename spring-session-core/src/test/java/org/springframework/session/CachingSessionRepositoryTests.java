@@ -0,0 +1,196 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link CachingSessionRepository}.
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingSessionRepositoryTests {
+
+	@Mock
+	private SessionRepository<MapSession> delegate;
+
+	private TestSessionCacheInvalidationChannel invalidationChannel;
+
+	private CachingSessionRepository<MapSession> repository;
+
+	@BeforeEach
+	void setup() {
+		this.invalidationChannel = new TestSessionCacheInvalidationChannel();
+		this.repository = new CachingSessionRepository<>(this.delegate);
+		this.repository.setInvalidationChannel(this.invalidationChannel);
+	}
+
+	@Test
+	void constructorNullDelegate() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new CachingSessionRepository<>(null))
+			.withMessage("delegate must not be null");
+	}
+
+	@Test
+	void setMaximumSizeZero() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.repository.setMaximumSize(0))
+			.withMessage("maximumSize must be greater than 0");
+	}
+
+	@Test
+	void findByIdWhenSavedThenServedFromCache() {
+		MapSession session = createAndSaveSession();
+
+		assertThat(this.repository.findById(session.getId())).isSameAs(session);
+		verify(this.delegate).save(session);
+		verify(this.delegate, never()).findById(anyString());
+		assertThat(this.invalidationChannel.published).containsExactly(session.getId());
+	}
+
+	@Test
+	void findByIdWhenNotCachedThenDelegates() {
+		MapSession session = new MapSession();
+		given(this.delegate.findById(session.getId())).willReturn(session);
+
+		assertThat(this.repository.findById(session.getId())).isSameAs(session);
+		this.repository.save(session);
+		assertThat(this.repository.findById(session.getId())).isSameAs(session);
+		verify(this.delegate).findById(session.getId());
+	}
+
+	@Test
+	void findByIdWhenCheckedOutThenDelegates() {
+		MapSession session = createAndSaveSession();
+		MapSession concurrent = new MapSession(session);
+		given(this.delegate.findById(session.getId())).willReturn(concurrent);
+
+		assertThat(this.repository.findById(session.getId())).isSameAs(session);
+		assertThat(this.repository.findById(session.getId())).isSameAs(concurrent);
+	}
+
+	@Test
+	void saveWhenConcurrentlySavedThenEvicted() {
+		MapSession session = createAndSaveSession();
+		MapSession concurrent = new MapSession(session);
+		given(this.delegate.findById(session.getId())).willReturn(concurrent);
+		this.repository.findById(session.getId());
+		this.repository.findById(session.getId());
+
+		this.repository.save(concurrent);
+		this.repository.save(session);
+
+		assertThat(this.repository.findById(session.getId())).isSameAs(concurrent);
+		verify(this.delegate, times(2)).findById(session.getId());
+	}
+
+	@Test
+	void saveWhenSessionIdChangedThenOriginalIdInvalidated() {
+		MapSession session = createAndSaveSession();
+		String originalId = session.getId();
+		this.repository.findById(originalId);
+		String newId = session.changeSessionId();
+
+		this.repository.save(session);
+
+		assertThat(this.repository.findById(newId)).isSameAs(session);
+		assertThat(this.repository.findById(originalId)).isNull();
+		assertThat(this.invalidationChannel.published).containsExactly(originalId, newId, originalId);
+	}
+
+	@Test
+	void deleteByIdThenEvictedAndInvalidated() {
+		MapSession session = createAndSaveSession();
+
+		this.repository.deleteById(session.getId());
+
+		assertThat(this.repository.findById(session.getId())).isNull();
+		verify(this.delegate).deleteById(session.getId());
+		verify(this.delegate).findById(session.getId());
+		assertThat(this.invalidationChannel.published).containsExactly(session.getId(), session.getId());
+	}
+
+	@Test
+	void findByIdWhenInvalidatedThenDelegates() {
+		MapSession session = createAndSaveSession();
+
+		this.invalidationChannel.listeners.forEach((listener) -> listener.accept(session.getId()));
+
+		assertThat(this.repository.findById(session.getId())).isNull();
+		verify(this.delegate).findById(session.getId());
+	}
+
+	@Test
+	void findByIdWhenTimeToLiveElapsedThenDelegates() {
+		this.repository.setTimeToLive(Duration.ZERO);
+		MapSession session = createAndSaveSession();
+
+		assertThat(this.repository.findById(session.getId())).isNull();
+		verify(this.delegate).findById(session.getId());
+	}
+
+	@Test
+	void findByIdWhenMaximumSizeExceededThenLeastRecentlyUsedEvicted() {
+		this.repository.setMaximumSize(1);
+		MapSession first = createAndSaveSession();
+		MapSession second = createAndSaveSession();
+
+		assertThat(this.repository.findById(second.getId())).isSameAs(second);
+		assertThat(this.repository.findById(first.getId())).isNull();
+	}
+
+	private MapSession createAndSaveSession() {
+		given(this.delegate.createSession()).willReturn(new MapSession());
+		MapSession session = this.repository.createSession();
+		this.repository.save(session);
+		return session;
+	}
+
+	static class TestSessionCacheInvalidationChannel implements SessionCacheInvalidationChannel {
+
+		private final List<String> published = new ArrayList<>();
+
+		private final List<Consumer<String>> listeners = new ArrayList<>();
+
+		@Override
+		public void publish(String sessionId) {
+			this.published.add(sessionId);
+		}
+
+		@Override
+		public void subscribe(Consumer<String> listener) {
+			this.listeners.add(listener);
+		}
+
+	}
+
+}
@@ -96,6 +96,32 @@ class MapSessionRepositoryTests {
 		assertThat(this.repository.findById(createSession.getId())).isNotNull();
 	}
 
+	@Test
+	void saveWhenSessionModifiedAfterSaveThenSavedSessionUnchanged() {
+		MapSession session = this.repository.createSession();
+		session.setAttribute("attribute1", "value1");
+		this.repository.save(session);
+
+		session.setAttribute("attribute1", "changed");
+
+		assertThat(this.repository.findById(session.getId()).<String>getAttribute("attribute1")).isEqualTo("value1");
+	}
+
+	@Test
+	void findByIdWhenFoundSessionModifiedThenSavedSessionUnchanged() {
+		MapSession session = this.repository.createSession();
+		session.setAttribute("attribute1", "value1");
+		this.repository.save(session);
+
+		MapSession found = this.repository.findById(session.getId());
+		found.setAttribute("attribute1", "changed");
+		found.setAttribute("attribute2", "value2");
+
+		MapSession foundAgain = this.repository.findById(session.getId());
+		assertThat(foundAgain.getAttributeNames()).containsExactly("attribute1");
+		assertThat(foundAgain.<String>getAttribute("attribute1")).isEqualTo("value1");
+	}
+
 	@Test // gh-1120
 	void getAttributeNamesAndRemove() {
 		MapSession session = this.repository.createSession();
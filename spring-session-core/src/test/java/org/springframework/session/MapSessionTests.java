@@ -157,6 +157,34 @@ class MapSessionTests {
 		assertThat(this.session.getAttributeNames()).isEmpty();
 	}
 
+	@Test
+	void copyOnWriteWhenCopyModifiedThenOriginalUnchanged() {
+		this.session.setAttribute("attribute1", "value1");
+		MapSession copy = this.session.copyOnWrite();
+
+		copy.setAttribute("attribute1", "changed");
+		copy.setAttribute("attribute2", "value2");
+
+		assertThat(this.session.getAttributeNames()).containsExactly("attribute1");
+		assertThat(this.session.<String>getAttribute("attribute1")).isEqualTo("value1");
+		assertThat(copy.getAttributeNames()).containsExactlyInAnyOrder("attribute1", "attribute2");
+	}
+
+	@Test
+	void copyOnWriteWhenOriginalModifiedThenCopyUnchanged() {
+		this.session.setAttribute("attribute1", "value1");
+		MapSession copy = this.session.copyOnWrite();
+
+		this.session.removeAttribute("attribute1");
+
+		assertThat(this.session.getAttributeNames()).isEmpty();
+		assertThat(copy.<String>getAttribute("attribute1")).isEqualTo("value1");
+		assertThat(copy.getId()).isEqualTo(this.session.getId());
+		assertThat(copy.getCreationTime()).isEqualTo(this.session.getCreationTime());
+		assertThat(copy.getLastAccessedTime()).isEqualTo(this.session.getLastAccessedTime());
+		assertThat(copy.getMaxInactiveInterval()).isEqualTo(this.session.getMaxInactiveInterval());
+	}
+
 	@Test
 	void changeSessionIdWhenSessionIdStrategyThenUsesStrategy() {
 		MapSession session = new MapSession(new IncrementalSessionIdGenerator());
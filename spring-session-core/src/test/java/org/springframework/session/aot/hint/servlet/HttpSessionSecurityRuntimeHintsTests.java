@@ -59,6 +59,13 @@ class HttpSessionSecurityRuntimeHintsTests {
 		assertThat(RuntimeHintsPredicates.serialization().onType(typeReference)).accepts(this.hints);
 	}
 
+	@Test
+	void httpSessionHasSavedRequestFieldHint() {
+		this.httpSessionSecurityRuntimeHints.registerHints(this.hints, getClass().getClassLoader());
+		assertThat(RuntimeHintsPredicates.reflection()
+			.onFieldAccess(DefaultSavedRequest.class, "matchingRequestParameterName")).accepts(this.hints);
+	}
+
 	@Test
 	void registerHintsWhenHttpSessionMissingThenDoNotRegisterHints() {
 		try (MockedStatic<ClassUtils> classUtilsMock = mockStatic(ClassUtils.class)) {
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.observation;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.session.observation.SessionRepositoryObservationContext.Operation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DefaultSessionRepositoryObservationConvention}.
+ *
+ * @author agent (agent@local)
+ */
+class DefaultSessionRepositoryObservationConventionTests {
+
+	private final DefaultSessionRepositoryObservationConvention convention = new DefaultSessionRepositoryObservationConvention();
+
+	@Test
+	void nameAndContextualName() {
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext("jdbc",
+				Operation.FIND_BY_ID);
+		assertThat(this.convention.getName()).isEqualTo("spring.session.repository.operations");
+		assertThat(this.convention.getContextualName(context)).isEqualTo("session find_by_id");
+	}
+
+	@Test
+	void supportsOnlySessionRepositoryObservationContext() {
+		assertThat(this.convention.supportsContext(new SessionRepositoryObservationContext("redis", Operation.SAVE)))
+			.isTrue();
+		assertThat(this.convention.supportsContext(new Observation.Context())).isFalse();
+	}
+
+	@Test
+	void lowCardinalityKeyValuesWhenSuccessful() {
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext("redis", Operation.SAVE);
+		assertThat(this.convention.getLowCardinalityKeyValues(context)).containsExactlyInAnyOrder(
+				KeyValue.of("spring.session.backend", "redis"), KeyValue.of("spring.session.operation", "save"),
+				KeyValue.of("outcome", "SUCCESS"));
+	}
+
+	@Test
+	void lowCardinalityKeyValuesWhenFailed() {
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext("jdbc",
+				Operation.CLEANUP);
+		context.setError(new IllegalStateException("test"));
+		assertThat(this.convention.getLowCardinalityKeyValues(context)).contains(KeyValue.of("outcome", "ERROR"));
+	}
+
+	@Test
+	void highCardinalityKeyValuesWhenUnknown() {
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext("jdbc",
+				Operation.DELETE_BY_ID);
+		assertThat(this.convention.getHighCardinalityKeyValues(context)).isEmpty();
+	}
+
+	@Test
+	void highCardinalityKeyValuesWhenKnown() {
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext("jdbc", Operation.SAVE);
+		context.setAttributeCount(3);
+		context.setDeltaSize(1);
+		assertThat(this.convention.getHighCardinalityKeyValues(context)).containsExactlyInAnyOrder(
+				KeyValue.of("spring.session.attribute.count", "3"), KeyValue.of("spring.session.delta.size", "1"));
+	}
+
+}
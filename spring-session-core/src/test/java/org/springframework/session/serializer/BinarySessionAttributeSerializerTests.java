@@ -0,0 +1,234 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.serializer;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.FactorGrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.security.web.savedrequest.DefaultSavedRequest;
+import org.springframework.security.web.savedrequest.SavedCookie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BinarySessionAttributeSerializer}.
+ *
+ * @author agent (agent@local)
+ */
+class BinarySessionAttributeSerializerTests {
+
+	private final BinarySessionAttributeSerializer serializer = new BinarySessionAttributeSerializer();
+
+	private final JdkSessionAttributeSerializer jdkSerializer = new JdkSessionAttributeSerializer();
+
+	@Test
+	void constructorWhenDelegateNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new BinarySessionAttributeSerializer(null))
+			.withMessage("delegate must not be null");
+	}
+
+	@Test
+	void serializeWhenBuiltInTypesThenRoundTrip() {
+		Instant now = Instant.now();
+		assertThat(roundTrip("value")).isEqualTo("value");
+		assertThat(roundTrip(true)).isEqualTo(true);
+		assertThat(roundTrip(1800)).isEqualTo(1800);
+		assertThat(roundTrip(now.toEpochMilli())).isEqualTo(now.toEpochMilli());
+		assertThat(roundTrip(now)).isEqualTo(now);
+		assertThat(this.serializer.serialize(1800L)).hasSize(10);
+	}
+
+	@Test
+	void serializeWhenUnregisteredTypeThenDelegates() {
+		Map<String, Integer> value = Map.of("count", 1);
+		byte[] bytes = this.serializer.serialize(value);
+		assertThat(bytes).isEqualTo(this.jdkSerializer.serialize(value));
+		assertThat(this.serializer.deserialize(bytes)).isEqualTo(value);
+	}
+
+	@Test
+	void deserializeWhenJdkSerializedRegisteredTypeThenRead() {
+		SecurityContextImpl context = createSecurityContext();
+		assertThat(this.serializer.deserialize(this.jdkSerializer.serialize(context))).isEqualTo(context);
+	}
+
+	@Test
+	void serializeWhenSecurityContextThenRoundTrip() {
+		SecurityContextImpl context = createSecurityContext();
+		byte[] bytes = this.serializer.serialize(context);
+		assertThat(bytes).hasSizeLessThan(this.jdkSerializer.serialize(context).length / 3);
+		SecurityContextImpl result = (SecurityContextImpl) this.serializer.deserialize(bytes);
+		assertThat(result).isEqualTo(context);
+		assertThat(result.getAuthentication().getPrincipal()).isInstanceOf(User.class);
+		assertThat(result.getAuthentication().getAuthorities()).hasSize(2)
+			.anySatisfy((authority) -> assertThat(authority).isInstanceOf(FactorGrantedAuthority.class));
+		assertThat(result.getAuthentication().getDetails()).isEqualTo(new WebAuthenticationDetails("127.0.0.1", "id"));
+	}
+
+	@Test
+	void serializeWhenSecurityContextWithoutAuthenticationThenRoundTrip() {
+		SecurityContextImpl context = new SecurityContextImpl();
+		assertThat(roundTrip(context)).isEqualTo(context);
+	}
+
+	@Test
+	void serializeWhenUnauthenticatedTokenThenRoundTrip() {
+		UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated("user",
+				"password");
+		UsernamePasswordAuthenticationToken result = (UsernamePasswordAuthenticationToken) roundTrip(token);
+		assertThat(result).isEqualTo(token);
+		assertThat(result.isAuthenticated()).isFalse();
+	}
+
+	@Test
+	void serializeWhenUserWithErasedCredentialsThenRoundTrip() {
+		User user = new User("user", "password", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+		user.eraseCredentials();
+		User result = (User) roundTrip(user);
+		assertThat(result.getUsername()).isEqualTo("user");
+		assertThat(result.getPassword()).isNull();
+		assertThat(result.getAuthorities()).containsExactly(new SimpleGrantedAuthority("ROLE_USER"));
+		assertThat(result.isEnabled()).isTrue();
+	}
+
+	@Test
+	void serializeWhenCsrfTokenThenRoundTrip() {
+		DefaultCsrfToken token = new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", "token");
+		DefaultCsrfToken result = (DefaultCsrfToken) roundTrip(token);
+		assertThat(result.getHeaderName()).isEqualTo("X-CSRF-TOKEN");
+		assertThat(result.getParameterName()).isEqualTo("_csrf");
+		assertThat(result.getToken()).isEqualTo("token");
+	}
+
+	@Test
+	void serializeWhenSavedRequestThenRoundTrip() {
+		DefaultSavedRequest request = new DefaultSavedRequest.Builder()
+			.setCookies(List.of(new SavedCookie("name", "value", "example.com", 60, "/", true)))
+			.setLocales(List.of(Locale.CANADA_FRENCH))
+			.setHeaders(Map.of("Accept", List.of("text/html", "application/xml")))
+			.setParameters(Map.of("page", new String[] { "1", "2" }))
+			.setContextPath("/app")
+			.setMethod("GET")
+			.setQueryString("page=1&page=2")
+			.setRequestURI("/app/messages")
+			.setRequestURL("https://example.com/app/messages")
+			.setScheme("https")
+			.setServerName("example.com")
+			.setServletPath("/messages")
+			.setServerPort(443)
+			.setMatchingRequestParameterName("continue")
+			.build();
+		DefaultSavedRequest result = (DefaultSavedRequest) roundTrip(request);
+		assertThat(result.getCookies()).singleElement().satisfies((cookie) -> {
+			assertThat(cookie.getName()).isEqualTo("name");
+			assertThat(cookie.getValue()).isEqualTo("value");
+			assertThat(cookie.getDomain()).isEqualTo("example.com");
+			assertThat(cookie.getMaxAge()).isEqualTo(60);
+			assertThat(cookie.getSecure()).isTrue();
+		});
+		assertThat(result.getLocales()).containsExactly(Locale.CANADA_FRENCH);
+		assertThat(result.getHeaderValues("Accept")).containsExactly("text/html", "application/xml");
+		assertThat(result.getParameterValues("page")).containsExactly("1", "2");
+		assertThat(result.getPathInfo()).isNull();
+		assertThat(result.getServerPort()).isEqualTo(443);
+		assertThat(result.getRedirectUrl()).isEqualTo(request.getRedirectUrl())
+			.isEqualTo("https://example.com/app/messages?page=1&page=2&continue");
+	}
+
+	@Test
+	void serializeWhenApplicationTypeThenRoundTrip() {
+		this.serializer.register(BinarySessionAttributeSerializer.MIN_APPLICATION_TYPE_ID, Cart.class,
+				SessionAttributeCodec.of((cart, output) -> {
+					output.writeString(cart.owner);
+					output.writeValue(cart.items);
+				}, (input) -> new Cart(input.readString(), (String[]) input.readValue())));
+		Cart result = (Cart) roundTrip(new Cart("user", new String[] { "book" }));
+		assertThat(result.owner).isEqualTo("user");
+		assertThat(result.items).containsExactly("book");
+	}
+
+	@Test
+	void registerWhenTypeIdReservedThenException() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> this.serializer.register(63, Cart.class, SessionAttributeCodec.of((cart, output) -> {
+			}, (input) -> new Cart(null, null))))
+			.withMessage("typeId must be between 64 and 255");
+	}
+
+	@Test
+	void registerWhenTypeAlreadyRegisteredThenException() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> this.serializer.register(64, String.class,
+					SessionAttributeCodec.of((value, output) -> output.writeString(value), (input) -> "value")))
+			.withMessage("type java.lang.String is already registered");
+	}
+
+	@Test
+	void deserializeWhenUnknownTypeIdThenException() {
+		assertThatIllegalStateException().isThrownBy(() -> this.serializer.deserialize(new byte[] { 1, (byte) 200 }))
+			.withMessage("Cannot deserialize, unknown typeId 200");
+	}
+
+	@Test
+	void deserializeWhenTruncatedThenException() {
+		byte[] bytes = this.serializer.serialize(createSecurityContext());
+		assertThatIllegalStateException()
+			.isThrownBy(() -> this.serializer.deserialize(Arrays.copyOf(bytes, bytes.length - 1)));
+	}
+
+	private Object roundTrip(Object value) {
+		return this.serializer.deserialize(this.serializer.serialize(value));
+	}
+
+	private static SecurityContextImpl createSecurityContext() {
+		User user = new User("user", "password", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+		UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(user,
+				null, List.of(new SimpleGrantedAuthority("ROLE_USER"),
+						FactorGrantedAuthority.withAuthority(FactorGrantedAuthority.PASSWORD_AUTHORITY).build()));
+		authentication.setDetails(new WebAuthenticationDetails("127.0.0.1", "id"));
+		return new SecurityContextImpl(authentication);
+	}
+
+	static class Cart implements Serializable {
+
+		final String owner;
+
+		final String[] items;
+
+		Cart(String owner, String[] items) {
+			this.owner = owner;
+			this.items = items;
+		}
+
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.serializer;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link SessionAttributeCompressor}.
+ *
+ * @author agent (agent@local)
+ */
+class SessionAttributeCompressorTests {
+
+	private final SessionAttributeCompressor compressor = new SessionAttributeCompressor();
+
+	@Test
+	void setThresholdWhenNegativeThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.compressor.setThreshold(-1))
+			.withMessage("threshold must not be negative");
+	}
+
+	@Test
+	void setLevelWhenOutOfRangeThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.compressor.setLevel(0))
+			.withMessage("level must be between 1 and 9");
+		assertThatIllegalArgumentException().isThrownBy(() -> this.compressor.setLevel(10))
+			.withMessage("level must be between 1 and 9");
+	}
+
+	@Test
+	void compressWhenBelowThresholdThenUnchanged() {
+		byte[] value = "value".getBytes(StandardCharsets.UTF_8);
+		assertThat(this.compressor.compress(value)).isSameAs(value);
+		assertThat(this.compressor.getCompressedCount()).isZero();
+	}
+
+	@Test
+	void compressWhenAboveThresholdThenCompressed() {
+		byte[] value = "value".repeat(1000).getBytes(StandardCharsets.UTF_8);
+		byte[] compressed = this.compressor.compress(value);
+		assertThat(compressed.length).isLessThan(value.length);
+		assertThat(compressed[0]).isZero();
+		assertThat(this.compressor.decompress(compressed)).isEqualTo(value);
+		assertThat(this.compressor.getCompressedCount()).isOne();
+		assertThat(this.compressor.getUncompressedBytes()).isEqualTo(value.length);
+		assertThat(this.compressor.getCompressedBytes()).isEqualTo(compressed.length);
+		assertThat(this.compressor.getCompressionRatio()).isLessThan(0.1);
+	}
+
+	@Test
+	void compressWhenNotCompressibleThenUnchanged() {
+		this.compressor.setThreshold(0);
+		byte[] value = { 1, 2, 3 };
+		assertThat(this.compressor.compress(value)).isSameAs(value);
+		assertThat(this.compressor.getCompressedCount()).isZero();
+	}
+
+	@Test
+	void compressWhenStartsWithMarkerThenStoredWithHeader() {
+		byte[] value = { 0, 1, 2 };
+		byte[] stored = this.compressor.compress(value);
+		assertThat(stored).containsExactly(0, 0, 0, 1, 2);
+		assertThat(this.compressor.decompress(stored)).isEqualTo(value);
+	}
+
+	@Test
+	void decompressWhenNotCompressedThenUnchanged() {
+		byte[] value = { (byte) 0xAC, (byte) 0xED, 0, 5 };
+		assertThat(this.compressor.decompress(value)).isSameAs(value);
+	}
+
+	@Test
+	void decompressWhenUnknownAlgorithmThenException() {
+		assertThatIllegalStateException().isThrownBy(() -> this.compressor.decompress(new byte[] { 0, 9, 1 }))
+			.withMessage("Unsupported compression algorithm 9");
+	}
+
+}
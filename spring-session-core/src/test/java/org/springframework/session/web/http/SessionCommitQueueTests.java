@@ -0,0 +1,151 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.web.http;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link SessionCommitQueue}.
+ *
+ * @author agent (agent@local)
+ */
+class SessionCommitQueueTests {
+
+	@Test
+	void submitWhenSameSessionThenCommitsRunInOrder() {
+		List<Runnable> tasks = new ArrayList<>();
+		SessionCommitQueue queue = new SessionCommitQueue(tasks::add);
+		List<String> commits = new ArrayList<>();
+
+		assertThat(queue.submit("1", () -> commits.add("first"), 10)).isTrue();
+		assertThat(queue.submit("1", () -> commits.add("second"), 10)).isTrue();
+		assertThat(queue.submit("2", () -> commits.add("other"), 10)).isTrue();
+
+		assertThat(tasks).hasSize(2);
+		tasks.get(0).run();
+		assertThat(commits).containsExactly("first", "second");
+		tasks.get(1).run();
+		assertThat(commits).containsExactly("first", "second", "other");
+	}
+
+	@Test
+	void submitWhenCapacityReachedThenRejected() {
+		SessionCommitQueue queue = new SessionCommitQueue((task) -> {
+		});
+
+		assertThat(queue.submit("1", () -> {
+		}, 1)).isTrue();
+		assertThat(queue.submit("2", () -> {
+		}, 1)).isFalse();
+	}
+
+	@Test
+	void submitWhenExecutorRejectsThenRunsOnCaller() throws Exception {
+		SessionCommitQueue queue = new SessionCommitQueue((task) -> {
+			throw new RejectedExecutionException();
+		});
+		List<String> commits = new ArrayList<>();
+
+		assertThat(queue.submit("1", () -> commits.add("first"), 10)).isTrue();
+
+		assertThat(commits).containsExactly("first");
+		assertThat(queue.drain(Duration.ZERO)).isTrue();
+	}
+
+	@Test
+	void submitWhenCommitFailsThenNextCommitRuns() {
+		List<Runnable> tasks = new ArrayList<>();
+		SessionCommitQueue queue = new SessionCommitQueue(tasks::add);
+		List<String> commits = new ArrayList<>();
+
+		queue.submit("1", () -> {
+			throw new IllegalStateException("Session was invalidated");
+		}, 10);
+		queue.submit("1", () -> commits.add("second"), 10);
+		tasks.get(0).run();
+
+		assertThat(commits).containsExactly("second");
+	}
+
+	@Test
+	void submitWhenCommitThrowsErrorThenPendingCommitsReleased() throws Exception {
+		List<Runnable> tasks = new ArrayList<>();
+		SessionCommitQueue queue = new SessionCommitQueue(tasks::add);
+		List<String> commits = new ArrayList<>();
+
+		queue.submit("1", () -> {
+			throw new AssertionError("commit failed");
+		}, 2);
+		queue.submit("1", () -> commits.add("second"), 2);
+		assertThatExceptionOfType(AssertionError.class).isThrownBy(() -> tasks.get(0).run());
+
+		assertThat(queue.drain(Duration.ofMillis(10))).isTrue();
+		assertThat(queue.submit("1", () -> commits.add("third"), 2)).isTrue();
+		assertThat(tasks).hasSize(2);
+		tasks.get(1).run();
+		assertThat(commits).containsExactly("third");
+	}
+
+	@Test
+	void drainWhenPendingCommitsThenWaitsForThem() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			SessionCommitQueue queue = new SessionCommitQueue(executor);
+			List<String> commits = new ArrayList<>();
+			queue.submit("1", () -> {
+				sleep();
+				commits.add("first");
+			}, 10);
+
+			assertThat(queue.drain(Duration.ofSeconds(10))).isTrue();
+			assertThat(commits).containsExactly("first");
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void drainWhenTimeoutElapsesThenFalse() throws Exception {
+		SessionCommitQueue queue = new SessionCommitQueue((task) -> {
+		});
+		queue.submit("1", () -> {
+		}, 10);
+
+		assertThat(queue.drain(Duration.ofMillis(10))).isFalse();
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(100);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -23,11 +23,15 @@ import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletContext;
@@ -66,6 +70,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
@@ -1280,6 +1285,36 @@ class SessionRepositoryFilterTests {
 		assertThat(bindingListener2.getCounter()).isEqualTo(1);
 	}
 
+	@Test
+	void bindingListenerWhenNotifyBindingListenersDisabledThenNotNotified() throws Exception {
+		String bindingListenerName = "bindingListener";
+		CountingHttpSessionBindingListener bindingListener = new CountingHttpSessionBindingListener();
+		MapSession session = this.sessionRepository.createSession();
+		session.setAttribute(bindingListenerName, bindingListener);
+		this.sessionRepository.save(session);
+		MapSession storedSession = spy(this.sessionRepository.findById(session.getId()));
+		SessionRepository<MapSession> sessionRepository = spy(this.sessionRepository);
+		given(sessionRepository.findById(session.getId())).willReturn(storedSession);
+		setSessionCookie(session.getId());
+		this.filter = new SessionRepositoryFilter<>(sessionRepository);
+		this.filter.setNotifyBindingListeners(false);
+
+		doFilter(new DoInFilter() {
+
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				HttpSession httpSession = wrappedRequest.getSession();
+				httpSession.setAttribute(bindingListenerName, new CountingHttpSessionBindingListener());
+				httpSession.removeAttribute(bindingListenerName);
+			}
+
+		});
+
+		assertThat(bindingListener.getCounter()).isEqualTo(0);
+		verify(storedSession, never()).getAttribute(bindingListenerName);
+		verify(storedSession, never()).peekAttribute(bindingListenerName);
+	}
+
 	@Test
 	void bindingListenerBindThrowsException() throws Exception {
 		String bindingListenerName = "bindingListener";
@@ -1345,8 +1380,306 @@ class SessionRepositoryFilterTests {
 		});
 	}
 
+	@Test
+	void doFilterConcurrentRequestsCoalesced() throws Exception {
+		MapSession session = this.sessionRepository.createSession();
+		this.sessionRepository.save(session);
+		this.sessionRepository = spy(this.sessionRepository);
+		setSessionCookie(session.getId());
+		this.filter = new SessionRepositoryFilter<>(this.sessionRepository);
+		this.filter.setCoalesceConcurrentRequests(true);
+
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				wrappedRequest.getSession().setAttribute("first", "a");
+				doConcurrentFilter(session.getId(), (concurrentRequest) -> {
+					HttpSession concurrentSession = concurrentRequest.getSession();
+					assertThat(concurrentSession.getAttribute("first")).isEqualTo("a");
+					concurrentSession.setAttribute("second", "b");
+				});
+				verify(SessionRepositoryFilterTests.this.sessionRepository, never()).save(any());
+				assertThat(wrappedRequest.getSession().getAttribute("second")).isEqualTo("b");
+			}
+		});
+
+		verify(this.sessionRepository, times(1)).findById(session.getId());
+		verify(this.sessionRepository, times(1)).save(any());
+		MapSession saved = this.sessionRepository.findById(session.getId());
+		assertThat(saved.<String>getAttribute("first")).isEqualTo("a");
+		assertThat(saved.<String>getAttribute("second")).isEqualTo("b");
+	}
+
+	@Test
+	void doFilterConcurrentRequestsNotCoalescedByDefault() throws Exception {
+		MapSession session = this.sessionRepository.createSession();
+		this.sessionRepository.save(session);
+		setSessionCookie(session.getId());
+
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				wrappedRequest.getSession().setAttribute("first", "a");
+				doConcurrentFilter(session.getId(),
+						(concurrentRequest) -> assertThat(concurrentRequest.getSession().getAttribute("first"))
+							.isNull());
+			}
+		});
+
+		assertThat(this.sessionRepository.findById(session.getId()).<String>getAttribute("first")).isEqualTo("a");
+	}
+
+	@Test
+	void doFilterConcurrentRequestsCoalescedInvalidate() throws Exception {
+		MapSession session = this.sessionRepository.createSession();
+		this.sessionRepository.save(session);
+		setSessionCookie(session.getId());
+		this.filter.setCoalesceConcurrentRequests(true);
+
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				HttpSession httpSession = wrappedRequest.getSession();
+				doConcurrentFilter(session.getId(), (concurrentRequest) -> concurrentRequest.getSession().invalidate());
+				httpSession.setAttribute("first", "a");
+			}
+		});
+
+		assertThat(this.sessionRepository.findById(session.getId())).isNull();
+		nextRequest();
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				assertThat(wrappedRequest.getSession(false)).isNull();
+			}
+		});
+	}
+
+	@Test
+	void doFilterConcurrentRequestsCoalescedChangeSessionId() throws Exception {
+		MapSession session = this.sessionRepository.createSession();
+		this.sessionRepository.save(session);
+		String originalId = session.getId();
+		setSessionCookie(originalId);
+		this.filter.setCoalesceConcurrentRequests(true);
+		AtomicReference<String> changedId = new AtomicReference<>();
+
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				HttpSession httpSession = wrappedRequest.getSession();
+				doConcurrentFilter(originalId, (concurrentRequest) -> {
+					concurrentRequest.getSession();
+					changedId.set(concurrentRequest.changeSessionId());
+					assertThat(SessionRepositoryFilterTests.this.sessionRepository.findById(changedId.get()))
+						.isNotNull();
+					concurrentRequest.getSession().setAttribute("principal", "user");
+				});
+				MapSession saved = SessionRepositoryFilterTests.this.sessionRepository.findById(changedId.get());
+				assertThat(saved.<String>getAttribute("principal")).isEqualTo("user");
+				assertThat(SessionRepositoryFilterTests.this.sessionRepository.findById(originalId)).isNull();
+				doConcurrentFilter(originalId,
+						(concurrentRequest) -> assertThat(concurrentRequest.getSession(false)).isNull());
+				httpSession.setAttribute("first", "a");
+			}
+		});
+
+		MapSession saved = this.sessionRepository.findById(changedId.get());
+		assertThat(saved.<String>getAttribute("principal")).isEqualTo("user");
+		assertThat(saved.<String>getAttribute("first")).isEqualTo("a");
+	}
+
+	@Test
+	void doFilterAsyncCommitSavesExistingSessionOnExecutor() throws Exception {
+		MapSession session = this.sessionRepository.createSession();
+		this.sessionRepository.save(session);
+		this.sessionRepository = spy(this.sessionRepository);
+		setSessionCookie(session.getId());
+		List<Runnable> commits = new ArrayList<>();
+		this.filter = new SessionRepositoryFilter<>(this.sessionRepository);
+		this.filter.setAsyncCommitExecutor(commits::add);
+
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest, HttpServletResponse wrappedResponse)
+					throws IOException {
+				wrappedRequest.getSession().setAttribute("first", "a");
+				wrappedResponse.flushBuffer();
+			}
+		});
+
+		verify(this.sessionRepository, never()).save(any());
+		assertThat(this.response.getCookie("SESSION")).isNull();
+		assertThat(commits).hasSize(1);
+		commits.get(0).run();
+		verify(this.sessionRepository).save(any());
+		assertThat(this.sessionRepository.findById(session.getId()).<String>getAttribute("first")).isEqualTo("a");
+	}
+
+	@Test
+	void doFilterAsyncCommitSavesNewSessionOnRequestThread() throws Exception {
+		List<Runnable> commits = new ArrayList<>();
+		this.filter.setAsyncCommitExecutor(commits::add);
+
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				wrappedRequest.getSession().setAttribute("first", "a");
+			}
+		});
+
+		assertThat(commits).isEmpty();
+		String sessionId = base64Decode(getSessionCookie().getValue());
+		assertThat(this.sessionRepository.findById(sessionId).<String>getAttribute("first")).isEqualTo("a");
+	}
+
+	@Test
+	void doFilterAsyncCommitSavesChangedSessionIdOnRequestThread() throws Exception {
+		MapSession session = this.sessionRepository.createSession();
+		this.sessionRepository.save(session);
+		setSessionCookie(session.getId());
+		List<Runnable> commits = new ArrayList<>();
+		this.filter.setAsyncCommitExecutor(commits::add);
+
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				wrappedRequest.getSession();
+				wrappedRequest.changeSessionId();
+			}
+		});
+
+		assertThat(commits).isEmpty();
+		String sessionId = base64Decode(getSessionCookie().getValue());
+		assertThat(sessionId).isNotEqualTo(session.getId());
+		assertThat(this.sessionRepository.findById(sessionId)).isNotNull();
+	}
+
+	@Test
+	void doFilterAsyncCommitWhenQueueFullThenSavesOnRequestThread() throws Exception {
+		MapSession session = this.sessionRepository.createSession();
+		this.sessionRepository.save(session);
+		setSessionCookie(session.getId());
+		List<Runnable> commits = new ArrayList<>();
+		this.filter.setAsyncCommitExecutor(commits::add);
+		this.filter.setAsyncCommitQueueCapacity(1);
+
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				wrappedRequest.getSession().setAttribute("first", "a");
+			}
+		});
+		nextRequest();
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				wrappedRequest.getSession().setAttribute("second", "b");
+			}
+		});
+
+		assertThat(commits).hasSize(1);
+		assertThat(this.sessionRepository.findById(session.getId()).<String>getAttribute("second")).isEqualTo("b");
+	}
+
+	@Test
+	void setAsyncCommitQueueCapacityWhenNotPositiveThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.filter.setAsyncCommitQueueCapacity(0))
+			.withMessage("asyncCommitQueueCapacity must be greater than 0");
+	}
+
+	@Test
+	void doFilterPrefetchRetrievesSessionOnExecutor() throws Exception {
+		MapSession session = this.sessionRepository.createSession();
+		session.setAttribute("first", "a");
+		this.sessionRepository.save(session);
+		SessionRepository<MapSession> sessionRepository = spy(this.sessionRepository);
+		setSessionCookie(session.getId());
+		List<Runnable> prefetches = new ArrayList<>();
+		this.filter = new SessionRepositoryFilter<>(sessionRepository);
+		this.filter.setPrefetchExecutor((task) -> {
+			prefetches.add(task);
+			task.run();
+		});
+
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				assertThat(prefetches).hasSize(1);
+				verify(sessionRepository).findById(session.getId());
+				assertThat(wrappedRequest.getSession().getAttribute("first")).isEqualTo("a");
+			}
+		});
+
+		verify(sessionRepository).findById(session.getId());
+	}
+
+	@Test
+	void doFilterPrefetchWhenNoRequestedSessionThenNoPrefetch() throws Exception {
+		List<Runnable> prefetches = new ArrayList<>();
+		this.filter.setPrefetchExecutor(prefetches::add);
+
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				wrappedRequest.getSession(false);
+			}
+		});
+
+		assertThat(prefetches).isEmpty();
+	}
+
+	@Test
+	void doFilterPrefetchWhenExecutorRejectsThenRetrievesOnAccess() throws Exception {
+		MapSession session = this.sessionRepository.createSession();
+		session.setAttribute("first", "a");
+		this.sessionRepository.save(session);
+		setSessionCookie(session.getId());
+		this.filter.setPrefetchExecutor((task) -> {
+			throw new RejectedExecutionException();
+		});
+
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				assertThat(wrappedRequest.getSession().getAttribute("first")).isEqualTo("a");
+			}
+		});
+	}
+
+	@Test
+	void doFilterPrefetchWhenLookupFailsThenExceptionOnAccess() throws Exception {
+		MapSession session = this.sessionRepository.createSession();
+		this.sessionRepository.save(session);
+		SessionRepository<MapSession> sessionRepository = spy(this.sessionRepository);
+		willThrow(new IllegalStateException("unavailable")).given(sessionRepository).findById(session.getId());
+		setSessionCookie(session.getId());
+		this.filter = new SessionRepositoryFilter<>(sessionRepository);
+		this.filter.setPrefetchExecutor(Runnable::run);
+
+		doFilter(new DoInFilter() {
+			@Override
+			public void doFilter(HttpServletRequest wrappedRequest) {
+				assertThatIllegalStateException().isThrownBy(wrappedRequest::getSession).withMessage("unavailable");
+			}
+		});
+	}
+
 	// --- helper methods
 
+	private void doConcurrentFilter(String sessionId, Consumer<HttpServletRequest> doInFilter) {
+		MockHttpServletRequest concurrentRequest = new MockHttpServletRequest();
+		concurrentRequest.setCookies(new Cookie("SESSION", base64Encode(sessionId)));
+		MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+		}, (request, response, filterChain) -> doInFilter.accept((HttpServletRequest) request));
+		try {
+			this.filter.doFilter(concurrentRequest, new MockHttpServletResponse(), chain);
+		}
+		catch (ServletException | IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
 	private void assertNewSession() {
 		Cookie cookie = getSessionCookie();
 		assertThat(cookie).isNotNull();
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.data.redis;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.session.serializer.SessionAttributeCompressor;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link RedisSerializer} that compresses the values serialized by another
+ * {@link RedisSerializer} using a {@link SessionAttributeCompressor}. Values that were
+ * stored uncompressed, for example before this serializer was configured, are still read.
+ * It is meant to be used as the default serializer of the Redis session repositories, for
+ * example:
+ *
+ * <pre class="code">
+ * &#64;Bean
+ * public RedisSerializer&lt;Object&gt; springSessionDefaultRedisSerializer() {
+ *     return new CompressingRedisSerializer(RedisSerializer.java());
+ * }
+ * </pre>
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+public class CompressingRedisSerializer implements RedisSerializer<Object> {
+
+	private final RedisSerializer<Object> delegate;
+
+	private final SessionAttributeCompressor compressor;
+
+	/**
+	 * Create a new {@link CompressingRedisSerializer} instance that uses a
+	 * {@link SessionAttributeCompressor} with its default settings.
+	 * @param delegate the serializer to compress the values of
+	 */
+	public CompressingRedisSerializer(RedisSerializer<Object> delegate) {
+		this(delegate, new SessionAttributeCompressor());
+	}
+
+	/**
+	 * Create a new {@link CompressingRedisSerializer} instance.
+	 * @param delegate the serializer to compress the values of
+	 * @param compressor the compressor to use
+	 */
+	public CompressingRedisSerializer(RedisSerializer<Object> delegate, SessionAttributeCompressor compressor) {
+		Assert.notNull(delegate, "delegate must not be null");
+		Assert.notNull(compressor, "compressor must not be null");
+		this.delegate = delegate;
+		this.compressor = compressor;
+	}
+
+	@Override
+	public byte[] serialize(@Nullable Object value) throws SerializationException {
+		return this.compressor.compress(this.delegate.serialize(value));
+	}
+
+	@Override
+	public @Nullable Object deserialize(byte @Nullable [] bytes) throws SerializationException {
+		if (bytes == null) {
+			return null;
+		}
+		try {
+			return this.delegate.deserialize(this.compressor.decompress(bytes));
+		}
+		catch (IllegalStateException ex) {
+			throw new SerializationException("Cannot deserialize", ex);
+		}
+	}
+
+	/**
+	 * Return the {@link SessionAttributeCompressor} used by this serializer, for example
+	 * to monitor the compression ratio.
+	 * @return the compressor
+	 */
+	public SessionAttributeCompressor getCompressor() {
+		return this.compressor;
+	}
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.data.redis;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.session.Session;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Uses a field of the session hash with a per-field TTL, as supported by Redis 7.4 and
+ * later, to track the expiration of sessions. The field holds the expiration time of the
+ * session (calculated via {@link Session#getLastAccessedTime()} +
+ * {@link Session#getMaxInactiveInterval()}) and expires along with the session. Redis
+ * then publishes a {@code hexpired} keyspace event for the session hash, which
+ * {@link RedisIndexedSessionRepository} uses to publish
+ * {@link org.springframework.session.events.SessionExpiredEvent}s. Deleting a session
+ * removes the field, so that the session does not expire afterwards. As a result, no
+ * shadow {@code expires} key and no separate expiration index are needed. Keyspace events
+ * for hash commands must be enabled, see
+ * {@link org.springframework.session.data.redis.config.ConfigureNotifyKeyspaceEventsAction}.
+ * <p>
+ * Support for hash field expiration is detected once, by issuing {@code HEXPIRE} against
+ * a key that does not exist, either on {@link #afterPropertiesSet()} or the first time
+ * the store is used. If Redis does not support hash field expiration, this store falls
+ * back to a {@link SortedSetRedisSessionExpirationStore} and to the shadow
+ * {@code expires} keys.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+public class HashFieldRedisSessionExpirationStore implements RedisSessionExpirationStore, InitializingBean {
+
+	/**
+	 * The field of the session hash that expires along with the session.
+	 */
+	static final String EXPIRATION_TIME_KEY = "expirationTime";
+
+	private static final Log logger = LogFactory.getLog(HashFieldRedisSessionExpirationStore.class);
+
+	private final RedisOperations<String, Object> redisOps;
+
+	private final SortedSetRedisSessionExpirationStore fallbackExpirationStore;
+
+	private String namespace;
+
+	private volatile @Nullable Boolean hashFieldExpirationSupported;
+
+	@SuppressWarnings("NullAway") // Dataflow analysis limitation
+	public HashFieldRedisSessionExpirationStore(RedisOperations<String, Object> redisOps, String namespace) {
+		Assert.notNull(redisOps, "redisOps cannot be null");
+		this.redisOps = redisOps;
+		this.fallbackExpirationStore = new SortedSetRedisSessionExpirationStore(redisOps, namespace);
+		setNamespace(namespace);
+	}
+
+	/**
+	 * Detect whether Redis supports hash field expiration.
+	 */
+	@Override
+	public void afterPropertiesSet() {
+		isHashFieldExpirationSupported();
+	}
+
+	/**
+	 * Save the expiration time of the session into the session hash and set the TTL of
+	 * the field accordingly. The field is removed if the session has a maximum inactive
+	 * interval of zero, which marks a deleted session.
+	 * @param session the session to save
+	 */
+	@Override
+	public void save(RedisIndexedSessionRepository.RedisSession session) {
+		if (!isHashFieldExpirationSupported()) {
+			this.fallbackExpirationStore.save(session);
+			return;
+		}
+		Duration maxInactiveInterval = session.getMaxInactiveInterval();
+		if (maxInactiveInterval.isZero()) {
+			remove(session.getId());
+			return;
+		}
+		String sessionKey = getSessionKey(session.getId());
+		long expirationInMillis = session.getLastAccessedTime().plus(maxInactiveInterval).toEpochMilli();
+		this.redisOps.opsForHash().put(sessionKey, EXPIRATION_TIME_KEY, expirationInMillis);
+		if (maxInactiveInterval.isNegative()) {
+			this.redisOps.opsForHash().persist(sessionKey, List.of(EXPIRATION_TIME_KEY));
+		}
+		else {
+			this.redisOps.opsForHash().expire(sessionKey, maxInactiveInterval, List.of(EXPIRATION_TIME_KEY));
+		}
+	}
+
+	/**
+	 * Remove the expiration time field from the session hash.
+	 * @param sessionId the session id
+	 */
+	@Override
+	public void remove(String sessionId) {
+		if (!isHashFieldExpirationSupported()) {
+			this.fallbackExpirationStore.remove(sessionId);
+			return;
+		}
+		this.redisOps.opsForHash().delete(getSessionKey(sessionId), EXPIRATION_TIME_KEY);
+	}
+
+	/**
+	 * Redis actively expires hash fields, so there is nothing to clean up unless this
+	 * store fell back to a {@link SortedSetRedisSessionExpirationStore}.
+	 */
+	@Override
+	public void cleanupExpiredSessions() {
+		if (!isHashFieldExpirationSupported()) {
+			this.fallbackExpirationStore.cleanupExpiredSessions();
+		}
+	}
+
+	/**
+	 * Returns {@code false} unless Redis does not support hash field expiration.
+	 * @return whether a shadow key is required
+	 */
+	@Override
+	public boolean requiresShadowKey() {
+		return !isHashFieldExpirationSupported();
+	}
+
+	private boolean isHashFieldExpirationSupported() {
+		Boolean supported = this.hashFieldExpirationSupported;
+		if (supported == null) {
+			supported = detectHashFieldExpiration();
+			this.hashFieldExpirationSupported = supported;
+		}
+		return supported;
+	}
+
+	private boolean detectHashFieldExpiration() {
+		try {
+			this.redisOps.opsForHash()
+				.expire(this.namespace + ":hash-field-expiration-probe", Duration.ofSeconds(1),
+						List.of(EXPIRATION_TIME_KEY));
+			return true;
+		}
+		catch (NonTransientDataAccessException ex) {
+			String message = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+			if (!StringUtils.startsWithIgnoreCase(message, "ERR unknown command")) {
+				throw ex;
+			}
+			logger.warn("Redis does not support hash field expiration, falling back to "
+					+ SortedSetRedisSessionExpirationStore.class.getSimpleName());
+			return false;
+		}
+	}
+
+	private String getSessionKey(String sessionId) {
+		return this.namespace + ":sessions:" + sessionId;
+	}
+
+	/**
+	 * Set the namespace for the keys.
+	 * @param namespace the namespace
+	 */
+	public void setNamespace(String namespace) {
+		Assert.hasText(namespace, "namespace cannot be null or empty");
+		this.namespace = namespace;
+		this.fallbackExpirationStore.setNamespace(namespace);
+	}
+
+}
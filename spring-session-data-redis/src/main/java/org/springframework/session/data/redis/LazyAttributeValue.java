@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.data.redis;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * A session attribute value that is only resolved, typically deserialized, the first time
+ * it is accessed. Instances are stored in the
+ * {@link org.springframework.session.MapSession} that backs a Redis session and are
+ * unwrapped using {@link #resolve(Object)}. The serialized form of the value is retained,
+ * once known, so that it can be compared with the value being saved.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+final class LazyAttributeValue {
+
+	private final Supplier<byte @Nullable []> rawValueSupplier;
+
+	private final Function<byte[], @Nullable Object> deserializer;
+
+	private boolean resolved;
+
+	private byte @Nullable [] rawValue;
+
+	private @Nullable Object value;
+
+	LazyAttributeValue(byte[] rawValue, Function<byte[], @Nullable Object> deserializer) {
+		this(() -> rawValue, deserializer);
+		this.rawValue = rawValue;
+	}
+
+	LazyAttributeValue(Supplier<byte @Nullable []> rawValueSupplier, Function<byte[], @Nullable Object> deserializer) {
+		this.rawValueSupplier = rawValueSupplier;
+		this.deserializer = deserializer;
+	}
+
+	@Nullable Object get() {
+		if (!this.resolved) {
+			byte[] rawValue = this.rawValueSupplier.get();
+			this.value = (rawValue != null) ? this.deserializer.apply(rawValue) : null;
+			this.rawValue = rawValue;
+			this.resolved = true;
+		}
+		return this.value;
+	}
+
+	boolean isResolved() {
+		return this.resolved;
+	}
+
+	/**
+	 * Return the serialized form of the value, if known.
+	 * @return the serialized value or {@code null} if not fetched yet or not present
+	 */
+	byte @Nullable [] getRawValue() {
+		return this.rawValue;
+	}
+
+	/**
+	 * Return whether the given value serializes to the same bytes as those this value was
+	 * resolved from, in which case writing it back would not change the stored value.
+	 * @param value the value about to be written
+	 * @param serializer the serializer used to write the value
+	 * @return whether the value is unchanged
+	 */
+	@SuppressWarnings("unchecked")
+	boolean isUnchanged(@Nullable Object value, @Nullable RedisSerializer<?> serializer) {
+		if (this.rawValue == null || value == null || serializer == null) {
+			return false;
+		}
+		return Arrays.equals(this.rawValue, ((RedisSerializer<Object>) serializer).serialize(value));
+	}
+
+	/**
+	 * Resolve the given attribute value if it is a {@link LazyAttributeValue}, otherwise
+	 * return it as is.
+	 * @param <T> the type of the attribute value
+	 * @param value the attribute value as held by the session
+	 * @return the resolved attribute value
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> @Nullable T resolve(@Nullable Object value) {
+		if (value instanceof LazyAttributeValue lazyValue) {
+			return (T) lazyValue.get();
+		}
+		return (T) value;
+	}
+
+}
@@ -28,6 +28,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.BiFunction;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jspecify.annotations.Nullable;
@@ -55,6 +58,11 @@ import org.springframework.session.events.SessionCreatedEvent;
 import org.springframework.session.events.SessionDeletedEvent;
 import org.springframework.session.events.SessionDestroyedEvent;
 import org.springframework.session.events.SessionExpiredEvent;
+import org.springframework.session.observation.DefaultSessionRepositoryObservationConvention;
+import org.springframework.session.observation.SessionRepositoryObservationContext;
+import org.springframework.session.observation.SessionRepositoryObservationContext.Operation;
+import org.springframework.session.observation.SessionRepositoryObservationConvention;
+import org.springframework.session.observation.SessionRepositoryObservationDocumentation;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -240,6 +248,8 @@ public class ReactiveRedisIndexedSessionRepository
 
 	private static final Log logger = LogFactory.getLog(ReactiveRedisIndexedSessionRepository.class);
 
+	private static final String OBSERVATION_BACKEND = "redis";
+
 	/**
 	 * The default namespace for each key and channel in Redis used by Spring Session.
 	 */
@@ -262,6 +272,10 @@ public class ReactiveRedisIndexedSessionRepository
 
 	private SaveMode saveMode = SaveMode.ON_SET_ATTRIBUTE;
 
+	private Duration touchGranularity = Duration.ZERO;
+
+	private boolean compactMetadata;
+
 	private ApplicationEventPublisher eventPublisher = (event) -> {
 	};
 
@@ -290,6 +304,10 @@ public class ReactiveRedisIndexedSessionRepository
 
 	private Clock clock = Clock.systemUTC();
 
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	private @Nullable SessionRepositoryObservationConvention observationConvention;
+
 	/**
 	 * Creates a new instance with the provided {@link ReactiveRedisOperations}.
 	 * @param sessionRedisOperations the {@link ReactiveRedisOperations} to use for
@@ -325,12 +343,31 @@ public class ReactiveRedisIndexedSessionRepository
 		}
 	}
 
-	private Flux<Void> cleanUpExpiredSessions() {
-		return this.expirationStore.retrieveExpiredSessions(this.clock.instant()).flatMap(this::touch);
+	private Mono<Void> cleanUpExpiredSessions() {
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.CLEANUP);
+		return observe(context, Mono.defer(() -> {
+			Instant expiredBefore = this.clock.instant();
+			return this.expirationStore.retrieveExpiredSessions(expiredBefore)
+				.flatMap((sessionId) -> touch(sessionId, expiredBefore))
+				.count()
+				.doOnNext((count) -> context.setResultCount(count.intValue()))
+				.then();
+		}));
 	}
 
-	private Mono<Void> touch(String sessionId) {
-		return this.sessionRedisOperations.hasKey(getExpiredKey(sessionId)).then();
+	/**
+	 * Checks if the expiration key of the session exists, which triggers its deletion if
+	 * the TTL is expired. Sessions that are not expired yet are added back to the
+	 * expiration store to be retried on the next clean-up.
+	 * @param sessionId the session id
+	 * @param expiredBefore the expiration time used to retrieve the session
+	 * @return a {@link Mono} that completes when the operation completes
+	 */
+	private Mono<Void> touch(String sessionId, Instant expiredBefore) {
+		return this.sessionRedisOperations.hasKey(getExpiredKey(sessionId))
+			.filter(Boolean::booleanValue)
+			.flatMap((exists) -> this.expirationStore.addIfAbsent(sessionId, expiredBefore.plusMillis(1)));
 	}
 
 	@Override
@@ -343,9 +380,13 @@ public class ReactiveRedisIndexedSessionRepository
 
 	@Override
 	public Mono<Map<String, RedisSession>> findByIndexNameAndIndexValue(String indexName, String indexValue) {
-		return this.indexer.getSessionIds(indexName, indexValue)
-			.flatMap(this::findById)
-			.collectMap(RedisSession::getId);
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.FIND_BY_INDEX_NAME_AND_INDEX_VALUE);
+		return observe(context,
+				this.indexer.getSessionIds(indexName, indexValue)
+					.flatMap((sessionId) -> getSession(sessionId, false))
+					.collectMap(RedisSession::getId)
+					.doOnNext((sessions) -> context.setResultCount(sessions.size())));
 	}
 
 	@Override
@@ -360,16 +401,35 @@ public class ReactiveRedisIndexedSessionRepository
 
 	@Override
 	public Mono<Void> save(RedisSession session) {
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.SAVE);
+		if (!this.observationRegistry.isNoop()) {
+			context.setAttributeCount(session.cached.getAttributeNames().size());
+			context.setDeltaSize(session.delta.size());
+		}
+		return observe(context, doSave(session));
+	}
+
+	private Mono<Void> doSave(RedisSession session) {
 		// @formatter:off
-		return session.save()
-				.then(Mono.defer(() -> this.indexer.update(session)))
+		return Mono.defer(() -> {
+					// indexes can only change along with the attributes
+					boolean updateIndexes = session.hasChangedAttributes();
+					return session.save().then(updateIndexes ? Mono.defer(() -> this.indexer.update(session)) : Mono.empty());
+				})
 				.then(Mono.defer(() -> this.expirationStore.add(session.getId(), session.getLastAccessedTime().plus(session.getMaxInactiveInterval()))));
 		// @formatter:on
 	}
 
 	@Override
 	public Mono<RedisSession> findById(String id) {
-		return getSession(id, false);
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.FIND_BY_ID);
+		return observe(context, getSession(id, false).doOnNext((session) -> {
+			if (!this.observationRegistry.isNoop()) {
+				context.setAttributeCount(session.cached.getAttributeNames().size());
+			}
+		}));
 	}
 
 	private Mono<RedisSession> getSession(String sessionId, boolean allowExpired) {
@@ -378,15 +438,22 @@ public class ReactiveRedisIndexedSessionRepository
 		return this.sessionRedisOperations.opsForHash().entries(sessionKey)
 				.collectMap((entry) -> entry.getKey().toString(), Map.Entry::getValue)
 				.filter((map) -> !map.isEmpty())
-				.flatMap((map) -> this.redisSessionMapper.apply(sessionId, map))
-				.filter((session) -> allowExpired || !session.isExpired())
-				.map((session) -> new RedisSession(session, false));
+				.flatMap((map) -> this.redisSessionMapper.apply(sessionId, map)
+						.filter((session) -> allowExpired || !session.isExpired())
+						.map((session) -> createStoredSession(session, map)));
 		// @formatter:on
 	}
 
+	private RedisSession createStoredSession(MapSession session, Map<String, Object> entries) {
+		RedisSession redisSession = new RedisSession(session, false);
+		redisSession.compactMetadataStored = RedisSessionMapper.hasCompactMetadata(entries);
+		return redisSession;
+	}
+
 	@Override
 	public Mono<Void> deleteById(String id) {
-		return deleteAndReturn(id).then();
+		return observe(new SessionRepositoryObservationContext(OBSERVATION_BACKEND, Operation.DELETE_BY_ID),
+				deleteAndReturn(id).then());
 	}
 
 	private Mono<RedisSession> deleteAndReturn(String id) {
@@ -492,6 +559,17 @@ public class ReactiveRedisIndexedSessionRepository
 		this.cleanupInterval = cleanupInterval;
 	}
 
+	/**
+	 * Sets how long a single clean-up of expired sessions keeps processing batches of
+	 * expired sessions, as long as there are any left. Defaults to 10 seconds. Use
+	 * {@link Duration#ZERO} to process a single batch per clean-up.
+	 * @param cleanupTimeout the clean-up timeout to use
+	 * @since 4.2
+	 */
+	public void setCleanupTimeout(Duration cleanupTimeout) {
+		this.expirationStore.setRetrieveTimeout(cleanupTimeout);
+	}
+
 	/**
 	 * Disables the clean-up task. This is just a shortcut to invoke
 	 * {@link #setCleanupInterval(Duration)} passing {@link Duration#ZERO}
@@ -529,6 +607,55 @@ public class ReactiveRedisIndexedSessionRepository
 		this.saveMode = saveMode;
 	}
 
+	/**
+	 * Set the minimum amount of time by which the last accessed time of a session must
+	 * have advanced for it to be saved when it is the only change to the session. This
+	 * turns requests that merely access a session into read-only operations, at the cost
+	 * of sessions expiring up to the given amount of time earlier than their maximum
+	 * inactive interval implies. The touch granularity is limited to half of the maximum
+	 * inactive interval of each session, so that a session that keeps being accessed does
+	 * not expire. Default is {@link Duration#ZERO}, which saves every change of the last
+	 * accessed time.
+	 * @param touchGranularity the touch granularity
+	 * @since 4.2
+	 */
+	public void setTouchGranularity(Duration touchGranularity) {
+		Assert.notNull(touchGranularity, "touchGranularity must not be null");
+		Assert.isTrue(!touchGranularity.isNegative(), "touchGranularity must not be negative");
+		this.touchGranularity = touchGranularity;
+	}
+
+	private Duration getTouchGranularity(Duration maxInactiveInterval) {
+		if (maxInactiveInterval.isNegative() || maxInactiveInterval.isZero()) {
+			return this.touchGranularity;
+		}
+		Duration maxTouchGranularity = maxInactiveInterval.dividedBy(2);
+		return (this.touchGranularity.compareTo(maxTouchGranularity) > 0) ? maxTouchGranularity : this.touchGranularity;
+	}
+
+	/**
+	 * Set whether the session metadata, that is the creation time, the last accessed time
+	 * and the maximum inactive interval, should be stored as a single fixed-width binary
+	 * hash entry rather than as three separately serialized entries. This considerably
+	 * reduces the memory used by each session, in particular with the default
+	 * {@link org.springframework.data.redis.serializer.JdkSerializationRedisSerializer}.
+	 * Sessions stored in either format are read regardless of this setting, and are
+	 * rewritten in the configured format the next time they are saved, so it should only
+	 * be enabled once all application instances are able to read the compact format.
+	 * Default is {@code false}.
+	 * @param compactMetadata whether to store the session metadata in compact form
+	 * @throws IllegalStateException if enabled while the hash value serializer does not
+	 * read {@code byte[]} values back unchanged
+	 * @since 4.2
+	 */
+	public void setCompactMetadata(boolean compactMetadata) {
+		if (compactMetadata) {
+			RedisSessionMapper.assertCompactMetadataSupported(
+					this.sessionRedisOperations.getSerializationContext().getHashValueSerializationPair());
+		}
+		this.compactMetadata = compactMetadata;
+	}
+
 	public ReactiveRedisOperations<String, Object> getSessionRedisOperations() {
 		return this.sessionRedisOperations;
 	}
@@ -543,6 +670,47 @@ public class ReactiveRedisIndexedSessionRepository
 		this.indexer.setIndexResolver(indexResolver);
 	}
 
+	/**
+	 * Set the {@link ObservationRegistry} used to observe {@code findById}, {@code save},
+	 * {@code deleteById}, {@code findByIndexNameAndIndexValue} and the expired session
+	 * cleanup. Default is {@link ObservationRegistry#NOOP}.
+	 * @param observationRegistry the observation registry to use
+	 * @since 4.2
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * Set a custom {@link SessionRepositoryObservationConvention} to use instead of the
+	 * {@link DefaultSessionRepositoryObservationConvention}.
+	 * @param observationConvention the observation convention to use
+	 * @since 4.2
+	 */
+	public void setObservationConvention(SessionRepositoryObservationConvention observationConvention) {
+		Assert.notNull(observationConvention, "observationConvention cannot be null");
+		this.observationConvention = observationConvention;
+	}
+
+	private <T> Mono<T> observe(SessionRepositoryObservationContext context, Mono<T> mono) {
+		return Mono.deferContextual((contextView) -> {
+			Observation observation = SessionRepositoryObservationDocumentation.SESSION_REPOSITORY_OPERATION
+				.observation(this.observationConvention, DefaultSessionRepositoryObservationConvention.INSTANCE,
+						() -> context, this.observationRegistry);
+			if (observation.isNoop()) {
+				return mono;
+			}
+			if (contextView.hasKey(ObservationThreadLocalAccessor.KEY)) {
+				observation.parentObservation(contextView.get(ObservationThreadLocalAccessor.KEY));
+			}
+			observation.start();
+			return mono.doOnError(observation::error)
+				.doFinally((signalType) -> observation.stop())
+				.contextWrite((ctx) -> ctx.put(ObservationThreadLocalAccessor.KEY, observation));
+		});
+	}
+
 	private static String getAttributeNameWithPrefix(String attributeName) {
 		return RedisSessionMapper.ATTRIBUTE_PREFIX + attributeName;
 	}
@@ -592,12 +760,17 @@ public class ReactiveRedisIndexedSessionRepository
 
 		private String originalSessionId;
 
+		private Instant originalLastAccessTime;
+
 		private Map<String, String> indexes = new HashMap<>();
 
+		private @Nullable Boolean compactMetadataStored;
+
 		public RedisSession(MapSession cached, boolean isNew) {
 			this.cached = cached;
 			this.isNew = isNew;
 			this.originalSessionId = cached.getId();
+			this.originalLastAccessTime = cached.getLastAccessedTime();
 			if (this.isNew) {
 				this.delta.put(RedisSessionMapper.CREATION_TIME_KEY, cached.getCreationTime().toEpochMilli());
 				this.delta.put(RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY,
@@ -608,6 +781,9 @@ public class ReactiveRedisIndexedSessionRepository
 				getAttributeNames().forEach((attributeName) -> this.delta.put(getAttributeNameWithPrefix(attributeName),
 						cached.getAttribute(attributeName)));
 			}
+			if (!this.isNew) {
+				this.indexes = ReactiveRedisIndexedSessionRepository.this.indexer.resolveIndexes(cached);
+			}
 		}
 
 		@Override
@@ -685,6 +861,19 @@ public class ReactiveRedisIndexedSessionRepository
 			return Collections.unmodifiableMap(this.indexes);
 		}
 
+		void setIndexes(Map<String, String> indexes) {
+			this.indexes = new HashMap<>(indexes);
+		}
+
+		private boolean hasChangedAttributes() {
+			for (String key : this.delta.keySet()) {
+				if (key.startsWith(RedisSessionMapper.ATTRIBUTE_PREFIX)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
 		private boolean hasChangedSessionId() {
 			return !getId().equals(this.originalSessionId);
 		}
@@ -694,14 +883,47 @@ public class ReactiveRedisIndexedSessionRepository
 				.defer(() -> saveChangeSessionId().then(saveDelta()).doOnSuccess((unused) -> this.isNew = false));
 		}
 
+		private Map<String, Object> getDeltaToWrite() {
+			Map<String, Object> delta = (hasMetadataFormatChanged()) ? RedisSessionMapper.withMetadata(this.delta, this)
+					: this.delta;
+			return (ReactiveRedisIndexedSessionRepository.this.compactMetadata)
+					? RedisSessionMapper.compactMetadata(delta, this) : delta;
+		}
+
+		private boolean hasMetadataFormatChanged() {
+			return this.compactMetadataStored != null
+					&& this.compactMetadataStored != ReactiveRedisIndexedSessionRepository.this.compactMetadata;
+		}
+
+		private boolean hasDeltaToSave() {
+			if (this.delta.size() == 1 && this.delta.containsKey(RedisSessionMapper.LAST_ACCESSED_TIME_KEY)) {
+				// only touched, so save once the touch granularity has elapsed
+				Instant lastAccessedTime = getLastAccessedTime();
+				return lastAccessedTime.isBefore(this.originalLastAccessTime) || !lastAccessedTime
+					.isBefore(this.originalLastAccessTime.plus(
+							ReactiveRedisIndexedSessionRepository.this.getTouchGranularity(getMaxInactiveInterval())));
+			}
+			return !this.delta.isEmpty();
+		}
+
 		private Mono<Void> saveDelta() {
-			if (this.delta.isEmpty()) {
+			if (!hasDeltaToSave()) {
 				return Mono.empty();
 			}
 
 			String sessionKey = getSessionKey(getId());
+			Map<String, Object> delta = new HashMap<>(getDeltaToWrite());
 			Mono<Boolean> update = ReactiveRedisIndexedSessionRepository.this.sessionRedisOperations.opsForHash()
-				.putAll(sessionKey, new HashMap<>(this.delta));
+				.putAll(sessionKey, delta);
+			if (hasMetadataFormatChanged()) {
+				Object[] staleKeys = RedisSessionMapper
+					.getMetadataKeys(!ReactiveRedisIndexedSessionRepository.this.compactMetadata)
+					.toArray();
+				update = update
+					.flatMap((updated) -> ReactiveRedisIndexedSessionRepository.this.sessionRedisOperations.opsForHash()
+						.remove(sessionKey, staleKeys)
+						.thenReturn(updated));
+			}
 
 			String expiredKey = getExpiredKey(getId());
 			Mono<Boolean> setTtl;
@@ -734,7 +956,11 @@ public class ReactiveRedisIndexedSessionRepository
 			return update.flatMap((updated) -> setTtl)
 				.then(updateExpireKey)
 				.then(publishCreated)
-				.then(Mono.fromRunnable(() -> this.delta = new HashMap<>(this.delta.size())))
+				.then(Mono.fromRunnable(() -> {
+					this.originalLastAccessTime = getLastAccessedTime();
+					this.compactMetadataStored = ReactiveRedisIndexedSessionRepository.this.compactMetadata;
+					this.delta = new HashMap<>(this.delta.size());
+				}))
 				.then();
 		}
 
@@ -766,6 +992,7 @@ public class ReactiveRedisIndexedSessionRepository
 
 		private Mono<Void> replaceSessionIdOnIndexes() {
 			return ReactiveRedisIndexedSessionRepository.this.indexer.delete(this.originalSessionId)
+				.then(Mono.fromRunnable(() -> this.indexes = new HashMap<>()))
 				.then(ReactiveRedisIndexedSessionRepository.this.indexer.update(this));
 		}
 
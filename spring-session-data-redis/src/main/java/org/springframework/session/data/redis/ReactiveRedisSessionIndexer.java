@@ -21,7 +21,6 @@ import java.util.Map;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.function.Tuples;
 
 import org.springframework.data.redis.core.ReactiveRedisOperations;
 import org.springframework.session.DelegatingIndexResolver;
@@ -30,12 +29,12 @@ import org.springframework.session.PrincipalNameIndexResolver;
 import org.springframework.session.Session;
 import org.springframework.session.data.redis.ReactiveRedisIndexedSessionRepository.RedisSession;
 import org.springframework.util.Assert;
-import org.springframework.util.CollectionUtils;
 
 /**
  * Uses an {@link IndexResolver} to keep track of the indexes for a
  * {@link ReactiveRedisIndexedSessionRepository.RedisSession}. Only updates indexes that
- * have changed.
+ * have changed, comparing with the indexes tracked by the session rather than reading
+ * them from Redis.
  *
  * @author Marcus da Coregio
  */
@@ -58,26 +57,44 @@ final class ReactiveRedisSessionIndexer {
 		updateIndexKeyPrefix();
 	}
 
+	/**
+	 * Resolve the indexes for the given session.
+	 * @param session the session
+	 * @return the resolved indexes
+	 */
+	Map<String, String> resolveIndexes(Session session) {
+		return this.indexResolver.resolveIndexesFor(session);
+	}
+
+	/**
+	 * Update the indexes of the given session, comparing the resolved indexes with the
+	 * ones tracked by {@link RedisSession#getIndexes()}. Redis is only accessed if the
+	 * indexes have changed.
+	 * @param redisSession the session
+	 * @return a {@link Mono} that completes once the indexes are updated
+	 */
 	Mono<Void> update(RedisSession redisSession) {
-		return getIndexes(redisSession.getId()).map((originalIndexes) -> {
-			Map<String, String> indexes = this.indexResolver.resolveIndexesFor(redisSession);
+		return Mono.defer(() -> {
+			Map<String, String> originalIndexes = redisSession.getIndexes();
+			Map<String, String> indexes = resolveIndexes(redisSession);
+			if (indexes.equals(originalIndexes)) {
+				return Mono.empty();
+			}
 			Map<String, String> indexToDelete = new HashMap<>();
 			Map<String, String> indexToAdd = new HashMap<>();
-			for (Map.Entry<String, String> entry : indexes.entrySet()) {
-				if (!originalIndexes.containsKey(entry.getKey())) {
-					indexToAdd.put(entry.getKey(), entry.getValue());
-					continue;
+			originalIndexes.forEach((indexName, indexValue) -> {
+				if (!indexValue.equals(indexes.get(indexName))) {
+					indexToDelete.put(indexName, indexValue);
 				}
-				if (!originalIndexes.get(entry.getKey()).equals(entry.getValue())) {
-					indexToDelete.put(entry.getKey(), originalIndexes.get(entry.getKey()));
-					indexToAdd.put(entry.getKey(), entry.getValue());
+			});
+			indexes.forEach((indexName, indexValue) -> {
+				if (!indexValue.equals(originalIndexes.get(indexName))) {
+					indexToAdd.put(indexName, indexValue);
 				}
-			}
-			if (CollectionUtils.isEmpty(indexes) && !CollectionUtils.isEmpty(originalIndexes)) {
-				indexToDelete.putAll(originalIndexes);
-			}
-			return Tuples.of(indexToDelete, indexToAdd);
-		}).flatMap((indexes) -> updateIndexes(indexes.getT1(), indexes.getT2(), redisSession.getId()));
+			});
+			return updateIndexes(indexToDelete, indexToAdd, redisSession.getId())
+				.then(Mono.fromRunnable(() -> redisSession.setIndexes(indexes)));
+		});
 	}
 
 	private Mono<Void> updateIndexes(Map<String, String> indexToDelete, Map<String, String> indexToAdd,
@@ -112,15 +129,6 @@ final class ReactiveRedisSessionIndexer {
 		return this.sessionRedisOperations.opsForSet().remove(indexKey, sessionId).then();
 	}
 
-	Mono<Map<String, String>> getIndexes(String sessionId) {
-		String sessionIndexesKey = getSessionIndexesKey(sessionId);
-		return this.sessionRedisOperations.opsForSet()
-			.members(sessionIndexesKey)
-			.cast(String.class)
-			.collectMap((indexKey) -> indexKey.substring(this.indexKeyPrefix.length()).split(":")[0],
-					(indexKey) -> indexKey.substring(this.indexKeyPrefix.length()).split(":")[1]);
-	}
-
 	Flux<String> getSessionIds(String indexName, String indexValue) {
 		String indexKey = getIndexKey(indexName, indexValue);
 		return this.sessionRedisOperations.opsForSet().members(indexKey).cast(String.class);
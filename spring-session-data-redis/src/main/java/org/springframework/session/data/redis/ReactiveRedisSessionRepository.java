@@ -23,6 +23,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.BiFunction;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
 import org.jspecify.annotations.Nullable;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Mono;
@@ -36,6 +39,11 @@ import org.springframework.session.SaveMode;
 import org.springframework.session.Session;
 import org.springframework.session.SessionIdGenerator;
 import org.springframework.session.UuidSessionIdGenerator;
+import org.springframework.session.observation.DefaultSessionRepositoryObservationConvention;
+import org.springframework.session.observation.SessionRepositoryObservationContext;
+import org.springframework.session.observation.SessionRepositoryObservationContext.Operation;
+import org.springframework.session.observation.SessionRepositoryObservationConvention;
+import org.springframework.session.observation.SessionRepositoryObservationDocumentation;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -55,6 +63,8 @@ public class ReactiveRedisSessionRepository
 	 */
 	public static final String DEFAULT_NAMESPACE = "spring:session";
 
+	private static final String OBSERVATION_BACKEND = "redis";
+
 	private final ReactiveRedisOperations<String, Object> sessionRedisOperations;
 
 	/**
@@ -66,10 +76,18 @@ public class ReactiveRedisSessionRepository
 
 	private SaveMode saveMode = SaveMode.ON_SET_ATTRIBUTE;
 
+	private Duration touchGranularity = Duration.ZERO;
+
+	private boolean compactMetadata;
+
 	private SessionIdGenerator sessionIdGenerator = UuidSessionIdGenerator.getInstance();
 
 	private BiFunction<String, Map<String, Object>, Mono<MapSession>> redisSessionMapper = new RedisSessionMapperAdapter();
 
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	private @Nullable SessionRepositoryObservationConvention observationConvention;
+
 	/**
 	 * Create a new {@link ReactiveRedisSessionRepository} instance.
 	 * @param sessionRedisOperations the {@link ReactiveRedisOperations} to use for
@@ -118,6 +136,55 @@ public class ReactiveRedisSessionRepository
 		this.saveMode = saveMode;
 	}
 
+	/**
+	 * Set the minimum amount of time by which the last accessed time of a session must
+	 * have advanced for it to be saved when it is the only change to the session. This
+	 * turns requests that merely access a session into read-only operations, at the cost
+	 * of sessions expiring up to the given amount of time earlier than their maximum
+	 * inactive interval implies. The touch granularity is limited to half of the maximum
+	 * inactive interval of each session, so that a session that keeps being accessed does
+	 * not expire. Default is {@link Duration#ZERO}, which saves every change of the last
+	 * accessed time.
+	 * @param touchGranularity the touch granularity
+	 * @since 4.2
+	 */
+	public void setTouchGranularity(Duration touchGranularity) {
+		Assert.notNull(touchGranularity, "touchGranularity must not be null");
+		Assert.isTrue(!touchGranularity.isNegative(), "touchGranularity must not be negative");
+		this.touchGranularity = touchGranularity;
+	}
+
+	private Duration getTouchGranularity(Duration maxInactiveInterval) {
+		if (maxInactiveInterval.isNegative() || maxInactiveInterval.isZero()) {
+			return this.touchGranularity;
+		}
+		Duration maxTouchGranularity = maxInactiveInterval.dividedBy(2);
+		return (this.touchGranularity.compareTo(maxTouchGranularity) > 0) ? maxTouchGranularity : this.touchGranularity;
+	}
+
+	/**
+	 * Set whether the session metadata, that is the creation time, the last accessed time
+	 * and the maximum inactive interval, should be stored as a single fixed-width binary
+	 * hash entry rather than as three separately serialized entries. This considerably
+	 * reduces the memory used by each session, in particular with the default
+	 * {@link org.springframework.data.redis.serializer.JdkSerializationRedisSerializer}.
+	 * Sessions stored in either format are read regardless of this setting, and are
+	 * rewritten in the configured format the next time they are saved, so it should only
+	 * be enabled once all application instances are able to read the compact format.
+	 * Default is {@code false}.
+	 * @param compactMetadata whether to store the session metadata in compact form
+	 * @throws IllegalStateException if enabled while the hash value serializer does not
+	 * read {@code byte[]} values back unchanged
+	 * @since 4.2
+	 */
+	public void setCompactMetadata(boolean compactMetadata) {
+		if (compactMetadata) {
+			RedisSessionMapper.assertCompactMetadataSupported(
+					this.sessionRedisOperations.getSerializationContext().getHashValueSerializationPair());
+		}
+		this.compactMetadata = compactMetadata;
+	}
+
 	/**
 	 * Returns the {@link ReactiveRedisOperations} used for sessions.
 	 * @return the {@link ReactiveRedisOperations} used for sessions
@@ -126,6 +193,28 @@ public class ReactiveRedisSessionRepository
 		return this.sessionRedisOperations;
 	}
 
+	/**
+	 * Set the {@link ObservationRegistry} used to observe {@code findById}, {@code save}
+	 * and {@code deleteById}. Default is {@link ObservationRegistry#NOOP}.
+	 * @param observationRegistry the observation registry to use
+	 * @since 4.2
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * Set a custom {@link SessionRepositoryObservationConvention} to use instead of the
+	 * {@link DefaultSessionRepositoryObservationConvention}.
+	 * @param observationConvention the observation convention to use
+	 * @since 4.2
+	 */
+	public void setObservationConvention(SessionRepositoryObservationConvention observationConvention) {
+		Assert.notNull(observationConvention, "observationConvention cannot be null");
+		this.observationConvention = observationConvention;
+	}
+
 	@Override
 	public Mono<RedisSession> createSession() {
 		// @formatter:off
@@ -142,6 +231,16 @@ public class ReactiveRedisSessionRepository
 
 	@Override
 	public Mono<Void> save(RedisSession session) {
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.SAVE);
+		if (!this.observationRegistry.isNoop()) {
+			context.setAttributeCount(session.cached.getAttributeNames().size());
+			context.setDeltaSize(session.delta.size());
+		}
+		return observe(context, doSave(session));
+	}
+
+	private Mono<Void> doSave(RedisSession session) {
 		if (session.isNew) {
 			return session.save();
 		}
@@ -153,24 +252,59 @@ public class ReactiveRedisSessionRepository
 
 	@Override
 	public Mono<RedisSession> findById(String id) {
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.FIND_BY_ID);
+		return observe(context, doFindById(id).doOnNext((session) -> {
+			if (!this.observationRegistry.isNoop()) {
+				context.setAttributeCount(session.cached.getAttributeNames().size());
+			}
+		}));
+	}
+
+	private Mono<RedisSession> doFindById(String id) {
 		String sessionKey = getSessionKey(id);
 
 		// @formatter:off
 		return this.sessionRedisOperations.opsForHash().entries(sessionKey)
 				.collectMap((e) -> e.getKey().toString(), Map.Entry::getValue)
 				.filter((map) -> !map.isEmpty())
-				.flatMap((map) -> this.redisSessionMapper.apply(id, map))
-				.filter((session) -> !session.isExpired())
-				.map((session) -> new RedisSession(session, false))
-				.switchIfEmpty(Mono.defer(() -> deleteById(id).then(Mono.empty())));
+				.flatMap((map) -> this.redisSessionMapper.apply(id, map)
+						.filter((session) -> !session.isExpired())
+						.map((session) -> createStoredSession(session, map)))
+				.switchIfEmpty(Mono.defer(() -> this.sessionRedisOperations.delete(sessionKey).then(Mono.empty())));
 		// @formatter:on
 	}
 
+	private RedisSession createStoredSession(MapSession session, Map<String, Object> entries) {
+		RedisSession redisSession = new RedisSession(session, false);
+		redisSession.compactMetadataStored = RedisSessionMapper.hasCompactMetadata(entries);
+		return redisSession;
+	}
+
 	@Override
 	public Mono<Void> deleteById(String id) {
 		String sessionKey = getSessionKey(id);
 
-		return this.sessionRedisOperations.delete(sessionKey).then();
+		return observe(new SessionRepositoryObservationContext(OBSERVATION_BACKEND, Operation.DELETE_BY_ID),
+				this.sessionRedisOperations.delete(sessionKey).then());
+	}
+
+	private <T> Mono<T> observe(SessionRepositoryObservationContext context, Mono<T> mono) {
+		return Mono.deferContextual((contextView) -> {
+			Observation observation = SessionRepositoryObservationDocumentation.SESSION_REPOSITORY_OPERATION
+				.observation(this.observationConvention, DefaultSessionRepositoryObservationConvention.INSTANCE,
+						() -> context, this.observationRegistry);
+			if (observation.isNoop()) {
+				return mono;
+			}
+			if (contextView.hasKey(ObservationThreadLocalAccessor.KEY)) {
+				observation.parentObservation(contextView.get(ObservationThreadLocalAccessor.KEY));
+			}
+			observation.start();
+			return mono.doOnError(observation::error)
+				.doFinally((signalType) -> observation.stop())
+				.contextWrite((ctx) -> ctx.put(ObservationThreadLocalAccessor.KEY, observation));
+		});
 	}
 
 	private static String getAttributeKey(String attributeName) {
@@ -217,10 +351,15 @@ public class ReactiveRedisSessionRepository
 
 		private String originalSessionId;
 
+		private Instant originalLastAccessTime;
+
+		private @Nullable Boolean compactMetadataStored;
+
 		RedisSession(MapSession cached, boolean isNew) {
 			this.cached = cached;
 			this.isNew = isNew;
 			this.originalSessionId = cached.getId();
+			this.originalLastAccessTime = cached.getLastAccessedTime();
 			if (this.isNew) {
 				this.delta.put(RedisSessionMapper.CREATION_TIME_KEY, cached.getCreationTime().toEpochMilli());
 				this.delta.put(RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY,
@@ -312,14 +451,46 @@ public class ReactiveRedisSessionRepository
 			return Mono.defer(() -> saveChangeSessionId().then(saveDelta()).doOnSuccess((aVoid) -> this.isNew = false));
 		}
 
+		private Map<String, Object> getDeltaToWrite() {
+			Map<String, Object> delta = (hasMetadataFormatChanged()) ? RedisSessionMapper.withMetadata(this.delta, this)
+					: this.delta;
+			return (ReactiveRedisSessionRepository.this.compactMetadata)
+					? RedisSessionMapper.compactMetadata(delta, this) : delta;
+		}
+
+		private boolean hasMetadataFormatChanged() {
+			return this.compactMetadataStored != null
+					&& this.compactMetadataStored != ReactiveRedisSessionRepository.this.compactMetadata;
+		}
+
+		private boolean hasDeltaToSave() {
+			if (this.delta.size() == 1 && this.delta.containsKey(RedisSessionMapper.LAST_ACCESSED_TIME_KEY)) {
+				// only touched, so save once the touch granularity has elapsed
+				Instant lastAccessedTime = getLastAccessedTime();
+				return lastAccessedTime.isBefore(this.originalLastAccessTime)
+						|| !lastAccessedTime.isBefore(this.originalLastAccessTime
+							.plus(ReactiveRedisSessionRepository.this.getTouchGranularity(getMaxInactiveInterval())));
+			}
+			return !this.delta.isEmpty();
+		}
+
 		private Mono<Void> saveDelta() {
-			if (this.delta.isEmpty()) {
+			if (!hasDeltaToSave()) {
 				return Mono.empty();
 			}
 
 			String sessionKey = getSessionKey(getId());
 			Mono<Boolean> update = ReactiveRedisSessionRepository.this.sessionRedisOperations.opsForHash()
-				.putAll(sessionKey, new HashMap<>(this.delta));
+				.putAll(sessionKey, new HashMap<>(getDeltaToWrite()));
+			if (hasMetadataFormatChanged()) {
+				Object[] staleKeys = RedisSessionMapper
+					.getMetadataKeys(!ReactiveRedisSessionRepository.this.compactMetadata)
+					.toArray();
+				update = update
+					.flatMap((updated) -> ReactiveRedisSessionRepository.this.sessionRedisOperations.opsForHash()
+						.remove(sessionKey, staleKeys)
+						.thenReturn(updated));
+			}
 			Mono<Boolean> setTtl;
 			if (getMaxInactiveInterval().getSeconds() >= 0) {
 				setTtl = ReactiveRedisSessionRepository.this.sessionRedisOperations.expire(sessionKey,
@@ -330,6 +501,8 @@ public class ReactiveRedisSessionRepository
 			}
 
 			Mono<Object> clearDelta = Mono.fromDirect((s) -> {
+				this.originalLastAccessTime = getLastAccessedTime();
+				this.compactMetadataStored = ReactiveRedisSessionRepository.this.compactMetadata;
 				this.delta.clear();
 				s.onComplete();
 			});
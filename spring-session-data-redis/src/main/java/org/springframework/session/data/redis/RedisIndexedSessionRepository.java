@@ -28,6 +28,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jspecify.annotations.Nullable;
@@ -44,6 +46,7 @@ import org.springframework.data.redis.core.BoundHashOperations;
 import org.springframework.data.redis.core.BoundSetOperations;
 import org.springframework.data.redis.core.BoundValueOperations;
 import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.util.ByteUtils;
@@ -65,6 +68,11 @@ import org.springframework.session.events.SessionCreatedEvent;
 import org.springframework.session.events.SessionDeletedEvent;
 import org.springframework.session.events.SessionDestroyedEvent;
 import org.springframework.session.events.SessionExpiredEvent;
+import org.springframework.session.observation.DefaultSessionRepositoryObservationConvention;
+import org.springframework.session.observation.SessionRepositoryObservationContext;
+import org.springframework.session.observation.SessionRepositoryObservationContext.Operation;
+import org.springframework.session.observation.SessionRepositoryObservationConvention;
+import org.springframework.session.observation.SessionRepositoryObservationDocumentation;
 import org.springframework.session.web.http.SessionRepositoryFilter;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
@@ -156,6 +164,13 @@ import org.springframework.util.StringUtils;
  * HMSET spring:session:sessions:33fdd1b6-b496-4b33-9f7d-df96679d32fe sessionAttr:attrName2 newValue
  * </pre>
  *
+ * <p>
+ * By default, each of the commands issued when saving a session is sent to Redis
+ * separately. Using {@link #setPipelineSave(boolean)}, the attribute delta, the principal
+ * index maintenance, the created event and the expiration updates can instead be sent in
+ * a single pipeline, using the same keys as described above.
+ * </p>
+ *
  * <h3>SessionCreatedEvent</h3>
  *
  * <p>
@@ -261,6 +276,15 @@ import org.springframework.util.StringUtils;
  * the key is only removed if the TTL on that key is expired.
  * </p>
  *
+ * <p>
+ * With Redis 7.4 or later, a {@link HashFieldRedisSessionExpirationStore} can be used
+ * instead. It tracks the expiration with a field of the session hash that has its own
+ * TTL, so that neither the expires key nor the expiration mappings are needed. The
+ * SessionExpiredEvent is then fired by the {@code hexpired} keyspace notification for the
+ * session hash, while the SessionDeletedEvent is published by {@link #deleteById(String)}
+ * itself.
+ * </p>
+ *
  * @author Rob Winch
  * @author Vedran Pavic
  * @since 2.2.0
@@ -273,6 +297,8 @@ public class RedisIndexedSessionRepository
 
 	private static final String SPRING_SECURITY_CONTEXT = "SPRING_SECURITY_CONTEXT";
 
+	private static final String OBSERVATION_BACKEND = "redis";
+
 	/**
 	 * The default cron expression used for expired session cleanup job.
 	 */
@@ -307,12 +333,22 @@ public class RedisIndexedSessionRepository
 
 	private byte[] sessionExpiredChannelBytes;
 
+	private String sessionFieldExpiredChannel;
+
+	private byte[] sessionFieldExpiredChannelBytes;
+
 	private String expiredKeyPrefix;
 
 	private byte[] expiredKeyPrefixBytes;
 
+	private String sessionKeyPrefix;
+
+	private byte[] sessionKeyPrefixBytes;
+
 	private final RedisOperations<String, Object> sessionRedisOperations;
 
+	private final RedisSessionHashReader sessionHashReader;
+
 	private RedisSessionExpirationStore expirationStore;
 
 	private ApplicationEventPublisher eventPublisher = (event) -> {
@@ -328,6 +364,20 @@ public class RedisIndexedSessionRepository
 
 	private SaveMode saveMode = SaveMode.ON_SET_ATTRIBUTE;
 
+	private Duration touchGranularity = Duration.ZERO;
+
+	private boolean compactMetadata;
+
+	private boolean pipelineSave;
+
+	private boolean lazyAttributeDeserialization;
+
+	private boolean skipUnchangedAttributes;
+
+	private boolean selectiveAttributeFetch;
+
+	private Set<String> prefetchedAttributeNames = Collections.emptySet();
+
 	private String cleanupCron = DEFAULT_CLEANUP_CRON;
 
 	private @Nullable ThreadPoolTaskScheduler taskScheduler;
@@ -336,6 +386,10 @@ public class RedisIndexedSessionRepository
 
 	private BiFunction<String, Map<String, Object>, MapSession> redisSessionMapper = new RedisSessionMapper();
 
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	private @Nullable SessionRepositoryObservationConvention observationConvention;
+
 	/**
 	 * Creates a new instance. For an example, refer to the class level javadoc.
 	 * @param sessionRedisOperations the {@link RedisOperations} to use for managing the
@@ -344,6 +398,7 @@ public class RedisIndexedSessionRepository
 	public RedisIndexedSessionRepository(RedisOperations<String, Object> sessionRedisOperations) {
 		Assert.notNull(sessionRedisOperations, "sessionRedisOperations cannot be null");
 		this.sessionRedisOperations = sessionRedisOperations;
+		this.sessionHashReader = new RedisSessionHashReader(sessionRedisOperations);
 		this.expirationStore = new MinuteBasedRedisSessionExpirationStore(sessionRedisOperations,
 				this::getExpirationsKey);
 		configureSessionChannels();
@@ -444,6 +499,131 @@ public class RedisIndexedSessionRepository
 		this.saveMode = saveMode;
 	}
 
+	/**
+	 * Set the minimum amount of time by which the last accessed time of a session must
+	 * have advanced for it to be saved when it is the only change to the session. This
+	 * turns requests that merely access a session into read-only operations, at the cost
+	 * of sessions expiring up to the given amount of time earlier than their maximum
+	 * inactive interval implies. The touch granularity is limited to half of the maximum
+	 * inactive interval of each session, so that a session that keeps being accessed does
+	 * not expire. Default is {@link Duration#ZERO}, which saves every change of the last
+	 * accessed time.
+	 * @param touchGranularity the touch granularity
+	 * @since 4.2
+	 */
+	public void setTouchGranularity(Duration touchGranularity) {
+		Assert.notNull(touchGranularity, "touchGranularity must not be null");
+		Assert.isTrue(!touchGranularity.isNegative(), "touchGranularity must not be negative");
+		this.touchGranularity = touchGranularity;
+	}
+
+	private Duration getTouchGranularity(Duration maxInactiveInterval) {
+		if (maxInactiveInterval.isNegative() || maxInactiveInterval.isZero()) {
+			return this.touchGranularity;
+		}
+		Duration maxTouchGranularity = maxInactiveInterval.dividedBy(2);
+		return (this.touchGranularity.compareTo(maxTouchGranularity) > 0) ? maxTouchGranularity : this.touchGranularity;
+	}
+
+	/**
+	 * Set whether the session metadata, that is the creation time, the last accessed time
+	 * and the maximum inactive interval, should be stored as a single fixed-width binary
+	 * hash entry rather than as three separately serialized entries. This considerably
+	 * reduces the memory used by each session, in particular with the default
+	 * {@link org.springframework.data.redis.serializer.JdkSerializationRedisSerializer}.
+	 * Sessions stored in either format are read regardless of this setting, and are
+	 * rewritten in the configured format the next time they are saved, so it should only
+	 * be enabled once all application instances are able to read the compact format.
+	 * Default is {@code false}.
+	 * @param compactMetadata whether to store the session metadata in compact form
+	 * @throws IllegalStateException if enabled while the hash value serializer does not
+	 * read {@code byte[]} values back unchanged
+	 * @since 4.2
+	 */
+	public void setCompactMetadata(boolean compactMetadata) {
+		if (compactMetadata) {
+			RedisSessionMapper.assertCompactMetadataSupported(this.sessionRedisOperations.getHashValueSerializer());
+		}
+		this.compactMetadata = compactMetadata;
+	}
+
+	/**
+	 * Set whether the commands issued when saving a session should be sent to Redis in a
+	 * single pipeline rather than one round trip per command. The keys that are written
+	 * are the same in both cases, so sessions saved with either setting can be read by
+	 * the other. Note that a custom {@link RedisSessionExpirationStore} must not rely on
+	 * the result of read operations in {@link RedisSessionExpirationStore#save} when this
+	 * is enabled. Default is {@code false}.
+	 * @param pipelineSave whether to pipeline the commands issued when saving a session
+	 * @since 4.2
+	 */
+	public void setPipelineSave(boolean pipelineSave) {
+		this.pipelineSave = pipelineSave;
+	}
+
+	/**
+	 * Set whether session attribute values should only be deserialized the first time
+	 * they are accessed. When enabled, the session hash is read with its attribute values
+	 * left serialized, so a request that reads only a few attributes of a large session
+	 * does not pay for deserializing all of them. Note that the map passed to the
+	 * {@link #setRedisSessionMapper(BiFunction) session mapper} then contains
+	 * placeholders instead of the attribute values, which are expected to be set on the
+	 * {@link MapSession} as is. Default is {@code false}.
+	 * @param lazyAttributeDeserialization whether to deserialize attribute values lazily
+	 * @since 4.2
+	 */
+	public void setLazyAttributeDeserialization(boolean lazyAttributeDeserialization) {
+		this.lazyAttributeDeserialization = lazyAttributeDeserialization;
+	}
+
+	/**
+	 * Set whether attributes that are written back without having been changed should be
+	 * skipped when saving a session. When enabled, the serialized value of each attribute
+	 * is retained when the session is loaded, which implies
+	 * {@link #setLazyAttributeDeserialization(boolean) lazy deserialization}. When the
+	 * session is saved, each attribute that is about to be written is serialized and only
+	 * written if its bytes differ from the retained ones, and attributes that were never
+	 * accessed are not written at all. This is mostly useful with
+	 * {@link SaveMode#ON_GET_ATTRIBUTE} or {@link SaveMode#ALWAYS}, as it still detects
+	 * in-place changes to attribute values without rewriting every attribute on each
+	 * request. Default is {@code false}.
+	 * @param skipUnchangedAttributes whether to skip writing unchanged attributes
+	 * @since 4.2
+	 */
+	public void setSkipUnchangedAttributes(boolean skipUnchangedAttributes) {
+		this.skipUnchangedAttributes = skipUnchangedAttributes;
+	}
+
+	/**
+	 * Set whether only the session metadata should be fetched when a session is loaded.
+	 * When enabled, the value of a session attribute is only fetched from Redis the first
+	 * time it is accessed, except for the attributes configured using
+	 * {@link #setPrefetchedAttributeNames(Set)} which are fetched together with the
+	 * metadata. This avoids transferring the values of attributes that a request does not
+	 * read, at the cost of an additional round trip for each attribute that it does read.
+	 * As with {@link #setLazyAttributeDeserialization(boolean) lazy deserialization}, the
+	 * map passed to the {@link #setRedisSessionMapper(BiFunction) session mapper}
+	 * contains placeholders instead of the attribute values. Default is {@code false}.
+	 * @param selectiveAttributeFetch whether to fetch attribute values on demand
+	 * @since 4.2
+	 */
+	public void setSelectiveAttributeFetch(boolean selectiveAttributeFetch) {
+		this.selectiveAttributeFetch = selectiveAttributeFetch;
+	}
+
+	/**
+	 * Set the names of the session attributes that are read by most requests, such as
+	 * {@code SPRING_SECURITY_CONTEXT}, and should therefore be fetched together with the
+	 * session metadata when {@link #setSelectiveAttributeFetch(boolean) selective
+	 * attribute fetch} is enabled. Default is an empty set.
+	 * @param prefetchedAttributeNames the names of the attributes to prefetch
+	 * @since 4.2
+	 */
+	public void setPrefetchedAttributeNames(Set<String> prefetchedAttributeNames) {
+		Assert.notNull(prefetchedAttributeNames, "prefetchedAttributeNames must not be null");
+		this.prefetchedAttributeNames = Set.copyOf(prefetchedAttributeNames);
+	}
+
 	/**
 	 * Set the cleanup cron expression.
 	 * @param cleanupCron the cleanup cron expression
@@ -475,8 +655,35 @@ public class RedisIndexedSessionRepository
 		this.sessionDeletedChannelBytes = this.sessionDeletedChannel.getBytes();
 		this.sessionExpiredChannel = "__keyevent@" + this.database + "__:expired";
 		this.sessionExpiredChannelBytes = this.sessionExpiredChannel.getBytes();
+		this.sessionFieldExpiredChannel = "__keyevent@" + this.database + "__:hexpired";
+		this.sessionFieldExpiredChannelBytes = this.sessionFieldExpiredChannel.getBytes();
 		this.expiredKeyPrefix = this.namespace + "sessions:expires:";
 		this.expiredKeyPrefixBytes = this.expiredKeyPrefix.getBytes();
+		this.sessionKeyPrefix = this.namespace + "sessions:";
+		this.sessionKeyPrefixBytes = this.sessionKeyPrefix.getBytes();
+	}
+
+	/**
+	 * Set the {@link ObservationRegistry} used to observe {@code findById}, {@code save},
+	 * {@code deleteById}, {@code findByIndexNameAndIndexValue} and the expired session
+	 * cleanup. Default is {@link ObservationRegistry#NOOP}.
+	 * @param observationRegistry the observation registry to use
+	 * @since 4.2
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * Set a custom {@link SessionRepositoryObservationConvention} to use instead of the
+	 * {@link DefaultSessionRepositoryObservationConvention}.
+	 * @param observationConvention the observation convention to use
+	 * @since 4.2
+	 */
+	public void setObservationConvention(SessionRepositoryObservationConvention observationConvention) {
+		Assert.notNull(observationConvention, "observationConvention cannot be null");
+		this.observationConvention = observationConvention;
 	}
 
 	/**
@@ -489,16 +696,33 @@ public class RedisIndexedSessionRepository
 
 	@Override
 	public void save(RedisSession session) {
-		session.save();
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.SAVE);
+		Observation observation = createObservation(context);
+		if (!observation.isNoop()) {
+			context.setAttributeCount(session.cached.getAttributeNames().size());
+			context.setDeltaSize(session.delta.size());
+		}
+		observation.observe(session::save);
 	}
 
 	public void cleanUpExpiredSessions() {
-		this.expirationStore.cleanupExpiredSessions();
+		createObservation(new SessionRepositoryObservationContext(OBSERVATION_BACKEND, Operation.CLEANUP))
+			.observe(this.expirationStore::cleanupExpiredSessions);
 	}
 
 	@Override
 	public @Nullable RedisSession findById(String id) {
-		return getSession(id, false);
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.FIND_BY_ID);
+		Observation observation = createObservation(context);
+		return observation.observe(() -> {
+			RedisSession session = getSession(id, false);
+			if (session != null && !observation.isNoop()) {
+				context.setAttributeCount(session.cached.getAttributeNames().size());
+			}
+			return session;
+		});
 	}
 
 	@Override
@@ -506,6 +730,16 @@ public class RedisIndexedSessionRepository
 		if (!PRINCIPAL_NAME_INDEX_NAME.equals(indexName)) {
 			return Collections.emptyMap();
 		}
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.FIND_BY_INDEX_NAME_AND_INDEX_VALUE);
+		return createObservation(context).observe(() -> {
+			Map<String, RedisSession> sessions = doFindByPrincipalName(indexValue);
+			context.setResultCount(sessions.size());
+			return sessions;
+		});
+	}
+
+	private Map<String, RedisSession> doFindByPrincipalName(String indexValue) {
 		String principalKey = getPrincipalKey(indexValue);
 		Set<Object> sessionIds = this.sessionRedisOperations.boundSetOps(principalKey).members();
 		if (sessionIds == null) {
@@ -513,7 +747,7 @@ public class RedisIndexedSessionRepository
 		}
 		Map<String, RedisSession> sessions = new HashMap<>(sessionIds.size());
 		for (Object id : sessionIds) {
-			RedisSession session = findById((String) id);
+			RedisSession session = getSession((String) id, false);
 			if (session != null) {
 				sessions.put(session.getId(), session);
 			}
@@ -529,7 +763,9 @@ public class RedisIndexedSessionRepository
 	 * @return the Redis session
 	 */
 	private @Nullable RedisSession getSession(String id, boolean allowExpired) {
-		Map<String, Object> entries = getSessionBoundHashOperations(id).entries();
+		// sessions loaded to publish events are fetched completely, as their hash may
+		// be gone by the time a listener reads their attributes
+		Map<String, Object> entries = getSessionEntries(id, !allowExpired);
 		if ((entries == null) || entries.isEmpty()) {
 			return null;
 		}
@@ -539,11 +775,27 @@ public class RedisIndexedSessionRepository
 		}
 		RedisSession result = new RedisSession(loaded, false);
 		result.originalLastAccessTime = loaded.getLastAccessedTime();
+		result.compactMetadataStored = RedisSessionMapper.hasCompactMetadata(entries);
 		return result;
 	}
 
+	private @Nullable Map<String, Object> getSessionEntries(String id, boolean allowSelectiveFetch) {
+		if (this.selectiveAttributeFetch && allowSelectiveFetch) {
+			return this.sessionHashReader.entries(getSessionKey(id), this.prefetchedAttributeNames);
+		}
+		if (this.lazyAttributeDeserialization || this.skipUnchangedAttributes) {
+			return this.sessionHashReader.entries(getSessionKey(id));
+		}
+		return getSessionBoundHashOperations(id).entries();
+	}
+
 	@Override
 	public void deleteById(String sessionId) {
+		createObservation(new SessionRepositoryObservationContext(OBSERVATION_BACKEND, Operation.DELETE_BY_ID))
+			.observe(() -> doDeleteById(sessionId));
+	}
+
+	private void doDeleteById(String sessionId) {
 		RedisSession session = getSession(sessionId, true);
 		if (session == null) {
 			return;
@@ -552,11 +804,18 @@ public class RedisIndexedSessionRepository
 		cleanupPrincipalIndex(session);
 		this.expirationStore.remove(sessionId);
 
-		String expireKey = getExpiredKey(session.getId());
-		this.sessionRedisOperations.delete(expireKey);
+		if (this.expirationStore.requiresShadowKey()) {
+			String expireKey = getExpiredKey(session.getId());
+			this.sessionRedisOperations.delete(expireKey);
+		}
 
 		session.setMaxInactiveInterval(Duration.ZERO);
-		save(session);
+		session.save();
+
+		if (!this.expirationStore.requiresShadowKey()) {
+			// no keyspace notification identifies the deletion of the session hash
+			handleDeleted(session);
+		}
 	}
 
 	@Override
@@ -588,6 +847,15 @@ public class RedisIndexedSessionRepository
 
 		byte[] messageBody = message.getBody();
 
+		if (Arrays.equals(messageChannel, this.sessionFieldExpiredChannelBytes)) {
+			if (!this.expirationStore.requiresShadowKey()
+					&& ByteUtils.startsWith(messageBody, this.sessionKeyPrefixBytes)) {
+				String sessionId = new String(messageBody).substring(this.sessionKeyPrefix.length());
+				handleDestroyed(sessionId, false);
+			}
+			return;
+		}
+
 		if (!ByteUtils.startsWith(messageBody, this.expiredKeyPrefixBytes)) {
 			return;
 		}
@@ -598,27 +866,30 @@ public class RedisIndexedSessionRepository
 			int beginIndex = body.lastIndexOf(":") + 1;
 			int endIndex = body.length();
 			String sessionId = body.substring(beginIndex, endIndex);
+			handleDestroyed(sessionId, isDeleted);
+		}
+	}
 
-			RedisSession session = getSession(sessionId, true);
+	private void handleDestroyed(String sessionId, boolean isDeleted) {
+		RedisSession session = getSession(sessionId, true);
 
-			if (session == null) {
-				logger.warn("Unable to publish SessionDestroyedEvent for session " + sessionId);
-				return;
-			}
+		if (session == null) {
+			logger.warn("Unable to publish SessionDestroyedEvent for session " + sessionId);
+			return;
+		}
 
-			if (logger.isDebugEnabled()) {
-				logger.debug("Publishing SessionDestroyedEvent for session " + sessionId);
-			}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Publishing SessionDestroyedEvent for session " + sessionId);
+		}
 
-			cleanupPrincipalIndex(session);
-			this.expirationStore.remove(session.getId());
+		cleanupPrincipalIndex(session);
+		this.expirationStore.remove(session.getId());
 
-			if (isDeleted) {
-				handleDeleted(session);
-			}
-			else {
-				handleExpired(session);
-			}
+		if (isDeleted) {
+			handleDeleted(session);
+		}
+		else {
+			handleExpired(session);
 		}
 	}
 
@@ -688,6 +959,12 @@ public class RedisIndexedSessionRepository
 		return this.namespace + "expirations:" + expiration;
 	}
 
+	private Observation createObservation(SessionRepositoryObservationContext context) {
+		return SessionRepositoryObservationDocumentation.SESSION_REPOSITORY_OPERATION.observation(
+				this.observationConvention, DefaultSessionRepositoryObservationConvention.INSTANCE, () -> context,
+				this.observationRegistry);
+	}
+
 	private String getExpiredKey(String sessionId) {
 		return getExpiredKeyPrefix() + sessionId;
 	}
@@ -726,6 +1003,27 @@ public class RedisIndexedSessionRepository
 		return this.sessionExpiredChannel;
 	}
 
+	/**
+	 * Gets the name of the channel that {@link SessionExpiredEvent}s are published to
+	 * when using a {@link RedisSessionExpirationStore} that does not
+	 * {@link RedisSessionExpirationStore#requiresShadowKey() require a shadow key}.
+	 * @return the name for the channel that {@link SessionExpiredEvent}s are published to
+	 * @since 4.2
+	 */
+	public String getSessionFieldExpiredChannel() {
+		return this.sessionFieldExpiredChannel;
+	}
+
+	/**
+	 * Whether the configured {@link RedisSessionExpirationStore} requires a shadow
+	 * {@code expires} key for each session.
+	 * @return whether a shadow key is required
+	 * @since 4.2
+	 */
+	public boolean requiresShadowKey() {
+		return this.expirationStore.requiresShadowKey();
+	}
+
 	/**
 	 * Gets the {@link BoundHashOperations} to operate on a {@link Session}.
 	 * @param sessionId the id of the {@link Session} to work with
@@ -782,12 +1080,16 @@ public class RedisIndexedSessionRepository
 
 		private Map<String, Object> delta = new HashMap<>();
 
+		private final Map<String, LazyAttributeValue> storedAttributes = new HashMap<>();
+
 		private boolean isNew;
 
 		private @Nullable String originalPrincipalName;
 
 		private String originalSessionId;
 
+		private @Nullable Boolean compactMetadataStored;
+
 		RedisSession(MapSession cached, boolean isNew) {
 			this.cached = cached;
 			this.isNew = isNew;
@@ -800,9 +1102,16 @@ public class RedisIndexedSessionRepository
 						(int) cached.getMaxInactiveInterval().getSeconds());
 				this.delta.put(RedisSessionMapper.LAST_ACCESSED_TIME_KEY, cached.getLastAccessedTime().toEpochMilli());
 			}
-			if (this.isNew || (RedisIndexedSessionRepository.this.saveMode == SaveMode.ALWAYS)) {
+			if (!this.isNew && RedisIndexedSessionRepository.this.skipUnchangedAttributes) {
+				for (String attributeName : cached.getAttributeNames()) {
+					if (cached.getAttribute(attributeName) instanceof LazyAttributeValue storedValue) {
+						this.storedAttributes.put(getSessionAttrNameKey(attributeName), storedValue);
+					}
+				}
+			}
+			else if (this.isNew || (RedisIndexedSessionRepository.this.saveMode == SaveMode.ALWAYS)) {
 				getAttributeNames().forEach((attributeName) -> this.delta.put(getSessionAttrNameKey(attributeName),
-						cached.getAttribute(attributeName)));
+						LazyAttributeValue.resolve(cached.getAttribute(attributeName))));
 			}
 		}
 
@@ -854,7 +1163,7 @@ public class RedisIndexedSessionRepository
 
 		@Override
 		public <T> @Nullable T getAttribute(String attributeName) {
-			T attributeValue = this.cached.getAttribute(attributeName);
+			T attributeValue = LazyAttributeValue.resolve(this.cached.getAttribute(attributeName));
 			if (attributeValue != null
 					&& RedisIndexedSessionRepository.this.saveMode.equals(SaveMode.ON_GET_ATTRIBUTE)) {
 				this.delta.put(getSessionAttrNameKey(attributeName), attributeValue);
@@ -862,6 +1171,11 @@ public class RedisIndexedSessionRepository
 			return attributeValue;
 		}
 
+		@Override
+		public <T> @Nullable T peekAttribute(String attributeName) {
+			return LazyAttributeValue.resolve(this.cached.getAttribute(attributeName));
+		}
+
 		@Override
 		public Set<String> getAttributeNames() {
 			return this.cached.getAttributeNames();
@@ -892,16 +1206,86 @@ public class RedisIndexedSessionRepository
 			saveDelta();
 		}
 
+		private Map<String, Object> getDeltaToWrite() {
+			if (!hasMetadataFormatChanged()) {
+				return (RedisIndexedSessionRepository.this.compactMetadata)
+						? RedisSessionMapper.compactMetadata(this.delta, this) : this.delta;
+			}
+			Map<String, Object> delta = RedisSessionMapper.withMetadata(this.delta, this);
+			if (RedisIndexedSessionRepository.this.compactMetadata) {
+				return RedisSessionMapper.compactMetadata(delta, this);
+			}
+			if (!RedisIndexedSessionRepository.this.expirationStore.requiresShadowKey()) {
+				// the stale compact metadata is kept and takes precedence when reading
+				delta.put(RedisSessionMapper.METADATA_KEY, RedisSessionMapper.encodeMetadata(this));
+			}
+			return delta;
+		}
+
+		private boolean hasMetadataFormatChanged() {
+			return this.compactMetadataStored != null
+					&& this.compactMetadataStored != RedisIndexedSessionRepository.this.compactMetadata;
+		}
+
+		private boolean hasDeltaToSave() {
+			if (this.delta.size() == 1 && this.delta.containsKey(RedisSessionMapper.LAST_ACCESSED_TIME_KEY)
+					&& this.originalLastAccessTime != null) {
+				// only touched, so save once the touch granularity has elapsed
+				Instant lastAccessedTime = getLastAccessedTime();
+				return lastAccessedTime.isBefore(this.originalLastAccessTime)
+						|| !lastAccessedTime.isBefore(this.originalLastAccessTime
+							.plus(RedisIndexedSessionRepository.this.getTouchGranularity(getMaxInactiveInterval())));
+			}
+			return !this.delta.isEmpty();
+		}
+
 		/**
 		 * Saves any attributes that have been changed and updates the expiration of this
 		 * session.
 		 */
 		private void saveDelta() {
-			if (this.delta.isEmpty()) {
+			if (!this.isNew && RedisIndexedSessionRepository.this.skipUnchangedAttributes) {
+				removeUnchangedAttributes();
+			}
+			if (!hasDeltaToSave()) {
+				return;
+			}
+			if (!RedisIndexedSessionRepository.this.pipelineSave) {
+				writeDelta();
 				return;
 			}
+			// the expiration store may query Redis to find out whether a shadow key is
+			// required, which must not happen inside the pipeline
+			RedisIndexedSessionRepository.this.expirationStore.requiresShadowKey();
+			RedisIndexedSessionRepository.this.sessionRedisOperations
+				.executePipelined(new SessionCallback<@Nullable Object>() {
+
+					@Override
+					public <K, V> @Nullable Object execute(RedisOperations<K, V> operations) {
+						writeDelta();
+						return null;
+					}
+
+				});
+		}
+
+		private void writeDelta() {
 			String sessionId = getId();
-			getSessionBoundHashOperations(sessionId).putAll(this.delta);
+			getSessionBoundHashOperations(sessionId).putAll(getDeltaToWrite());
+			if (hasMetadataFormatChanged()) {
+				// without a shadow key, the stale entries are kept up to date until they
+				// expire with the hash, since deleting them would publish hdel keyspace
+				// events
+				if (RedisIndexedSessionRepository.this.expirationStore.requiresShadowKey()) {
+					getSessionBoundHashOperations(sessionId)
+						.delete(RedisSessionMapper.getMetadataKeys(!RedisIndexedSessionRepository.this.compactMetadata)
+							.toArray());
+					this.compactMetadataStored = RedisIndexedSessionRepository.this.compactMetadata;
+				}
+			}
+			else {
+				this.compactMetadataStored = RedisIndexedSessionRepository.this.compactMetadata;
+			}
 			String principalSessionKey = getSessionAttrNameKey(
 					FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME);
 			String securityPrincipalSessionKey = getSessionAttrNameKey(SPRING_SECURITY_CONTEXT);
@@ -928,13 +1312,18 @@ public class RedisIndexedSessionRepository
 
 			long sessionExpireInSeconds = getMaxInactiveInterval().getSeconds();
 
-			createShadowKey(sessionExpireInSeconds);
+			RedisIndexedSessionRepository.this.expirationStore.save(this);
+
+			if (RedisIndexedSessionRepository.this.expirationStore.requiresShadowKey()) {
+				createShadowKey(sessionExpireInSeconds);
+			}
 
 			long fiveMinutesAfterExpires = sessionExpireInSeconds + TimeUnit.MINUTES.toSeconds(5);
 			RedisIndexedSessionRepository.this.sessionRedisOperations.boundHashOps(getSessionKey(getId()))
 				.expire(fiveMinutesAfterExpires, TimeUnit.SECONDS);
 
-			RedisIndexedSessionRepository.this.expirationStore.save(this);
+			this.originalLastAccessTime = getLastAccessedTime();
+			this.storedAttributes.keySet().removeAll(this.delta.keySet());
 			this.delta = new HashMap<>(this.delta.size());
 		}
 
@@ -962,12 +1351,40 @@ public class RedisIndexedSessionRepository
 			}
 		}
 
+		/**
+		 * Remove the attributes that would be written back with the same serialized value
+		 * as they were loaded with. With {@link SaveMode#ALWAYS}, each attribute that has
+		 * been accessed is considered first, as it might have been changed in place.
+		 */
+		private void removeUnchangedAttributes() {
+			if (RedisIndexedSessionRepository.this.saveMode == SaveMode.ALWAYS) {
+				for (String attributeName : getAttributeNames()) {
+					Object value = this.cached.getAttribute(attributeName);
+					if (!(value instanceof LazyAttributeValue lazyValue) || lazyValue.isResolved()) {
+						this.delta.putIfAbsent(getSessionAttrNameKey(attributeName), LazyAttributeValue.resolve(value));
+					}
+				}
+			}
+			RedisSerializer<?> serializer = RedisIndexedSessionRepository.this.sessionRedisOperations
+				.getHashValueSerializer();
+			this.delta.entrySet().removeIf((entry) -> {
+				LazyAttributeValue storedValue = this.storedAttributes.get(entry.getKey());
+				return storedValue != null && storedValue.isUnchanged(entry.getValue(), serializer);
+			});
+		}
+
+		private void resolveLazyAttributes() {
+			getAttributeNames()
+				.forEach((attributeName) -> LazyAttributeValue.resolve(this.cached.getAttribute(attributeName)));
+		}
+
 		private void saveChangeSessionId() {
 			String sessionId = getId();
 			if (sessionId.equals(this.originalSessionId)) {
 				return;
 			}
 			if (!this.isNew) {
+				resolveLazyAttributes();
 				String originalSessionIdKey = getSessionKey(this.originalSessionId);
 				String sessionIdKey = getSessionKey(sessionId);
 				try {
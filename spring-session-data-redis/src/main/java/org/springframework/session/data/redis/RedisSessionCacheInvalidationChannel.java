@@ -0,0 +1,116 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.data.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.session.CachingSessionRepository;
+import org.springframework.session.SessionCacheInvalidationChannel;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link SessionCacheInvalidationChannel} that uses Redis Pub/Sub. In order to receive
+ * notifications, an instance must be registered as a {@link MessageListener} for the
+ * {@link #getChannel() channel} with a
+ * {@link org.springframework.data.redis.listener.RedisMessageListenerContainer}, which
+ * {@link org.springframework.session.data.redis.config.annotation.web.http.RedisIndexedHttpSessionConfiguration}
+ * does for an instance exposed as a bean.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ * @see CachingSessionRepository
+ */
+public class RedisSessionCacheInvalidationChannel implements SessionCacheInvalidationChannel, MessageListener {
+
+	/**
+	 * The default name of the channel used to publish notifications.
+	 */
+	public static final String DEFAULT_CHANNEL = RedisSessionRepository.DEFAULT_KEY_NAMESPACE + ":cache:invalidated";
+
+	private static final String SEPARATOR = ":";
+
+	private final RedisOperations<?, ?> redisOperations;
+
+	private final String instanceId = UUID.randomUUID().toString();
+
+	private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+	private String channel = DEFAULT_CHANNEL;
+
+	/**
+	 * Create a new {@link RedisSessionCacheInvalidationChannel} instance.
+	 * @param redisOperations the {@link RedisOperations} to use for publishing
+	 * notifications
+	 */
+	public RedisSessionCacheInvalidationChannel(RedisOperations<?, ?> redisOperations) {
+		Assert.notNull(redisOperations, "redisOperations must not be null");
+		this.redisOperations = redisOperations;
+	}
+
+	/**
+	 * Set the name of the channel used to publish notifications. Default is
+	 * {@link #DEFAULT_CHANNEL}.
+	 * @param channel the name of the channel
+	 */
+	public void setChannel(String channel) {
+		Assert.hasText(channel, "channel must not be empty");
+		this.channel = channel;
+	}
+
+	/**
+	 * Return the name of the channel used to publish notifications.
+	 * @return the name of the channel
+	 */
+	public String getChannel() {
+		return this.channel;
+	}
+
+	@Override
+	public void publish(String sessionId) {
+		byte[] rawChannel = this.channel.getBytes(StandardCharsets.UTF_8);
+		byte[] rawMessage = (this.instanceId + SEPARATOR + sessionId).getBytes(StandardCharsets.UTF_8);
+		this.redisOperations.execute((RedisCallback<Long>) (connection) -> connection.publish(rawChannel, rawMessage));
+	}
+
+	@Override
+	public void subscribe(Consumer<String> listener) {
+		Assert.notNull(listener, "listener must not be null");
+		this.listeners.add(listener);
+	}
+
+	@Override
+	public void onMessage(Message message, byte @Nullable [] pattern) {
+		String body = new String(message.getBody(), StandardCharsets.UTF_8);
+		int separatorIndex = body.indexOf(SEPARATOR);
+		if (separatorIndex == -1 || this.instanceId.equals(body.substring(0, separatorIndex))) {
+			return;
+		}
+		String sessionId = body.substring(separatorIndex + 1);
+		this.listeners.forEach((listener) -> listener.accept(sessionId));
+	}
+
+}
@@ -50,4 +50,18 @@ public interface RedisSessionExpirationStore {
 	 */
 	void cleanupExpiredSessions();
 
+	/**
+	 * Whether {@link RedisIndexedSessionRepository} should maintain a shadow
+	 * {@code expires} key for each session, whose expiration triggers the
+	 * {@link org.springframework.session.events.SessionExpiredEvent}. Stores that track
+	 * the expiration of the session hash itself, such as
+	 * {@link HashFieldRedisSessionExpirationStore}, return {@code false}. Defaults to
+	 * {@code true}.
+	 * @return whether a shadow key is required
+	 * @since 4.2
+	 */
+	default boolean requiresShadowKey() {
+		return true;
+	}
+
 }
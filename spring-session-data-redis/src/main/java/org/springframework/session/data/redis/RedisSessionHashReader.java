@@ -0,0 +1,198 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.data.redis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Reads session hashes using the raw connection so that the values of session attributes
+ * can be deserialized, or even fetched, on demand rather than all at once. Keys, hash
+ * keys and values are (de)serialized using the serializers configured on the given
+ * {@link RedisOperations}.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ * @see LazyAttributeValue
+ */
+final class RedisSessionHashReader {
+
+	private static final List<String> METADATA_KEYS = List.of(RedisSessionMapper.CREATION_TIME_KEY,
+			RedisSessionMapper.LAST_ACCESSED_TIME_KEY, RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY,
+			RedisSessionMapper.METADATA_KEY);
+
+	private final RedisOperations<String, Object> sessionRedisOperations;
+
+	RedisSessionHashReader(RedisOperations<String, Object> sessionRedisOperations) {
+		this.sessionRedisOperations = sessionRedisOperations;
+	}
+
+	/**
+	 * Read all entries of the session hash stored under the given key. The session
+	 * metadata is deserialized right away, while each session attribute value is wrapped
+	 * in a {@link LazyAttributeValue} that deserializes it when first accessed.
+	 * @param key the key of the session hash
+	 * @return the entries of the session hash, empty if the hash does not exist
+	 */
+	Map<String, Object> entries(String key) {
+		byte[] rawKey = rawKey(key);
+		Map<byte[], byte[]> rawEntries = this.sessionRedisOperations
+			.execute((RedisCallback<Map<byte[], byte[]>>) (connection) -> connection.hashCommands().hGetAll(rawKey));
+		if (CollectionUtils.isEmpty(rawEntries)) {
+			return Collections.emptyMap();
+		}
+		RedisSerializer<String> hashKeySerializer = hashKeySerializer();
+		Map<String, Object> entries = new HashMap<>(rawEntries.size());
+		rawEntries.forEach((rawHashKey, rawValue) -> {
+			String hashKey = hashKeySerializer.deserialize(rawHashKey);
+			if (hashKey == null) {
+				return;
+			}
+			if (hashKey.startsWith(RedisSessionMapper.ATTRIBUTE_PREFIX)) {
+				entries.put(hashKey, new LazyAttributeValue(rawValue, this::deserializeValue));
+			}
+			else {
+				Object value = deserializeValue(rawValue);
+				if (value != null) {
+					entries.put(hashKey, value);
+				}
+			}
+		});
+		return entries;
+	}
+
+	/**
+	 * Read the entries of the session hash stored under the given key without fetching
+	 * the values of all session attributes. The session metadata and the values of the
+	 * given prefetched attributes are read using a single {@code HMGET}, pipelined with
+	 * an {@code HKEYS} that provides the names of the remaining attributes. The value of
+	 * each remaining attribute is wrapped in a {@link LazyAttributeValue} that fetches it
+	 * using {@code HGET} when first accessed.
+	 * @param key the key of the session hash
+	 * @param prefetchedAttributeNames the names of the attributes to fetch right away
+	 * @return the entries of the session hash, empty if the hash does not exist
+	 */
+	Map<String, Object> entries(String key, Collection<String> prefetchedAttributeNames) {
+		byte[] rawKey = rawKey(key);
+		RedisSerializer<String> hashKeySerializer = hashKeySerializer();
+		List<String> hashKeys = new ArrayList<>(METADATA_KEYS);
+		prefetchedAttributeNames.forEach((name) -> hashKeys.add(RedisSessionMapper.ATTRIBUTE_PREFIX + name));
+		byte[][] rawHashKeys = hashKeys.stream()
+			.map((hashKey) -> rawHashKey(hashKeySerializer, hashKey))
+			.toArray(byte[][]::new);
+		List<Object> results = this.sessionRedisOperations.execute((RedisCallback<List<Object>>) (connection) -> {
+			connection.openPipeline();
+			connection.hashCommands().hMGet(rawKey, rawHashKeys);
+			connection.hashCommands().hKeys(rawKey);
+			return connection.closePipeline();
+		});
+		if (results == null || results.size() != 2) {
+			return Collections.emptyMap();
+		}
+		@SuppressWarnings("unchecked")
+		List<byte @Nullable []> rawValues = (List<byte @Nullable []>) results.get(0);
+		@SuppressWarnings("unchecked")
+		Set<byte[]> rawAttributeKeys = (Set<byte[]>) results.get(1);
+		if (CollectionUtils.isEmpty(rawValues) || !hasMetadata(rawValues)) {
+			return Collections.emptyMap();
+		}
+		Map<String, Object> entries = new HashMap<>();
+		for (int i = 0; i < hashKeys.size() && i < rawValues.size(); i++) {
+			byte[] rawValue = rawValues.get(i);
+			if (rawValue == null) {
+				continue;
+			}
+			if (i < METADATA_KEYS.size()) {
+				Object value = deserializeValue(rawValue);
+				if (value != null) {
+					entries.put(hashKeys.get(i), value);
+				}
+			}
+			else {
+				entries.put(hashKeys.get(i), new LazyAttributeValue(rawValue, this::deserializeValue));
+			}
+		}
+		if (rawAttributeKeys != null) {
+			for (byte[] rawHashKey : rawAttributeKeys) {
+				String hashKey = hashKeySerializer.deserialize(rawHashKey);
+				if (hashKey != null && hashKey.startsWith(RedisSessionMapper.ATTRIBUTE_PREFIX)
+						&& !entries.containsKey(hashKey)) {
+					entries.put(hashKey,
+							new LazyAttributeValue(() -> fetchRawValue(rawKey, rawHashKey), this::deserializeValue));
+				}
+			}
+		}
+		return entries;
+	}
+
+	private static boolean hasMetadata(List<byte @Nullable []> rawValues) {
+		for (int i = 0; i < METADATA_KEYS.size() && i < rawValues.size(); i++) {
+			if (rawValues.get(i) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private byte @Nullable [] fetchRawValue(byte[] rawKey, byte[] rawHashKey) {
+		return this.sessionRedisOperations
+			.execute((RedisCallback<byte[]>) (connection) -> connection.hashCommands().hGet(rawKey, rawHashKey));
+	}
+
+	private static byte[] rawHashKey(RedisSerializer<String> hashKeySerializer, String hashKey) {
+		byte[] rawHashKey = hashKeySerializer.serialize(hashKey);
+		Assert.state(rawHashKey != null, () -> "Unable to serialize hash key " + hashKey);
+		return rawHashKey;
+	}
+
+	private byte[] rawKey(String key) {
+		RedisSerializer<String> keySerializer = required(this.sessionRedisOperations.getKeySerializer(), "key");
+		byte[] rawKey = keySerializer.serialize(key);
+		Assert.state(rawKey != null, () -> "Unable to serialize key " + key);
+		return rawKey;
+	}
+
+	private RedisSerializer<String> hashKeySerializer() {
+		return required(this.sessionRedisOperations.getHashKeySerializer(), "hash key");
+	}
+
+	private @Nullable Object deserializeValue(byte[] rawValue) {
+		RedisSerializer<Object> hashValueSerializer = required(this.sessionRedisOperations.getHashValueSerializer(),
+				"hash value");
+		return hashValueSerializer.deserialize(rawValue);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> RedisSerializer<T> required(@Nullable RedisSerializer<?> serializer, String type) {
+		Assert.state(serializer != null, () -> "A " + type + " serializer must be configured");
+		return (RedisSerializer<T>) serializer;
+	}
+
+}
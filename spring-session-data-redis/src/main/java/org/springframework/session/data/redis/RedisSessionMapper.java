@@ -16,12 +16,21 @@
 
 package org.springframework.session.data.redis;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.session.MapSession;
 import org.springframework.session.Session;
 import org.springframework.util.Assert;
@@ -58,6 +67,24 @@ public final class RedisSessionMapper implements BiFunction<String, Map<String,
 	 */
 	static final String ATTRIBUTE_PREFIX = "sessionAttr:";
 
+	/**
+	 * The key in the hash holding {@link Session#getCreationTime()},
+	 * {@link Session#getLastAccessedTime()} and {@link Session#getMaxInactiveInterval()}
+	 * packed into a single fixed-width binary value, used instead of
+	 * {@link #CREATION_TIME_KEY}, {@link #LAST_ACCESSED_TIME_KEY} and
+	 * {@link #MAX_INACTIVE_INTERVAL_KEY} when compact metadata is enabled.
+	 */
+	static final String METADATA_KEY = "metadata";
+
+	private static final byte METADATA_VERSION = 1;
+
+	private static final int METADATA_LENGTH = 1 + Long.BYTES + Long.BYTES + Integer.BYTES;
+
+	private static final List<String> EXPANDED_METADATA_KEYS = List.of(CREATION_TIME_KEY, LAST_ACCESSED_TIME_KEY,
+			MAX_INACTIVE_INTERVAL_KEY);
+
+	private static final List<String> COMPACT_METADATA_KEYS = List.of(METADATA_KEY);
+
 	private static <T> T getRequired(Map<String, Object> map, String key) {
 		T value = (T) map.get(key);
 		if (value == null) {
@@ -71,12 +98,18 @@ public final class RedisSessionMapper implements BiFunction<String, Map<String,
 		Assert.hasText(sessionId, "sessionId must not be empty");
 		Assert.notEmpty(map, "map must not be empty");
 		MapSession session = new MapSession(sessionId);
-		Long creationTime = getRequired(map, CREATION_TIME_KEY);
-		session.setCreationTime(Instant.ofEpochMilli(creationTime));
-		Long lastAccessedTime = getRequired(map, LAST_ACCESSED_TIME_KEY);
-		session.setLastAccessedTime(Instant.ofEpochMilli(lastAccessedTime));
-		Integer maxInactiveInterval = getRequired(map, MAX_INACTIVE_INTERVAL_KEY);
-		session.setMaxInactiveInterval(Duration.ofSeconds(maxInactiveInterval));
+		Object metadata = map.get(METADATA_KEY);
+		if (metadata != null) {
+			decodeMetadata(metadata, session);
+		}
+		else {
+			Long creationTime = getRequired(map, CREATION_TIME_KEY);
+			session.setCreationTime(Instant.ofEpochMilli(creationTime));
+			Long lastAccessedTime = getRequired(map, LAST_ACCESSED_TIME_KEY);
+			session.setLastAccessedTime(Instant.ofEpochMilli(lastAccessedTime));
+			Integer maxInactiveInterval = getRequired(map, MAX_INACTIVE_INTERVAL_KEY);
+			session.setMaxInactiveInterval(Duration.ofSeconds(maxInactiveInterval));
+		}
 		map.forEach((name, value) -> {
 			if (name.startsWith(ATTRIBUTE_PREFIX)) {
 				session.setAttribute(name.substring(ATTRIBUTE_PREFIX.length()), value);
@@ -85,4 +118,123 @@ public final class RedisSessionMapper implements BiFunction<String, Map<String,
 		return session;
 	}
 
+	/**
+	 * Return the given delta with its {@link #CREATION_TIME_KEY},
+	 * {@link #LAST_ACCESSED_TIME_KEY} and {@link #MAX_INACTIVE_INTERVAL_KEY} entries, if
+	 * any, replaced by a single {@link #METADATA_KEY} entry holding the metadata of the
+	 * given session.
+	 * @param delta the delta to compact
+	 * @param session the session the delta belongs to
+	 * @return the compacted delta, or the given delta if it contains no metadata
+	 */
+	static Map<String, Object> compactMetadata(Map<String, Object> delta, Session session) {
+		if (!delta.containsKey(CREATION_TIME_KEY) && !delta.containsKey(LAST_ACCESSED_TIME_KEY)
+				&& !delta.containsKey(MAX_INACTIVE_INTERVAL_KEY)) {
+			return delta;
+		}
+		Map<String, Object> compacted = new HashMap<>(delta);
+		compacted.remove(CREATION_TIME_KEY);
+		compacted.remove(LAST_ACCESSED_TIME_KEY);
+		compacted.remove(MAX_INACTIVE_INTERVAL_KEY);
+		compacted.put(METADATA_KEY, encodeMetadata(session));
+		return compacted;
+	}
+
+	/**
+	 * Return the given delta with the {@link #CREATION_TIME_KEY},
+	 * {@link #LAST_ACCESSED_TIME_KEY} and {@link #MAX_INACTIVE_INTERVAL_KEY} entries of
+	 * the given session added, so that the complete metadata is written when a session
+	 * stored in one format is written in the other.
+	 * @param delta the delta to add the metadata to
+	 * @param session the session the delta belongs to
+	 * @return the delta including the complete metadata
+	 */
+	static Map<String, Object> withMetadata(Map<String, Object> delta, Session session) {
+		Map<String, Object> expanded = new HashMap<>(delta);
+		expanded.put(CREATION_TIME_KEY, session.getCreationTime().toEpochMilli());
+		expanded.put(LAST_ACCESSED_TIME_KEY, session.getLastAccessedTime().toEpochMilli());
+		expanded.put(MAX_INACTIVE_INTERVAL_KEY, (int) session.getMaxInactiveInterval().getSeconds());
+		return expanded;
+	}
+
+	/**
+	 * Return the keys in the hash holding the session metadata in the given format.
+	 * @param compact whether the metadata is stored in compact form
+	 * @return the keys of the metadata entries
+	 */
+	static List<String> getMetadataKeys(boolean compact) {
+		return (compact) ? COMPACT_METADATA_KEYS : EXPANDED_METADATA_KEYS;
+	}
+
+	/**
+	 * Return whether the given session hash entries hold the metadata in compact form.
+	 * @param entries the entries of the session hash
+	 * @return {@code true} if the metadata is stored in compact form
+	 */
+	static boolean hasCompactMetadata(Map<String, ?> entries) {
+		return entries.get(METADATA_KEY) != null;
+	}
+
+	/**
+	 * Assert that the given hash value serializer reads back the {@code byte[]} value of
+	 * the compact {@link #METADATA_KEY} entry unchanged, which is not the case for JSON
+	 * serializers for example.
+	 * @param serializer the hash value serializer, {@code null} if values are stored as
+	 * is
+	 * @throws IllegalStateException if the serializer does not support compact metadata
+	 */
+	@SuppressWarnings("unchecked")
+	static void assertCompactMetadataSupported(@Nullable RedisSerializer<?> serializer) {
+		if (serializer != null) {
+			RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) serializer;
+			assertCompactMetadataSupported((value) -> valueSerializer.deserialize(valueSerializer.serialize(value)));
+		}
+	}
+
+	/**
+	 * Assert that the given hash value serialization pair reads back the {@code byte[]}
+	 * value of the compact {@link #METADATA_KEY} entry unchanged.
+	 * @param serializationPair the hash value serialization pair
+	 * @throws IllegalStateException if the serializer does not support compact metadata
+	 * @see #assertCompactMetadataSupported(RedisSerializer)
+	 */
+	@SuppressWarnings("unchecked")
+	static void assertCompactMetadataSupported(SerializationPair<?> serializationPair) {
+		SerializationPair<Object> valuePair = (SerializationPair<Object>) serializationPair;
+		assertCompactMetadataSupported((value) -> valuePair.read(valuePair.write(value)));
+	}
+
+	private static void assertCompactMetadataSupported(Function<Object, @Nullable Object> roundTrip) {
+		byte[] metadata = encodeMetadata(new MapSession());
+		Object result;
+		try {
+			result = roundTrip.apply(metadata);
+		}
+		catch (SerializationException | ClassCastException ex) {
+			result = ex;
+		}
+		Assert.state(result instanceof byte[] bytes && Arrays.equals(bytes, metadata),
+				"Compact metadata requires a hash value serializer that reads byte[] values back unchanged, "
+						+ "such as JdkSerializationRedisSerializer");
+	}
+
+	static byte[] encodeMetadata(Session session) {
+		return ByteBuffer.allocate(METADATA_LENGTH)
+			.put(METADATA_VERSION)
+			.putLong(session.getCreationTime().toEpochMilli())
+			.putLong(session.getLastAccessedTime().toEpochMilli())
+			.putInt((int) session.getMaxInactiveInterval().getSeconds())
+			.array();
+	}
+
+	private static void decodeMetadata(Object metadata, MapSession session) {
+		if (!(metadata instanceof byte[] bytes) || bytes.length != METADATA_LENGTH || bytes[0] != METADATA_VERSION) {
+			throw new IllegalStateException(METADATA_KEY + " key has an unsupported format");
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, METADATA_LENGTH - 1);
+		session.setCreationTime(Instant.ofEpochMilli(buffer.getLong()));
+		session.setLastAccessedTime(Instant.ofEpochMilli(buffer.getLong()));
+		session.setMaxInactiveInterval(Duration.ofSeconds(buffer.getInt()));
+	}
+
 }
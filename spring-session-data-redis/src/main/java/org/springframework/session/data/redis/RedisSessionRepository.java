@@ -18,14 +18,18 @@ package org.springframework.session.data.redis;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiFunction;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.jspecify.annotations.Nullable;
 
 import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.session.FlushMode;
 import org.springframework.session.MapSession;
 import org.springframework.session.SaveMode;
@@ -33,6 +37,11 @@ import org.springframework.session.Session;
 import org.springframework.session.SessionIdGenerator;
 import org.springframework.session.SessionRepository;
 import org.springframework.session.UuidSessionIdGenerator;
+import org.springframework.session.observation.DefaultSessionRepositoryObservationConvention;
+import org.springframework.session.observation.SessionRepositoryObservationContext;
+import org.springframework.session.observation.SessionRepositoryObservationContext.Operation;
+import org.springframework.session.observation.SessionRepositoryObservationConvention;
+import org.springframework.session.observation.SessionRepositoryObservationDocumentation;
 import org.springframework.util.Assert;
 
 /**
@@ -51,8 +60,12 @@ public class RedisSessionRepository implements SessionRepository<RedisSessionRep
 	 */
 	public static final String DEFAULT_KEY_NAMESPACE = "spring:session";
 
+	private static final String OBSERVATION_BACKEND = "redis";
+
 	private final RedisOperations<String, Object> sessionRedisOperations;
 
+	private final RedisSessionHashReader sessionHashReader;
+
 	private Duration defaultMaxInactiveInterval = Duration.ofSeconds(MapSession.DEFAULT_MAX_INACTIVE_INTERVAL_SECONDS);
 
 	private String keyNamespace = DEFAULT_KEY_NAMESPACE + ":";
@@ -61,10 +74,26 @@ public class RedisSessionRepository implements SessionRepository<RedisSessionRep
 
 	private SaveMode saveMode = SaveMode.ON_SET_ATTRIBUTE;
 
+	private Duration touchGranularity = Duration.ZERO;
+
+	private boolean compactMetadata;
+
+	private boolean lazyAttributeDeserialization;
+
+	private boolean skipUnchangedAttributes;
+
+	private boolean selectiveAttributeFetch;
+
+	private Set<String> prefetchedAttributeNames = Collections.emptySet();
+
 	private SessionIdGenerator sessionIdGenerator = UuidSessionIdGenerator.getInstance();
 
 	private BiFunction<String, Map<String, Object>, MapSession> redisSessionMapper = new RedisSessionMapper();
 
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	private @Nullable SessionRepositoryObservationConvention observationConvention;
+
 	/**
 	 * Create a new {@link RedisSessionRepository} instance.
 	 * @param sessionRedisOperations the {@link RedisOperations} to use for managing
@@ -73,6 +102,7 @@ public class RedisSessionRepository implements SessionRepository<RedisSessionRep
 	public RedisSessionRepository(RedisOperations<String, Object> sessionRedisOperations) {
 		Assert.notNull(sessionRedisOperations, "sessionRedisOperations mut not be null");
 		this.sessionRedisOperations = sessionRedisOperations;
+		this.sessionHashReader = new RedisSessionHashReader(sessionRedisOperations);
 	}
 
 	/**
@@ -113,6 +143,139 @@ public class RedisSessionRepository implements SessionRepository<RedisSessionRep
 		this.saveMode = saveMode;
 	}
 
+	/**
+	 * Set the minimum amount of time by which the last accessed time of a session must
+	 * have advanced for it to be saved when it is the only change to the session. This
+	 * turns requests that merely access a session into read-only operations, at the cost
+	 * of sessions expiring up to the given amount of time earlier than their maximum
+	 * inactive interval implies. The touch granularity is limited to half of the maximum
+	 * inactive interval of each session, so that a session that keeps being accessed does
+	 * not expire. Default is {@link Duration#ZERO}, which saves every change of the last
+	 * accessed time.
+	 * @param touchGranularity the touch granularity
+	 * @since 4.2
+	 */
+	public void setTouchGranularity(Duration touchGranularity) {
+		Assert.notNull(touchGranularity, "touchGranularity must not be null");
+		Assert.isTrue(!touchGranularity.isNegative(), "touchGranularity must not be negative");
+		this.touchGranularity = touchGranularity;
+	}
+
+	private Duration getTouchGranularity(Duration maxInactiveInterval) {
+		if (maxInactiveInterval.isNegative() || maxInactiveInterval.isZero()) {
+			return this.touchGranularity;
+		}
+		Duration maxTouchGranularity = maxInactiveInterval.dividedBy(2);
+		return (this.touchGranularity.compareTo(maxTouchGranularity) > 0) ? maxTouchGranularity : this.touchGranularity;
+	}
+
+	/**
+	 * Set whether the session metadata, that is the creation time, the last accessed time
+	 * and the maximum inactive interval, should be stored as a single fixed-width binary
+	 * hash entry rather than as three separately serialized entries. This considerably
+	 * reduces the memory used by each session, in particular with the default
+	 * {@link org.springframework.data.redis.serializer.JdkSerializationRedisSerializer}.
+	 * Sessions stored in either format are read regardless of this setting, and are
+	 * rewritten in the configured format the next time they are saved, so it should only
+	 * be enabled once all application instances are able to read the compact format.
+	 * Default is {@code false}.
+	 * @param compactMetadata whether to store the session metadata in compact form
+	 * @throws IllegalStateException if enabled while the hash value serializer does not
+	 * read {@code byte[]} values back unchanged
+	 * @since 4.2
+	 */
+	public void setCompactMetadata(boolean compactMetadata) {
+		if (compactMetadata) {
+			RedisSessionMapper.assertCompactMetadataSupported(this.sessionRedisOperations.getHashValueSerializer());
+		}
+		this.compactMetadata = compactMetadata;
+	}
+
+	/**
+	 * Set whether session attribute values should only be deserialized the first time
+	 * they are accessed. When enabled, the session hash is read with its attribute values
+	 * left serialized, so a request that reads only a few attributes of a large session
+	 * does not pay for deserializing all of them. Note that the map passed to the
+	 * {@link #setRedisSessionMapper(BiFunction) session mapper} then contains
+	 * placeholders instead of the attribute values, which are expected to be set on the
+	 * {@link MapSession} as is. Default is {@code false}.
+	 * @param lazyAttributeDeserialization whether to deserialize attribute values lazily
+	 * @since 4.2
+	 */
+	public void setLazyAttributeDeserialization(boolean lazyAttributeDeserialization) {
+		this.lazyAttributeDeserialization = lazyAttributeDeserialization;
+	}
+
+	/**
+	 * Set whether attributes that are written back without having been changed should be
+	 * skipped when saving a session. When enabled, the serialized value of each attribute
+	 * is retained when the session is loaded, which implies
+	 * {@link #setLazyAttributeDeserialization(boolean) lazy deserialization}. When the
+	 * session is saved, each attribute that is about to be written is serialized and only
+	 * written if its bytes differ from the retained ones, and attributes that were never
+	 * accessed are not written at all. This is mostly useful with
+	 * {@link SaveMode#ON_GET_ATTRIBUTE} or {@link SaveMode#ALWAYS}, as it still detects
+	 * in-place changes to attribute values without rewriting every attribute on each
+	 * request. Default is {@code false}.
+	 * @param skipUnchangedAttributes whether to skip writing unchanged attributes
+	 * @since 4.2
+	 */
+	public void setSkipUnchangedAttributes(boolean skipUnchangedAttributes) {
+		this.skipUnchangedAttributes = skipUnchangedAttributes;
+	}
+
+	/**
+	 * Set whether only the session metadata should be fetched when a session is loaded.
+	 * When enabled, the value of a session attribute is only fetched from Redis the first
+	 * time it is accessed, except for the attributes configured using
+	 * {@link #setPrefetchedAttributeNames(Set)} which are fetched together with the
+	 * metadata. This avoids transferring the values of attributes that a request does not
+	 * read, at the cost of an additional round trip for each attribute that it does read.
+	 * As with {@link #setLazyAttributeDeserialization(boolean) lazy deserialization}, the
+	 * map passed to the {@link #setRedisSessionMapper(BiFunction) session mapper}
+	 * contains placeholders instead of the attribute values. Default is {@code false}.
+	 * @param selectiveAttributeFetch whether to fetch attribute values on demand
+	 * @since 4.2
+	 */
+	public void setSelectiveAttributeFetch(boolean selectiveAttributeFetch) {
+		this.selectiveAttributeFetch = selectiveAttributeFetch;
+	}
+
+	/**
+	 * Set the names of the session attributes that are read by most requests, such as
+	 * {@code SPRING_SECURITY_CONTEXT}, and should therefore be fetched together with the
+	 * session metadata when {@link #setSelectiveAttributeFetch(boolean) selective
+	 * attribute fetch} is enabled. Default is an empty set.
+	 * @param prefetchedAttributeNames the names of the attributes to prefetch
+	 * @since 4.2
+	 */
+	public void setPrefetchedAttributeNames(Set<String> prefetchedAttributeNames) {
+		Assert.notNull(prefetchedAttributeNames, "prefetchedAttributeNames must not be null");
+		this.prefetchedAttributeNames = Set.copyOf(prefetchedAttributeNames);
+	}
+
+	/**
+	 * Set the {@link ObservationRegistry} used to observe {@code findById}, {@code save}
+	 * and {@code deleteById}. Default is {@link ObservationRegistry#NOOP}.
+	 * @param observationRegistry the observation registry to use
+	 * @since 4.2
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * Set a custom {@link SessionRepositoryObservationConvention} to use instead of the
+	 * {@link DefaultSessionRepositoryObservationConvention}.
+	 * @param observationConvention the observation convention to use
+	 * @since 4.2
+	 */
+	public void setObservationConvention(SessionRepositoryObservationConvention observationConvention) {
+		Assert.notNull(observationConvention, "observationConvention cannot be null");
+		this.observationConvention = observationConvention;
+	}
+
 	@Override
 	public RedisSession createSession() {
 		MapSession cached = new MapSession(this.sessionIdGenerator);
@@ -124,6 +287,17 @@ public class RedisSessionRepository implements SessionRepository<RedisSessionRep
 
 	@Override
 	public void save(RedisSession session) {
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.SAVE);
+		Observation observation = createObservation(context);
+		if (!observation.isNoop()) {
+			context.setAttributeCount(session.cached.getAttributeNames().size());
+			context.setDeltaSize(session.delta.size());
+		}
+		observation.observe(() -> doSave(session));
+	}
+
+	private void doSave(RedisSession session) {
 		if (!session.isNew) {
 			String key = getSessionKey(session.hasChangedSessionId() ? session.originalSessionId : session.getId());
 			Boolean sessionExists = this.sessionRedisOperations.hasKey(key);
@@ -136,23 +310,51 @@ public class RedisSessionRepository implements SessionRepository<RedisSessionRep
 
 	@Override
 	public @Nullable RedisSession findById(String sessionId) {
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.FIND_BY_ID);
+		Observation observation = createObservation(context);
+		return observation.observe(() -> {
+			RedisSession session = doFindById(sessionId);
+			if (session != null && !observation.isNoop()) {
+				context.setAttributeCount(session.cached.getAttributeNames().size());
+			}
+			return session;
+		});
+	}
+
+	private @Nullable RedisSession doFindById(String sessionId) {
 		String key = getSessionKey(sessionId);
-		Map<String, Object> entries = this.sessionRedisOperations.<String, Object>opsForHash().entries(key);
+		Map<String, Object> entries = getSessionEntries(key);
 		if (entries.isEmpty()) {
 			return null;
 		}
 		MapSession session = this.redisSessionMapper.apply(sessionId, entries);
 		if (session == null || session.isExpired()) {
-			deleteById(sessionId);
+			this.sessionRedisOperations.delete(key);
 			return null;
 		}
-		return new RedisSession(session, false);
+		RedisSession redisSession = new RedisSession(session, false);
+		redisSession.compactMetadataStored = RedisSessionMapper.hasCompactMetadata(entries);
+		return redisSession;
+	}
+
+	private Map<String, Object> getSessionEntries(String key) {
+		if (this.selectiveAttributeFetch) {
+			return this.sessionHashReader.entries(key, this.prefetchedAttributeNames);
+		}
+		if (this.lazyAttributeDeserialization || this.skipUnchangedAttributes) {
+			return this.sessionHashReader.entries(key);
+		}
+		return this.sessionRedisOperations.<String, Object>opsForHash().entries(key);
 	}
 
 	@Override
 	public void deleteById(String sessionId) {
-		String key = getSessionKey(sessionId);
-		this.sessionRedisOperations.delete(key);
+		createObservation(new SessionRepositoryObservationContext(OBSERVATION_BACKEND, Operation.DELETE_BY_ID))
+			.observe(() -> {
+				String key = getSessionKey(sessionId);
+				this.sessionRedisOperations.delete(key);
+			});
 	}
 
 	/**
@@ -163,6 +365,12 @@ public class RedisSessionRepository implements SessionRepository<RedisSessionRep
 		return this.sessionRedisOperations;
 	}
 
+	private Observation createObservation(SessionRepositoryObservationContext context) {
+		return SessionRepositoryObservationDocumentation.SESSION_REPOSITORY_OPERATION.observation(
+				this.observationConvention, DefaultSessionRepositoryObservationConvention.INSTANCE, () -> context,
+				this.observationRegistry);
+	}
+
 	private String getSessionKey(String sessionId) {
 		return this.keyNamespace + "sessions:" + sessionId;
 	}
@@ -201,23 +409,37 @@ public class RedisSessionRepository implements SessionRepository<RedisSessionRep
 
 		private final Map<String, Object> delta = new HashMap<>();
 
+		private final Map<String, LazyAttributeValue> storedAttributes = new HashMap<>();
+
 		private boolean isNew;
 
 		private String originalSessionId;
 
+		private Instant originalLastAccessTime;
+
+		private @Nullable Boolean compactMetadataStored;
+
 		RedisSession(MapSession cached, boolean isNew) {
 			this.cached = cached;
 			this.isNew = isNew;
 			this.originalSessionId = cached.getId();
+			this.originalLastAccessTime = cached.getLastAccessedTime();
 			if (this.isNew) {
 				this.delta.put(RedisSessionMapper.CREATION_TIME_KEY, cached.getCreationTime().toEpochMilli());
 				this.delta.put(RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY,
 						(int) cached.getMaxInactiveInterval().getSeconds());
 				this.delta.put(RedisSessionMapper.LAST_ACCESSED_TIME_KEY, cached.getLastAccessedTime().toEpochMilli());
 			}
-			if (this.isNew || (RedisSessionRepository.this.saveMode == SaveMode.ALWAYS)) {
+			if (!this.isNew && RedisSessionRepository.this.skipUnchangedAttributes) {
+				for (String attributeName : cached.getAttributeNames()) {
+					if (cached.getAttribute(attributeName) instanceof LazyAttributeValue storedValue) {
+						this.storedAttributes.put(getAttributeKey(attributeName), storedValue);
+					}
+				}
+			}
+			else if (this.isNew || (RedisSessionRepository.this.saveMode == SaveMode.ALWAYS)) {
 				getAttributeNames().forEach((attributeName) -> this.delta.put(getAttributeKey(attributeName),
-						cached.getAttribute(attributeName)));
+						LazyAttributeValue.resolve(cached.getAttribute(attributeName))));
 			}
 		}
 
@@ -235,13 +457,18 @@ public class RedisSessionRepository implements SessionRepository<RedisSessionRep
 
 		@Override
 		public <T> @Nullable T getAttribute(String attributeName) {
-			T attributeValue = this.cached.getAttribute(attributeName);
+			T attributeValue = LazyAttributeValue.resolve(this.cached.getAttribute(attributeName));
 			if (attributeValue != null && RedisSessionRepository.this.saveMode.equals(SaveMode.ON_GET_ATTRIBUTE)) {
 				this.delta.put(getAttributeKey(attributeName), attributeValue);
 			}
 			return attributeValue;
 		}
 
+		@Override
+		public <T> @Nullable T peekAttribute(String attributeName) {
+			return LazyAttributeValue.resolve(this.cached.getAttribute(attributeName));
+		}
+
 		@Override
 		public Set<String> getAttributeNames() {
 			return this.cached.getAttributeNames();
@@ -299,6 +526,32 @@ public class RedisSessionRepository implements SessionRepository<RedisSessionRep
 			}
 		}
 
+		/**
+		 * Remove the attributes that would be written back with the same serialized value
+		 * as they were loaded with. With {@link SaveMode#ALWAYS}, each attribute that has
+		 * been accessed is considered first, as it might have been changed in place.
+		 */
+		private void removeUnchangedAttributes() {
+			if (RedisSessionRepository.this.saveMode == SaveMode.ALWAYS) {
+				for (String attributeName : getAttributeNames()) {
+					Object value = this.cached.getAttribute(attributeName);
+					if (!(value instanceof LazyAttributeValue lazyValue) || lazyValue.isResolved()) {
+						this.delta.putIfAbsent(getAttributeKey(attributeName), LazyAttributeValue.resolve(value));
+					}
+				}
+			}
+			RedisSerializer<?> serializer = RedisSessionRepository.this.sessionRedisOperations.getHashValueSerializer();
+			this.delta.entrySet().removeIf((entry) -> {
+				LazyAttributeValue storedValue = this.storedAttributes.get(entry.getKey());
+				return storedValue != null && storedValue.isUnchanged(entry.getValue(), serializer);
+			});
+		}
+
+		private void resolveLazyAttributes() {
+			getAttributeNames()
+				.forEach((attributeName) -> LazyAttributeValue.resolve(this.cached.getAttribute(attributeName)));
+		}
+
 		private boolean hasChangedSessionId() {
 			return !getId().equals(this.originalSessionId);
 		}
@@ -314,6 +567,7 @@ public class RedisSessionRepository implements SessionRepository<RedisSessionRep
 		private void saveChangeSessionId() {
 			if (hasChangedSessionId()) {
 				if (!this.isNew) {
+					resolveLazyAttributes();
 					String originalSessionIdKey = getSessionKey(this.originalSessionId);
 					String sessionIdKey = getSessionKey(getId());
 					RedisSessionRepository.this.sessionRedisOperations.rename(originalSessionIdKey, sessionIdKey);
@@ -322,15 +576,50 @@ public class RedisSessionRepository implements SessionRepository<RedisSessionRep
 			}
 		}
 
+		private Map<String, Object> getDeltaToWrite() {
+			Map<String, Object> delta = (hasMetadataFormatChanged()) ? RedisSessionMapper.withMetadata(this.delta, this)
+					: this.delta;
+			return (RedisSessionRepository.this.compactMetadata) ? RedisSessionMapper.compactMetadata(delta, this)
+					: delta;
+		}
+
+		private boolean hasMetadataFormatChanged() {
+			return this.compactMetadataStored != null
+					&& this.compactMetadataStored != RedisSessionRepository.this.compactMetadata;
+		}
+
+		private boolean hasDeltaToSave() {
+			if (this.delta.size() == 1 && this.delta.containsKey(RedisSessionMapper.LAST_ACCESSED_TIME_KEY)) {
+				// only touched, so save once the touch granularity has elapsed
+				Instant lastAccessedTime = getLastAccessedTime();
+				return lastAccessedTime.isBefore(this.originalLastAccessTime)
+						|| !lastAccessedTime.isBefore(this.originalLastAccessTime
+							.plus(RedisSessionRepository.this.getTouchGranularity(getMaxInactiveInterval())));
+			}
+			return !this.delta.isEmpty();
+		}
+
 		private void saveDelta() {
-			if (this.delta.isEmpty()) {
+			if (!this.isNew && RedisSessionRepository.this.skipUnchangedAttributes) {
+				removeUnchangedAttributes();
+			}
+			if (!hasDeltaToSave()) {
 				return;
 			}
 			String key = getSessionKey(getId());
-			RedisSessionRepository.this.sessionRedisOperations.opsForHash().putAll(key, new HashMap<>(this.delta));
+			RedisSessionRepository.this.sessionRedisOperations.opsForHash()
+				.putAll(key, new HashMap<>(getDeltaToWrite()));
+			if (hasMetadataFormatChanged()) {
+				RedisSessionRepository.this.sessionRedisOperations.opsForHash()
+					.delete(key,
+							RedisSessionMapper.getMetadataKeys(!RedisSessionRepository.this.compactMetadata).toArray());
+			}
+			this.compactMetadataStored = RedisSessionRepository.this.compactMetadata;
 			RedisSessionRepository.this.sessionRedisOperations.expireAt(key,
 					Instant.ofEpochMilli(getLastAccessedTime().toEpochMilli())
 						.plusSeconds(getMaxInactiveInterval().getSeconds()));
+			this.originalLastAccessTime = getLastAccessedTime();
+			this.storedAttributes.keySet().removeAll(this.delta.keySet());
 			this.delta.clear();
 		}
 
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.data.redis;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.session.serializer.SessionAttributeSerializer;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link RedisSerializer} that serializes values using a
+ * {@link SessionAttributeSerializer}. It is meant to be used as the default serializer of
+ * the Redis session repositories, for example:
+ *
+ * <pre class="code">
+ * &#64;Bean
+ * public RedisSerializer&lt;Object&gt; springSessionDefaultRedisSerializer() {
+ *     return new SessionAttributeRedisSerializer(new BinarySessionAttributeSerializer());
+ * }
+ * </pre>
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+public class SessionAttributeRedisSerializer implements RedisSerializer<Object> {
+
+	private static final byte[] EMPTY_ARRAY = new byte[0];
+
+	private final SessionAttributeSerializer attributeSerializer;
+
+	/**
+	 * Create a new {@link SessionAttributeRedisSerializer} instance.
+	 * @param attributeSerializer the serializer to delegate to
+	 */
+	public SessionAttributeRedisSerializer(SessionAttributeSerializer attributeSerializer) {
+		Assert.notNull(attributeSerializer, "attributeSerializer must not be null");
+		this.attributeSerializer = attributeSerializer;
+	}
+
+	@Override
+	public byte[] serialize(@Nullable Object value) throws SerializationException {
+		if (value == null) {
+			return EMPTY_ARRAY;
+		}
+		try {
+			return this.attributeSerializer.serialize(value);
+		}
+		catch (IllegalStateException ex) {
+			throw new SerializationException("Cannot serialize", ex);
+		}
+	}
+
+	@Override
+	public @Nullable Object deserialize(byte @Nullable [] bytes) throws SerializationException {
+		if (bytes == null || bytes.length == 0) {
+			return null;
+		}
+		try {
+			return this.attributeSerializer.deserialize(bytes);
+		}
+		catch (IllegalStateException ex) {
+			throw new SerializationException("Cannot deserialize", ex);
+		}
+	}
+
+}
@@ -16,19 +16,29 @@
 
 package org.springframework.session.data.redis;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import org.springframework.data.domain.Range;
-import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.ReactiveZSetCommands.ZAddCommand;
+import org.springframework.data.redis.connection.zset.Tuple;
 import org.springframework.data.redis.core.ReactiveRedisOperations;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
 import org.springframework.util.Assert;
 
 /**
  * Uses a sorted set to store the expiration times for sessions. The score of each entry
- * is the expiration time of the session. The value is the session id.
+ * is the expiration time of the session. The value is the session id. Expired session ids
+ * are atomically removed from the sorted set in batches, using the same Lua script as
+ * {@link SortedSetRedisSessionExpirationStore}.
  *
  * @author Marcus da Coregio
  */
@@ -40,6 +50,8 @@ final class SortedSetReactiveRedisSessionExpirationStore {
 
 	private int retrieveCount = 100;
 
+	private Duration retrieveTimeout = Duration.ofSeconds(10);
+
 	SortedSetReactiveRedisSessionExpirationStore(ReactiveRedisOperations<String, Object> sessionRedisOperations,
 			String namespace) {
 		Assert.notNull(sessionRedisOperations, "sessionRedisOperations cannot be null");
@@ -69,23 +81,72 @@ final class SortedSetReactiveRedisSessionExpirationStore {
 	}
 
 	/**
-	 * Retrieve the session ids that have the expiration time less than the value passed
-	 * in {@code expiredBefore}.
+	 * Add the session id associated with the expiration time into the sorted set, unless
+	 * it is already present.
+	 * @param sessionId the session id
+	 * @param expiration the expiration time
+	 * @return a {@link Mono} that completes when the operation completes
+	 */
+	Mono<Void> addIfAbsent(String sessionId, Instant expiration) {
+		RedisSerializationContext<String, Object> serializationContext = this.sessionRedisOperations
+			.getSerializationContext();
+		ByteBuffer key = serializationContext.getKeySerializationPair().write(getExpirationsKey());
+		ByteBuffer value = serializationContext.getValueSerializationPair().write(sessionId);
+		ZAddCommand command = ZAddCommand.tuple(Tuple.of(ByteUtils.getBytes(value), (double) expiration.toEpochMilli()))
+			.nx()
+			.to(key);
+		return this.sessionRedisOperations.execute((connection) -> connection.zSetCommands().zAdd(Mono.just(command)))
+			.then();
+	}
+
+	/**
+	 * Remove and retrieve the session ids that have the expiration time less than or
+	 * equal to the value passed in {@code expiredBefore}. Session ids are removed in
+	 * batches until none are left or the retrieve timeout is reached.
 	 * @param expiredBefore the expiration time
 	 * @return a {@link Flux} that emits the session ids
 	 */
 	Flux<String> retrieveExpiredSessions(Instant expiredBefore) {
-		Range<Double> range = Range.closed(0D, (double) expiredBefore.toEpochMilli());
-		Limit limit = Limit.limit().count(this.retrieveCount);
-		return this.sessionRedisOperations.opsForZSet()
-			.reverseRangeByScore(getExpirationsKey(), range, limit)
-			.cast(String.class);
+		return Flux.defer(() -> {
+			long deadline = System.nanoTime() + this.retrieveTimeout.toNanos();
+			return popExpiredSessions(expiredBefore)
+				.expand((sessionIds) -> (sessionIds.size() == this.retrieveCount && System.nanoTime() - deadline < 0)
+						? popExpiredSessions(expiredBefore) : Mono.empty())
+				.concatMapIterable((sessionIds) -> sessionIds);
+		});
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Mono<List<String>> popExpiredSessions(Instant expiredBefore) {
+		List<String> args = List.of(String.valueOf(expiredBefore.toEpochMilli()), String.valueOf(this.retrieveCount));
+		return this.sessionRedisOperations
+			.execute(SortedSetRedisSessionExpirationStore.POP_EXPIRED_SESSIONS_SCRIPT, List.of(getExpirationsKey()),
+					args, RedisElementWriter.from(RedisSerializer.string()),
+					(RedisElementReader) this.sessionRedisOperations.getSerializationContext()
+						.getValueSerializationPair()
+						.getReader())
+			// depending on the driver, the result is emitted at once or element by
+			// element
+			.concatMapIterable((result) -> (result instanceof List<?> list) ? list : List.of(result))
+			.cast(String.class)
+			.collectList();
 	}
 
 	private String getExpirationsKey() {
 		return this.namespace + "sessions:expirations";
 	}
 
+	/**
+	 * Set how long {@link #retrieveExpiredSessions(Instant)} keeps retrieving batches of
+	 * expired sessions, as long as there are any left.
+	 * @param retrieveTimeout the retrieve timeout
+	 */
+	void setRetrieveTimeout(Duration retrieveTimeout) {
+		Assert.notNull(retrieveTimeout, "retrieveTimeout cannot be null");
+		Assert.isTrue(!retrieveTimeout.isNegative(), "retrieveTimeout cannot be negative");
+		this.retrieveTimeout = retrieveTimeout;
+	}
+
 	/**
 	 * Set the namespace for the keys used by this class.
 	 * @param namespace the namespace
@@ -17,33 +17,62 @@
 package org.springframework.session.data.redis;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.Nullable;
 
 import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.session.Session;
 import org.springframework.util.Assert;
-import org.springframework.util.CollectionUtils;
 
 /**
  * Uses a sorted set to store the expiration times for sessions. The score of each entry
  * is the expiration time of the session (calculated via
  * {@link Session#getLastAccessedTime()} + {@link Session#getMaxInactiveInterval()}). The
- * value is the session id. Note that {@link #cleanupExpiredSessions()} only retrieves up
- * to 100 sessions at a time by default, use {@link #setCleanupCount(int)} to increase it
- * if needed.
+ * value is the session id. {@link #cleanupExpiredSessions()} atomically removes the
+ * expired session ids from the sorted set in batches of 100 by default, using a Lua
+ * script, and touches their keys so that Redis expires them. Batches are processed until
+ * no expired session ids are left or the {@link #setCleanupTimeout(Duration) cleanup
+ * timeout} is reached. Use {@link #setCleanupCount(int)} to change the batch size if
+ * needed.
  *
  * @author Marcus da Coregio
  * @since 3.4
  */
 public class SortedSetRedisSessionExpirationStore implements RedisSessionExpirationStore {
 
+	private static final Log logger = LogFactory.getLog(SortedSetRedisSessionExpirationStore.class);
+
+	/**
+	 * Removes and returns up to {@code ARGV[2]} session ids with an expiration time up to
+	 * {@code ARGV[1]}, in expiration order.
+	 */
+	@SuppressWarnings("rawtypes")
+	static final RedisScript<List> POP_EXPIRED_SESSIONS_SCRIPT = RedisScript.of("""
+			local sessionIds = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+			if #sessionIds > 0 then
+				redis.call('ZREMRANGEBYRANK', KEYS[1], 0, #sessionIds - 1)
+			end
+			return sessionIds
+			""", List.class);
+
 	private final RedisOperations<String, Object> redisOps;
 
 	private String namespace;
 
 	private int cleanupCount = 100;
 
+	private Duration cleanupTimeout = Duration.ofSeconds(10);
+
 	private Clock clock = Clock.systemUTC();
 
 	private String expirationsKey;
@@ -75,39 +104,81 @@ public class SortedSetRedisSessionExpirationStore implements RedisSessionExpirat
 	}
 
 	/**
-	 * Retrieves the sessions that are expected to be expired and invoke
-	 * {@link #touch(String)} on each of the session keys, resolved via
-	 * {@link #getSessionKey(String)}.
+	 * Removes the sessions that are expected to be expired from the sorted set, in
+	 * batches, and touches each of their expiration keys, resolved via
+	 * {@link #getExpiredKey(String)}. Sessions whose expiration key still exists are
+	 * added back to the sorted set to be retried on the next clean-up.
 	 */
 	@Override
 	public void cleanupExpiredSessions() {
-		Set<Object> sessionIds = this.redisOps.opsForZSet()
-			.reverseRangeByScore(this.expirationsKey, 0, this.clock.millis(), 0, this.cleanupCount);
-		if (CollectionUtils.isEmpty(sessionIds)) {
-			return;
+		long expiredBefore = this.clock.millis();
+		long deadline = System.nanoTime() + this.cleanupTimeout.toNanos();
+		List<String> notExpiredSessionIds = new ArrayList<>();
+		int count = 0;
+		List<String> sessionIds;
+		do {
+			sessionIds = popExpiredSessions(expiredBefore);
+			notExpiredSessionIds.addAll(touch(sessionIds));
+			count += sessionIds.size();
 		}
-		for (Object sessionId : sessionIds) {
-			String sessionKey = getSessionKey((String) sessionId);
-			touch(sessionKey);
+		while (sessionIds.size() == this.cleanupCount && System.nanoTime() - deadline < 0);
+		for (String sessionId : notExpiredSessionIds) {
+			this.redisOps.opsForZSet().addIfAbsent(this.expirationsKey, sessionId, expiredBefore + 1);
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Cleaned up " + count + " expired sessions, " + notExpiredSessionIds.size()
+					+ " of which were not expired yet");
 		}
 	}
 
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private List<String> popExpiredSessions(long expiredBefore) {
+		RedisSerializer<?> valueSerializer = this.redisOps.getValueSerializer();
+		Assert.state(valueSerializer != null, "redisOps must have a value serializer");
+		List<String> sessionIds = this.redisOps.execute(POP_EXPIRED_SESSIONS_SCRIPT, RedisSerializer.string(),
+				(RedisSerializer<List>) valueSerializer, List.of(this.expirationsKey), String.valueOf(expiredBefore),
+				String.valueOf(this.cleanupCount));
+		return (sessionIds != null) ? sessionIds : Collections.emptyList();
+	}
+
 	private Instant getExpirationTime(RedisIndexedSessionRepository.RedisSession session) {
 		return session.getLastAccessedTime().plus(session.getMaxInactiveInterval());
 	}
 
 	/**
-	 * Checks if the session exists. By trying to access the session we only trigger a
-	 * deletion if the TTL is expired. This is done to handle
+	 * Checks if the expiration keys of the sessions exist, in a single pipeline. By
+	 * trying to access the keys we only trigger a deletion if the TTL is expired. This is
+	 * done to handle
 	 * <a href="https://github.com/spring-projects/spring-session/issues/93">gh-93</a>
-	 * @param sessionKey the key
+	 * @param sessionIds the session ids
+	 * @return the ids of the sessions whose expiration key still exists
 	 */
-	private void touch(String sessionKey) {
-		this.redisOps.hasKey(sessionKey);
+	private List<String> touch(List<String> sessionIds) {
+		if (sessionIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<Object> exists = this.redisOps.executePipelined(new SessionCallback<@Nullable Object>() {
+
+			@Override
+			public <K, V> @Nullable Object execute(RedisOperations<K, V> operations) {
+				for (String sessionId : sessionIds) {
+					SortedSetRedisSessionExpirationStore.this.redisOps.hasKey(getExpiredKey(sessionId));
+				}
+				return null;
+			}
+
+		});
+		List<String> notExpiredSessionIds = new ArrayList<>();
+		for (int i = 0; i < exists.size(); i++) {
+			if (Boolean.TRUE.equals(exists.get(i))) {
+				notExpiredSessionIds.add(sessionIds.get(i));
+			}
+		}
+		return notExpiredSessionIds;
 	}
 
-	private String getSessionKey(String sessionId) {
-		return this.namespace + ":sessions:" + sessionId;
+	private String getExpiredKey(String sessionId) {
+		return this.namespace + ":sessions:expires:" + sessionId;
 	}
 
 	/**
@@ -139,4 +210,18 @@ public class SortedSetRedisSessionExpirationStore implements RedisSessionExpirat
 		this.cleanupCount = cleanupCount;
 	}
 
+	/**
+	 * Configures how long a single clean-up keeps processing batches of expired sessions,
+	 * as long as there are any left. A batch that was started is always completed. Use
+	 * {@link Duration#ZERO} to process a single batch per clean-up. Defaults to 10
+	 * seconds.
+	 * @param cleanupTimeout the clean-up timeout, cannot be negative
+	 * @since 4.2
+	 */
+	public void setCleanupTimeout(Duration cleanupTimeout) {
+		Assert.notNull(cleanupTimeout, "cleanupTimeout cannot be null");
+		Assert.isTrue(!cleanupTimeout.isNegative(), "cleanupTimeout cannot be negative");
+		this.cleanupTimeout = cleanupTimeout;
+	}
+
 }
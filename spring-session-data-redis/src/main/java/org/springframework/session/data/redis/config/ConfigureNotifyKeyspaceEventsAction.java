@@ -37,6 +37,12 @@ import org.springframework.data.redis.connection.RedisConnection;
  * {@link ConfigureRedisAction#NO_OP} should be exposed.
  * </p>
  *
+ * <p>
+ * When sessions are expired through hash field expiration (see
+ * {@code HashFieldRedisSessionExpirationStore}), hash events ({@code h}) are required as
+ * well and can be enabled using {@link #ConfigureNotifyKeyspaceEventsAction(boolean)}.
+ * </p>
+ *
  * @author Rob Winch
  * @author Mark Paluch
  * @since 1.0.1
@@ -45,6 +51,34 @@ public class ConfigureNotifyKeyspaceEventsAction implements ConfigureRedisAction
 
 	static final String CONFIG_NOTIFY_KEYSPACE_EVENTS = "notify-keyspace-events";
 
+	private final boolean hashEvents;
+
+	/**
+	 * Create a new instance that enables Generic commands and Expired events.
+	 */
+	public ConfigureNotifyKeyspaceEventsAction() {
+		this(false);
+	}
+
+	/**
+	 * Create a new instance that enables Generic commands and Expired events and,
+	 * optionally, Hash events.
+	 * @param hashEvents whether Hash events ({@code h}) should be enabled as well
+	 * @since 4.2
+	 */
+	public ConfigureNotifyKeyspaceEventsAction(boolean hashEvents) {
+		this.hashEvents = hashEvents;
+	}
+
+	/**
+	 * Whether Hash events ({@code h}) are enabled by this action.
+	 * @return {@code true} if Hash events are enabled
+	 * @since 4.2
+	 */
+	public boolean isHashEvents() {
+		return this.hashEvents;
+	}
+
 	/*
 	 * @see
 	 * org.springframework.session.data.redis.config.ConfigureRedisAction#configure(org.
@@ -64,6 +98,9 @@ public class ConfigureNotifyKeyspaceEventsAction implements ConfigureRedisAction
 		if (!(A || customizedNotifyOptions.contains("x"))) {
 			customizedNotifyOptions += "x";
 		}
+		if (this.hashEvents && !(A || customizedNotifyOptions.contains("h"))) {
+			customizedNotifyOptions += "h";
+		}
 		if (!notifyOptions.equals(customizedNotifyOptions)) {
 			connection.serverCommands().setConfig(CONFIG_NOTIFY_KEYSPACE_EVENTS, customizedNotifyOptions);
 		}
@@ -19,6 +19,7 @@ package org.springframework.session.data.redis.config.annotation.web.http;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Executor;
@@ -49,6 +50,7 @@ import org.springframework.session.Session;
 import org.springframework.session.SessionIdGenerator;
 import org.springframework.session.UuidSessionIdGenerator;
 import org.springframework.session.data.redis.RedisIndexedSessionRepository;
+import org.springframework.session.data.redis.RedisSessionCacheInvalidationChannel;
 import org.springframework.session.data.redis.RedisSessionExpirationStore;
 import org.springframework.session.data.redis.config.ConfigureNotifyKeyspaceEventsAction;
 import org.springframework.session.data.redis.config.ConfigureRedisAction;
@@ -89,6 +91,8 @@ public class RedisIndexedHttpSessionConfiguration
 
 	private RedisSessionExpirationStore expirationStore;
 
+	private List<RedisSessionCacheInvalidationChannel> cacheInvalidationChannels = Collections.emptyList();
+
 	@Bean
 	@Override
 	public RedisIndexedSessionRepository sessionRepository() {
@@ -133,14 +137,26 @@ public class RedisIndexedHttpSessionConfiguration
 		container.addMessageListener(sessionRepository,
 				Arrays.asList(new ChannelTopic(sessionRepository.getSessionDeletedChannel()),
 						new ChannelTopic(sessionRepository.getSessionExpiredChannel())));
+		if (!sessionRepository.requiresShadowKey()) {
+			container.addMessageListener(sessionRepository,
+					new ChannelTopic(sessionRepository.getSessionFieldExpiredChannel()));
+		}
 		container.addMessageListener(sessionRepository,
 				Collections.singletonList(new PatternTopic(sessionRepository.getSessionCreatedChannelPrefix() + "*")));
+		this.cacheInvalidationChannels.forEach((cacheInvalidationChannel) -> container
+			.addMessageListener(cacheInvalidationChannel, new ChannelTopic(cacheInvalidationChannel.getChannel())));
 		return container;
 	}
 
 	@Bean
 	public InitializingBean enableRedisKeyspaceNotificationsInitializer() {
-		return new EnableRedisKeyspaceNotificationsInitializer(getRedisConnectionFactory(), this.configureRedisAction);
+		ConfigureRedisAction configureRedisAction = this.configureRedisAction;
+		if (this.expirationStore != null && !this.expirationStore.requiresShadowKey()
+				&& configureRedisAction instanceof ConfigureNotifyKeyspaceEventsAction action
+				&& !action.isHashEvents()) {
+			configureRedisAction = new ConfigureNotifyKeyspaceEventsAction(true);
+		}
+		return new EnableRedisKeyspaceNotificationsInitializer(getRedisConnectionFactory(), configureRedisAction);
 	}
 
 	public void setCleanupCron(String cleanupCron) {
@@ -184,6 +200,17 @@ public class RedisIndexedHttpSessionConfiguration
 		this.expirationStore = expirationStore;
 	}
 
+	/**
+	 * Set the {@link RedisSessionCacheInvalidationChannel} instances to subscribe with
+	 * the {@link RedisMessageListenerContainer} used by Spring Session.
+	 * @param cacheInvalidationChannels the cache invalidation channels
+	 * @since 4.2
+	 */
+	@Autowired(required = false)
+	public void setCacheInvalidationChannels(List<RedisSessionCacheInvalidationChannel> cacheInvalidationChannels) {
+		this.cacheInvalidationChannels = cacheInvalidationChannels;
+	}
+
 	@Override
 	public void setEmbeddedValueResolver(StringValueResolver resolver) {
 		this.embeddedValueResolver = resolver;
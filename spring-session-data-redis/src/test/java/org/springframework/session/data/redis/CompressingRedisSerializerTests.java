@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.data.redis;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.serializer.SessionAttributeCompressor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CompressingRedisSerializer}.
+ *
+ * @author agent (agent@local)
+ */
+class CompressingRedisSerializerTests {
+
+	private final RedisSerializer<Object> delegate = RedisSerializer.java();
+
+	private final CompressingRedisSerializer serializer = new CompressingRedisSerializer(this.delegate);
+
+	@Test
+	void serializeWhenLargeValueThenCompressed() {
+		String value = "value".repeat(1000);
+		byte[] bytes = this.serializer.serialize(value);
+		assertThat(bytes.length).isLessThan(this.delegate.serialize(value).length);
+		assertThat(this.serializer.deserialize(bytes)).isEqualTo(value);
+		assertThat(this.serializer.getCompressor().getCompressedCount()).isOne();
+	}
+
+	@Test
+	void serializeWhenSmallValueThenNotCompressed() {
+		assertThat(this.serializer.serialize(1L)).isEqualTo(this.delegate.serialize(1L));
+	}
+
+	@Test
+	void deserializeWhenStoredUncompressedThenDeserialized() {
+		String value = "value".repeat(1000);
+		assertThat(this.serializer.deserialize(this.delegate.serialize(value))).isEqualTo(value);
+	}
+
+	@Test
+	void serializeWhenCustomCompressorThenUsed() {
+		SessionAttributeCompressor compressor = new SessionAttributeCompressor();
+		compressor.setThreshold(0);
+		CompressingRedisSerializer serializer = new CompressingRedisSerializer(this.delegate, compressor);
+		assertThat(serializer.deserialize(serializer.serialize("value".repeat(10)))).isEqualTo("value".repeat(10));
+		assertThat(compressor.getCompressedCount()).isOne();
+	}
+
+	@Test
+	void serializeWhenNullThenNull() {
+		assertThat(this.serializer.deserialize(null)).isNull();
+	}
+
+}
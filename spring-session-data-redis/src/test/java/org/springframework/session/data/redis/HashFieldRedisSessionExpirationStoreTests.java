@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.data.redis;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.session.MapSession;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Tests for {@link HashFieldRedisSessionExpirationStore}.
+ *
+ * @author agent (agent@local)
+ */
+class HashFieldRedisSessionExpirationStoreTests {
+
+	private static final String SESSION_KEY = "spring:session:sessions:1234";
+
+	private HashFieldRedisSessionExpirationStore expirationStore;
+
+	private final RedisTemplate<String, Object> redisTemplate = mock(Answers.RETURNS_DEEP_STUBS);
+
+	@BeforeEach
+	void setup() {
+		this.expirationStore = new HashFieldRedisSessionExpirationStore(this.redisTemplate,
+				RedisIndexedSessionRepository.DEFAULT_NAMESPACE);
+	}
+
+	@Test
+	void setNamespaceWhenNullOrEmptyThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.expirationStore.setNamespace(null))
+			.withMessage("namespace cannot be null or empty");
+		assertThatIllegalArgumentException().isThrownBy(() -> this.expirationStore.setNamespace(""))
+			.withMessage("namespace cannot be null or empty");
+	}
+
+	@Test
+	void saveThenSetsExpirationTimeFieldWithTtl() {
+		RedisIndexedSessionRepository.RedisSession session = createSession(Duration.ofMinutes(30));
+		long expirationTime = session.getLastAccessedTime().plus(Duration.ofMinutes(30)).toEpochMilli();
+
+		this.expirationStore.save(session);
+
+		verify(this.redisTemplate.opsForHash()).put(SESSION_KEY,
+				HashFieldRedisSessionExpirationStore.EXPIRATION_TIME_KEY, expirationTime);
+		verify(this.redisTemplate.opsForHash()).expire(SESSION_KEY, Duration.ofMinutes(30),
+				List.of(HashFieldRedisSessionExpirationStore.EXPIRATION_TIME_KEY));
+		assertThat(this.expirationStore.requiresShadowKey()).isFalse();
+	}
+
+	@Test
+	void saveWhenNeverExpiresThenPersistsExpirationTimeField() {
+		RedisIndexedSessionRepository.RedisSession session = createSession(Duration.ofSeconds(-1));
+
+		this.expirationStore.save(session);
+
+		verify(this.redisTemplate.opsForHash()).persist(SESSION_KEY,
+				List.of(HashFieldRedisSessionExpirationStore.EXPIRATION_TIME_KEY));
+		verify(this.redisTemplate.opsForHash(), never()).expire(eq(SESSION_KEY), any(Duration.class), anyList());
+	}
+
+	@Test
+	void saveWhenDeletedThenRemovesExpirationTimeField() {
+		RedisIndexedSessionRepository.RedisSession session = createSession(Duration.ZERO);
+
+		this.expirationStore.save(session);
+
+		verify(this.redisTemplate.opsForHash()).delete(SESSION_KEY,
+				HashFieldRedisSessionExpirationStore.EXPIRATION_TIME_KEY);
+		verify(this.redisTemplate.opsForHash(), never()).put(anyString(), any(), any());
+	}
+
+	@Test
+	void afterPropertiesSetThenProbesHashFieldExpirationOnce() {
+		this.expirationStore.afterPropertiesSet();
+		this.expirationStore.afterPropertiesSet();
+
+		assertThat(this.expirationStore.requiresShadowKey()).isFalse();
+		verify(this.redisTemplate.opsForHash(), times(1)).expire("spring:session:hash-field-expiration-probe",
+				Duration.ofSeconds(1), List.of(HashFieldRedisSessionExpirationStore.EXPIRATION_TIME_KEY));
+	}
+
+	@Test
+	void saveWhenHashFieldExpirationNotSupportedThenFallsBackToSortedSet() {
+		given(this.redisTemplate.opsForHash().expire(anyString(), any(Duration.class), anyList()))
+			.willThrow(new InvalidDataAccessApiUsageException("ERR unknown command 'HEXPIRE'"));
+		this.expirationStore.afterPropertiesSet();
+		RedisIndexedSessionRepository.RedisSession session = createSession(Duration.ofMinutes(30));
+
+		this.expirationStore.save(session);
+
+		assertThat(this.expirationStore.requiresShadowKey()).isTrue();
+		verify(this.redisTemplate.opsForZSet()).add(eq("spring:session:sessions:expirations"), eq("1234"), anyDouble());
+		verify(this.redisTemplate.opsForHash(), never()).put(anyString(), any(), any());
+	}
+
+	@Test
+	void afterPropertiesSetWhenOtherErrorThenException() {
+		given(this.redisTemplate.opsForHash().expire(anyString(), any(Duration.class), anyList()))
+			.willThrow(new InvalidDataAccessApiUsageException("ERR wrong number of arguments"));
+
+		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+			.isThrownBy(() -> this.expirationStore.afterPropertiesSet());
+	}
+
+	@Test
+	void removeThenDeletesExpirationTimeField() {
+		this.expirationStore.remove("1234");
+
+		verify(this.redisTemplate.opsForHash()).delete(SESSION_KEY,
+				HashFieldRedisSessionExpirationStore.EXPIRATION_TIME_KEY);
+	}
+
+	@Test
+	void cleanupExpiredSessionsThenDoesNothing() {
+		this.expirationStore.afterPropertiesSet();
+		clearInvocations(this.redisTemplate);
+
+		this.expirationStore.cleanupExpiredSessions();
+
+		verifyNoInteractions(this.redisTemplate);
+	}
+
+	private RedisIndexedSessionRepository.RedisSession createSession(Duration maxInactiveInterval) {
+		RedisIndexedSessionRepository sessionRepository = new RedisIndexedSessionRepository(this.redisTemplate);
+		MapSession cached = new MapSession("1234");
+		cached.setLastAccessedTime(Instant.now());
+		cached.setMaxInactiveInterval(maxInactiveInterval);
+		return sessionRepository.new RedisSession(cached, true);
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.data.redis;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.data.redis.core.ReactiveRedisOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.session.MapSession;
+import org.springframework.session.data.redis.ReactiveRedisIndexedSessionRepository.RedisSession;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link ReactiveRedisIndexedSessionRepository}.
+ *
+ * @author agent (agent@local)
+ */
+class ReactiveRedisIndexedSessionRepositoryTests {
+
+	ReactiveRedisOperations<String, Object> sessionRedisOperations = mock(Answers.RETURNS_DEEP_STUBS);
+
+	@SuppressWarnings("unchecked")
+	ReactiveRedisTemplate<String, String> keyEventsOperations = mock(ReactiveRedisTemplate.class);
+
+	@SuppressWarnings("unchecked")
+	ArgumentCaptor<Map<String, Object>> delta = ArgumentCaptor.forClass(Map.class);
+
+	ReactiveRedisIndexedSessionRepository repository;
+
+	MapSession cached;
+
+	@BeforeEach
+	void setup() {
+		this.repository = new ReactiveRedisIndexedSessionRepository(this.sessionRedisOperations,
+				this.keyEventsOperations);
+		this.cached = new MapSession("session-id");
+		this.cached.setCreationTime(Instant.ofEpochMilli(1404360000000L));
+		this.cached.setLastAccessedTime(Instant.ofEpochMilli(1404360000000L));
+	}
+
+	@Test
+	void saveWhenTouchedWithinTouchGranularityThenNotSaved() {
+		given(this.sessionRedisOperations.opsForZSet().add(anyString(), anyString(), anyDouble()))
+			.willReturn(Mono.just(true));
+
+		this.repository.setTouchGranularity(Duration.ofMinutes(1));
+		RedisSession session = this.repository.new RedisSession(this.cached, false);
+		session.setLastAccessedTime(this.cached.getLastAccessedTime().plusSeconds(30));
+		StepVerifier.create(this.repository.save(session)).verifyComplete();
+
+		verify(this.sessionRedisOperations.opsForHash(), never()).putAll(anyString(), any());
+		verify(this.sessionRedisOperations, never()).expire(anyString(), any());
+	}
+
+	@Test
+	void saveWhenTouchedBeyondTouchGranularityThenSaved() {
+		given(this.sessionRedisOperations.opsForHash().putAll(anyString(), any())).willReturn(Mono.just(true));
+		given(this.sessionRedisOperations.opsForValue().append(anyString(), anyString())).willReturn(Mono.just(0L));
+		given(this.sessionRedisOperations.expire(anyString(), any())).willReturn(Mono.just(true));
+		given(this.sessionRedisOperations.opsForZSet().add(anyString(), anyString(), anyDouble()))
+			.willReturn(Mono.just(true));
+
+		this.repository.setTouchGranularity(Duration.ofMinutes(1));
+		RedisSession session = this.repository.new RedisSession(this.cached, false);
+		session.setLastAccessedTime(this.cached.getLastAccessedTime().plusSeconds(60));
+		StepVerifier.create(this.repository.save(session)).verifyComplete();
+
+		verify(this.sessionRedisOperations.opsForHash()).putAll(anyString(), this.delta.capture());
+		assertThat(this.delta.getValue())
+			.isEqualTo(Map.of(RedisSessionMapper.LAST_ACCESSED_TIME_KEY, session.getLastAccessedTime().toEpochMilli()));
+	}
+
+}
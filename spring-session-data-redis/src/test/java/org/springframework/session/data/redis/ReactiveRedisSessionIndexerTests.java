@@ -61,17 +61,6 @@ class ReactiveRedisSessionIndexerTests {
 		this.indexer = new ReactiveRedisSessionIndexer(this.sessionRedisOperations, "spring:session:");
 	}
 
-	@Test
-	void getIndexesWhenIndexKeyExistsThenReturnsIndexNameAndValue() {
-		List<Object> indexKeys = List.of(this.indexKeyPrefix + "principalName:user",
-				this.indexKeyPrefix + "index_name:index_value");
-		given(this.sessionRedisOperations.opsForSet().members(anyString())).willReturn(Flux.fromIterable(indexKeys));
-		Map<String, String> indexes = this.indexer.getIndexes("1234").block();
-		assertThat(indexes).hasSize(2)
-			.containsEntry("principalName", "user")
-			.containsEntry("index_name", "index_value");
-	}
-
 	@Test
 	void deleteWhenSessionIdHasIndexesThenRemoveSessionIdFromIndexesAndDeleteSessionIndexKey() {
 		String index1 = this.indexKeyPrefix + "principalName:user";
@@ -92,28 +81,48 @@ class ReactiveRedisSessionIndexerTests {
 		given(session.getAttribute(ReactiveFindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME))
 			.willReturn("user");
 		given(session.getId()).willReturn("1234");
-		given(this.sessionRedisOperations.opsForSet().members(anyString())).willReturn(Flux.empty());
 		given(this.sessionRedisOperations.opsForSet().add(anyString(), anyString())).willReturn(Mono.just(1L));
 		this.indexer.update(session).block();
 		verify(this.sessionRedisOperations.opsForSet()).add(this.indexKeyPrefix + "PRINCIPAL_NAME_INDEX_NAME:user",
 				"1234");
+		verify(session).setIndexes(Map.of(ReactiveFindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "user"));
+		verify(this.sessionRedisOperations.opsForSet(), never()).members(anyString());
 	}
 
 	@Test
 	void updateWhenSessionIndexesSavedWithSameValueThenDoesNotUpdate() {
-		String indexKey = this.indexKeyPrefix + ReactiveFindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME
-				+ ":user";
 		RedisSession session = mock();
 		given(session.getAttribute(ReactiveFindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME))
 			.willReturn("user");
-		given(session.getId()).willReturn("1234");
-		given(this.sessionRedisOperations.opsForSet().members(anyString()))
-			.willReturn(Flux.fromIterable(List.of(indexKey)));
+		given(session.getIndexes())
+			.willReturn(Map.of(ReactiveFindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "user"));
 		this.indexer.update(session).block();
+		verify(this.sessionRedisOperations.opsForSet(), never()).members(anyString());
 		verify(this.sessionRedisOperations.opsForSet(), never()).add(anyString(), anyString());
 		verify(this.sessionRedisOperations.opsForSet(), never()).remove(anyString(), anyString());
 	}
 
+	@Test
+	void updateWhenIndexRemovedThenRemovesSessionFromIndex() {
+		String indexKey = this.indexKeyPrefix + "test:testvalue";
+		IndexResolver<Session> indexResolver = new DelegatingIndexResolver<>(
+				new PrincipalNameIndexResolver<>(ReactiveFindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME),
+				new TestIndexResolver<>("test"));
+		this.indexer.setIndexResolver(indexResolver);
+		RedisSession session = mock();
+		given(session.getAttribute(ReactiveFindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME))
+			.willReturn("user");
+		given(session.getIndexes()).willReturn(Map
+			.of(ReactiveFindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "user", "test", "testvalue"));
+		given(session.getId()).willReturn("1234");
+		given(this.sessionRedisOperations.opsForSet().remove(anyString(), anyString())).willReturn(Mono.just(1L));
+		this.indexer.update(session).block();
+		verify(this.sessionRedisOperations.opsForSet()).remove(indexKey, "1234");
+		verify(this.sessionRedisOperations.opsForSet()).remove("spring:session:sessions:1234:idx", indexKey);
+		verify(this.sessionRedisOperations.opsForSet(), never()).add(anyString(), anyString());
+		verify(session).setIndexes(Map.of(ReactiveFindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "user"));
+	}
+
 	@Test
 	void updateWhenSessionIndexesSavedWithDifferentValueThenUpdates() {
 		String indexKey = this.indexKeyPrefix + ReactiveFindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME
@@ -121,9 +130,9 @@ class ReactiveRedisSessionIndexerTests {
 		RedisSession session = mock();
 		given(session.getAttribute(ReactiveFindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME))
 			.willReturn("newuser");
+		given(session.getIndexes())
+			.willReturn(Map.of(ReactiveFindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "user"));
 		given(session.getId()).willReturn("1234");
-		given(this.sessionRedisOperations.opsForSet().members(anyString()))
-			.willReturn(Flux.fromIterable(List.of(indexKey)));
 		given(this.sessionRedisOperations.opsForSet().add(anyString(), anyString())).willReturn(Mono.just(1L));
 		given(this.sessionRedisOperations.opsForSet().remove(anyString(), anyString())).willReturn(Mono.just(1L));
 		this.indexer.update(session).block();
@@ -144,7 +153,6 @@ class ReactiveRedisSessionIndexerTests {
 			.willReturn("user");
 		given(session.getAttribute("test")).willReturn("testvalue");
 		given(session.getId()).willReturn("1234");
-		given(this.sessionRedisOperations.opsForSet().members(anyString())).willReturn(Flux.empty());
 		given(this.sessionRedisOperations.opsForSet().add(anyString(), anyString())).willReturn(Mono.just(1L));
 		this.indexer.update(session).block();
 		verify(this.sessionRedisOperations.opsForSet()).add(this.indexKeyPrefix + "PRINCIPAL_NAME_INDEX_NAME:user",
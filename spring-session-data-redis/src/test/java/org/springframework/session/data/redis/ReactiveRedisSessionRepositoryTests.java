@@ -19,9 +19,14 @@ package org.springframework.session.data.redis;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -34,6 +39,8 @@ import org.springframework.data.redis.core.ReactiveRedisOperations;
 import org.springframework.session.MapSession;
 import org.springframework.session.SaveMode;
 import org.springframework.session.data.redis.ReactiveRedisSessionRepository.RedisSession;
+import org.springframework.session.observation.SessionRepositoryObservationContext;
+import org.springframework.session.observation.SessionRepositoryObservationContext.Operation;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -215,6 +222,43 @@ class ReactiveRedisSessionRepositoryTests {
 			.isEqualTo(map(RedisSessionMapper.LAST_ACCESSED_TIME_KEY, session.getLastAccessedTime().toEpochMilli()));
 	}
 
+	@Test
+	void saveWhenTouchedWithinTouchGranularityThenNotSaved() {
+		given(this.redisOperations.hasKey(anyString())).willReturn(Mono.just(true));
+
+		this.repository.setTouchGranularity(Duration.ofMinutes(1));
+		RedisSession session = this.repository.new RedisSession(this.cached, false);
+		session.setLastAccessedTime(this.cached.getLastAccessedTime().plusSeconds(30));
+		StepVerifier.create(this.repository.save(session)).verifyComplete();
+
+		verify(this.redisOperations).hasKey(anyString());
+		verifyNoMoreInteractions(this.redisOperations);
+		verifyNoMoreInteractions(this.hashOperations);
+	}
+
+	@Test
+	void saveWhenTouchedBeyondTouchGranularityThenSaved() {
+		given(this.redisOperations.hasKey(anyString())).willReturn(Mono.just(true));
+		given(this.redisOperations.opsForHash()).willReturn(this.hashOperations);
+		given(this.hashOperations.putAll(anyString(), any())).willReturn(Mono.just(true));
+		given(this.redisOperations.expire(anyString(), any())).willReturn(Mono.just(true));
+
+		this.repository.setTouchGranularity(Duration.ofMinutes(1));
+		RedisSession session = this.repository.new RedisSession(this.cached, false);
+		session.setLastAccessedTime(this.cached.getLastAccessedTime().plusSeconds(60));
+		StepVerifier.create(this.repository.save(session)).verifyComplete();
+
+		verify(this.redisOperations).hasKey(anyString());
+		verify(this.redisOperations).opsForHash();
+		verify(this.hashOperations).putAll(anyString(), this.delta.capture());
+		verify(this.redisOperations).expire(anyString(), any());
+		verifyNoMoreInteractions(this.redisOperations);
+		verifyNoMoreInteractions(this.hashOperations);
+
+		assertThat(this.delta.getAllValues().get(0))
+			.isEqualTo(map(RedisSessionMapper.LAST_ACCESSED_TIME_KEY, session.getLastAccessedTime().toEpochMilli()));
+	}
+
 	@Test
 	void saveSetAttribute() {
 		given(this.redisOperations.hasKey(anyString())).willReturn(Mono.just(true));
@@ -300,6 +344,19 @@ class ReactiveRedisSessionRepositoryTests {
 		verifyNoMoreInteractions(this.hashOperations);
 	}
 
+	@Test
+	void deleteWithObservationRegistry() {
+		List<SessionRepositoryObservationContext> contexts = observeInto(this.repository);
+		given(this.redisOperations.delete(anyString())).willReturn(Mono.error(new IllegalStateException("test")));
+
+		StepVerifier.create(this.repository.deleteById("test")).verifyError(IllegalStateException.class);
+
+		assertThat(contexts).singleElement().satisfies((context) -> {
+			assertThat(context.getOperation()).isEqualTo(Operation.DELETE_BY_ID);
+			assertThat(context.getLowCardinalityKeyValue("outcome").getValue()).isEqualTo("ERROR");
+		});
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	void getSessionFound() {
@@ -489,4 +546,24 @@ class ReactiveRedisSessionRepositoryTests {
 		return result;
 	}
 
+	private static List<SessionRepositoryObservationContext> observeInto(ReactiveRedisSessionRepository repository) {
+		List<SessionRepositoryObservationContext> contexts = new ArrayList<>();
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+
+			@Override
+			public void onStop(Observation.Context context) {
+				contexts.add((SessionRepositoryObservationContext) context);
+			}
+
+			@Override
+			public boolean supportsContext(Observation.Context context) {
+				return context instanceof SessionRepositoryObservationContext;
+			}
+
+		});
+		repository.setObservationRegistry(observationRegistry);
+		return contexts;
+	}
+
 }
@@ -24,9 +24,11 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,11 +39,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.redis.connection.DefaultMessage;
 import org.springframework.data.redis.core.BoundHashOperations;
 import org.springframework.data.redis.core.BoundSetOperations;
 import org.springframework.data.redis.core.BoundValueOperations;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -52,17 +59,25 @@ import org.springframework.session.SaveMode;
 import org.springframework.session.Session;
 import org.springframework.session.data.redis.RedisIndexedSessionRepository.RedisSession;
 import org.springframework.session.events.AbstractSessionEvent;
+import org.springframework.session.events.SessionDeletedEvent;
+import org.springframework.session.events.SessionExpiredEvent;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -82,6 +97,9 @@ class RedisIndexedSessionRepositoryTests {
 	@Mock
 	private BoundSetOperations<String, Object> boundSetOperations;
 
+	@Mock
+	private HashOperations<String, Object, Object> hashOperations;
+
 	@Mock
 	private ApplicationEventPublisher publisher;
 
@@ -242,6 +260,32 @@ class RedisIndexedSessionRepositoryTests {
 				TimeUnit.SECONDS);
 	}
 
+	@Test
+	void saveWhenTouchedWithinTouchGranularityThenNotSaved() {
+		this.redisRepository.setTouchGranularity(Duration.ofMinutes(1));
+		RedisSession session = findSessionLastAccessedAt(Instant.now().minusSeconds(10));
+		session.setLastAccessedTime(session.getLastAccessedTime().plusSeconds(30));
+
+		this.redisRepository.save(session);
+
+		verify(this.boundHashOperations, never()).putAll(any());
+		verify(this.redisOperations, never()).boundValueOps(anyString());
+	}
+
+	@Test
+	void saveWhenTouchedBeyondTouchGranularityThenSaved() {
+		this.redisRepository.setTouchGranularity(Duration.ofMinutes(1));
+		RedisSession session = findSessionLastAccessedAt(Instant.now().minusSeconds(90));
+		session.setLastAccessedTime(session.getLastAccessedTime().plusSeconds(60));
+		given(this.redisOperations.boundSetOps(anyString())).willReturn(this.boundSetOperations);
+		given(this.redisOperations.boundValueOps(anyString())).willReturn(this.boundValueOperations);
+
+		this.redisRepository.save(session);
+
+		assertThat(getDelta())
+			.isEqualTo(map(RedisSessionMapper.LAST_ACCESSED_TIME_KEY, session.getLastAccessedTime().toEpochMilli()));
+	}
+
 	@Test
 	void saveLastAccessChanged() {
 		RedisSession session = this.redisRepository.new RedisSession(this.cached, false);
@@ -256,6 +300,95 @@ class RedisIndexedSessionRepositoryTests {
 			.isEqualTo(map(RedisSessionMapper.LAST_ACCESSED_TIME_KEY, session.getLastAccessedTime().toEpochMilli()));
 	}
 
+	@Test
+	void saveWhenCompactMetadataDisabledAndSessionStoredWithCompactMetadataThenReplacesMetadata() {
+		this.cached.setLastAccessedTime(Instant.now());
+		given(this.redisOperations.<String, Object>boundHashOps(anyString())).willReturn(this.boundHashOperations);
+		given(this.redisOperations.boundSetOps(anyString())).willReturn(this.boundSetOperations);
+		given(this.redisOperations.boundValueOps(anyString())).willReturn(this.boundValueOperations);
+		given(this.boundHashOperations.entries())
+			.willReturn(map(RedisSessionMapper.METADATA_KEY, RedisSessionMapper.encodeMetadata(this.cached)));
+		RedisSession session = this.redisRepository.findById(this.cached.getId());
+		session.setLastAccessedTime(Instant.now());
+
+		this.redisRepository.save(session);
+
+		assertThat(getDelta()).containsOnlyKeys(RedisSessionMapper.CREATION_TIME_KEY,
+				RedisSessionMapper.LAST_ACCESSED_TIME_KEY, RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY);
+		verify(this.boundHashOperations).delete(RedisSessionMapper.METADATA_KEY);
+	}
+
+	@Test
+	void saveWhenCompactMetadataEnabledAndSessionStoredWithSeparateMetadataThenReplacesMetadata() {
+		this.redisRepository.setCompactMetadata(true);
+		given(this.redisOperations.<String, Object>boundHashOps(anyString())).willReturn(this.boundHashOperations);
+		given(this.redisOperations.boundSetOps(anyString())).willReturn(this.boundSetOperations);
+		given(this.redisOperations.boundValueOps(anyString())).willReturn(this.boundValueOperations);
+		given(this.boundHashOperations.entries()).willReturn(map(RedisSessionMapper.CREATION_TIME_KEY,
+				this.cached.getCreationTime().toEpochMilli(), RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY,
+				(int) this.cached.getMaxInactiveInterval().getSeconds(), RedisSessionMapper.LAST_ACCESSED_TIME_KEY,
+				Instant.now().toEpochMilli()));
+		RedisSession session = this.redisRepository.findById(this.cached.getId());
+		session.setAttribute("attrName", "attrValue");
+
+		this.redisRepository.save(session);
+
+		assertThat(getDelta()).containsOnlyKeys(RedisSessionMapper.METADATA_KEY,
+				RedisIndexedSessionRepository.getSessionAttrNameKey("attrName"));
+		verify(this.boundHashOperations).delete(RedisSessionMapper.CREATION_TIME_KEY,
+				RedisSessionMapper.LAST_ACCESSED_TIME_KEY, RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY);
+	}
+
+	@Test
+	void saveWhenHashFieldExpirationAndCompactMetadataDisabledThenKeepsCompactMetadataUpToDate() {
+		this.redisRepository
+			.setExpirationStore(new HashFieldRedisSessionExpirationStore(this.redisOperations, "spring:session"));
+		this.cached.setLastAccessedTime(Instant.now());
+		given(this.redisOperations.<String, Object>boundHashOps(anyString())).willReturn(this.boundHashOperations);
+		given(this.redisOperations.opsForHash()).willReturn(this.hashOperations);
+		given(this.boundHashOperations.entries())
+			.willReturn(map(RedisSessionMapper.METADATA_KEY, RedisSessionMapper.encodeMetadata(this.cached)));
+		RedisSession session = this.redisRepository.findById(this.cached.getId());
+		session.setLastAccessedTime(Instant.now().plusSeconds(1));
+		this.redisRepository.save(session);
+		session.setLastAccessedTime(Instant.now().plusSeconds(2));
+		this.redisRepository.save(session);
+
+		getDelta(2);
+		List<Map<String, Object>> deltas = this.delta.getAllValues();
+		for (Map<String, Object> delta : deltas) {
+			assertThat(delta).containsOnlyKeys(RedisSessionMapper.CREATION_TIME_KEY,
+					RedisSessionMapper.LAST_ACCESSED_TIME_KEY, RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY,
+					RedisSessionMapper.METADATA_KEY);
+		}
+		MapSession stored = new RedisSessionMapper().apply(session.getId(), deltas.get(1));
+		assertThat(stored.getLastAccessedTime())
+			.isEqualTo(session.getLastAccessedTime().truncatedTo(ChronoUnit.MILLIS));
+		verify(this.boundHashOperations, never()).delete(RedisSessionMapper.METADATA_KEY);
+	}
+
+	@Test
+	void saveWhenHashFieldExpirationAndCompactMetadataEnabledThenKeepsSeparateMetadata() {
+		this.redisRepository
+			.setExpirationStore(new HashFieldRedisSessionExpirationStore(this.redisOperations, "spring:session"));
+		this.redisRepository.setCompactMetadata(true);
+		given(this.redisOperations.<String, Object>boundHashOps(anyString())).willReturn(this.boundHashOperations);
+		given(this.redisOperations.opsForHash()).willReturn(this.hashOperations);
+		given(this.boundHashOperations.entries()).willReturn(map(RedisSessionMapper.CREATION_TIME_KEY,
+				this.cached.getCreationTime().toEpochMilli(), RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY,
+				(int) this.cached.getMaxInactiveInterval().getSeconds(), RedisSessionMapper.LAST_ACCESSED_TIME_KEY,
+				Instant.now().toEpochMilli()));
+		RedisSession session = this.redisRepository.findById(this.cached.getId());
+		session.setAttribute("attrName", "attrValue");
+
+		this.redisRepository.save(session);
+
+		assertThat(getDelta()).containsOnlyKeys(RedisSessionMapper.METADATA_KEY,
+				RedisIndexedSessionRepository.getSessionAttrNameKey("attrName"));
+		verify(this.boundHashOperations, never()).delete(RedisSessionMapper.CREATION_TIME_KEY,
+				RedisSessionMapper.LAST_ACCESSED_TIME_KEY, RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY);
+	}
+
 	@Test
 	void saveSetAttribute() {
 		String attrName = "attrName";
@@ -334,6 +467,35 @@ class RedisIndexedSessionRepositoryTests {
 		verify(this.redisOperations, never()).boundValueOps(getKey("expires:" + id));
 	}
 
+	@Test
+	void deleteWhenHashFieldExpirationThenSessionNotFound() {
+		this.redisRepository
+			.setExpirationStore(new HashFieldRedisSessionExpirationStore(this.redisOperations, "spring:session"));
+		this.redisRepository.setApplicationEventPublisher(this.publisher);
+		String id = this.cached.getId();
+		Map<String, Object> stored = map(RedisSessionMapper.CREATION_TIME_KEY,
+				this.cached.getCreationTime().toEpochMilli(), RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY,
+				(int) this.cached.getMaxInactiveInterval().getSeconds(), RedisSessionMapper.LAST_ACCESSED_TIME_KEY,
+				Instant.now().toEpochMilli());
+		given(this.redisOperations.<String, Object>boundHashOps(getKey(id))).willReturn(this.boundHashOperations);
+		given(this.boundHashOperations.entries()).willAnswer((invocation) -> new HashMap<>(stored));
+		willAnswer((invocation) -> {
+			stored.putAll(invocation.getArgument(0));
+			return null;
+		}).given(this.boundHashOperations).putAll(anyMap());
+		given(this.redisOperations.opsForHash()).willReturn(this.hashOperations);
+
+		this.redisRepository.deleteById(id);
+
+		assertThat(this.redisRepository.findById(id)).isNull();
+		verify(this.publisher).publishEvent(this.event.capture());
+		assertThat(this.event.getValue()).isInstanceOf(SessionDeletedEvent.class);
+		assertThat(this.event.getValue().getSessionId()).isEqualTo(id);
+		verify(this.hashOperations, atLeastOnce()).delete(getKey(id),
+				HashFieldRedisSessionExpirationStore.EXPIRATION_TIME_KEY);
+		verify(this.hashOperations, never()).put(eq(getKey(id)), any(), any());
+	}
+
 	@Test
 	void deleteNullSession() {
 		given(this.redisOperations.<String, Object>boundHashOps(anyString())).willReturn(this.boundHashOperations);
@@ -383,6 +545,68 @@ class RedisIndexedSessionRepositoryTests {
 			.isEqualTo(expected.getLastAccessedTime().truncatedTo(ChronoUnit.MILLIS));
 	}
 
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	void getSessionFoundWhenLazyAttributeDeserialization() {
+		RedisSerializer<Object> valueSerializer = spy(new JdkSerializationRedisSerializer());
+		given(this.redisOperations.getKeySerializer()).willReturn((RedisSerializer) RedisSerializer.string());
+		given(this.redisOperations.getHashKeySerializer()).willReturn((RedisSerializer) RedisSerializer.string());
+		given(this.redisOperations.getHashValueSerializer()).willReturn((RedisSerializer) valueSerializer);
+		MapSession expected = new MapSession();
+		expected.setLastAccessedTime(Instant.now().minusSeconds(60));
+		byte[] attributeBytes = valueSerializer.serialize("test");
+		Map<byte[], byte[]> rawEntries = new HashMap<>();
+		rawEntries.put(RedisSerializer.string().serialize(RedisSessionMapper.CREATION_TIME_KEY),
+				valueSerializer.serialize(expected.getCreationTime().toEpochMilli()));
+		rawEntries.put(RedisSerializer.string().serialize(RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY),
+				valueSerializer.serialize((int) expected.getMaxInactiveInterval().getSeconds()));
+		rawEntries.put(RedisSerializer.string().serialize(RedisSessionMapper.LAST_ACCESSED_TIME_KEY),
+				valueSerializer.serialize(expected.getLastAccessedTime().toEpochMilli()));
+		rawEntries.put(
+				RedisSerializer.string().serialize(RedisIndexedSessionRepository.getSessionAttrNameKey("attribute1")),
+				attributeBytes);
+		given(this.redisOperations.execute(any(RedisCallback.class))).willReturn(rawEntries);
+		this.redisRepository.setIndexResolver((session) -> Collections.emptyMap());
+		this.redisRepository.setLazyAttributeDeserialization(true);
+
+		RedisSession session = this.redisRepository.findById(expected.getId());
+
+		assertThat(session.getAttributeNames()).containsOnly("attribute1");
+		verify(valueSerializer, never()).deserialize(attributeBytes);
+		assertThat(session.<String>getAttribute("attribute1")).isEqualTo("test");
+		verify(valueSerializer).deserialize(attributeBytes);
+		verify(this.redisOperations, never()).boundHashOps(anyString());
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	void getSessionFoundWhenSelectiveAttributeFetch() {
+		RedisSerializer<Object> valueSerializer = new JdkSerializationRedisSerializer();
+		RedisSerializer<String> stringSerializer = RedisSerializer.string();
+		given(this.redisOperations.getKeySerializer()).willReturn((RedisSerializer) stringSerializer);
+		given(this.redisOperations.getHashKeySerializer()).willReturn((RedisSerializer) stringSerializer);
+		given(this.redisOperations.getHashValueSerializer()).willReturn((RedisSerializer) valueSerializer);
+		MapSession expected = new MapSession();
+		expected.setLastAccessedTime(Instant.now().minusSeconds(60));
+		List<byte[]> rawValues = Arrays.asList(valueSerializer.serialize(expected.getCreationTime().toEpochMilli()),
+				valueSerializer.serialize(expected.getLastAccessedTime().toEpochMilli()),
+				valueSerializer.serialize((int) expected.getMaxInactiveInterval().getSeconds()));
+		Set<byte[]> rawHashKeys = Collections
+			.singleton(stringSerializer.serialize(RedisIndexedSessionRepository.getSessionAttrNameKey("attribute1")));
+		given(this.redisOperations.execute(any(RedisCallback.class))).willReturn(Arrays.asList(rawValues, rawHashKeys),
+				valueSerializer.serialize("test"));
+		this.redisRepository.setIndexResolver((session) -> Collections.emptyMap());
+		this.redisRepository.setSelectiveAttributeFetch(true);
+
+		RedisSession session = this.redisRepository.findById(expected.getId());
+
+		assertThat(session.getAttributeNames()).containsOnly("attribute1");
+		verify(this.redisOperations, times(1)).execute(any(RedisCallback.class));
+		assertThat(session.<String>getAttribute("attribute1")).isEqualTo("test");
+		verify(this.redisOperations, times(2)).execute(any(RedisCallback.class));
+		verify(this.redisOperations, never()).boundHashOps(anyString());
+	}
+
 	@Test
 	void getSessionExpired() {
 		String expiredId = "expired-id";
@@ -588,6 +812,63 @@ class RedisIndexedSessionRepositoryTests {
 		verifyNoMoreInteractions(this.boundHashOperations);
 	}
 
+	@Test
+	void onMessageHashFieldExpiredSessionFound() {
+		this.redisRepository
+			.setExpirationStore(new HashFieldRedisSessionExpirationStore(this.redisOperations, "spring:session"));
+		String expiredId = "expired-id";
+		given(this.redisOperations.<String, Object>boundHashOps(getKey(expiredId)))
+			.willReturn(this.boundHashOperations);
+		Map<String, Object> map = map(RedisSessionMapper.CREATION_TIME_KEY, Instant.EPOCH.toEpochMilli(),
+				RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY, 1, RedisSessionMapper.LAST_ACCESSED_TIME_KEY,
+				System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(5));
+		given(this.boundHashOperations.entries()).willReturn(map);
+		given(this.redisOperations.opsForHash()).willReturn(this.hashOperations);
+
+		String channel = "__keyevent@0__:hexpired";
+		String body = "spring:session:sessions:" + expiredId;
+		DefaultMessage message = new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8),
+				body.getBytes(StandardCharsets.UTF_8));
+
+		this.redisRepository.setApplicationEventPublisher(this.publisher);
+		this.redisRepository.onMessage(message, "".getBytes(StandardCharsets.UTF_8));
+
+		verify(this.publisher).publishEvent(this.event.capture());
+		assertThat(this.event.getValue()).isInstanceOf(SessionExpiredEvent.class);
+		assertThat(this.event.getValue().getSessionId()).isEqualTo(expiredId);
+		verify(this.hashOperations).delete(getKey(expiredId), HashFieldRedisSessionExpirationStore.EXPIRATION_TIME_KEY);
+	}
+
+	@Test
+	void onMessageHashFieldDeletedThenIgnored() {
+		this.redisRepository
+			.setExpirationStore(new HashFieldRedisSessionExpirationStore(this.redisOperations, "spring:session"));
+		String channel = "__keyevent@0__:hdel";
+		String body = "spring:session:sessions:session-id";
+		DefaultMessage message = new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8),
+				body.getBytes(StandardCharsets.UTF_8));
+
+		this.redisRepository.setApplicationEventPublisher(this.publisher);
+		this.redisRepository.onMessage(message, "".getBytes(StandardCharsets.UTF_8));
+
+		verifyNoMoreInteractions(this.publisher);
+		verifyNoMoreInteractions(this.redisOperations);
+	}
+
+	@Test
+	void onMessageHashFieldExpiredWhenShadowKeyRequiredThenIgnored() {
+		String channel = "__keyevent@0__:hexpired";
+		String body = "spring:session:sessions:expired-id";
+		DefaultMessage message = new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8),
+				body.getBytes(StandardCharsets.UTF_8));
+
+		this.redisRepository.setApplicationEventPublisher(this.publisher);
+		this.redisRepository.onMessage(message, "".getBytes(StandardCharsets.UTF_8));
+
+		verifyNoMoreInteractions(this.publisher);
+		verifyNoMoreInteractions(this.redisOperations);
+	}
+
 	@Test
 	void onMessageExpiredSessionNotFound() {
 		String expiredId = "expired-id";
@@ -903,6 +1184,29 @@ class RedisIndexedSessionRepositoryTests {
 		assertThat(getDelta()).hasSize(2);
 	}
 
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	void saveWithSaveModeAlwaysAndSkipUnchangedAttributes() {
+		given(this.redisOperations.<String, Object>boundHashOps(anyString())).willReturn(this.boundHashOperations);
+		given(this.redisOperations.boundSetOps(anyString())).willReturn(this.boundSetOperations);
+		given(this.redisOperations.boundValueOps(anyString())).willReturn(this.boundValueOperations);
+		RedisSerializer<Object> valueSerializer = new JdkSerializationRedisSerializer();
+		given(this.redisOperations.getHashValueSerializer()).willReturn((RedisSerializer) valueSerializer);
+		this.redisRepository.setSaveMode(SaveMode.ALWAYS);
+		this.redisRepository.setSkipUnchangedAttributes(true);
+		MapSession delegate = new MapSession();
+		delegate.setAttribute("attribute1", storedValue(valueSerializer, new HashSet<>(Set.of("a"))));
+		delegate.setAttribute("attribute2", storedValue(valueSerializer, "value2"));
+		delegate.setAttribute("attribute3", storedValue(valueSerializer, "value3"));
+		RedisSession session = this.redisRepository.new RedisSession(delegate, false);
+		session.<Set<String>>getAttribute("attribute1").add("b");
+		session.getAttribute("attribute2");
+		session.setLastAccessedTime(Instant.now());
+		this.redisRepository.save(session);
+		assertThat(getDelta()).containsOnlyKeys(RedisIndexedSessionRepository.getSessionAttrNameKey("attribute1"),
+				RedisSessionMapper.LAST_ACCESSED_TIME_KEY);
+	}
+
 	@Test
 	void saveWithSaveModeAlways() {
 		given(this.redisOperations.<String, Object>boundHashOps(anyString())).willReturn(this.boundHashOperations);
@@ -920,6 +1224,77 @@ class RedisIndexedSessionRepositoryTests {
 		assertThat(getDelta()).hasSize(3);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	void saveWhenPipelineSaveThenWritesDeltaInPipeline() {
+		given(this.redisOperations.<String, Object>boundHashOps(anyString())).willReturn(this.boundHashOperations);
+		given(this.redisOperations.boundSetOps(anyString())).willReturn(this.boundSetOperations);
+		given(this.redisOperations.boundValueOps(anyString())).willReturn(this.boundValueOperations);
+		given(this.redisOperations.executePipelined(any(SessionCallback.class))).willAnswer((invocation) -> {
+			SessionCallback<Object> callback = invocation.getArgument(0);
+			callback.execute(this.redisOperations);
+			return Collections.emptyList();
+		});
+		this.redisRepository.setPipelineSave(true);
+		RedisSession session = this.redisRepository.new RedisSession(this.cached, false);
+		session.setAttribute("attrName", "attrValue");
+
+		this.redisRepository.save(session);
+
+		verify(this.redisOperations).executePipelined(any(SessionCallback.class));
+		assertThat(getDelta())
+			.isEqualTo(map(RedisIndexedSessionRepository.getSessionAttrNameKey("attrName"), "attrValue"));
+		verify(this.boundValueOperations).expire(1800L, TimeUnit.SECONDS);
+		verify(this.boundHashOperations).expire(2100L, TimeUnit.SECONDS);
+		verify(this.boundSetOperations).add("expires:session-id");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void saveWhenPipelineSaveAndHashFieldExpirationNotSupportedThenFallsBackToSortedSet() {
+		AtomicBoolean pipelined = new AtomicBoolean();
+		ZSetOperations<String, Object> zSetOperations = mock(ZSetOperations.class);
+		given(this.redisOperations.<String, Object>boundHashOps(anyString())).willReturn(this.boundHashOperations);
+		given(this.redisOperations.boundValueOps(anyString())).willReturn(this.boundValueOperations);
+		given(this.redisOperations.opsForHash()).willReturn(this.hashOperations);
+		given(this.redisOperations.opsForZSet()).willReturn(zSetOperations);
+		given(this.hashOperations.expire(anyString(), any(Duration.class), anyList())).willAnswer((invocation) -> {
+			assertThat(pipelined).isFalse();
+			throw new InvalidDataAccessApiUsageException("ERR unknown command 'HEXPIRE'");
+		});
+		given(this.redisOperations.executePipelined(any(SessionCallback.class))).willAnswer((invocation) -> {
+			pipelined.set(true);
+			SessionCallback<Object> callback = invocation.getArgument(0);
+			callback.execute(this.redisOperations);
+			pipelined.set(false);
+			return Collections.emptyList();
+		});
+		this.redisRepository
+			.setExpirationStore(new HashFieldRedisSessionExpirationStore(this.redisOperations, "spring:session"));
+		this.redisRepository.setPipelineSave(true);
+		RedisSession session = this.redisRepository.new RedisSession(this.cached, false);
+		session.setAttribute("attrName", "attrValue");
+
+		this.redisRepository.save(session);
+
+		verify(this.redisOperations).executePipelined(any(SessionCallback.class));
+		verify(this.hashOperations).expire(anyString(), any(Duration.class), anyList());
+		verify(zSetOperations).add(eq("spring:session:sessions:expirations"), eq("session-id"), anyDouble());
+		verify(this.boundValueOperations).expire(1800L, TimeUnit.SECONDS);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void saveWhenPipelineSaveAndNothingChangedThenNoPipeline() {
+		this.redisRepository.setPipelineSave(true);
+		RedisSession session = this.redisRepository.new RedisSession(this.cached, false);
+
+		this.redisRepository.save(session);
+
+		verify(this.redisOperations, never()).executePipelined(any(SessionCallback.class));
+		verifyNoMoreInteractions(this.redisOperations);
+	}
+
 	@Test
 	void createSessionWhenSessionIdGeneratorThenUses() {
 		this.redisRepository.setSessionIdGenerator(() -> "test");
@@ -975,6 +1350,20 @@ class RedisIndexedSessionRepositoryTests {
 		return result;
 	}
 
+	private static LazyAttributeValue storedValue(RedisSerializer<Object> serializer, Object value) {
+		return new LazyAttributeValue(serializer.serialize(value), serializer::deserialize);
+	}
+
+	private RedisSession findSessionLastAccessedAt(Instant lastAccessedTime) {
+		given(this.redisOperations.<String, Object>boundHashOps(getKey(this.cached.getId())))
+			.willReturn(this.boundHashOperations);
+		given(this.boundHashOperations.entries()).willReturn(map(RedisSessionMapper.CREATION_TIME_KEY,
+				this.cached.getCreationTime().toEpochMilli(), RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY,
+				(int) this.cached.getMaxInactiveInterval().getSeconds(), RedisSessionMapper.LAST_ACCESSED_TIME_KEY,
+				lastAccessedTime.toEpochMilli()));
+		return this.redisRepository.findById(this.cached.getId());
+	}
+
 	private Map<String, Object> getDelta() {
 		return getDelta(1);
 	}
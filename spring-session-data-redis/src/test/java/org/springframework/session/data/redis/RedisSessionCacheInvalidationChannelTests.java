@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.data.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link RedisSessionCacheInvalidationChannel}.
+ */
+@ExtendWith(MockitoExtension.class)
+class RedisSessionCacheInvalidationChannelTests {
+
+	@Mock
+	private RedisOperations<String, Object> redisOperations;
+
+	@Mock
+	private RedisConnection connection;
+
+	private RedisSessionCacheInvalidationChannel channel;
+
+	private final List<String> invalidated = new ArrayList<>();
+
+	@BeforeEach
+	void setup() {
+		this.channel = new RedisSessionCacheInvalidationChannel(this.redisOperations);
+		this.channel.subscribe(this.invalidated::add);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void publishThenIgnoresOwnMessage() {
+		given(this.redisOperations.execute(any(RedisCallback.class)))
+			.willAnswer((invocation) -> invocation.<RedisCallback<Long>>getArgument(0).doInRedis(this.connection));
+		this.channel.publish("session-id");
+		ArgumentCaptor<byte[]> message = ArgumentCaptor.forClass(byte[].class);
+		verify(this.connection).publish(any(byte[].class), message.capture());
+
+		this.channel.onMessage(new DefaultMessage(channel(), message.getValue()), null);
+
+		assertThat(this.invalidated).isEmpty();
+	}
+
+	@Test
+	void onMessageFromOtherInstanceThenNotifiesListeners() {
+		byte[] body = "other-instance:session-id".getBytes(StandardCharsets.UTF_8);
+
+		this.channel.onMessage(new DefaultMessage(channel(), body), null);
+
+		assertThat(this.invalidated).containsExactly("session-id");
+	}
+
+	private byte[] channel() {
+		return RedisSessionCacheInvalidationChannel.DEFAULT_CHANNEL.getBytes(StandardCharsets.UTF_8);
+	}
+
+}
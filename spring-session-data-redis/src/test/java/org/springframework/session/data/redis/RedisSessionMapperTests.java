@@ -24,6 +24,8 @@ import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.session.MapSession;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -107,4 +109,78 @@ class RedisSessionMapperTests {
 		assertThat((String) session.getAttribute("existing")).isEqualTo("value");
 	}
 
+	@Test
+	void apply_MapWithCompactMetadata_ShouldReturnSession() {
+		MapSession expected = new MapSession("id");
+		expected.setCreationTime(Instant.ofEpochMilli(1000));
+		expected.setLastAccessedTime(Instant.ofEpochMilli(2000));
+		expected.setMaxInactiveInterval(Duration.ofMinutes(10));
+		Map<String, Object> sessionMap = new HashMap<>();
+		sessionMap.put(RedisSessionMapper.METADATA_KEY, RedisSessionMapper.encodeMetadata(expected));
+		sessionMap.put(RedisSessionMapper.ATTRIBUTE_PREFIX + "existing", "value");
+		MapSession session = this.mapper.apply("id", sessionMap);
+		assertThat(session.getCreationTime()).isEqualTo(Instant.ofEpochMilli(1000));
+		assertThat(session.getLastAccessedTime()).isEqualTo(Instant.ofEpochMilli(2000));
+		assertThat(session.getMaxInactiveInterval()).isEqualTo(Duration.ofMinutes(10));
+		assertThat((String) session.getAttribute("existing")).isEqualTo("value");
+	}
+
+	@Test
+	void apply_MapWithCompactAndSeparateMetadata_ShouldPreferCompactMetadata() {
+		MapSession expected = new MapSession("id");
+		expected.setCreationTime(Instant.ofEpochMilli(1000));
+		expected.setLastAccessedTime(Instant.ofEpochMilli(2000));
+		Map<String, Object> sessionMap = new HashMap<>();
+		sessionMap.put(RedisSessionMapper.CREATION_TIME_KEY, 0L);
+		sessionMap.put(RedisSessionMapper.LAST_ACCESSED_TIME_KEY, 0L);
+		sessionMap.put(RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY, 1800);
+		sessionMap.put(RedisSessionMapper.METADATA_KEY, RedisSessionMapper.encodeMetadata(expected));
+		MapSession session = this.mapper.apply("id", sessionMap);
+		assertThat(session.getLastAccessedTime()).isEqualTo(Instant.ofEpochMilli(2000));
+	}
+
+	@Test
+	void apply_MapWithInvalidCompactMetadata_ShouldThrowException() {
+		Map<String, Object> sessionMap = new HashMap<>();
+		sessionMap.put(RedisSessionMapper.METADATA_KEY, new byte[] { 1, 2, 3 });
+		assertThatIllegalStateException().isThrownBy(() -> this.mapper.apply("id", sessionMap))
+			.withMessage(RedisSessionMapper.METADATA_KEY + " key has an unsupported format");
+	}
+
+	@Test
+	void assertCompactMetadataSupported_JdkSerializer_ShouldNotThrowException() {
+		RedisSessionMapper.assertCompactMetadataSupported(RedisSerializer.java());
+		RedisSessionMapper.assertCompactMetadataSupported(SerializationPair.fromSerializer(RedisSerializer.java()));
+		RedisSessionMapper.assertCompactMetadataSupported((RedisSerializer<?>) null);
+	}
+
+	@Test
+	void assertCompactMetadataSupported_JsonSerializer_ShouldThrowException() {
+		assertThatIllegalStateException()
+			.isThrownBy(() -> RedisSessionMapper.assertCompactMetadataSupported(RedisSerializer.json()))
+			.withMessageContaining("byte[]");
+		assertThatIllegalStateException()
+			.isThrownBy(() -> RedisSessionMapper
+				.assertCompactMetadataSupported(SerializationPair.fromSerializer(RedisSerializer.json())))
+			.withMessageContaining("byte[]");
+	}
+
+	@Test
+	void withMetadata_Delta_ShouldAddAllMetadata() {
+		MapSession session = new MapSession();
+		Map<String, Object> delta = RedisSessionMapper
+			.withMetadata(Map.of(RedisSessionMapper.ATTRIBUTE_PREFIX + "attribute1", "value1"), session);
+		assertThat(delta).containsOnlyKeys(RedisSessionMapper.CREATION_TIME_KEY,
+				RedisSessionMapper.LAST_ACCESSED_TIME_KEY, RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY,
+				RedisSessionMapper.ATTRIBUTE_PREFIX + "attribute1");
+		assertThat(this.mapper.apply("1234", delta).getCreationTime())
+			.isEqualTo(Instant.ofEpochMilli(session.getCreationTime().toEpochMilli()));
+	}
+
+	@Test
+	void compactMetadata_DeltaWithoutMetadata_ShouldReturnDelta() {
+		Map<String, Object> delta = Map.of(RedisSessionMapper.ATTRIBUTE_PREFIX + "existing", "value");
+		assertThat(RedisSessionMapper.compactMetadata(delta, new MapSession())).isSameAs(delta);
+	}
+
 }
@@ -19,10 +19,17 @@ package org.springframework.session.data.redis;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,18 +39,27 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.session.FlushMode;
 import org.springframework.session.MapSession;
 import org.springframework.session.SaveMode;
 import org.springframework.session.data.redis.RedisSessionRepository.RedisSession;
+import org.springframework.session.observation.SessionRepositoryObservationContext;
+import org.springframework.session.observation.SessionRepositoryObservationContext.Operation;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -237,6 +253,131 @@ class RedisSessionRepositoryTests {
 		verifyNoMoreInteractions(this.sessionHashOperations);
 	}
 
+	@Test
+	void save_SessionExistsAndTouchedWithinTouchGranularity_ShouldNotSaveSession() {
+		given(this.sessionRedisOperations.hasKey(eq(TEST_SESSION_KEY))).willReturn(true);
+		this.sessionRepository.setTouchGranularity(Duration.ofMinutes(1));
+		RedisSession session = createTestSession();
+		session.setLastAccessedTime(session.getLastAccessedTime().plusSeconds(30));
+		this.sessionRepository.save(session);
+		verify(this.sessionRedisOperations).hasKey(eq(TEST_SESSION_KEY));
+		verifyNoMoreInteractions(this.sessionRedisOperations);
+		verifyNoMoreInteractions(this.sessionHashOperations);
+	}
+
+	@Test
+	void save_SessionExistsAndTouchedBeyondTouchGranularity_ShouldSaveSession() {
+		given(this.sessionRedisOperations.hasKey(eq(TEST_SESSION_KEY))).willReturn(true);
+		this.sessionRepository.setTouchGranularity(Duration.ofMinutes(1));
+		RedisSession session = createTestSession();
+		session.setLastAccessedTime(session.getLastAccessedTime().plusSeconds(60));
+		this.sessionRepository.save(session);
+		verify(this.sessionHashOperations).putAll(eq(TEST_SESSION_KEY), this.delta.capture());
+		assertThat(this.delta.getValue()).containsOnlyKeys(RedisSessionMapper.LAST_ACCESSED_TIME_KEY);
+	}
+
+	@Test
+	void save_SessionExistsAndTouchedBeyondHalfOfMaxInactiveInterval_ShouldSaveSession() {
+		given(this.sessionRedisOperations.hasKey(eq(TEST_SESSION_KEY))).willReturn(true);
+		this.sessionRepository.setTouchGranularity(Duration.ofHours(1));
+		RedisSession session = createTestSession();
+		session.setLastAccessedTime(session.getLastAccessedTime().plus(session.getMaxInactiveInterval().dividedBy(2)));
+		this.sessionRepository.save(session);
+		verify(this.sessionHashOperations).putAll(eq(TEST_SESSION_KEY), this.delta.capture());
+		assertThat(this.delta.getValue()).containsOnlyKeys(RedisSessionMapper.LAST_ACCESSED_TIME_KEY);
+	}
+
+	@Test
+	void setTouchGranularity_Negative_ShouldThrowException() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> this.sessionRepository.setTouchGranularity(Duration.ofSeconds(-1)))
+			.withMessage("touchGranularity must not be negative");
+	}
+
+	@Test
+	void save_NewSessionWithCompactMetadata_ShouldSaveMetadataAsSingleEntry() {
+		this.sessionRepository.setCompactMetadata(true);
+		RedisSession session = this.sessionRepository.createSession();
+		session.setAttribute("attribute1", "value1");
+		this.sessionRepository.save(session);
+		String key = getSessionKey(session.getId());
+		verify(this.sessionHashOperations).putAll(eq(key), this.delta.capture());
+		assertThat(this.delta.getValue()).containsOnlyKeys(RedisSessionMapper.METADATA_KEY,
+				RedisSessionMapper.ATTRIBUTE_PREFIX + "attribute1");
+		MapSession loaded = new RedisSessionMapper().apply(session.getId(), this.delta.getValue());
+		assertThat(loaded.getCreationTime()).isEqualTo(session.getCreationTime().truncatedTo(ChronoUnit.MILLIS));
+		assertThat(loaded.getLastAccessedTime())
+			.isEqualTo(session.getLastAccessedTime().truncatedTo(ChronoUnit.MILLIS));
+		assertThat(loaded.getMaxInactiveInterval()).isEqualTo(session.getMaxInactiveInterval());
+	}
+
+	@Test
+	void setCompactMetadata_JsonSerializer_ShouldThrowException() {
+		given(this.sessionRedisOperations.getHashValueSerializer()).willAnswer((invocation) -> RedisSerializer.json());
+		assertThatIllegalStateException().isThrownBy(() -> this.sessionRepository.setCompactMetadata(true))
+			.withMessageContaining("byte[]");
+		this.sessionRepository.setCompactMetadata(false);
+	}
+
+	@Test
+	void setCompactMetadata_JdkSerializer_ShouldEnableCompactMetadata() {
+		given(this.sessionRedisOperations.getHashValueSerializer()).willAnswer((invocation) -> RedisSerializer.java());
+		this.sessionRepository.setCompactMetadata(true);
+		assertThat(ReflectionTestUtils.getField(this.sessionRepository, "compactMetadata")).isEqualTo(true);
+	}
+
+	@Test
+	void save_CompactMetadataEnabledForSessionWithSeparateMetadata_ShouldReplaceMetadata() {
+		given(this.sessionRedisOperations.hasKey(eq(TEST_SESSION_KEY))).willReturn(true);
+		given(this.sessionHashOperations.entries(eq(TEST_SESSION_KEY)))
+			.willReturn(mapOf(RedisSessionMapper.CREATION_TIME_KEY, Instant.EPOCH.toEpochMilli(),
+					RedisSessionMapper.LAST_ACCESSED_TIME_KEY, Instant.now().toEpochMilli(),
+					RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY, MapSession.DEFAULT_MAX_INACTIVE_INTERVAL_SECONDS));
+		this.sessionRepository.setCompactMetadata(true);
+		RedisSession session = this.sessionRepository.findById(TEST_SESSION_ID);
+		session.setAttribute("attribute1", "value1");
+		this.sessionRepository.save(session);
+		verify(this.sessionHashOperations).putAll(eq(TEST_SESSION_KEY), this.delta.capture());
+		assertThat(this.delta.getValue()).containsOnlyKeys(RedisSessionMapper.METADATA_KEY,
+				RedisSessionMapper.ATTRIBUTE_PREFIX + "attribute1");
+		verify(this.sessionHashOperations).delete(TEST_SESSION_KEY, RedisSessionMapper.CREATION_TIME_KEY,
+				RedisSessionMapper.LAST_ACCESSED_TIME_KEY, RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY);
+		session.setAttribute("attribute2", "value2");
+		this.sessionRepository.save(session);
+		verify(this.sessionHashOperations, times(1)).delete(eq(TEST_SESSION_KEY), any(Object[].class));
+	}
+
+	@Test
+	void save_CompactMetadataDisabledForSessionWithCompactMetadata_ShouldReplaceMetadata() {
+		given(this.sessionRedisOperations.hasKey(eq(TEST_SESSION_KEY))).willReturn(true);
+		MapSession stored = new MapSession(TEST_SESSION_ID);
+		stored.setCreationTime(Instant.EPOCH);
+		given(this.sessionHashOperations.entries(eq(TEST_SESSION_KEY)))
+			.willReturn(mapOf(RedisSessionMapper.METADATA_KEY, RedisSessionMapper.encodeMetadata(stored)));
+		RedisSession session = this.sessionRepository.findById(TEST_SESSION_ID);
+		Instant lastAccessedTime = session.getLastAccessedTime().plusSeconds(60);
+		session.setLastAccessedTime(lastAccessedTime);
+		this.sessionRepository.save(session);
+		verify(this.sessionHashOperations).putAll(eq(TEST_SESSION_KEY), this.delta.capture());
+		assertThat(this.delta.getValue()).containsOnlyKeys(RedisSessionMapper.CREATION_TIME_KEY,
+				RedisSessionMapper.LAST_ACCESSED_TIME_KEY, RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY);
+		verify(this.sessionHashOperations).delete(TEST_SESSION_KEY, RedisSessionMapper.METADATA_KEY);
+		MapSession loaded = new RedisSessionMapper().apply(TEST_SESSION_ID, this.delta.getValue());
+		assertThat(loaded.getCreationTime()).isEqualTo(Instant.EPOCH);
+		assertThat(loaded.getLastAccessedTime()).isEqualTo(lastAccessedTime.truncatedTo(ChronoUnit.MILLIS));
+	}
+
+	@Test
+	void save_SessionExistsAndHasAttributeChangesWithCompactMetadata_ShouldNotSaveMetadata() {
+		given(this.sessionRedisOperations.hasKey(eq(TEST_SESSION_KEY))).willReturn(true);
+		this.sessionRepository.setCompactMetadata(true);
+		RedisSession session = createTestSession();
+		session.setAttribute("attribute2", "value2");
+		this.sessionRepository.save(session);
+		verify(this.sessionHashOperations).putAll(eq(TEST_SESSION_KEY), this.delta.capture());
+		assertThat(this.delta.getValue()).containsOnlyKeys(RedisSessionMapper.ATTRIBUTE_PREFIX + "attribute2");
+	}
+
 	@Test
 	void save_WithSaveModeOnSetAttribute_ShouldSaveSession() {
 		given(this.sessionRedisOperations.hasKey(eq(TEST_SESSION_KEY))).willReturn(true);
@@ -279,6 +420,43 @@ class RedisSessionRepositoryTests {
 		verifyNoMoreInteractions(this.sessionHashOperations);
 	}
 
+	@Test
+	void saveWithSaveModeOnGetAttributeAndPeekAttribute() {
+		given(this.sessionRedisOperations.hasKey(eq(TEST_SESSION_KEY))).willReturn(true);
+		this.sessionRepository.setSaveMode(SaveMode.ON_GET_ATTRIBUTE);
+		Map<String, Object> attributes = new HashMap<>();
+		attributes.put("attribute1", "value1");
+		attributes.put("attribute2", "value2");
+		RedisSession session = createTestSession(attributes);
+		assertThat(session.<String>peekAttribute("attribute1")).isEqualTo("value1");
+		session.setAttribute("attribute2", "value3");
+		this.sessionRepository.save(session);
+		verify(this.sessionHashOperations).putAll(eq(TEST_SESSION_KEY), this.delta.capture());
+		assertThat(this.delta.getValue()).hasSize(1);
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	void saveWithSaveModeOnGetAttributeAndSkipUnchangedAttributes() {
+		RedisSerializer<Object> valueSerializer = new JdkSerializationRedisSerializer();
+		given(this.sessionRedisOperations.hasKey(eq(TEST_SESSION_KEY))).willReturn(true);
+		given(this.sessionRedisOperations.getHashValueSerializer()).willReturn((RedisSerializer) valueSerializer);
+		this.sessionRepository.setSaveMode(SaveMode.ON_GET_ATTRIBUTE);
+		this.sessionRepository.setSkipUnchangedAttributes(true);
+		Map<String, Object> attributes = new HashMap<>();
+		attributes.put("attribute1", storedValue(valueSerializer, new ArrayList<>(List.of("a"))));
+		attributes.put("attribute2", storedValue(valueSerializer, "value2"));
+		attributes.put("attribute3", storedValue(valueSerializer, "value3"));
+		attributes.put("attribute4", storedValue(valueSerializer, "value4"));
+		RedisSession session = createTestSession(attributes);
+		session.<List<String>>getAttribute("attribute1").add("b");
+		session.getAttribute("attribute2");
+		session.setAttribute("attribute3", "value3");
+		this.sessionRepository.save(session);
+		verify(this.sessionHashOperations).putAll(eq(TEST_SESSION_KEY), this.delta.capture());
+		assertThat(this.delta.getValue()).containsOnlyKeys(RedisSessionMapper.ATTRIBUTE_PREFIX + "attribute1");
+	}
+
 	@Test
 	void saveWithSaveModeAlways() {
 		given(this.sessionRedisOperations.hasKey(eq(TEST_SESSION_KEY))).willReturn(true);
@@ -332,6 +510,89 @@ class RedisSessionRepositoryTests {
 		verifyNoMoreInteractions(this.sessionHashOperations);
 	}
 
+	@Test
+	void findById_ObservationRegistry_ShouldObserveOperation() {
+		List<SessionRepositoryObservationContext> contexts = observeInto(this.sessionRepository);
+		given(this.sessionHashOperations.entries(eq(TEST_SESSION_KEY)))
+			.willReturn(mapOf(RedisSessionMapper.CREATION_TIME_KEY, Instant.EPOCH.toEpochMilli(),
+					RedisSessionMapper.LAST_ACCESSED_TIME_KEY, Instant.now().toEpochMilli(),
+					RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY, MapSession.DEFAULT_MAX_INACTIVE_INTERVAL_SECONDS,
+					RedisSessionMapper.ATTRIBUTE_PREFIX + "attribute1", "value1"));
+		this.sessionRepository.findById(TEST_SESSION_ID);
+		assertThat(contexts).singleElement().satisfies((context) -> {
+			assertThat(context.getOperation()).isEqualTo(Operation.FIND_BY_ID);
+			assertThat(context.getAttributeCount()).isEqualTo(1);
+			assertThat(context.getLowCardinalityKeyValue("spring.session.backend").getValue()).isEqualTo("redis");
+			assertThat(context.getLowCardinalityKeyValue("outcome").getValue()).isEqualTo("SUCCESS");
+		});
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	void findById_LazyAttributeDeserialization_ShouldDeserializeAttributeOnAccess() {
+		RedisSerializer<Object> valueSerializer = spy(new JdkSerializationRedisSerializer());
+		given(this.sessionRedisOperations.getKeySerializer()).willReturn((RedisSerializer) RedisSerializer.string());
+		given(this.sessionRedisOperations.getHashKeySerializer())
+			.willReturn((RedisSerializer) RedisSerializer.string());
+		given(this.sessionRedisOperations.getHashValueSerializer()).willReturn((RedisSerializer) valueSerializer);
+		Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+		Map<byte[], byte[]> rawEntries = new HashMap<>();
+		rawEntries.put(RedisSerializer.string().serialize(RedisSessionMapper.CREATION_TIME_KEY),
+				valueSerializer.serialize(Instant.EPOCH.toEpochMilli()));
+		rawEntries.put(RedisSerializer.string().serialize(RedisSessionMapper.LAST_ACCESSED_TIME_KEY),
+				valueSerializer.serialize(now.toEpochMilli()));
+		rawEntries.put(RedisSerializer.string().serialize(RedisSessionMapper.MAX_INACTIVE_INTERVAL_KEY),
+				valueSerializer.serialize(MapSession.DEFAULT_MAX_INACTIVE_INTERVAL_SECONDS));
+		byte[] attribute1 = valueSerializer.serialize("value1");
+		byte[] attribute2 = valueSerializer.serialize("value2");
+		rawEntries.put(RedisSerializer.string().serialize(RedisSessionMapper.ATTRIBUTE_PREFIX + "attribute1"),
+				attribute1);
+		rawEntries.put(RedisSerializer.string().serialize(RedisSessionMapper.ATTRIBUTE_PREFIX + "attribute2"),
+				attribute2);
+		given(this.sessionRedisOperations.execute(any(RedisCallback.class))).willReturn(rawEntries);
+		this.sessionRepository.setLazyAttributeDeserialization(true);
+		RedisSession session = this.sessionRepository.findById(TEST_SESSION_ID);
+		assertThat(session.getLastAccessedTime()).isEqualTo(now);
+		assertThat(session.getAttributeNames()).containsOnly("attribute1", "attribute2");
+		verify(valueSerializer, never()).deserialize(attribute1);
+		assertThat(session.<String>getAttribute("attribute1")).isEqualTo("value1");
+		assertThat(session.<String>getAttribute("attribute1")).isEqualTo("value1");
+		verify(valueSerializer).deserialize(attribute1);
+		verify(valueSerializer, never()).deserialize(attribute2);
+		verify(this.sessionRedisOperations, never()).opsForHash();
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	void findById_SelectiveAttributeFetch_ShouldFetchAttributeOnAccess() {
+		RedisSerializer<Object> valueSerializer = new JdkSerializationRedisSerializer();
+		RedisSerializer<String> stringSerializer = RedisSerializer.string();
+		given(this.sessionRedisOperations.getKeySerializer()).willReturn((RedisSerializer) stringSerializer);
+		given(this.sessionRedisOperations.getHashKeySerializer()).willReturn((RedisSerializer) stringSerializer);
+		given(this.sessionRedisOperations.getHashValueSerializer()).willReturn((RedisSerializer) valueSerializer);
+		Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+		List<byte[]> rawValues = Arrays.asList(valueSerializer.serialize(Instant.EPOCH.toEpochMilli()),
+				valueSerializer.serialize(now.toEpochMilli()),
+				valueSerializer.serialize(MapSession.DEFAULT_MAX_INACTIVE_INTERVAL_SECONDS), null,
+				valueSerializer.serialize("value1"));
+		Set<byte[]> rawHashKeys = Set.of(stringSerializer.serialize(RedisSessionMapper.CREATION_TIME_KEY),
+				stringSerializer.serialize(RedisSessionMapper.ATTRIBUTE_PREFIX + "attribute1"),
+				stringSerializer.serialize(RedisSessionMapper.ATTRIBUTE_PREFIX + "attribute2"));
+		given(this.sessionRedisOperations.execute(any(RedisCallback.class)))
+			.willReturn(Arrays.asList(rawValues, rawHashKeys), valueSerializer.serialize("value2"));
+		this.sessionRepository.setSelectiveAttributeFetch(true);
+		this.sessionRepository.setPrefetchedAttributeNames(Set.of("attribute1"));
+		RedisSession session = this.sessionRepository.findById(TEST_SESSION_ID);
+		assertThat(session.getLastAccessedTime()).isEqualTo(now);
+		assertThat(session.getAttributeNames()).containsOnly("attribute1", "attribute2");
+		assertThat(session.<String>getAttribute("attribute1")).isEqualTo("value1");
+		verify(this.sessionRedisOperations, times(1)).execute(any(RedisCallback.class));
+		assertThat(session.<String>getAttribute("attribute2")).isEqualTo("value2");
+		assertThat(session.<String>getAttribute("attribute2")).isEqualTo("value2");
+		verify(this.sessionRedisOperations, times(2)).execute(any(RedisCallback.class));
+		verify(this.sessionRedisOperations, never()).opsForHash();
+	}
+
 	@Test
 	void findById_SessionExistsAndIsExpired_ShouldReturnNull() {
 		given(this.sessionHashOperations.entries(eq(TEST_SESSION_KEY)))
@@ -426,8 +687,32 @@ class RedisSessionRepositoryTests {
 		return this.sessionRepository.new RedisSession(cached, false);
 	}
 
+	private static LazyAttributeValue storedValue(RedisSerializer<Object> serializer, Object value) {
+		return new LazyAttributeValue(serializer.serialize(value), serializer::deserialize);
+	}
+
 	private RedisSession createTestSession() {
 		return createTestSession(Collections.singletonMap("attribute1", "value1"));
 	}
 
+	private static List<SessionRepositoryObservationContext> observeInto(RedisSessionRepository repository) {
+		List<SessionRepositoryObservationContext> contexts = new ArrayList<>();
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+
+			@Override
+			public void onStop(Observation.Context context) {
+				contexts.add((SessionRepositoryObservationContext) context);
+			}
+
+			@Override
+			public boolean supportsContext(Observation.Context context) {
+				return context instanceof SessionRepositoryObservationContext;
+			}
+
+		});
+		repository.setObservationRegistry(observationRegistry);
+		return contexts;
+	}
+
 }
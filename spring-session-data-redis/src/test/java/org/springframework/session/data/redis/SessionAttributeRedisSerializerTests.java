@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.data.redis;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.session.serializer.BinarySessionAttributeSerializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link SessionAttributeRedisSerializer}.
+ *
+ * @author agent (agent@local)
+ */
+class SessionAttributeRedisSerializerTests {
+
+	private final SessionAttributeRedisSerializer serializer = new SessionAttributeRedisSerializer(
+			new BinarySessionAttributeSerializer());
+
+	@Test
+	void constructorWhenAttributeSerializerNullThenException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new SessionAttributeRedisSerializer(null))
+			.withMessage("attributeSerializer must not be null");
+	}
+
+	@Test
+	void serializeWhenRegisteredTypeThenRoundTrip() {
+		byte[] bytes = this.serializer.serialize(1800);
+		assertThat(bytes).hasSizeLessThan(RedisSerializer.java().serialize(1800).length);
+		assertThat(this.serializer.deserialize(bytes)).isEqualTo(1800);
+	}
+
+	@Test
+	void deserializeWhenStoredWithJavaSerializerThenDeserialized() {
+		assertThat(this.serializer.deserialize(RedisSerializer.java().serialize(1800L))).isEqualTo(1800L);
+	}
+
+	@Test
+	void serializeWhenNullThenEmpty() {
+		assertThat(this.serializer.serialize(null)).isEmpty();
+		assertThat(this.serializer.deserialize(new byte[0])).isNull();
+		assertThat(this.serializer.deserialize(null)).isNull();
+	}
+
+	@Test
+	void deserializeWhenInvalidThenSerializationException() {
+		assertThatExceptionOfType(SerializationException.class)
+			.isThrownBy(() -> this.serializer.deserialize(new byte[] { 1, (byte) 200 }));
+	}
+
+}
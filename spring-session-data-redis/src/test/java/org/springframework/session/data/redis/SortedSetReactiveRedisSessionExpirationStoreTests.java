@@ -16,7 +16,10 @@
 
 package org.springframework.session.data.redis;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,20 +29,20 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
-import org.springframework.data.domain.Range;
-import org.springframework.data.redis.connection.Limit;
 import org.springframework.data.redis.core.ReactiveRedisOperations;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
-@SuppressWarnings("unchecked")
+@SuppressWarnings({ "unchecked", "rawtypes" })
 class SortedSetReactiveRedisSessionExpirationStoreTests {
 
 	SortedSetReactiveRedisSessionExpirationStore store;
@@ -54,8 +57,6 @@ class SortedSetReactiveRedisSessionExpirationStoreTests {
 		given(this.sessionRedisOperations.opsForZSet().add(anyString(), anyString(), anyDouble()))
 			.willReturn(Mono.empty());
 		given(this.sessionRedisOperations.opsForZSet().remove(anyString(), anyString())).willReturn(Mono.empty());
-		given(this.sessionRedisOperations.opsForZSet()
-			.reverseRangeByScore(anyString(), any(Range.class), any(Limit.class))).willReturn(Flux.empty());
 	}
 
 	@Test
@@ -75,17 +76,48 @@ class SortedSetReactiveRedisSessionExpirationStoreTests {
 	}
 
 	@Test
-	void retrieveExpiredSessionsThenUsesExpectedRangeAndLimit() {
+	void retrieveExpiredSessionsThenPopsExpiredSessionsUsingScript() {
 		Instant now = Instant.now();
-		StepVerifier.create(this.store.retrieveExpiredSessions(now)).verifyComplete();
-		ArgumentCaptor<Range<Double>> rangeCaptor = ArgumentCaptor.forClass(Range.class);
-		ArgumentCaptor<Limit> limitCaptor = ArgumentCaptor.forClass(Limit.class);
-		verify(this.sessionRedisOperations.opsForZSet()).reverseRangeByScore(
-				eq(this.namespace + "sessions:expirations"), rangeCaptor.capture(), limitCaptor.capture());
-		assertThat(rangeCaptor.getValue().getLowerBound().getValue()).hasValue(0D);
-		assertThat(rangeCaptor.getValue().getUpperBound().getValue()).hasValue((double) now.toEpochMilli());
-		assertThat(limitCaptor.getValue().getCount()).isEqualTo(100);
-		assertThat(limitCaptor.getValue().getOffset()).isEqualTo(0);
+		given(this.sessionRedisOperations.execute(eq(SortedSetRedisSessionExpirationStore.POP_EXPIRED_SESSIONS_SCRIPT),
+				anyList(), anyList(), any(), any()))
+			.willReturn((Flux) Flux.just(List.of("1", "2")));
+		StepVerifier.create(this.store.retrieveExpiredSessions(now)).expectNext("1", "2").verifyComplete();
+		ArgumentCaptor<List<String>> argsCaptor = ArgumentCaptor.forClass(List.class);
+		verify(this.sessionRedisOperations).execute(
+				eq(SortedSetRedisSessionExpirationStore.POP_EXPIRED_SESSIONS_SCRIPT),
+				eq(List.of(this.namespace + "sessions:expirations")), argsCaptor.capture(), any(), any());
+		assertThat(argsCaptor.getValue()).containsExactly(String.valueOf(now.toEpochMilli()), "100");
+	}
+
+	@Test
+	void retrieveExpiredSessionsWhenBatchIsFullThenPopsNextBatch() {
+		List<Object> fullBatch = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			fullBatch.add(String.valueOf(i));
+		}
+		given(this.sessionRedisOperations.execute(eq(SortedSetRedisSessionExpirationStore.POP_EXPIRED_SESSIONS_SCRIPT),
+				anyList(), anyList(), any(), any()))
+			.willReturn((Flux) Flux.fromIterable(fullBatch), (Flux) Flux.just("100"));
+		StepVerifier.create(this.store.retrieveExpiredSessions(Instant.now())).expectNextCount(101).verifyComplete();
+		verify(this.sessionRedisOperations, times(2)).execute(
+				eq(SortedSetRedisSessionExpirationStore.POP_EXPIRED_SESSIONS_SCRIPT), anyList(), anyList(), any(),
+				any());
+	}
+
+	@Test
+	void retrieveExpiredSessionsWhenRetrieveTimeoutZeroThenPopsSingleBatch() {
+		List<Object> fullBatch = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			fullBatch.add(String.valueOf(i));
+		}
+		this.store.setRetrieveTimeout(Duration.ZERO);
+		given(this.sessionRedisOperations.execute(eq(SortedSetRedisSessionExpirationStore.POP_EXPIRED_SESSIONS_SCRIPT),
+				anyList(), anyList(), any(), any()))
+			.willReturn((Flux) Flux.just(fullBatch));
+		StepVerifier.create(this.store.retrieveExpiredSessions(Instant.now())).expectNextCount(100).verifyComplete();
+		verify(this.sessionRedisOperations, times(1)).execute(
+				eq(SortedSetRedisSessionExpirationStore.POP_EXPIRED_SESSIONS_SCRIPT), anyList(), anyList(), any(),
+				any());
 	}
 
 }
@@ -16,21 +16,34 @@
 
 package org.springframework.session.data.redis;
 
-import java.util.Set;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Answers;
 
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -72,15 +85,85 @@ class SortedSetRedisSessionExpirationStoreTests {
 			.withMessage("cleanupCount must be greater than 0");
 	}
 
+	@Test
+	void setCleanupTimeoutWhenNegativeThenException() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> this.expirationStore.setCleanupTimeout(Duration.ofSeconds(-1)))
+			.withMessage("cleanupTimeout cannot be negative");
+	}
+
 	@Test
 	void cleanupExpiredSessionsThenTouchExpiredSessions() {
-		given(this.redisTemplate.opsForZSet()
-			.reverseRangeByScore(anyString(), anyDouble(), anyDouble(), anyLong(), anyLong()))
-			.willReturn(Set.of("1", "2", "3"));
+		Instant now = Instant.ofEpochMilli(1715164200000L);
+		this.expirationStore.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		givenExpiredSessions(List.of("1", "2", "3"));
+		givenTouchResults(List.of(false, false, false));
+		this.expirationStore.cleanupExpiredSessions();
+		verify(this.redisTemplate).execute(eq(SortedSetRedisSessionExpirationStore.POP_EXPIRED_SESSIONS_SCRIPT),
+				eq(RedisSerializer.string()), any(), eq(List.of("spring:session:sessions:expirations")),
+				eq(String.valueOf(now.toEpochMilli())), eq("100"));
+		verify(this.redisTemplate).hasKey("spring:session:sessions:expires:1");
+		verify(this.redisTemplate).hasKey("spring:session:sessions:expires:2");
+		verify(this.redisTemplate).hasKey("spring:session:sessions:expires:3");
+		verify(this.redisTemplate.opsForZSet(), never()).addIfAbsent(anyString(), any(), anyDouble());
+	}
+
+	@Test
+	void cleanupExpiredSessionsWhenBatchIsFullThenRetrievesNextBatch() {
+		this.expirationStore.setCleanupCount(2);
+		givenExpiredSessions(List.of("1", "2"), List.of("3"));
+		givenTouchResults(List.of(false, false), List.of(false));
 		this.expirationStore.cleanupExpiredSessions();
-		verify(this.redisTemplate).hasKey("spring:session:sessions:1");
-		verify(this.redisTemplate).hasKey("spring:session:sessions:2");
-		verify(this.redisTemplate).hasKey("spring:session:sessions:3");
+		verify(this.redisTemplate, times(2)).execute(
+				eq(SortedSetRedisSessionExpirationStore.POP_EXPIRED_SESSIONS_SCRIPT), any(RedisSerializer.class), any(),
+				anyList(), any(), any());
+		verify(this.redisTemplate).hasKey("spring:session:sessions:expires:3");
+	}
+
+	@Test
+	void cleanupExpiredSessionsWhenCleanupTimeoutZeroThenRetrievesSingleBatch() {
+		this.expirationStore.setCleanupCount(2);
+		this.expirationStore.setCleanupTimeout(Duration.ZERO);
+		givenExpiredSessions(List.of("1", "2"), List.of("3"));
+		givenTouchResults(List.of(false, false));
+		this.expirationStore.cleanupExpiredSessions();
+		verify(this.redisTemplate, times(1)).execute(
+				eq(SortedSetRedisSessionExpirationStore.POP_EXPIRED_SESSIONS_SCRIPT), any(RedisSerializer.class), any(),
+				anyList(), any(), any());
+		verify(this.redisTemplate, never()).hasKey("spring:session:sessions:expires:3");
+	}
+
+	@Test
+	void cleanupExpiredSessionsWhenNotExpiredYetThenAddedBack() {
+		Instant now = Instant.ofEpochMilli(1715164200000L);
+		this.expirationStore.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		givenExpiredSessions(List.of("1", "2"));
+		givenTouchResults(List.of(false, true));
+		this.expirationStore.cleanupExpiredSessions();
+		verify(this.redisTemplate.opsForZSet()).addIfAbsent("spring:session:sessions:expirations", "2",
+				now.toEpochMilli() + 1);
+		verify(this.redisTemplate.opsForZSet(), never()).addIfAbsent(anyString(), eq("1"), anyDouble());
+	}
+
+	@SafeVarargs
+	@SuppressWarnings("unchecked")
+	private void givenExpiredSessions(List<String>... batches) {
+		List<Object> results = new ArrayList<>(List.of(batches));
+		results.add(Collections.emptyList());
+		given(this.redisTemplate.execute(eq(SortedSetRedisSessionExpirationStore.POP_EXPIRED_SESSIONS_SCRIPT),
+				any(RedisSerializer.class), any(), anyList(), any(), any()))
+			.willReturn((List) results.get(0), results.subList(1, results.size()).toArray(new List[0]));
+	}
+
+	@SafeVarargs
+	@SuppressWarnings("unchecked")
+	private void givenTouchResults(List<Object>... batches) {
+		List<List<Object>> results = new ArrayList<>(List.of(batches));
+		willAnswer((invocation) -> {
+			SessionCallback<?> callback = invocation.getArgument(0);
+			callback.execute(this.redisTemplate);
+			return results.remove(0);
+		}).given(this.redisTemplate).executePipelined(any(SessionCallback.class));
 	}
 
 }
@@ -165,6 +165,28 @@ class EnableRedisKeyspaceNotificationsInitializerTests {
 		verify(this.commands, never()).setConfig(anyString(), anyString());
 	}
 
+	@Test
+	void afterPropertiesSetWhenHashEventsThenH() {
+		this.initializer = new RedisIndexedHttpSessionConfiguration.EnableRedisKeyspaceNotificationsInitializer(
+				this.connectionFactory, new ConfigureNotifyKeyspaceEventsAction(true));
+		setConfigNotification("Egx");
+
+		this.initializer.afterPropertiesSet();
+
+		assertOptionsContains("E", "g", "x", "h");
+	}
+
+	@Test
+	void afterPropertiesSetWhenHashEventsAndAThenNoH() {
+		this.initializer = new RedisIndexedHttpSessionConfiguration.EnableRedisKeyspaceNotificationsInitializer(
+				this.connectionFactory, new ConfigureNotifyKeyspaceEventsAction(true));
+		setConfigNotification("AE");
+
+		this.initializer.afterPropertiesSet();
+
+		verify(this.commands, never()).setConfig(anyString(), anyString());
+	}
+
 	private void assertOptionsContains(String... expectedValues) {
 		verify(this.commands).setConfig(eq(CONFIG_NOTIFY_KEYSPACE_EVENTS), this.options.capture());
 		for (String expectedValue : expectedValues) {
@@ -19,6 +19,8 @@ package org.springframework.session.jdbc;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.Supplier;
@@ -56,6 +58,7 @@ import org.springframework.transaction.annotation.Transactional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Base class for {@link JdbcIndexedSessionRepository} integration tests.
@@ -599,6 +602,39 @@ abstract class AbstractJdbcIndexedSessionRepositoryITests {
 		assertThat(this.repository.findById(session.getId())).isNotNull();
 	}
 
+	/**
+	 * Verify that the expired sessions are deleted in batches, using the batch query
+	 * configured for the database.
+	 */
+	void verifyCleanupExpiredSessionsInBatches() {
+		this.repository.setCleanupBatchSize(2);
+		try {
+			List<String> expiredSessionIds = new ArrayList<>();
+			for (int i = 0; i < 5; i++) {
+				JdbcSession session = this.repository.createSession();
+				session.setLastAccessedTime(Instant.now().minus(31, ChronoUnit.MINUTES));
+				this.repository.save(session);
+				expiredSessionIds.add(session.getId());
+			}
+			JdbcSession activeSession = this.repository.createSession();
+			this.repository.save(activeSession);
+
+			this.repository.cleanUpExpiredSessions();
+
+			assertThat(expiredSessionIds).allSatisfy((sessionId) -> assertThat(countSessions(sessionId)).isZero());
+			assertThat(countSessions(activeSession.getId())).isOne();
+		}
+		finally {
+			this.repository.setCleanupBatchSize(0);
+		}
+	}
+
+	private int countSessions(String sessionId) {
+		Integer count = this.jdbcOperations.queryForObject("SELECT COUNT(*) FROM SPRING_SESSION WHERE SESSION_ID = ?",
+				Integer.class, sessionId);
+		return (count != null) ? count : 0;
+	}
+
 	@Test
 	void changeSessionIdWhenOnlyChangeId() {
 		String attrName = "changeSessionId";
@@ -796,6 +832,8 @@ abstract class AbstractJdbcIndexedSessionRepositoryITests {
 
 	@Test // gh-1213
 	void saveNewSessionAttributeConcurrently() {
+		assumeTrue(this.applicationContext.getBeansOfType(SingleTableJdbcIndexedSessionRepositoryCustomizer.class)
+			.isEmpty(), "attributes are not stored in a separate table");
 		JdbcSession session = this.repository.createSession();
 		this.repository.save(session);
 		String attributeName = "attribute1";
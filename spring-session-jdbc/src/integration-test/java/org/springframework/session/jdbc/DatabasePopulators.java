@@ -54,4 +54,29 @@ final class DatabasePopulators {
 				new ClassPathResource("org/springframework/session/jdbc/schema-sqlserver.sql"));
 	}
 
+	static ResourceDatabasePopulator db2SingleTable() {
+		return new ResourceDatabasePopulator(
+				new ClassPathResource("org/springframework/session/jdbc/schema-single-table-db2.sql"));
+	}
+
+	static ResourceDatabasePopulator mySqlSingleTable() {
+		return new ResourceDatabasePopulator(
+				new ClassPathResource("org/springframework/session/jdbc/schema-single-table-mysql.sql"));
+	}
+
+	static ResourceDatabasePopulator oracleSingleTable() {
+		return new ResourceDatabasePopulator(
+				new ClassPathResource("org/springframework/session/jdbc/schema-single-table-oracle.sql"));
+	}
+
+	static ResourceDatabasePopulator postgreSqlSingleTable() {
+		return new ResourceDatabasePopulator(
+				new ClassPathResource("org/springframework/session/jdbc/schema-single-table-postgresql.sql"));
+	}
+
+	static ResourceDatabasePopulator sqlServerSingleTable() {
+		return new ResourceDatabasePopulator(
+				new ClassPathResource("org/springframework/session/jdbc/schema-single-table-sqlserver.sql"));
+	}
+
 }
@@ -16,6 +16,7 @@
 
 package org.springframework.session.jdbc;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import org.springframework.context.annotation.Bean;
@@ -35,6 +36,11 @@ import org.springframework.test.context.web.WebAppConfiguration;
 @ContextConfiguration
 class Db2JdbcIndexedSessionRepositoryCustomizerITests extends Db2JdbcIndexedSessionRepositoryITests {
 
+	@Test
+	void cleanupExpiredSessionsInBatches() {
+		verifyCleanupExpiredSessionsInBatches();
+	}
+
 	@Configuration
 	static class CustomizerConfig extends Config {
 
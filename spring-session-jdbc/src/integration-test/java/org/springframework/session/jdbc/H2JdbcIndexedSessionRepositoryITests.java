@@ -16,6 +16,7 @@
 
 package org.springframework.session.jdbc;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import org.springframework.context.annotation.Bean;
@@ -37,6 +38,11 @@ import org.springframework.test.context.web.WebAppConfiguration;
 @ContextConfiguration
 class H2JdbcIndexedSessionRepositoryITests extends AbstractJdbcIndexedSessionRepositoryITests {
 
+	@Test
+	void cleanupExpiredSessionsInBatches() {
+		verifyCleanupExpiredSessionsInBatches();
+	}
+
 	@Configuration
 	static class Config extends BaseConfig {
 
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.jdbc;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+/**
+ * Integration tests for {@link JdbcIndexedSessionRepository} using MariaDB database with
+ * single table storage.
+ *
+ * @author agent (agent@local)
+ */
+@ExtendWith(SpringExtension.class)
+@WebAppConfiguration
+@ContextConfiguration
+class MariaDbSingleTableJdbcIndexedSessionRepositoryITests extends AbstractContainerJdbcIndexedSessionRepositoryITests {
+
+	@Configuration
+	static class Config extends BaseContainerConfig {
+
+		@Bean
+		JdbcDatabaseContainer<?> databaseContainer() {
+			JdbcDatabaseContainer<?> databaseContainer = DatabaseContainers.mariaDb();
+			databaseContainer.start();
+			return databaseContainer;
+		}
+
+		@Bean
+		ResourceDatabasePopulator databasePopulator() {
+			return DatabasePopulators.mySqlSingleTable();
+		}
+
+		@Bean
+		SingleTableJdbcIndexedSessionRepositoryCustomizer singleTableJdbcIndexedSessionRepositoryCustomizer() {
+			return new SingleTableJdbcIndexedSessionRepositoryCustomizer();
+		}
+
+	}
+
+}
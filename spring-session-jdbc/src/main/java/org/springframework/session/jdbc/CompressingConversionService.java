@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.jdbc;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.session.serializer.SessionAttributeCompressor;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ConversionService} that compresses the {@code byte[]} values produced by
+ * another {@link ConversionService} using a {@link SessionAttributeCompressor}, and
+ * decompresses them before they are converted back. Values that were stored uncompressed,
+ * for example before this conversion service was configured, are still read. It is meant
+ * to be used with
+ * {@link JdbcIndexedSessionRepository#setConversionService(ConversionService)}.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+public class CompressingConversionService implements ConversionService {
+
+	private static final TypeDescriptor BYTE_ARRAY_TYPE = TypeDescriptor.valueOf(byte[].class);
+
+	private final ConversionService delegate;
+
+	private final SessionAttributeCompressor compressor;
+
+	/**
+	 * Create a new {@link CompressingConversionService} instance that compresses values
+	 * serialized using Java serialization, with a {@link SessionAttributeCompressor}
+	 * using its default settings.
+	 */
+	public CompressingConversionService() {
+		this(createSerializingConversionService(), new SessionAttributeCompressor());
+	}
+
+	/**
+	 * Create a new {@link CompressingConversionService} instance.
+	 * @param delegate the conversion service to compress the values of
+	 * @param compressor the compressor to use
+	 */
+	public CompressingConversionService(ConversionService delegate, SessionAttributeCompressor compressor) {
+		Assert.notNull(delegate, "delegate must not be null");
+		Assert.notNull(compressor, "compressor must not be null");
+		this.delegate = delegate;
+		this.compressor = compressor;
+	}
+
+	@Override
+	public boolean canConvert(@Nullable Class<?> sourceType, Class<?> targetType) {
+		return this.delegate.canConvert(sourceType, targetType);
+	}
+
+	@Override
+	public boolean canConvert(@Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+		return this.delegate.canConvert(sourceType, targetType);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> @Nullable T convert(@Nullable Object source, Class<T> targetType) {
+		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
+	}
+
+	@Override
+	public @Nullable Object convert(@Nullable Object source, @Nullable TypeDescriptor sourceType,
+			TypeDescriptor targetType) {
+		boolean toBytes = BYTE_ARRAY_TYPE.equals(targetType);
+		if (source instanceof byte[] bytes) {
+			return this.delegate.convert(toBytes ? bytes : this.compressor.decompress(bytes), sourceType, targetType);
+		}
+		if (toBytes) {
+			byte[] bytes = (byte[]) this.delegate.convert(source, sourceType, targetType);
+			return (bytes != null) ? this.compressor.compress(bytes) : null;
+		}
+		return this.delegate.convert(source, sourceType, targetType);
+	}
+
+	/**
+	 * Return the {@link SessionAttributeCompressor} used by this conversion service, for
+	 * example to monitor the compression ratio.
+	 * @return the compressor
+	 */
+	public SessionAttributeCompressor getCompressor() {
+		return this.compressor;
+	}
+
+	private static ConversionService createSerializingConversionService() {
+		GenericConversionService conversionService = new GenericConversionService();
+		conversionService.addConverter(Object.class, byte[].class, new SerializingConverter());
+		conversionService.addConverter(byte[].class, Object.class, new DeserializingConverter());
+		return conversionService;
+	}
+
+}
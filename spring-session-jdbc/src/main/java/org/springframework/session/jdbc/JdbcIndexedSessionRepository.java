@@ -19,24 +19,32 @@ package org.springframework.session.jdbc;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.IntSupplier;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jspecify.annotations.Nullable;
 
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.support.GenericConversionService;
@@ -47,7 +55,9 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.lob.DefaultLobHandler;
 import org.springframework.jdbc.support.lob.LobCreator;
 import org.springframework.jdbc.support.lob.LobHandler;
@@ -65,6 +75,14 @@ import org.springframework.session.SaveMode;
 import org.springframework.session.Session;
 import org.springframework.session.SessionIdGenerator;
 import org.springframework.session.UuidSessionIdGenerator;
+import org.springframework.session.events.SessionExpiredEvent;
+import org.springframework.session.observation.DefaultSessionRepositoryObservationConvention;
+import org.springframework.session.observation.SessionRepositoryObservationContext;
+import org.springframework.session.observation.SessionRepositoryObservationContext.Operation;
+import org.springframework.session.observation.SessionRepositoryObservationConvention;
+import org.springframework.session.observation.SessionRepositoryObservationDocumentation;
+import org.springframework.session.serializer.BinarySessionAttributeSerializer;
+import org.springframework.session.serializer.SessionAttributeSerializer;
 import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -72,7 +90,11 @@ import org.springframework.util.StringUtils;
 /**
  * A {@link org.springframework.session.SessionRepository} implementation that uses
  * Spring's {@link JdbcOperations} to store sessions in a relational database. This
- * implementation does not support publishing of session events.
+ * implementation only supports publishing of {@link SessionExpiredEvent} for the sessions
+ * removed by the expired session cleanup, see
+ * {@link #setApplicationEventPublisher(ApplicationEventPublisher)}.
+ * {@link org.springframework.session.events.SessionCreatedEvent} and
+ * {@link org.springframework.session.events.SessionDeletedEvent} are not published.
  * <p>
  * An example of how to create a new instance can be seen below:
  *
@@ -134,6 +156,10 @@ import org.springframework.util.StringUtils;
  * for most major database vendors are packaged as
  * <code>org/springframework/session/jdbc/schema-*.sql</code>, where <code>*</code> is the
  * target database type.
+ * <p>
+ * Alternatively, all attributes of a session can be stored in a single column of the
+ * session table, see {@link #setSingleTableStorage(boolean)}. The matching scripts are
+ * packaged as <code>org/springframework/session/jdbc/schema-single-table-*.sql</code>.
  *
  * @author Vedran Pavic
  * @author Craig Andrews
@@ -152,6 +178,18 @@ public class JdbcIndexedSessionRepository implements
 	 */
 	public static final String DEFAULT_CLEANUP_CRON = "0 * * * * *";
 
+	/**
+	 * The default maximum number of sessions saved in one batch.
+	 * @since 4.2
+	 */
+	public static final int DEFAULT_SAVE_BATCH_MAX_SIZE = 100;
+
+	/**
+	 * The default maximum number of sessions waiting to be saved in a batch.
+	 * @since 4.2
+	 */
+	public static final int DEFAULT_SAVE_BATCH_QUEUE_CAPACITY = 1000;
+
 	private static final String SPRING_SECURITY_CONTEXT = "SPRING_SECURITY_CONTEXT";
 
 	private static final String CREATE_SESSION_QUERY = """
@@ -171,6 +209,25 @@ public class JdbcIndexedSessionRepository implements
 			WHERE S.SESSION_ID = ?
 			""";
 
+	private static final String GET_SESSION_WITHOUT_ATTRIBUTES_QUERY = """
+			SELECT S.PRIMARY_ID, S.SESSION_ID, S.CREATION_TIME, S.LAST_ACCESS_TIME, S.MAX_INACTIVE_INTERVAL
+			FROM %TABLE_NAME% S
+			WHERE S.SESSION_ID = ?
+			""";
+
+	private static final String GET_SESSION_ATTRIBUTE_NAMES_QUERY = """
+			SELECT ATTRIBUTE_NAME
+			FROM %TABLE_NAME%_ATTRIBUTES
+			WHERE SESSION_PRIMARY_ID = ?
+			""";
+
+	private static final String GET_SESSION_ATTRIBUTE_QUERY = """
+			SELECT ATTRIBUTE_BYTES
+			FROM %TABLE_NAME%_ATTRIBUTES
+			WHERE SESSION_PRIMARY_ID = ?
+			AND ATTRIBUTE_NAME = ?
+			""";
+
 	private static final String UPDATE_SESSION_QUERY = """
 			UPDATE %TABLE_NAME%
 			SET SESSION_ID = ?, LAST_ACCESS_TIME = ?, MAX_INACTIVE_INTERVAL = ?, EXPIRY_TIME = ?, PRINCIPAL_NAME = ?
@@ -203,11 +260,74 @@ public class JdbcIndexedSessionRepository implements
 			WHERE S.PRINCIPAL_NAME = ?
 			""";
 
+	private static final String DELETE_SESSIONS_BY_EXPIRY_TIME_BATCH_QUERY = """
+			DELETE FROM %TABLE_NAME%
+			WHERE PRIMARY_ID IN (
+				SELECT PRIMARY_ID
+				FROM %TABLE_NAME%
+				WHERE EXPIRY_TIME < ?
+				FETCH FIRST %BATCH_SIZE% ROWS ONLY
+			)
+			""";
+
+	private static final String LIST_EXPIRED_SESSIONS_QUERY = """
+			SELECT S.PRIMARY_ID, S.SESSION_ID, S.CREATION_TIME, S.LAST_ACCESS_TIME, S.MAX_INACTIVE_INTERVAL
+			FROM %TABLE_NAME% S
+			WHERE S.EXPIRY_TIME < ?
+			""";
+
+	private static final String LIST_SESSIONS_BY_PRIMARY_IDS_QUERY = """
+			SELECT S.PRIMARY_ID, S.SESSION_ID, S.CREATION_TIME, S.LAST_ACCESS_TIME, S.MAX_INACTIVE_INTERVAL, SA.ATTRIBUTE_NAME, SA.ATTRIBUTE_BYTES
+			FROM %TABLE_NAME% S
+			LEFT JOIN %TABLE_NAME%_ATTRIBUTES SA ON S.PRIMARY_ID = SA.SESSION_PRIMARY_ID
+			WHERE S.PRIMARY_ID IN (%PRIMARY_IDS%)
+			ORDER BY S.PRIMARY_ID
+			""";
+
+	private static final String DELETE_EXPIRED_SESSION_QUERY = """
+			DELETE FROM %TABLE_NAME%
+			WHERE PRIMARY_ID = ?
+			AND EXPIRY_TIME < ?
+			""";
+
+	private static final String CREATE_SINGLE_TABLE_SESSION_QUERY = """
+			INSERT INTO %TABLE_NAME% (PRIMARY_ID, SESSION_ID, CREATION_TIME, LAST_ACCESS_TIME, MAX_INACTIVE_INTERVAL, EXPIRY_TIME, PRINCIPAL_NAME, ATTRIBUTE_BYTES)
+			VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+			""";
+
+	private static final String GET_SINGLE_TABLE_SESSION_QUERY = """
+			SELECT S.PRIMARY_ID, S.SESSION_ID, S.CREATION_TIME, S.LAST_ACCESS_TIME, S.MAX_INACTIVE_INTERVAL, S.ATTRIBUTE_BYTES
+			FROM %TABLE_NAME% S
+			WHERE S.SESSION_ID = ?
+			""";
+
+	private static final String UPDATE_SINGLE_TABLE_SESSION_QUERY = """
+			UPDATE %TABLE_NAME%
+			SET SESSION_ID = ?, LAST_ACCESS_TIME = ?, MAX_INACTIVE_INTERVAL = ?, EXPIRY_TIME = ?, PRINCIPAL_NAME = ?, ATTRIBUTE_BYTES = ?
+			WHERE PRIMARY_ID = ?
+			""";
+
+	private static final String LIST_SINGLE_TABLE_SESSIONS_BY_PRINCIPAL_NAME_QUERY = """
+			SELECT S.PRIMARY_ID, S.SESSION_ID, S.CREATION_TIME, S.LAST_ACCESS_TIME, S.MAX_INACTIVE_INTERVAL, S.ATTRIBUTE_BYTES
+			FROM %TABLE_NAME% S
+			WHERE S.PRINCIPAL_NAME = ?
+			""";
+
+	private static final String LIST_EXPIRED_SINGLE_TABLE_SESSIONS_QUERY = """
+			SELECT S.PRIMARY_ID, S.SESSION_ID, S.CREATION_TIME, S.LAST_ACCESS_TIME, S.MAX_INACTIVE_INTERVAL, S.ATTRIBUTE_BYTES
+			FROM %TABLE_NAME% S
+			WHERE S.EXPIRY_TIME < ?
+			""";
+
 	private static final String DELETE_SESSIONS_BY_EXPIRY_TIME_QUERY = """
 			DELETE FROM %TABLE_NAME%
 			WHERE EXPIRY_TIME < ?
 			""";
 
+	private static final int DEFAULT_CLEANUP_EVENTS_BATCH_SIZE = 100;
+
+	private static final String OBSERVATION_BACKEND = "jdbc";
+
 	private static final Log logger = LogFactory.getLog(JdbcIndexedSessionRepository.class);
 
 	private final JdbcOperations jdbcOperations;
@@ -227,6 +347,12 @@ public class JdbcIndexedSessionRepository implements
 
 	private String getSessionQuery;
 
+	private String getSessionWithoutAttributesQuery;
+
+	private String getSessionAttributeNamesQuery;
+
+	private String getSessionAttributeQuery;
+
 	private String updateSessionQuery;
 
 	private String updateSessionAttributeQuery;
@@ -239,6 +365,24 @@ public class JdbcIndexedSessionRepository implements
 
 	private String deleteSessionsByExpiryTimeQuery;
 
+	private String deleteSessionsByExpiryTimeBatchQuery;
+
+	private String listExpiredSessionsQuery;
+
+	private String listSessionsByPrimaryIdsQuery;
+
+	private String deleteExpiredSessionQuery;
+
+	private String createSingleTableSessionQuery;
+
+	private String getSingleTableSessionQuery;
+
+	private String updateSingleTableSessionQuery;
+
+	private String listSingleTableSessionsByPrincipalNameQuery;
+
+	private String listExpiredSingleTableSessionsQuery;
+
 	private Duration defaultMaxInactiveInterval = Duration.ofSeconds(MapSession.DEFAULT_MAX_INACTIVE_INTERVAL_SECONDS);
 
 	private IndexResolver<Session> indexResolver = new DelegatingIndexResolver<>(new PrincipalNameIndexResolver<>());
@@ -251,12 +395,42 @@ public class JdbcIndexedSessionRepository implements
 
 	private SaveMode saveMode = SaveMode.ON_SET_ATTRIBUTE;
 
+	private Duration touchGranularity = Duration.ZERO;
+
+	private boolean selectiveAttributeFetch;
+
+	private boolean singleTableStorage;
+
+	private boolean skipUnchangedAttributes;
+
+	private boolean loadExpiredSessionAttributes;
+
+	private Duration saveBatchWindow = Duration.ZERO;
+
+	private int saveBatchMaxSize = DEFAULT_SAVE_BATCH_MAX_SIZE;
+
+	private int saveBatchQueueCapacity = DEFAULT_SAVE_BATCH_QUEUE_CAPACITY;
+
+	private @Nullable SessionSaveBatcher<JdbcSession> saveBatcher;
+
 	private String cleanupCron = DEFAULT_CLEANUP_CRON;
 
+	private int cleanupBatchSize;
+
+	private Duration cleanupBatchInterval = Duration.ZERO;
+
+	private Duration cleanupTimeBudget = Duration.ZERO;
+
+	private @Nullable ApplicationEventPublisher eventPublisher;
+
 	private @Nullable ThreadPoolTaskScheduler taskScheduler;
 
 	private SessionIdGenerator sessionIdGenerator = UuidSessionIdGenerator.getInstance();
 
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	private @Nullable SessionRepositoryObservationConvention observationConvention;
+
 	/**
 	 * Create a new {@link JdbcIndexedSessionRepository} instance which uses the provided
 	 * {@link JdbcOperations} and {@link TransactionOperations} to manage sessions.
@@ -330,6 +504,39 @@ public class JdbcIndexedSessionRepository implements
 		this.getSessionQuery = getQuery(getSessionQuery);
 	}
 
+	/**
+	 * Set the custom SQL query used to retrieve the session without its attributes.
+	 * @param getSessionWithoutAttributesQuery the SQL query string
+	 * @since 4.2
+	 * @see #setSelectiveAttributeFetch(boolean)
+	 */
+	public void setGetSessionWithoutAttributesQuery(String getSessionWithoutAttributesQuery) {
+		Assert.hasText(getSessionWithoutAttributesQuery, "Query must not be empty");
+		this.getSessionWithoutAttributesQuery = getQuery(getSessionWithoutAttributesQuery);
+	}
+
+	/**
+	 * Set the custom SQL query used to retrieve the attribute names of the session.
+	 * @param getSessionAttributeNamesQuery the SQL query string
+	 * @since 4.2
+	 * @see #setSelectiveAttributeFetch(boolean)
+	 */
+	public void setGetSessionAttributeNamesQuery(String getSessionAttributeNamesQuery) {
+		Assert.hasText(getSessionAttributeNamesQuery, "Query must not be empty");
+		this.getSessionAttributeNamesQuery = getQuery(getSessionAttributeNamesQuery);
+	}
+
+	/**
+	 * Set the custom SQL query used to retrieve a single session attribute.
+	 * @param getSessionAttributeQuery the SQL query string
+	 * @since 4.2
+	 * @see #setSelectiveAttributeFetch(boolean)
+	 */
+	public void setGetSessionAttributeQuery(String getSessionAttributeQuery) {
+		Assert.hasText(getSessionAttributeQuery, "Query must not be empty");
+		this.getSessionAttributeQuery = getQuery(getSessionAttributeQuery);
+	}
+
 	/**
 	 * Set the custom SQL query used to update the session.
 	 * @param updateSessionQuery the SQL query string
@@ -384,6 +591,123 @@ public class JdbcIndexedSessionRepository implements
 		this.deleteSessionsByExpiryTimeQuery = getQuery(deleteSessionsByExpiryTimeQuery);
 	}
 
+	/**
+	 * Set the custom SQL query used to delete one batch of expired sessions. The
+	 * {@code %BATCH_SIZE%} placeholder is replaced with the configured cleanup batch
+	 * size. The default query limits the batch using {@code FETCH FIRST n ROWS ONLY},
+	 * which is not supported by every database, and waits for the sessions locked by
+	 * another transaction, as locking clauses are not portable in a subquery. The
+	 * database specific customizers in this package set a supported query, which skips
+	 * locked sessions where the database allows it.
+	 * @param deleteSessionsByExpiryTimeBatchQuery the SQL query string
+	 * @since 4.2
+	 * @see #setCleanupBatchSize(int)
+	 */
+	public void setDeleteSessionsByExpiryTimeBatchQuery(String deleteSessionsByExpiryTimeBatchQuery) {
+		Assert.hasText(deleteSessionsByExpiryTimeBatchQuery, "Query must not be empty");
+		this.deleteSessionsByExpiryTimeBatchQuery = getQuery(deleteSessionsByExpiryTimeBatchQuery);
+	}
+
+	/**
+	 * Set the custom SQL query used to retrieve expired sessions when publishing
+	 * {@link SessionExpiredEvent}.
+	 * @param listExpiredSessionsQuery the SQL query string
+	 * @since 4.2
+	 * @see #setApplicationEventPublisher(ApplicationEventPublisher)
+	 */
+	public void setListExpiredSessionsQuery(String listExpiredSessionsQuery) {
+		Assert.hasText(listExpiredSessionsQuery, "Query must not be empty");
+		this.listExpiredSessionsQuery = getQuery(listExpiredSessionsQuery);
+	}
+
+	/**
+	 * Set the custom SQL query used to retrieve expired sessions along with their
+	 * attributes when publishing {@link SessionExpiredEvent}. The query must contain a
+	 * {@code %PRIMARY_IDS%} placeholder, which is replaced by one parameter per session
+	 * of the batch, and return the rows of a session contiguously.
+	 * @param listSessionsByPrimaryIdsQuery the SQL query string
+	 * @since 4.2
+	 * @see #setLoadExpiredSessionAttributes(boolean)
+	 */
+	public void setListSessionsByPrimaryIdsQuery(String listSessionsByPrimaryIdsQuery) {
+		Assert.hasText(listSessionsByPrimaryIdsQuery, "Query must not be empty");
+		Assert.isTrue(listSessionsByPrimaryIdsQuery.contains("%PRIMARY_IDS%"),
+				"Query must contain the %PRIMARY_IDS% placeholder");
+		this.listSessionsByPrimaryIdsQuery = getQuery(listSessionsByPrimaryIdsQuery);
+	}
+
+	/**
+	 * Set the custom SQL query used to delete a single expired session when publishing
+	 * {@link SessionExpiredEvent}.
+	 * @param deleteExpiredSessionQuery the SQL query string
+	 * @since 4.2
+	 * @see #setApplicationEventPublisher(ApplicationEventPublisher)
+	 */
+	public void setDeleteExpiredSessionQuery(String deleteExpiredSessionQuery) {
+		Assert.hasText(deleteExpiredSessionQuery, "Query must not be empty");
+		this.deleteExpiredSessionQuery = getQuery(deleteExpiredSessionQuery);
+	}
+
+	/**
+	 * Set the custom SQL query used to create the session when using single table
+	 * storage.
+	 * @param createSingleTableSessionQuery the SQL query string
+	 * @since 4.2
+	 * @see #setSingleTableStorage(boolean)
+	 */
+	public void setCreateSingleTableSessionQuery(String createSingleTableSessionQuery) {
+		Assert.hasText(createSingleTableSessionQuery, "Query must not be empty");
+		this.createSingleTableSessionQuery = getQuery(createSingleTableSessionQuery);
+	}
+
+	/**
+	 * Set the custom SQL query used to retrieve the session when using single table
+	 * storage.
+	 * @param getSingleTableSessionQuery the SQL query string
+	 * @since 4.2
+	 * @see #setSingleTableStorage(boolean)
+	 */
+	public void setGetSingleTableSessionQuery(String getSingleTableSessionQuery) {
+		Assert.hasText(getSingleTableSessionQuery, "Query must not be empty");
+		this.getSingleTableSessionQuery = getQuery(getSingleTableSessionQuery);
+	}
+
+	/**
+	 * Set the custom SQL query used to update the session and its attributes when using
+	 * single table storage.
+	 * @param updateSingleTableSessionQuery the SQL query string
+	 * @since 4.2
+	 * @see #setSingleTableStorage(boolean)
+	 */
+	public void setUpdateSingleTableSessionQuery(String updateSingleTableSessionQuery) {
+		Assert.hasText(updateSingleTableSessionQuery, "Query must not be empty");
+		this.updateSingleTableSessionQuery = getQuery(updateSingleTableSessionQuery);
+	}
+
+	/**
+	 * Set the custom SQL query used to retrieve the sessions by principal name when using
+	 * single table storage.
+	 * @param listSingleTableSessionsByPrincipalNameQuery the SQL query string
+	 * @since 4.2
+	 * @see #setSingleTableStorage(boolean)
+	 */
+	public void setListSingleTableSessionsByPrincipalNameQuery(String listSingleTableSessionsByPrincipalNameQuery) {
+		Assert.hasText(listSingleTableSessionsByPrincipalNameQuery, "Query must not be empty");
+		this.listSingleTableSessionsByPrincipalNameQuery = getQuery(listSingleTableSessionsByPrincipalNameQuery);
+	}
+
+	/**
+	 * Set the custom SQL query used to retrieve expired sessions when publishing
+	 * {@link SessionExpiredEvent} and using single table storage.
+	 * @param listExpiredSingleTableSessionsQuery the SQL query string
+	 * @since 4.2
+	 * @see #setSingleTableStorage(boolean)
+	 */
+	public void setListExpiredSingleTableSessionsQuery(String listExpiredSingleTableSessionsQuery) {
+		Assert.hasText(listExpiredSingleTableSessionsQuery, "Query must not be empty");
+		this.listExpiredSingleTableSessionsQuery = getQuery(listExpiredSingleTableSessionsQuery);
+	}
+
 	/**
 	 * Set the maximum inactive interval in seconds between requests before newly created
 	 * sessions will be invalidated. A negative time indicates that the session will never
@@ -431,6 +755,23 @@ public class JdbcIndexedSessionRepository implements
 		this.conversionService = conversionService;
 	}
 
+	/**
+	 * Sets the {@link SessionAttributeSerializer} to use, for example a
+	 * {@link BinarySessionAttributeSerializer}. This replaces the
+	 * {@link #setConversionService(ConversionService) conversion service} with one that
+	 * converts attribute values using the given serializer.
+	 * @param attributeSerializer the serializer to use
+	 * @since 4.2
+	 */
+	@SuppressWarnings("NullAway") // Converters may return null
+	public void setAttributeSerializer(SessionAttributeSerializer attributeSerializer) {
+		Assert.notNull(attributeSerializer, "attributeSerializer must not be null");
+		GenericConversionService conversionService = new GenericConversionService();
+		conversionService.addConverter(Object.class, byte[].class, attributeSerializer::serialize);
+		conversionService.addConverter(byte[].class, Object.class, attributeSerializer::deserialize);
+		this.conversionService = conversionService;
+	}
+
 	/**
 	 * Set the flush mode. Default is {@link FlushMode#ON_SAVE}.
 	 * @param flushMode the flush mode
@@ -449,6 +790,133 @@ public class JdbcIndexedSessionRepository implements
 		this.saveMode = saveMode;
 	}
 
+	/**
+	 * Set the minimum amount of time by which the last accessed time of a session must
+	 * have advanced for it to be saved when it is the only change to the session. This
+	 * spares the update of the session row for requests that merely access a session, at
+	 * the cost of sessions expiring up to the given amount of time earlier than their
+	 * maximum inactive interval implies. The touch granularity is limited to half of the
+	 * maximum inactive interval of each session, so that a session that keeps being
+	 * accessed does not expire. Default is {@link Duration#ZERO}, which saves every
+	 * change of the last accessed time.
+	 * @param touchGranularity the touch granularity
+	 * @since 4.2
+	 */
+	public void setTouchGranularity(Duration touchGranularity) {
+		Assert.notNull(touchGranularity, "touchGranularity must not be null");
+		Assert.isTrue(!touchGranularity.isNegative(), "touchGranularity must not be negative");
+		this.touchGranularity = touchGranularity;
+	}
+
+	private Duration getTouchGranularity(Duration maxInactiveInterval) {
+		if (maxInactiveInterval.isNegative() || maxInactiveInterval.isZero()) {
+			return this.touchGranularity;
+		}
+		Duration maxTouchGranularity = maxInactiveInterval.dividedBy(2);
+		return (this.touchGranularity.compareTo(maxTouchGranularity) > 0) ? maxTouchGranularity : this.touchGranularity;
+	}
+
+	/**
+	 * Set whether {@link #findById(String)} should only retrieve the session row, rather
+	 * than joining it with all of its attributes. When enabled, the names of the
+	 * attributes are retrieved the first time they are needed and the value of each
+	 * attribute is retrieved individually the first time it is read, so that a request
+	 * does not transfer the attributes it does not use. Default is {@code false}.
+	 * @param selectiveAttributeFetch whether to retrieve attributes on demand
+	 * @since 4.2
+	 */
+	public void setSelectiveAttributeFetch(boolean selectiveAttributeFetch) {
+		this.selectiveAttributeFetch = selectiveAttributeFetch;
+	}
+
+	/**
+	 * Set whether all attributes of a session should be stored in the
+	 * {@code ATTRIBUTE_BYTES} column of the session table, rather than in one row of the
+	 * attributes table per attribute. Sessions are then retrieved by a single primary key
+	 * lookup and saved by a single statement, at the cost of writing all attributes of
+	 * the session whenever one of them changes. As each save replaces all attributes with
+	 * those of the saving request, concurrent requests that change different attributes
+	 * of the same session overwrite each other's changes, which the attributes table
+	 * prevents. This requires a session table created using one of the
+	 * <code>org/springframework/session/jdbc/schema-single-table-*.sql</code> scripts.
+	 * When enabled, {@link #setSelectiveAttributeFetch(boolean)} has no effect. Default
+	 * is {@code false}.
+	 * @param singleTableStorage whether to store the attributes in the session table
+	 * @since 4.2
+	 * @see SingleTableJdbcIndexedSessionRepositoryCustomizer
+	 */
+	public void setSingleTableStorage(boolean singleTableStorage) {
+		this.singleTableStorage = singleTableStorage;
+	}
+
+	/**
+	 * Set whether attributes that are written back without having been changed should be
+	 * skipped when saving a session. When enabled, the serialized value of each attribute
+	 * is retained when the session is retrieved. When the session is saved, each
+	 * attribute that is about to be updated is serialized and only written if its bytes
+	 * differ from the retained ones, and attributes that were never read are not written
+	 * at all. This is mostly useful with {@link SaveMode#ON_GET_ATTRIBUTE} or
+	 * {@link SaveMode#ALWAYS}, as it still detects in-place changes to attribute values
+	 * without rewriting every attribute on each request. Default is {@code false}.
+	 * @param skipUnchangedAttributes whether to skip writing unchanged attributes
+	 * @since 4.2
+	 */
+	public void setSkipUnchangedAttributes(boolean skipUnchangedAttributes) {
+		this.skipUnchangedAttributes = skipUnchangedAttributes;
+	}
+
+	/**
+	 * Set the time to wait for saves of other sessions to join a batch before the batch
+	 * is written. When set to a positive value, saves issued by concurrent requests are
+	 * written as combined JDBC batches in a single transaction, and each save blocks
+	 * until the batch containing it has been committed. This trades a little latency for
+	 * fewer transactions when sessions are saved at a high rate. Default is
+	 * {@link Duration#ZERO}, which writes each session in its own transaction.
+	 * @param saveBatchWindow the time to wait for further saves
+	 * @since 4.2
+	 */
+	public void setSaveBatchWindow(Duration saveBatchWindow) {
+		Assert.notNull(saveBatchWindow, "saveBatchWindow must not be null");
+		Assert.isTrue(!saveBatchWindow.isNegative(), "saveBatchWindow must not be negative");
+		this.saveBatchWindow = saveBatchWindow;
+		this.saveBatcher = createSaveBatcher();
+	}
+
+	/**
+	 * Set the maximum number of sessions written in one batch. Default is
+	 * {@link #DEFAULT_SAVE_BATCH_MAX_SIZE}.
+	 * @param saveBatchMaxSize the maximum batch size
+	 * @since 4.2
+	 * @see #setSaveBatchWindow(Duration)
+	 */
+	public void setSaveBatchMaxSize(int saveBatchMaxSize) {
+		Assert.isTrue(saveBatchMaxSize > 0, "saveBatchMaxSize must be greater than 0");
+		this.saveBatchMaxSize = saveBatchMaxSize;
+		this.saveBatcher = createSaveBatcher();
+	}
+
+	/**
+	 * Set the maximum number of sessions waiting to be written in a batch. Once reached,
+	 * further saves block until pending sessions have been written. Default is
+	 * {@link #DEFAULT_SAVE_BATCH_QUEUE_CAPACITY}.
+	 * @param saveBatchQueueCapacity the maximum number of pending saves
+	 * @since 4.2
+	 * @see #setSaveBatchWindow(Duration)
+	 */
+	public void setSaveBatchQueueCapacity(int saveBatchQueueCapacity) {
+		Assert.isTrue(saveBatchQueueCapacity > 0, "saveBatchQueueCapacity must be greater than 0");
+		this.saveBatchQueueCapacity = saveBatchQueueCapacity;
+		this.saveBatcher = createSaveBatcher();
+	}
+
+	private @Nullable SessionSaveBatcher<JdbcSession> createSaveBatcher() {
+		if (this.saveBatchWindow.isZero()) {
+			return null;
+		}
+		return new SessionSaveBatcher<>(this.saveBatchWindow, this.saveBatchMaxSize, this.saveBatchQueueCapacity,
+				this::saveAll, JdbcSession::save);
+	}
+
 	/**
 	 * Set the cleanup cron expression.
 	 * @param cleanupCron the cleanup cron expression
@@ -464,6 +932,109 @@ public class JdbcIndexedSessionRepository implements
 		this.cleanupCron = cleanupCron;
 	}
 
+	/**
+	 * Set the maximum number of expired sessions deleted by a single statement. When set,
+	 * the cleanup deletes expired sessions in batches, each in its own transaction, until
+	 * a batch deletes fewer sessions than the batch size. This bounds the locks held by
+	 * the cleanup. Default is {@code 0}, which deletes all expired sessions using a
+	 * single statement.
+	 * @param cleanupBatchSize the cleanup batch size
+	 * @since 4.2
+	 * @see #setDeleteSessionsByExpiryTimeBatchQuery(String)
+	 */
+	public void setCleanupBatchSize(int cleanupBatchSize) {
+		Assert.isTrue(cleanupBatchSize >= 0, "cleanupBatchSize must not be negative");
+		this.cleanupBatchSize = cleanupBatchSize;
+	}
+
+	/**
+	 * Set the pause between two batches of the cleanup, so that it does not compete with
+	 * requests for the database. Only applies when a cleanup batch size is set. Default
+	 * is {@link Duration#ZERO}.
+	 * @param cleanupBatchInterval the pause between two cleanup batches
+	 * @since 4.2
+	 */
+	public void setCleanupBatchInterval(Duration cleanupBatchInterval) {
+		Assert.notNull(cleanupBatchInterval, "cleanupBatchInterval must not be null");
+		Assert.isTrue(!cleanupBatchInterval.isNegative(), "cleanupBatchInterval must not be negative");
+		this.cleanupBatchInterval = cleanupBatchInterval;
+	}
+
+	/**
+	 * Set the maximum duration of a single cleanup run. Once exceeded, no further batch
+	 * is started and the remaining expired sessions are left to the next run. Only
+	 * applies when a cleanup batch size is set. Default is {@link Duration#ZERO}, which
+	 * does not limit the duration of a run.
+	 * @param cleanupTimeBudget the maximum duration of a cleanup run
+	 * @since 4.2
+	 */
+	public void setCleanupTimeBudget(Duration cleanupTimeBudget) {
+		Assert.notNull(cleanupTimeBudget, "cleanupTimeBudget must not be null");
+		Assert.isTrue(!cleanupTimeBudget.isNegative(), "cleanupTimeBudget must not be negative");
+		this.cleanupTimeBudget = cleanupTimeBudget;
+	}
+
+	/**
+	 * Set the {@link ApplicationEventPublisher} that is used to publish a
+	 * {@link SessionExpiredEvent} for each session removed by the expired session
+	 * cleanup. Expired sessions are then retrieved in batches of the configured cleanup
+	 * batch size and deleted, and an event is published for each session that was
+	 * actually deleted, so that a session whose expiry time has been extended in the
+	 * meantime or that has been deleted by another instance does not publish an event.
+	 * Unless {@link #setLoadExpiredSessionAttributes(boolean)} is enabled or single table
+	 * storage is used, the sessions of these events have no attributes. No
+	 * {@link org.springframework.session.events.SessionDeletedEvent} is published,
+	 * neither by the cleanup nor by {@link #deleteById(String)}. The default is to not
+	 * publish any event.
+	 * @param applicationEventPublisher the {@link ApplicationEventPublisher} that is used
+	 * to publish {@link SessionExpiredEvent}. Cannot be null.
+	 * @since 4.2
+	 */
+	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+		Assert.notNull(applicationEventPublisher, "applicationEventPublisher cannot be null");
+		this.eventPublisher = applicationEventPublisher;
+	}
+
+	/**
+	 * Set whether the attributes of the expired sessions should be retrieved before they
+	 * are deleted, so that they are available to the listeners of
+	 * {@link SessionExpiredEvent}. The attributes of each cleanup batch are then
+	 * retrieved by a single additional query, see
+	 * {@link #setListSessionsByPrimaryIdsQuery(String)}. Has no effect when using single
+	 * table storage, where the attributes are always retrieved, or when no
+	 * {@link #setApplicationEventPublisher(ApplicationEventPublisher) event publisher} is
+	 * set. Default is {@code false}.
+	 * @param loadExpiredSessionAttributes whether to retrieve the attributes of expired
+	 * sessions
+	 * @since 4.2
+	 */
+	public void setLoadExpiredSessionAttributes(boolean loadExpiredSessionAttributes) {
+		this.loadExpiredSessionAttributes = loadExpiredSessionAttributes;
+	}
+
+	/**
+	 * Set the {@link ObservationRegistry} used to observe {@code findById}, {@code save},
+	 * {@code deleteById}, {@code findByIndexNameAndIndexValue} and the expired session
+	 * cleanup. Default is {@link ObservationRegistry#NOOP}.
+	 * @param observationRegistry the observation registry to use
+	 * @since 4.2
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * Set a custom {@link SessionRepositoryObservationConvention} to use instead of the
+	 * {@link DefaultSessionRepositoryObservationConvention}.
+	 * @param observationConvention the observation convention to use
+	 * @since 4.2
+	 */
+	public void setObservationConvention(SessionRepositoryObservationConvention observationConvention) {
+		Assert.notNull(observationConvention, "observationConvention cannot be null");
+		this.observationConvention = observationConvention;
+	}
+
 	@Override
 	public JdbcSession createSession() {
 		MapSession delegate = new MapSession(this.sessionIdGenerator);
@@ -475,15 +1046,66 @@ public class JdbcIndexedSessionRepository implements
 
 	@Override
 	public void save(final JdbcSession session) {
-		session.save();
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.SAVE);
+		Observation observation = createObservation(context);
+		if (!observation.isNoop()) {
+			context.setAttributeCount(session.delegate.getAttributeNames().size());
+			context.setDeltaSize(session.getDelta().size());
+		}
+		observation.observe(() -> doSave(session));
+	}
+
+	private void doSave(JdbcSession session) {
+		if (this.saveBatcher != null && session.hasPendingChanges()) {
+			this.saveBatcher.save(session);
+		}
+		else {
+			session.save();
+		}
+	}
+
+	private void saveAll(List<JdbcSession> sessions) {
+		SessionWrites writes = new SessionWrites(false);
+		sessions.forEach(writes::add);
+		if (!writes.isEmpty()) {
+			this.transactionOperations.executeWithoutResult((status) -> writes.execute());
+		}
+		sessions.forEach(JdbcSession::clearChangeFlags);
 	}
 
 	@Override
 	public @Nullable JdbcSession findById(final String id) {
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.FIND_BY_ID);
+		Observation observation = createObservation(context);
+		return observation.observe(() -> {
+			JdbcSession session = doFindById(id);
+			if (session != null && !observation.isNoop()) {
+				context.setAttributeCount(session.delegate.getAttributeNames().size());
+			}
+			return session;
+		});
+	}
+
+	private @Nullable JdbcSession doFindById(String id) {
 		final JdbcSession session = this.transactionOperations.execute((status) -> {
-			List<JdbcSession> sessions = JdbcIndexedSessionRepository.this.jdbcOperations.query(
-					JdbcIndexedSessionRepository.this.getSessionQuery, (ps) -> ps.setString(1, id),
-					JdbcIndexedSessionRepository.this.extractor);
+			List<JdbcSession> sessions;
+			if (JdbcIndexedSessionRepository.this.singleTableStorage) {
+				sessions = JdbcIndexedSessionRepository.this.jdbcOperations.query(
+						JdbcIndexedSessionRepository.this.getSingleTableSessionQuery, (ps) -> ps.setString(1, id),
+						(rs, rowNum) -> mapSingleTableSession(rs));
+			}
+			else if (JdbcIndexedSessionRepository.this.selectiveAttributeFetch) {
+				sessions = JdbcIndexedSessionRepository.this.jdbcOperations.query(
+						JdbcIndexedSessionRepository.this.getSessionWithoutAttributesQuery, (ps) -> ps.setString(1, id),
+						(rs, rowNum) -> mapSessionWithoutAttributes(rs, false));
+			}
+			else {
+				sessions = JdbcIndexedSessionRepository.this.jdbcOperations.query(
+						JdbcIndexedSessionRepository.this.getSessionQuery, (ps) -> ps.setString(1, id),
+						JdbcIndexedSessionRepository.this.extractor);
+			}
 			if (sessions.isEmpty()) {
 				return null;
 			}
@@ -492,7 +1114,7 @@ public class JdbcIndexedSessionRepository implements
 
 		if (session != null) {
 			if (session.isExpired()) {
-				deleteById(id);
+				doDeleteById(id);
 			}
 			else {
 				return session;
@@ -501,8 +1123,51 @@ public class JdbcIndexedSessionRepository implements
 		return null;
 	}
 
+	private JdbcSession mapSessionWithoutAttributes(ResultSet rs, boolean attributesLoaded) throws SQLException {
+		MapSession delegate = new MapSession(rs.getString("SESSION_ID"));
+		delegate.setCreationTime(Instant.ofEpochMilli(rs.getLong("CREATION_TIME")));
+		delegate.setLastAccessedTime(Instant.ofEpochMilli(rs.getLong("LAST_ACCESS_TIME")));
+		delegate.setMaxInactiveInterval(Duration.ofSeconds(rs.getInt("MAX_INACTIVE_INTERVAL")));
+		return new JdbcSession(delegate, rs.getString("PRIMARY_ID"), false, attributesLoaded);
+	}
+
+	private JdbcSession mapSingleTableSession(ResultSet rs) throws SQLException {
+		MapSession delegate = new MapSession(rs.getString("SESSION_ID"));
+		delegate.setCreationTime(Instant.ofEpochMilli(rs.getLong("CREATION_TIME")));
+		delegate.setLastAccessedTime(Instant.ofEpochMilli(rs.getLong("LAST_ACCESS_TIME")));
+		delegate.setMaxInactiveInterval(Duration.ofSeconds(rs.getInt("MAX_INACTIVE_INTERVAL")));
+		byte[] bytes = getLobHandler().getBlobAsBytes(rs, "ATTRIBUTE_BYTES");
+		Map<String, byte[]> attributes = (bytes != null) ? SessionAttributesCodec.decode(bytes)
+				: Collections.emptyMap();
+		attributes.forEach((attributeName, attributeBytes) -> delegate.setAttribute(attributeName,
+				lazily(() -> deserialize(attributeBytes))));
+		JdbcSession session = new JdbcSession(delegate, rs.getString("PRIMARY_ID"), false);
+		session.storedAttributes = attributes;
+		return session;
+	}
+
+	private List<String> getSessionAttributeNames(String primaryKey) {
+		List<String> attributeNames = this.transactionOperations.execute((status) -> this.jdbcOperations
+			.queryForList(this.getSessionAttributeNamesQuery, String.class, primaryKey));
+		return (attributeNames != null) ? attributeNames : Collections.emptyList();
+	}
+
+	private byte @Nullable [] getSessionAttributeBytes(String primaryKey, String attributeName) {
+		List<byte[]> attributeBytes = this.transactionOperations
+			.execute((status) -> this.jdbcOperations.query(this.getSessionAttributeQuery, (ps) -> {
+				ps.setString(1, primaryKey);
+				ps.setString(2, attributeName);
+			}, (rs, rowNum) -> getLobHandler().getBlobAsBytes(rs, "ATTRIBUTE_BYTES")));
+		return (attributeBytes != null && !attributeBytes.isEmpty()) ? attributeBytes.get(0) : null;
+	}
+
 	@Override
 	public void deleteById(final String id) {
+		createObservation(new SessionRepositoryObservationContext(OBSERVATION_BACKEND, Operation.DELETE_BY_ID))
+			.observe(() -> doDeleteById(id));
+	}
+
+	private void doDeleteById(String id) {
 		this.transactionOperations.executeWithoutResult((status) -> JdbcIndexedSessionRepository.this.jdbcOperations
 			.update(JdbcIndexedSessionRepository.this.deleteSessionQuery, id));
 	}
@@ -512,11 +1177,26 @@ public class JdbcIndexedSessionRepository implements
 		if (!PRINCIPAL_NAME_INDEX_NAME.equals(indexName)) {
 			return Collections.emptyMap();
 		}
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.FIND_BY_INDEX_NAME_AND_INDEX_VALUE);
+		return createObservation(context).observe(() -> {
+			Map<String, JdbcSession> sessions = doFindByPrincipalName(indexValue);
+			context.setResultCount(sessions.size());
+			return sessions;
+		});
+	}
 
-		List<JdbcSession> sessions = this.transactionOperations
-			.execute((status) -> JdbcIndexedSessionRepository.this.jdbcOperations.query(
+	private Map<String, JdbcSession> doFindByPrincipalName(String indexValue) {
+		List<JdbcSession> sessions = this.transactionOperations.execute((status) -> {
+			if (JdbcIndexedSessionRepository.this.singleTableStorage) {
+				return JdbcIndexedSessionRepository.this.jdbcOperations.query(
+						JdbcIndexedSessionRepository.this.listSingleTableSessionsByPrincipalNameQuery,
+						(ps) -> ps.setString(1, indexValue), (rs, rowNum) -> mapSingleTableSession(rs));
+			}
+			return JdbcIndexedSessionRepository.this.jdbcOperations.query(
 					JdbcIndexedSessionRepository.this.listSessionsByPrincipalNameQuery,
-					(ps) -> ps.setString(1, indexValue), JdbcIndexedSessionRepository.this.extractor));
+					(ps) -> ps.setString(1, indexValue), JdbcIndexedSessionRepository.this.extractor);
+		});
 
 		Map<String, JdbcSession> sessionMap = new HashMap<>(sessions.size());
 
@@ -527,133 +1207,262 @@ public class JdbcIndexedSessionRepository implements
 		return sessionMap;
 	}
 
-	private void insertSessionAttributes(JdbcSession session, List<String> attributeNames) {
-		Assert.notEmpty(attributeNames, "attributeNames must not be null or empty");
+	private void insertSessions(List<JdbcSession> sessions) {
+		executeUpdate(this.createSessionQuery, sessions, (ps, session) -> {
+			Map<String, String> indexes = this.indexResolver.resolveIndexesFor(session);
+			ps.setString(1, session.primaryKey);
+			ps.setString(2, session.getId());
+			ps.setLong(3, session.getCreationTime().toEpochMilli());
+			ps.setLong(4, session.getLastAccessedTime().toEpochMilli());
+			ps.setInt(5, (int) session.getMaxInactiveInterval().getSeconds());
+			ps.setLong(6, session.getExpiryTime().toEpochMilli());
+			ps.setString(7, indexes.get(PRINCIPAL_NAME_INDEX_NAME));
+		});
+	}
+
+	private void updateSessions(List<JdbcSession> sessions) {
+		executeUpdate(this.updateSessionQuery, sessions, (ps, session) -> {
+			Map<String, String> indexes = this.indexResolver.resolveIndexesFor(session);
+			ps.setString(1, session.getId());
+			ps.setLong(2, session.getLastAccessedTime().toEpochMilli());
+			ps.setInt(3, (int) session.getMaxInactiveInterval().getSeconds());
+			ps.setLong(4, session.getExpiryTime().toEpochMilli());
+			ps.setString(5, indexes.get(PRINCIPAL_NAME_INDEX_NAME));
+			ps.setString(6, session.primaryKey);
+		});
+	}
+
+	private void insertSingleTableSessions(List<JdbcSession> sessions) {
 		try (LobCreator lobCreator = this.lobHandler.getLobCreator()) {
-			if (attributeNames.size() > 1) {
-				try {
-					this.jdbcOperations.batchUpdate(this.createSessionAttributeQuery,
-							new BatchPreparedStatementSetter() {
-
-								@Override
-								public void setValues(PreparedStatement ps, int i) throws SQLException {
-									String attributeName = attributeNames.get(i);
-									ps.setString(1, session.primaryKey);
-									ps.setString(2, attributeName);
-									lobCreator.setBlobAsBytes(ps, 3, serialize(session.getAttribute(attributeName)));
-								}
-
-								@Override
-								public int getBatchSize() {
-									return attributeNames.size();
-								}
-
-							});
-				}
-				catch (DuplicateKeyException ex) {
-					throw ex;
-				}
-				catch (DataIntegrityViolationException ex) {
-					// parent record not found - we are ignoring this error because we
-					// assume that a concurrent request has removed the session
-					if (logger.isTraceEnabled()) {
-						logger.trace("Not able to create session attributes", ex);
-					}
-				}
+			executeUpdate(this.createSingleTableSessionQuery, sessions, (ps, session) -> {
+				Map<String, String> indexes = this.indexResolver.resolveIndexesFor(session);
+				ps.setString(1, session.primaryKey);
+				ps.setString(2, session.getId());
+				ps.setLong(3, session.getCreationTime().toEpochMilli());
+				ps.setLong(4, session.getLastAccessedTime().toEpochMilli());
+				ps.setInt(5, (int) session.getMaxInactiveInterval().getSeconds());
+				ps.setLong(6, session.getExpiryTime().toEpochMilli());
+				ps.setString(7, indexes.get(PRINCIPAL_NAME_INDEX_NAME));
+				lobCreator.setBlobAsBytes(ps, 8, session.encodeAttributes());
+			});
+		}
+	}
+
+	private void updateSingleTableSessions(List<JdbcSession> sessions) {
+		try (LobCreator lobCreator = this.lobHandler.getLobCreator()) {
+			executeUpdate(this.updateSingleTableSessionQuery, sessions, (ps, session) -> {
+				Map<String, String> indexes = this.indexResolver.resolveIndexesFor(session);
+				ps.setString(1, session.getId());
+				ps.setLong(2, session.getLastAccessedTime().toEpochMilli());
+				ps.setInt(3, (int) session.getMaxInactiveInterval().getSeconds());
+				ps.setLong(4, session.getExpiryTime().toEpochMilli());
+				ps.setString(5, indexes.get(PRINCIPAL_NAME_INDEX_NAME));
+				lobCreator.setBlobAsBytes(ps, 6, session.encodeAttributes());
+				ps.setString(7, session.primaryKey);
+			});
+		}
+	}
+
+	private void insertSessionAttributes(List<SessionAttribute> attributes, boolean ignoreMissingSessions) {
+		Assert.notEmpty(attributes, "attributes must not be null or empty");
+		try (LobCreator lobCreator = this.lobHandler.getLobCreator()) {
+			try {
+				executeUpdate(this.createSessionAttributeQuery, attributes, (ps, attribute) -> {
+					ps.setString(1, attribute.session.primaryKey);
+					ps.setString(2, attribute.name);
+					lobCreator.setBlobAsBytes(ps, 3, attribute.session.serializeAttribute(attribute.name));
+				});
 			}
-			else {
-				try {
-					this.jdbcOperations.update(this.createSessionAttributeQuery, (ps) -> {
-						String attributeName = attributeNames.get(0);
-						ps.setString(1, session.primaryKey);
-						ps.setString(2, attributeName);
-						lobCreator.setBlobAsBytes(ps, 3, serialize(session.getAttribute(attributeName)));
-					});
-				}
-				catch (DuplicateKeyException ex) {
+			catch (DuplicateKeyException ex) {
+				throw ex;
+			}
+			catch (DataIntegrityViolationException ex) {
+				if (!ignoreMissingSessions) {
 					throw ex;
 				}
-				catch (DataIntegrityViolationException ex) {
-					// parent record not found - we are ignoring this error because we
-					// assume that a concurrent request has removed the session
-					if (logger.isTraceEnabled()) {
-						logger.trace("Not able to create session attributes", ex);
-					}
+				// parent record not found - we are ignoring this error because we
+				// assume that a concurrent request has removed the session
+				if (logger.isTraceEnabled()) {
+					logger.trace("Not able to create session attributes", ex);
 				}
 			}
 		}
 	}
 
-	private void updateSessionAttributes(JdbcSession session, List<String> attributeNames) {
-		Assert.notEmpty(attributeNames, "attributeNames must not be null or empty");
+	private void updateSessionAttributes(List<SessionAttribute> attributes) {
+		Assert.notEmpty(attributes, "attributes must not be null or empty");
 		try (LobCreator lobCreator = this.lobHandler.getLobCreator()) {
-			if (attributeNames.size() > 1) {
-				this.jdbcOperations.batchUpdate(this.updateSessionAttributeQuery, new BatchPreparedStatementSetter() {
-
-					@Override
-					public void setValues(PreparedStatement ps, int i) throws SQLException {
-						String attributeName = attributeNames.get(i);
-						lobCreator.setBlobAsBytes(ps, 1, serialize(session.getAttribute(attributeName)));
-						ps.setString(2, session.primaryKey);
-						ps.setString(3, attributeName);
-					}
-
-					@Override
-					public int getBatchSize() {
-						return attributeNames.size();
-					}
-
-				});
-			}
-			else {
-				this.jdbcOperations.update(this.updateSessionAttributeQuery, (ps) -> {
-					String attributeName = attributeNames.get(0);
-					lobCreator.setBlobAsBytes(ps, 1, serialize(session.getAttribute(attributeName)));
-					ps.setString(2, session.primaryKey);
-					ps.setString(3, attributeName);
-				});
-			}
+			executeUpdate(this.updateSessionAttributeQuery, attributes, (ps, attribute) -> {
+				lobCreator.setBlobAsBytes(ps, 1, attribute.session.serializeAttribute(attribute.name));
+				ps.setString(2, attribute.session.primaryKey);
+				ps.setString(3, attribute.name);
+			});
 		}
 	}
 
-	private void deleteSessionAttributes(JdbcSession session, List<String> attributeNames) {
-		Assert.notEmpty(attributeNames, "attributeNames must not be null or empty");
-		if (attributeNames.size() > 1) {
-			this.jdbcOperations.batchUpdate(this.deleteSessionAttributeQuery, new BatchPreparedStatementSetter() {
+	private void deleteSessionAttributes(List<SessionAttribute> attributes) {
+		Assert.notEmpty(attributes, "attributes must not be null or empty");
+		executeUpdate(this.deleteSessionAttributeQuery, attributes, (ps, attribute) -> {
+			ps.setString(1, attribute.session.primaryKey);
+			ps.setString(2, attribute.name);
+		});
+	}
+
+	private <T> int[] executeUpdate(String sql, List<T> items, ParameterizedPreparedStatementSetter<T> setter) {
+		if (items.size() > 1) {
+			return this.jdbcOperations.batchUpdate(sql, new BatchPreparedStatementSetter() {
 
 				@Override
 				public void setValues(PreparedStatement ps, int i) throws SQLException {
-					String attributeName = attributeNames.get(i);
-					ps.setString(1, session.primaryKey);
-					ps.setString(2, attributeName);
+					setter.setValues(ps, items.get(i));
 				}
 
 				@Override
 				public int getBatchSize() {
-					return attributeNames.size();
+					return items.size();
 				}
 
 			});
 		}
+		return new int[] { this.jdbcOperations.update(sql, (ps) -> setter.setValues(ps, items.get(0))) };
+	}
+
+	public void cleanUpExpiredSessions() {
+		SessionRepositoryObservationContext context = new SessionRepositoryObservationContext(OBSERVATION_BACKEND,
+				Operation.CLEANUP);
+		createObservation(context).observe(() -> context.setResultCount(doCleanUpExpiredSessions()));
+	}
+
+	private int doCleanUpExpiredSessions() {
+		long expiryTime = System.currentTimeMillis();
+		Integer deletedCount;
+		if (this.eventPublisher != null) {
+			ApplicationEventPublisher eventPublisher = this.eventPublisher;
+			int batchSize = (this.cleanupBatchSize > 0) ? this.cleanupBatchSize : DEFAULT_CLEANUP_EVENTS_BATCH_SIZE;
+			deletedCount = cleanUpExpiredSessionsInBatches(batchSize,
+					() -> cleanUpExpiredSessionsWithEvents(expiryTime, batchSize, eventPublisher));
+		}
+		else if (this.cleanupBatchSize > 0) {
+			String query = StringUtils.replace(this.deleteSessionsByExpiryTimeBatchQuery, "%BATCH_SIZE%",
+					String.valueOf(this.cleanupBatchSize));
+			deletedCount = cleanUpExpiredSessionsInBatches(this.cleanupBatchSize, () -> {
+				Integer batchCount = this.transactionOperations
+					.execute((status) -> this.jdbcOperations.update(query, expiryTime));
+				return (batchCount != null) ? batchCount : 0;
+			});
+		}
 		else {
-			this.jdbcOperations.update(this.deleteSessionAttributeQuery, (ps) -> {
-				String attributeName = attributeNames.get(0);
+			deletedCount = this.transactionOperations
+				.execute((status) -> JdbcIndexedSessionRepository.this.jdbcOperations
+					.update(JdbcIndexedSessionRepository.this.deleteSessionsByExpiryTimeQuery, expiryTime));
+		}
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Cleaned up " + deletedCount + " expired sessions");
+		}
+		return (deletedCount != null) ? deletedCount : 0;
+	}
+
+	private int cleanUpExpiredSessionsWithEvents(long expiryTime, int batchSize,
+			ApplicationEventPublisher eventPublisher) {
+		String query = this.singleTableStorage ? this.listExpiredSingleTableSessionsQuery
+				: this.listExpiredSessionsQuery;
+		RowMapper<JdbcSession> rowMapper = this.singleTableStorage ? (rs, rowNum) -> mapSingleTableSession(rs)
+				: (rs, rowNum) -> mapSessionWithoutAttributes(rs, true);
+		List<JdbcSession> deletedSessions = this.transactionOperations.execute((status) -> {
+			List<JdbcSession> sessions = this.jdbcOperations.query((connection) -> {
+				PreparedStatement ps = connection.prepareStatement(query);
+				ps.setMaxRows(batchSize);
+				ps.setFetchSize(batchSize);
+				ps.setLong(1, expiryTime);
+				return ps;
+			}, rowMapper);
+			if (!this.singleTableStorage && this.loadExpiredSessionAttributes && !sessions.isEmpty()) {
+				// the attributes are deleted along with the session, so retrieve them for
+				// the listeners beforehand
+				sessions = loadAttributes(sessions);
+			}
+			if (sessions.isEmpty()) {
+				return Collections.<JdbcSession>emptyList();
+			}
+			int[] updateCounts = executeUpdate(this.deleteExpiredSessionQuery, sessions, (ps, session) -> {
 				ps.setString(1, session.primaryKey);
-				ps.setString(2, attributeName);
+				ps.setLong(2, expiryTime);
 			});
+			List<JdbcSession> deleted = new ArrayList<>(sessions.size());
+			for (int i = 0; i < sessions.size(); i++) {
+				if (updateCounts[i] > 0 || updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+					deleted.add(sessions.get(i));
+				}
+			}
+			return deleted;
+		});
+		if (deletedSessions == null) {
+			return 0;
+		}
+		for (JdbcSession session : deletedSessions) {
+			publishEvent(eventPublisher, new SessionExpiredEvent(this, session));
 		}
+		return deletedSessions.size();
 	}
 
-	public void cleanUpExpiredSessions() {
-		Integer deletedCount = this.transactionOperations
-			.execute((status) -> JdbcIndexedSessionRepository.this.jdbcOperations
-				.update(JdbcIndexedSessionRepository.this.deleteSessionsByExpiryTimeQuery, System.currentTimeMillis()));
+	private List<JdbcSession> loadAttributes(List<JdbcSession> sessions) {
+		String query = StringUtils.replace(this.listSessionsByPrimaryIdsQuery, "%PRIMARY_IDS%",
+				String.join(", ", Collections.nCopies(sessions.size(), "?")));
+		List<JdbcSession> loaded = this.jdbcOperations.query(query, (ps) -> {
+			for (int i = 0; i < sessions.size(); i++) {
+				ps.setString(i + 1, sessions.get(i).primaryKey);
+			}
+		}, this.extractor);
+		Map<String, JdbcSession> loadedSessions = new LinkedHashMap<>();
+		if (loaded != null) {
+			loaded.forEach((session) -> loadedSessions.putIfAbsent(session.primaryKey, session));
+		}
+		return new ArrayList<>(loadedSessions.values());
+	}
 
-		if (logger.isDebugEnabled()) {
-			logger.debug("Cleaned up " + deletedCount + " expired sessions");
+	private void publishEvent(ApplicationEventPublisher eventPublisher, ApplicationEvent event) {
+		try {
+			eventPublisher.publishEvent(event);
+		}
+		catch (Throwable ex) {
+			logger.error("Error publishing " + event + ".", ex);
+		}
+	}
+
+	private int cleanUpExpiredSessionsInBatches(int batchSize, IntSupplier batch) {
+		long startTime = System.nanoTime();
+		int deletedCount = 0;
+		while (true) {
+			int count = batch.getAsInt();
+			deletedCount += count;
+			if (count < batchSize) {
+				return deletedCount;
+			}
+			if (!this.cleanupTimeBudget.isZero() && System.nanoTime() - startTime >= this.cleanupTimeBudget.toNanos()) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Cleanup time budget exceeded, remaining expired sessions are left to the next run");
+				}
+				return deletedCount;
+			}
+			if (!this.cleanupBatchInterval.isZero()) {
+				try {
+					Thread.sleep(this.cleanupBatchInterval.toMillis());
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return deletedCount;
+				}
+			}
 		}
 	}
 
+	private Observation createObservation(SessionRepositoryObservationContext context) {
+		return SessionRepositoryObservationDocumentation.SESSION_REPOSITORY_OPERATION.observation(
+				this.observationConvention, DefaultSessionRepositoryObservationConvention.INSTANCE, () -> context,
+				this.observationRegistry);
+	}
+
 	private static GenericConversionService createDefaultConversionService() {
 		GenericConversionService converter = new GenericConversionService();
 		converter.addConverter(Object.class, byte[].class, new SerializingConverter());
@@ -669,12 +1478,24 @@ public class JdbcIndexedSessionRepository implements
 		this.createSessionQuery = getQuery(CREATE_SESSION_QUERY);
 		this.createSessionAttributeQuery = getQuery(CREATE_SESSION_ATTRIBUTE_QUERY);
 		this.getSessionQuery = getQuery(GET_SESSION_QUERY);
+		this.getSessionWithoutAttributesQuery = getQuery(GET_SESSION_WITHOUT_ATTRIBUTES_QUERY);
+		this.getSessionAttributeNamesQuery = getQuery(GET_SESSION_ATTRIBUTE_NAMES_QUERY);
+		this.getSessionAttributeQuery = getQuery(GET_SESSION_ATTRIBUTE_QUERY);
 		this.updateSessionQuery = getQuery(UPDATE_SESSION_QUERY);
 		this.updateSessionAttributeQuery = getQuery(UPDATE_SESSION_ATTRIBUTE_QUERY);
 		this.deleteSessionAttributeQuery = getQuery(DELETE_SESSION_ATTRIBUTE_QUERY);
 		this.deleteSessionQuery = getQuery(DELETE_SESSION_QUERY);
 		this.listSessionsByPrincipalNameQuery = getQuery(LIST_SESSIONS_BY_PRINCIPAL_NAME_QUERY);
 		this.deleteSessionsByExpiryTimeQuery = getQuery(DELETE_SESSIONS_BY_EXPIRY_TIME_QUERY);
+		this.deleteSessionsByExpiryTimeBatchQuery = getQuery(DELETE_SESSIONS_BY_EXPIRY_TIME_BATCH_QUERY);
+		this.listExpiredSessionsQuery = getQuery(LIST_EXPIRED_SESSIONS_QUERY);
+		this.listSessionsByPrimaryIdsQuery = getQuery(LIST_SESSIONS_BY_PRIMARY_IDS_QUERY);
+		this.deleteExpiredSessionQuery = getQuery(DELETE_EXPIRED_SESSION_QUERY);
+		this.createSingleTableSessionQuery = getQuery(CREATE_SINGLE_TABLE_SESSION_QUERY);
+		this.getSingleTableSessionQuery = getQuery(GET_SINGLE_TABLE_SESSION_QUERY);
+		this.updateSingleTableSessionQuery = getQuery(UPDATE_SINGLE_TABLE_SESSION_QUERY);
+		this.listSingleTableSessionsByPrincipalNameQuery = getQuery(LIST_SINGLE_TABLE_SESSIONS_BY_PRINCIPAL_NAME_QUERY);
+		this.listExpiredSingleTableSessionsQuery = getQuery(LIST_EXPIRED_SINGLE_TABLE_SESSIONS_QUERY);
 	}
 
 	private LobHandler getLobHandler() {
@@ -712,21 +1533,37 @@ public class JdbcIndexedSessionRepository implements
 	}
 
 	private static <T> @Nullable Supplier<T> lazily(Supplier<T> supplier) {
-		Supplier<T> lazySupplier = new Supplier<T>() {
+		return (supplier != null) ? new LazySupplier<>(supplier) : null;
+	}
 
-			private @Nullable T value;
+	/**
+	 * A {@link Supplier} of an attribute value that has been retrieved but is only
+	 * deserialized the first time it is read.
+	 *
+	 * @param <T> the type of the attribute value
+	 */
+	private static final class LazySupplier<T> implements Supplier<T> {
 
-			@Override
-			public T get() {
-				if (this.value == null) {
-					this.value = supplier.get();
-				}
-				return this.value;
+		private final Supplier<T> supplier;
+
+		private @Nullable T value;
+
+		LazySupplier(Supplier<T> supplier) {
+			this.supplier = supplier;
+		}
+
+		@Override
+		public T get() {
+			if (this.value == null) {
+				this.value = this.supplier.get();
 			}
+			return this.value;
+		}
 
-		};
+		boolean isResolved() {
+			return this.value != null;
+		}
 
-		return (supplier != null) ? lazySupplier : null;
 	}
 
 	/**
@@ -744,12 +1581,30 @@ public class JdbcIndexedSessionRepository implements
 
 		private boolean changed;
 
+		private boolean touched;
+
+		private Instant originalLastAccessTime;
+
 		private Map<String, DeltaValue> delta = new HashMap<>();
 
+		private boolean attributeNamesLoaded;
+
+		private final Set<String> fetchedAttributeNames = new HashSet<>();
+
+		private Map<String, byte[]> storedAttributes = new HashMap<>();
+
+		private final Map<String, byte[]> serializedAttributes = new HashMap<>();
+
 		JdbcSession(MapSession delegate, String primaryKey, boolean isNew) {
+			this(delegate, primaryKey, isNew, true);
+		}
+
+		JdbcSession(MapSession delegate, String primaryKey, boolean isNew, boolean attributesLoaded) {
 			this.delegate = delegate;
 			this.primaryKey = primaryKey;
 			this.isNew = isNew;
+			this.attributeNamesLoaded = attributesLoaded;
+			this.originalLastAccessTime = delegate.getLastAccessedTime();
 			if (this.isNew || (JdbcIndexedSessionRepository.this.saveMode == SaveMode.ALWAYS)) {
 				getAttributeNames().forEach((attributeName) -> this.delta.put(attributeName, DeltaValue.UPDATED));
 			}
@@ -760,17 +1615,115 @@ public class JdbcIndexedSessionRepository implements
 		}
 
 		boolean isChanged() {
-			return this.changed;
+			return this.changed || isTouchDue();
+		}
+
+		private boolean isTouchDue() {
+			if (!this.touched) {
+				return false;
+			}
+			Instant lastAccessedTime = getLastAccessedTime();
+			return lastAccessedTime.isBefore(this.originalLastAccessTime)
+					|| !lastAccessedTime.isBefore(this.originalLastAccessTime
+						.plus(JdbcIndexedSessionRepository.this.getTouchGranularity(getMaxInactiveInterval())));
 		}
 
 		Map<String, DeltaValue> getDelta() {
 			return this.delta;
 		}
 
+		boolean hasPendingChanges() {
+			return this.isNew || isChanged() || !this.delta.isEmpty();
+		}
+
 		void clearChangeFlags() {
+			if (this.isNew || isChanged()) {
+				this.originalLastAccessTime = getLastAccessedTime();
+				this.touched = false;
+			}
 			this.isNew = false;
 			this.changed = false;
 			this.delta.clear();
+			this.serializedAttributes.clear();
+		}
+
+		/**
+		 * Remove the updated attributes whose serialized value is the same as the one
+		 * that was retrieved. Attributes that have not been read since they were
+		 * retrieved are removed without being serialized. The serialized value of each
+		 * remaining attribute is kept so that it is not serialized again when written.
+		 */
+		void removeUnchangedAttributes() {
+			this.delta.entrySet()
+				.removeIf((entry) -> entry.getValue() == DeltaValue.UPDATED && isUnchanged(entry.getKey()));
+		}
+
+		private boolean isUnchanged(String attributeName) {
+			Supplier<Object> supplier = this.delegate.getAttribute(attributeName);
+			if (supplier instanceof LazySupplier<?> lazySupplier && !lazySupplier.isResolved()) {
+				return true;
+			}
+			byte[] storedBytes = this.storedAttributes.get(attributeName);
+			Object attributeValue = (supplier != null) ? supplier.get() : null;
+			if (storedBytes == null || attributeValue == null) {
+				return false;
+			}
+			byte[] bytes = serialize(attributeValue);
+			if (Arrays.equals(bytes, storedBytes)) {
+				return true;
+			}
+			if (bytes != null) {
+				this.serializedAttributes.put(attributeName, bytes);
+			}
+			return false;
+		}
+
+		/**
+		 * Serialize the value of the given attribute for the attributes table, retaining
+		 * the result if {@link #setSkipUnchangedAttributes(boolean) unchanged attributes
+		 * are skipped}.
+		 * @param attributeName the name of the attribute
+		 * @return the serialized value
+		 */
+		byte @Nullable [] serializeAttribute(String attributeName) {
+			byte[] bytes = this.serializedAttributes.remove(attributeName);
+			if (bytes == null) {
+				bytes = serialize(getAttribute(attributeName));
+			}
+			if (bytes != null) {
+				retainStoredAttribute(attributeName, bytes);
+			}
+			return bytes;
+		}
+
+		private void retainStoredAttribute(String attributeName, byte[] bytes) {
+			if (JdbcIndexedSessionRepository.this.skipUnchangedAttributes) {
+				this.storedAttributes.put(attributeName, bytes);
+			}
+		}
+
+		/**
+		 * Encode the attributes of this session for single table storage. Attributes that
+		 * are not part of the delta are written as they were retrieved, without being
+		 * serialized again.
+		 * @return the encoded attributes
+		 */
+		byte[] encodeAttributes() {
+			Map<String, byte[]> attributes = new LinkedHashMap<>();
+			for (String attributeName : this.delegate.getAttributeNames()) {
+				byte[] bytes = this.delta.containsKey(attributeName) ? this.serializedAttributes.get(attributeName)
+						: this.storedAttributes.get(attributeName);
+				if (bytes == null) {
+					Supplier<Object> supplier = this.delegate.getAttribute(attributeName);
+					Object attributeValue = (supplier != null) ? supplier.get() : null;
+					bytes = (attributeValue != null) ? serialize(attributeValue) : null;
+				}
+				if (bytes != null) {
+					attributes.put(attributeName, bytes);
+				}
+			}
+			this.storedAttributes = attributes;
+			return SessionAttributesCodec.encode(attributes);
 		}
 
 		Instant getExpiryTime() {
@@ -795,11 +1748,7 @@ public class JdbcIndexedSessionRepository implements
 
 		@Override
 		public <T> @Nullable T getAttribute(String attributeName) {
-			Supplier<T> supplier = this.delegate.getAttribute(attributeName);
-			if (supplier == null) {
-				return null;
-			}
-			T attributeValue = supplier.get();
+			T attributeValue = peekAttribute(attributeName);
 			if (attributeValue != null
 					&& JdbcIndexedSessionRepository.this.saveMode.equals(SaveMode.ON_GET_ATTRIBUTE)) {
 				this.delta.merge(attributeName, DeltaValue.UPDATED, (oldDeltaValue,
@@ -808,13 +1757,48 @@ public class JdbcIndexedSessionRepository implements
 			return attributeValue;
 		}
 
+		@Override
+		public <T> @Nullable T peekAttribute(String attributeName) {
+			Supplier<T> supplier = this.delegate.getAttribute(attributeName);
+			if (supplier == null && !this.attributeNamesLoaded && this.fetchedAttributeNames.add(attributeName)) {
+				byte[] bytes = getSessionAttributeBytes(this.primaryKey, attributeName);
+				if (bytes != null) {
+					this.delegate.setAttribute(attributeName, lazily(() -> deserialize(bytes)));
+					retainStoredAttribute(attributeName, bytes);
+					supplier = this.delegate.getAttribute(attributeName);
+				}
+			}
+			return (supplier != null) ? supplier.get() : null;
+		}
+
 		@Override
 		public Set<String> getAttributeNames() {
+			loadAttributeNames();
 			return this.delegate.getAttributeNames();
 		}
 
+		private void loadAttributeNames() {
+			if (this.attributeNamesLoaded) {
+				return;
+			}
+			this.attributeNamesLoaded = true;
+			for (String attributeName : getSessionAttributeNames(this.primaryKey)) {
+				if (!this.fetchedAttributeNames.contains(attributeName)) {
+					this.delegate.setAttribute(attributeName, lazily(() -> {
+						byte[] bytes = getSessionAttributeBytes(this.primaryKey, attributeName);
+						if (bytes == null) {
+							return null;
+						}
+						retainStoredAttribute(attributeName, bytes);
+						return deserialize(bytes);
+					}));
+				}
+			}
+		}
+
 		@Override
 		public void setAttribute(String attributeName, @Nullable Object attributeValue) {
+			loadAttributeNames();
 			boolean attributeExists = (this.delegate.getAttribute(attributeName) != null);
 			boolean attributeRemoved = (attributeValue == null);
 			if (!attributeExists && attributeRemoved) {
@@ -855,7 +1839,7 @@ public class JdbcIndexedSessionRepository implements
 		@Override
 		public void setLastAccessedTime(Instant lastAccessedTime) {
 			this.delegate.setLastAccessedTime(lastAccessedTime);
-			this.changed = true;
+			this.touched = true;
 			flushIfRequired();
 		}
 
@@ -888,80 +1872,118 @@ public class JdbcIndexedSessionRepository implements
 		}
 
 		private void save() {
-			if (this.isNew) {
-				JdbcIndexedSessionRepository.this.transactionOperations.executeWithoutResult((status) -> {
-					Map<String, String> indexes = JdbcIndexedSessionRepository.this.indexResolver
-						.resolveIndexesFor(JdbcSession.this);
-					JdbcIndexedSessionRepository.this.jdbcOperations
-						.update(JdbcIndexedSessionRepository.this.createSessionQuery, (ps) -> {
-							ps.setString(1, JdbcSession.this.primaryKey);
-							ps.setString(2, getId());
-							ps.setLong(3, getCreationTime().toEpochMilli());
-							ps.setLong(4, getLastAccessedTime().toEpochMilli());
-							ps.setInt(5, (int) getMaxInactiveInterval().getSeconds());
-							ps.setLong(6, getExpiryTime().toEpochMilli());
-							ps.setString(7, indexes.get(PRINCIPAL_NAME_INDEX_NAME));
-						});
-					Set<String> attributeNames = getAttributeNames();
-					if (!attributeNames.isEmpty()) {
-						insertSessionAttributes(JdbcSession.this, new ArrayList<>(attributeNames));
-					}
-				});
+			SessionWrites writes = new SessionWrites(true);
+			writes.add(this);
+			if (!writes.isEmpty()) {
+				JdbcIndexedSessionRepository.this.transactionOperations
+					.executeWithoutResult((status) -> writes.execute());
 			}
-			else {
-				List<Runnable> deltaActions = JdbcSession.this.changed ? new ArrayList<>(4) : new ArrayList<>();
-				if (JdbcSession.this.changed) {
-					deltaActions.add(() -> {
-						Map<String, String> indexes = JdbcIndexedSessionRepository.this.indexResolver
-							.resolveIndexesFor(JdbcSession.this);
-						JdbcIndexedSessionRepository.this.jdbcOperations
-							.update(JdbcIndexedSessionRepository.this.updateSessionQuery, (ps) -> {
-								ps.setString(1, getId());
-								ps.setLong(2, getLastAccessedTime().toEpochMilli());
-								ps.setInt(3, (int) getMaxInactiveInterval().getSeconds());
-								ps.setLong(4, getExpiryTime().toEpochMilli());
-								ps.setString(5, indexes.get(PRINCIPAL_NAME_INDEX_NAME));
-								ps.setString(6, JdbcSession.this.primaryKey);
-							});
-					});
-				}
+			clearChangeFlags();
+		}
 
-				List<String> addedAttributeNames = JdbcSession.this.delta.entrySet()
-					.stream()
-					.filter((entry) -> entry.getValue() == DeltaValue.ADDED)
-					.map(Map.Entry::getKey)
-					.collect(Collectors.toList());
-				if (!addedAttributeNames.isEmpty()) {
-					deltaActions.add(() -> insertSessionAttributes(JdbcSession.this, addedAttributeNames));
-				}
+	}
 
-				List<String> updatedAttributeNames = JdbcSession.this.delta.entrySet()
-					.stream()
-					.filter((entry) -> entry.getValue() == DeltaValue.UPDATED)
-					.map(Map.Entry::getKey)
-					.collect(Collectors.toList());
-				if (!updatedAttributeNames.isEmpty()) {
-					deltaActions.add(() -> updateSessionAttributes(JdbcSession.this, updatedAttributeNames));
-				}
+	/**
+	 * The statements required to save a number of sessions, grouped by query so that the
+	 * statements of all sessions are executed as combined JDBC batches.
+	 */
+	private final class SessionWrites {
 
-				List<String> removedAttributeNames = JdbcSession.this.delta.entrySet()
-					.stream()
-					.filter((entry) -> entry.getValue() == DeltaValue.REMOVED)
-					.map(Map.Entry::getKey)
-					.collect(Collectors.toList());
-				if (!removedAttributeNames.isEmpty()) {
-					deltaActions.add(() -> deleteSessionAttributes(JdbcSession.this, removedAttributeNames));
+		private final boolean ignoreMissingSessions;
+
+		private final List<JdbcSession> createdSessions = new ArrayList<>();
+
+		private final List<JdbcSession> updatedSessions = new ArrayList<>();
+
+		private final List<JdbcSession> updatedSingleTableSessions = new ArrayList<>();
+
+		private final List<SessionAttribute> addedAttributes = new ArrayList<>();
+
+		private final List<SessionAttribute> updatedAttributes = new ArrayList<>();
+
+		private final List<SessionAttribute> removedAttributes = new ArrayList<>();
+
+		SessionWrites(boolean ignoreMissingSessions) {
+			this.ignoreMissingSessions = ignoreMissingSessions;
+		}
+
+		void add(JdbcSession session) {
+			if (session.isNew()) {
+				this.createdSessions.add(session);
+				if (!JdbcIndexedSessionRepository.this.singleTableStorage) {
+					session.getAttributeNames()
+						.forEach((attributeName) -> this.addedAttributes
+							.add(new SessionAttribute(session, attributeName)));
 				}
+				return;
+			}
+			if (JdbcIndexedSessionRepository.this.skipUnchangedAttributes) {
+				session.removeUnchangedAttributes();
+			}
+			if (JdbcIndexedSessionRepository.this.singleTableStorage && !session.getDelta().isEmpty()) {
+				this.updatedSingleTableSessions.add(session);
+				return;
+			}
+			if (session.isChanged()) {
+				this.updatedSessions.add(session);
+			}
+			session.getDelta().forEach((attributeName, deltaValue) -> {
+				SessionAttribute attribute = new SessionAttribute(session, attributeName);
+				if (deltaValue == DeltaValue.ADDED) {
+					this.addedAttributes.add(attribute);
+				}
+				else if (deltaValue == DeltaValue.UPDATED) {
+					this.updatedAttributes.add(attribute);
+				}
+				else {
+					this.removedAttributes.add(attribute);
+				}
+			});
+		}
 
-				if (!deltaActions.isEmpty()) {
-					JdbcIndexedSessionRepository.this.transactionOperations.executeWithoutResult((status) -> {
-						for (Runnable action : deltaActions) {
-							action.run();
-						}
-					});
+		boolean isEmpty() {
+			return this.createdSessions.isEmpty() && this.updatedSessions.isEmpty()
+					&& this.updatedSingleTableSessions.isEmpty() && this.addedAttributes.isEmpty()
+					&& this.updatedAttributes.isEmpty() && this.removedAttributes.isEmpty();
+		}
+
+		void execute() {
+			if (!this.createdSessions.isEmpty()) {
+				if (JdbcIndexedSessionRepository.this.singleTableStorage) {
+					insertSingleTableSessions(this.createdSessions);
+				}
+				else {
+					insertSessions(this.createdSessions);
 				}
 			}
-			clearChangeFlags();
+			if (!this.updatedSessions.isEmpty()) {
+				updateSessions(this.updatedSessions);
+			}
+			if (!this.updatedSingleTableSessions.isEmpty()) {
+				updateSingleTableSessions(this.updatedSingleTableSessions);
+			}
+			if (!this.addedAttributes.isEmpty()) {
+				insertSessionAttributes(this.addedAttributes, this.ignoreMissingSessions);
+			}
+			if (!this.updatedAttributes.isEmpty()) {
+				updateSessionAttributes(this.updatedAttributes);
+			}
+			if (!this.removedAttributes.isEmpty()) {
+				deleteSessionAttributes(this.removedAttributes);
+			}
+		}
+
+	}
+
+	private static final class SessionAttribute {
+
+		private final JdbcSession session;
+
+		private final String name;
+
+		SessionAttribute(JdbcSession session, String name) {
+			this.session = session;
+			this.name = name;
 		}
 
 	}
@@ -990,6 +2012,7 @@ public class JdbcIndexedSessionRepository implements
 					byte[] bytes = getLobHandler().getBlobAsBytes(rs, "ATTRIBUTE_BYTES");
 					if (bytes != null) {
 						session.delegate.setAttribute(attributeName, lazily(() -> deserialize(bytes)));
+						session.retainStoredAttribute(attributeName, bytes);
 					}
 				}
 				sessions.add(session);
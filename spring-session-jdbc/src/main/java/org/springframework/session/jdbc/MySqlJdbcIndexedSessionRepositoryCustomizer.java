@@ -20,7 +20,9 @@ import org.springframework.session.config.SessionRepositoryCustomizer;
 
 /**
  * A {@link SessionRepositoryCustomizer} implementation that applies MySQL specific
- * optimized SQL statements to {@link JdbcIndexedSessionRepository}.
+ * optimized SQL statements to {@link JdbcIndexedSessionRepository}. The expired session
+ * cleanup skips the sessions locked by another transaction, which requires MySQL 8.0 or
+ * MariaDB 10.6.
  *
  * @author Vedran Pavic
  * @since 2.5.0
@@ -34,9 +36,22 @@ public class MySqlJdbcIndexedSessionRepositoryCustomizer
 			ON DUPLICATE KEY UPDATE ATTRIBUTE_BYTES = VALUES(ATTRIBUTE_BYTES)
 			""";
 
+	private static final String DELETE_SESSIONS_BY_EXPIRY_TIME_BATCH_QUERY = """
+			DELETE S
+			FROM %TABLE_NAME% S
+			JOIN (
+				SELECT PRIMARY_ID
+				FROM %TABLE_NAME%
+				WHERE EXPIRY_TIME < ?
+				LIMIT %BATCH_SIZE%
+				FOR UPDATE SKIP LOCKED
+			) E ON S.PRIMARY_ID = E.PRIMARY_ID
+			""";
+
 	@Override
 	public void customize(JdbcIndexedSessionRepository sessionRepository) {
 		sessionRepository.setCreateSessionAttributeQuery(CREATE_SESSION_ATTRIBUTE_QUERY);
+		sessionRepository.setDeleteSessionsByExpiryTimeBatchQuery(DELETE_SESSIONS_BY_EXPIRY_TIME_BATCH_QUERY);
 	}
 
 }
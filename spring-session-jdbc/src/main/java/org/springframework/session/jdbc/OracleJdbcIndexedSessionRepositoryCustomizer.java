@@ -20,7 +20,9 @@ import org.springframework.session.config.SessionRepositoryCustomizer;
 
 /**
  * A {@link SessionRepositoryCustomizer} implementation that applies Oracle specific
- * optimized SQL statements to {@link JdbcIndexedSessionRepository}.
+ * optimized SQL statements to {@link JdbcIndexedSessionRepository}. Oracle does not allow
+ * {@code FOR UPDATE SKIP LOCKED} in a subquery, so a batch of the expired session cleanup
+ * waits for the sessions locked by another transaction rather than skipping them.
  *
  * @author Vedran Pavic
  * @since 2.5.0
@@ -42,9 +44,16 @@ public class OracleJdbcIndexedSessionRepositoryCustomizer
 				VALUES (A.SESSION_PRIMARY_ID, A.ATTRIBUTE_NAME, A.ATTRIBUTE_BYTES)
 			""";
 
+	private static final String DELETE_SESSIONS_BY_EXPIRY_TIME_BATCH_QUERY = """
+			DELETE FROM %TABLE_NAME%
+			WHERE EXPIRY_TIME < ?
+			AND ROWNUM <= %BATCH_SIZE%
+			""";
+
 	@Override
 	public void customize(JdbcIndexedSessionRepository sessionRepository) {
 		sessionRepository.setCreateSessionAttributeQuery(CREATE_SESSION_ATTRIBUTE_QUERY);
+		sessionRepository.setDeleteSessionsByExpiryTimeBatchQuery(DELETE_SESSIONS_BY_EXPIRY_TIME_BATCH_QUERY);
 	}
 
 }
@@ -35,9 +35,21 @@ public class PostgreSqlJdbcIndexedSessionRepositoryCustomizer
 			DO UPDATE SET ATTRIBUTE_BYTES = EXCLUDED.ATTRIBUTE_BYTES
 			""";
 
+	private static final String DELETE_SESSIONS_BY_EXPIRY_TIME_BATCH_QUERY = """
+			DELETE FROM %TABLE_NAME%
+			WHERE PRIMARY_ID IN (
+				SELECT PRIMARY_ID
+				FROM %TABLE_NAME%
+				WHERE EXPIRY_TIME < ?
+				LIMIT %BATCH_SIZE%
+				FOR UPDATE SKIP LOCKED
+			)
+			""";
+
 	@Override
 	public void customize(JdbcIndexedSessionRepository sessionRepository) {
 		sessionRepository.setCreateSessionAttributeQuery(CREATE_SESSION_ATTRIBUTE_QUERY);
+		sessionRepository.setDeleteSessionsByExpiryTimeBatchQuery(DELETE_SESSIONS_BY_EXPIRY_TIME_BATCH_QUERY);
 	}
 
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes the serialized attributes of a session into a single value, so that they can be
+ * stored in one column of the session table. Each attribute is stored as its name
+ * followed by its serialized value, which allows attributes to be deserialized
+ * individually and unchanged attributes to be written back without being serialized
+ * again.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+final class SessionAttributesCodec {
+
+	private static final int VERSION = 1;
+
+	private SessionAttributesCodec() {
+	}
+
+	static byte[] encode(Map<String, byte[]> attributes) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			output.writeByte(VERSION);
+			output.writeInt(attributes.size());
+			for (Map.Entry<String, byte[]> attribute : attributes.entrySet()) {
+				output.writeUTF(attribute.getKey());
+				output.writeInt(attribute.getValue().length);
+				output.write(attribute.getValue());
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to encode session attributes", ex);
+		}
+		return bytes.toByteArray();
+	}
+
+	static Map<String, byte[]> decode(byte[] bytes) {
+		try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			int version = input.readUnsignedByte();
+			if (version != VERSION) {
+				throw new IllegalStateException("Unsupported session attributes version " + version);
+			}
+			int size = input.readInt();
+			Map<String, byte[]> attributes = new LinkedHashMap<>(size);
+			for (int i = 0; i < size; i++) {
+				String name = input.readUTF();
+				byte[] value = new byte[input.readInt()];
+				input.readFully(value);
+				attributes.put(name, value);
+			}
+			return attributes;
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to decode session attributes", ex);
+		}
+	}
+
+}
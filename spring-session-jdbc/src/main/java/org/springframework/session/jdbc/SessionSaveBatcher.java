@@ -0,0 +1,220 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.jdbc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+
+/**
+ * Groups the saves of sessions issued by concurrent callers into batches, so that they
+ * can be written in a single transaction. A caller blocks until the batch containing its
+ * session has been written. Batches are written by one of the waiting callers, after
+ * having waited for the configured window to let further saves join the batch. If writing
+ * a batch fails, each of its sessions is written individually so that a failure is only
+ * reported to the caller whose session caused it.
+ *
+ * @param <T> the type of the saved sessions
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+final class SessionSaveBatcher<T> {
+
+	private static final Log logger = LogFactory.getLog(SessionSaveBatcher.class);
+
+	private final Duration window;
+
+	private final int maxBatchSize;
+
+	private final BlockingQueue<PendingSave<T>> queue;
+
+	private final Consumer<List<T>> batchWriter;
+
+	private final Consumer<T> writer;
+
+	private final ReentrantLock writeLock = new ReentrantLock();
+
+	/**
+	 * Create a new {@link SessionSaveBatcher} instance.
+	 * @param window the time to wait for further saves before writing a batch
+	 * @param maxBatchSize the maximum number of sessions written in one batch
+	 * @param queueCapacity the maximum number of pending saves, further callers block
+	 * until pending saves have been written
+	 * @param batchWriter writes a batch of sessions
+	 * @param writer writes a single session
+	 */
+	SessionSaveBatcher(Duration window, int maxBatchSize, int queueCapacity, Consumer<List<T>> batchWriter,
+			Consumer<T> writer) {
+		Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be greater than 0");
+		Assert.isTrue(queueCapacity > 0, "queueCapacity must be greater than 0");
+		this.window = window;
+		this.maxBatchSize = maxBatchSize;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.batchWriter = batchWriter;
+		this.writer = writer;
+	}
+
+	/**
+	 * Save the given session as part of a batch, blocking until it has been written.
+	 * @param session the session to save
+	 */
+	void save(T session) {
+		PendingSave<T> pendingSave = new PendingSave<>(session);
+		boolean interrupted = false;
+		try {
+			this.queue.put(pendingSave);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			this.writer.accept(session);
+			return;
+		}
+		while (!pendingSave.isDone()) {
+			boolean batchFull = this.queue.size() >= this.maxBatchSize;
+			if (!batchFull) {
+				// let further saves join the batch, without holding the write lock
+				interrupted |= pendingSave.await(this.window);
+				if (pendingSave.isDone()) {
+					break;
+				}
+			}
+			if (this.writeLock.tryLock()) {
+				try {
+					if (!pendingSave.isDone()) {
+						writeBatch();
+					}
+				}
+				finally {
+					this.writeLock.unlock();
+				}
+			}
+			else if (batchFull) {
+				interrupted |= pendingSave.await(this.window);
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		pendingSave.rethrowFailure();
+	}
+
+	private void writeBatch() {
+		List<PendingSave<T>> batch = new ArrayList<>(this.maxBatchSize);
+		this.queue.drainTo(batch, this.maxBatchSize);
+		if (batch.isEmpty()) {
+			return;
+		}
+		Throwable failure = null;
+		try {
+			writeBatch(batch);
+		}
+		catch (Throwable ex) {
+			failure = ex;
+			throw ex;
+		}
+		finally {
+			// complete every drained save, so that no caller keeps waiting for it
+			for (PendingSave<T> pendingSave : batch) {
+				if (!pendingSave.isDone()) {
+					pendingSave.complete(failure);
+				}
+			}
+		}
+	}
+
+	private void writeBatch(List<PendingSave<T>> batch) {
+		List<T> sessions = new ArrayList<>(batch.size());
+		batch.forEach((pendingSave) -> sessions.add(pendingSave.session));
+		try {
+			this.batchWriter.accept(sessions);
+			batch.forEach((pendingSave) -> pendingSave.complete(null));
+		}
+		catch (RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to save batch of " + batch.size() + " sessions, saving them individually", ex);
+			}
+			for (PendingSave<T> pendingSave : batch) {
+				try {
+					this.writer.accept(pendingSave.session);
+					pendingSave.complete(null);
+				}
+				catch (RuntimeException failure) {
+					pendingSave.complete(failure);
+				}
+			}
+		}
+	}
+
+	private static final class PendingSave<T> {
+
+		private final T session;
+
+		private final CountDownLatch done = new CountDownLatch(1);
+
+		private volatile @Nullable Throwable failure;
+
+		PendingSave(T session) {
+			this.session = session;
+		}
+
+		void complete(@Nullable Throwable failure) {
+			this.failure = failure;
+			this.done.countDown();
+		}
+
+		boolean isDone() {
+			return this.done.getCount() == 0;
+		}
+
+		boolean await(Duration timeout) {
+			try {
+				this.done.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+				return false;
+			}
+			catch (InterruptedException ex) {
+				return true;
+			}
+		}
+
+		void rethrowFailure() {
+			Throwable failure = this.failure;
+			if (failure instanceof RuntimeException ex) {
+				throw ex;
+			}
+			if (failure instanceof Error error) {
+				throw error;
+			}
+			if (failure != null) {
+				throw new IllegalStateException(failure);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.jdbc;
+
+import org.springframework.session.config.SessionRepositoryCustomizer;
+
+/**
+ * A {@link SessionRepositoryCustomizer} implementation that configures
+ * {@link JdbcIndexedSessionRepository} to store all attributes of a session in a single
+ * column of the session table. The session table must be created using one of the
+ * <code>org/springframework/session/jdbc/schema-single-table-*.sql</code> scripts.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ * @see JdbcIndexedSessionRepository#setSingleTableStorage(boolean)
+ */
+public class SingleTableJdbcIndexedSessionRepositoryCustomizer
+		implements SessionRepositoryCustomizer<JdbcIndexedSessionRepository> {
+
+	@Override
+	public void customize(JdbcIndexedSessionRepository sessionRepository) {
+		sessionRepository.setSingleTableStorage(true);
+	}
+
+}
@@ -41,9 +41,16 @@ public class SqlServerJdbcIndexedSessionRepositoryCustomizer
 				VALUES (A.SESSION_PRIMARY_ID, A.ATTRIBUTE_NAME, A.ATTRIBUTE_BYTES);
 			""";
 
+	private static final String DELETE_SESSIONS_BY_EXPIRY_TIME_BATCH_QUERY = """
+			DELETE TOP (%BATCH_SIZE%)
+			FROM %TABLE_NAME% WITH (READPAST)
+			WHERE EXPIRY_TIME < ?
+			""";
+
 	@Override
 	public void customize(JdbcIndexedSessionRepository sessionRepository) {
 		sessionRepository.setCreateSessionAttributeQuery(CREATE_SESSION_ATTRIBUTE_QUERY);
+		sessionRepository.setDeleteSessionsByExpiryTimeBatchQuery(DELETE_SESSIONS_BY_EXPIRY_TIME_BATCH_QUERY);
 	}
 
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.jdbc;
+
+import org.springframework.session.config.SessionRepositoryCustomizer;
+
+/**
+ * A {@link SessionRepositoryCustomizer} implementation that applies SQLite specific SQL
+ * statements to {@link JdbcIndexedSessionRepository}.
+ *
+ * @author agent (agent@local)
+ * @since 4.2
+ */
+public class SqliteJdbcIndexedSessionRepositoryCustomizer
+		implements SessionRepositoryCustomizer<JdbcIndexedSessionRepository> {
+
+	private static final String DELETE_SESSIONS_BY_EXPIRY_TIME_BATCH_QUERY = """
+			DELETE FROM %TABLE_NAME%
+			WHERE PRIMARY_ID IN (
+				SELECT PRIMARY_ID
+				FROM %TABLE_NAME%
+				WHERE EXPIRY_TIME < ?
+				LIMIT %BATCH_SIZE%
+			)
+			""";
+
+	@Override
+	public void customize(JdbcIndexedSessionRepository sessionRepository) {
+		sessionRepository.setDeleteSessionsByExpiryTimeBatchQuery(DELETE_SESSIONS_BY_EXPIRY_TIME_BATCH_QUERY);
+	}
+
+}
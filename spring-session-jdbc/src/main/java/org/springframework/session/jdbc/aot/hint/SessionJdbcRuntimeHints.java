@@ -45,6 +45,16 @@ class SessionJdbcRuntimeHints implements RuntimeHintsRegistrar {
 			.registerPattern("org/springframework/session/jdbc/schema-drop-mysql.sql")
 			.registerPattern("org/springframework/session/jdbc/schema-drop-oracle.sql")
 			.registerPattern("org/springframework/session/jdbc/schema-drop-postgresql.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-drop-single-table-db2.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-drop-single-table-derby.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-drop-single-table-h2.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-drop-single-table-hsqldb.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-drop-single-table-mysql.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-drop-single-table-oracle.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-drop-single-table-postgresql.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-drop-single-table-sqlite.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-drop-single-table-sqlserver.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-drop-single-table-sybase.sql")
 			.registerPattern("org/springframework/session/jdbc/schema-drop-sqlite.sql")
 			.registerPattern("org/springframework/session/jdbc/schema-drop-sqlserver.sql")
 			.registerPattern("org/springframework/session/jdbc/schema-drop-sybase.sql")
@@ -53,6 +63,16 @@ class SessionJdbcRuntimeHints implements RuntimeHintsRegistrar {
 			.registerPattern("org/springframework/session/jdbc/schema-mysql.sql")
 			.registerPattern("org/springframework/session/jdbc/schema-oracle.sql")
 			.registerPattern("org/springframework/session/jdbc/schema-postgresql.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-single-table-db2.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-single-table-derby.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-single-table-h2.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-single-table-hsqldb.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-single-table-mysql.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-single-table-oracle.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-single-table-postgresql.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-single-table-sqlite.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-single-table-sqlserver.sql")
+			.registerPattern("org/springframework/session/jdbc/schema-single-table-sybase.sql")
 			.registerPattern("org/springframework/session/jdbc/schema-sqlite.sql")
 			.registerPattern("org/springframework/session/jdbc/schema-sqlserver.sql")
 			.registerPattern("org/springframework/session/jdbc/schema-sybase.sql");
@@ -0,0 +1 @@
+DROP TABLE IF EXISTS SPRING_SESSION;
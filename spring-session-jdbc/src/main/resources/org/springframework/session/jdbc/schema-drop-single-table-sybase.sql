@@ -0,0 +1 @@
+DROP TABLE SPRING_SESSION;
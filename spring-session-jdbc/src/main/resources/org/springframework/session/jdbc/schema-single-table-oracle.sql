@@ -0,0 +1,15 @@
+CREATE TABLE SPRING_SESSION (
+	PRIMARY_ID CHAR(36) NOT NULL,
+	SESSION_ID CHAR(36) NOT NULL,
+	CREATION_TIME NUMBER(19,0) NOT NULL,
+	LAST_ACCESS_TIME NUMBER(19,0) NOT NULL,
+	MAX_INACTIVE_INTERVAL NUMBER(10,0) NOT NULL,
+	EXPIRY_TIME NUMBER(19,0) NOT NULL,
+	PRINCIPAL_NAME VARCHAR2(100 CHAR),
+	ATTRIBUTE_BYTES BLOB NOT NULL,
+	CONSTRAINT SPRING_SESSION_PK PRIMARY KEY (PRIMARY_ID)
+);
+
+CREATE UNIQUE INDEX SPRING_SESSION_IX1 ON SPRING_SESSION (SESSION_ID);
+CREATE INDEX SPRING_SESSION_IX2 ON SPRING_SESSION (EXPIRY_TIME);
+CREATE INDEX SPRING_SESSION_IX3 ON SPRING_SESSION (PRINCIPAL_NAME);
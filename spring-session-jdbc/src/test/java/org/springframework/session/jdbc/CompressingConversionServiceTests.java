@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.serializer.support.SerializingConverter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CompressingConversionService}.
+ *
+ * @author agent (agent@local)
+ */
+class CompressingConversionServiceTests {
+
+	private static final TypeDescriptor OBJECT_TYPE = TypeDescriptor.valueOf(Object.class);
+
+	private static final TypeDescriptor BYTE_ARRAY_TYPE = TypeDescriptor.valueOf(byte[].class);
+
+	private final CompressingConversionService conversionService = new CompressingConversionService();
+
+	@Test
+	void convertWhenLargeValueThenCompressed() {
+		String value = "value".repeat(1000);
+		byte[] bytes = (byte[]) this.conversionService.convert(value, OBJECT_TYPE, BYTE_ARRAY_TYPE);
+		assertThat(bytes.length).isLessThan(new SerializingConverter().convert(value).length);
+		assertThat(this.conversionService.convert(bytes, BYTE_ARRAY_TYPE, OBJECT_TYPE)).isEqualTo(value);
+		assertThat(this.conversionService.getCompressor().getCompressedCount()).isOne();
+	}
+
+	@Test
+	void convertWhenStoredUncompressedThenDeserialized() {
+		String value = "value".repeat(1000);
+		byte[] bytes = new SerializingConverter().convert(value);
+		assertThat(this.conversionService.convert(bytes, BYTE_ARRAY_TYPE, OBJECT_TYPE)).isEqualTo(value);
+	}
+
+	@Test
+	void convertWhenSmallValueThenNotCompressed() {
+		byte[] bytes = this.conversionService.convert(1L, byte[].class);
+		assertThat(bytes).isEqualTo(new SerializingConverter().convert(1L));
+		assertThat(this.conversionService.canConvert(Object.class, byte[].class)).isTrue();
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.session.jdbc;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -26,6 +28,9 @@ import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,10 +38,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.serializer.support.SerializingConverter;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.jdbc.core.PreparedStatementSetter;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.lob.DefaultLobHandler;
 import org.springframework.jdbc.support.lob.TemporaryLobCreator;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -48,23 +57,34 @@ import org.springframework.session.FlushMode;
 import org.springframework.session.MapSession;
 import org.springframework.session.SaveMode;
 import org.springframework.session.Session;
+import org.springframework.session.events.SessionExpiredEvent;
 import org.springframework.session.jdbc.JdbcIndexedSessionRepository.JdbcSession;
+import org.springframework.session.observation.SessionRepositoryObservationContext;
+import org.springframework.session.observation.SessionRepositoryObservationContext.Operation;
+import org.springframework.session.serializer.BinarySessionAttributeSerializer;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionOperations;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.AdditionalMatchers.and;
+import static org.mockito.AdditionalMatchers.not;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.ArgumentMatchers.matches;
 import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -251,6 +271,12 @@ class JdbcIndexedSessionRepositoryTests {
 			.withMessage("conversionService must not be null");
 	}
 
+	@Test
+	void setAttributeSerializerNull() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.repository.setAttributeSerializer(null))
+			.withMessage("attributeSerializer must not be null");
+	}
+
 	@Test
 	void setFlushModeNull() {
 		assertThatIllegalArgumentException().isThrownBy(() -> this.repository.setFlushMode(null))
@@ -534,6 +560,211 @@ class JdbcIndexedSessionRepositoryTests {
 		verifyNoMoreInteractions(this.jdbcOperations);
 	}
 
+	@Test
+	void saveUpdatedLastAccessedTimeWithinTouchGranularity() {
+		this.repository.setTouchGranularity(Duration.ofMinutes(1));
+		MapSession delegate = new MapSession();
+		JdbcSession session = this.repository.new JdbcSession(delegate, "primaryKey", false);
+		session.setLastAccessedTime(delegate.getLastAccessedTime().plusSeconds(30));
+
+		this.repository.save(session);
+
+		assertThat(session.isNew()).isFalse();
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
+	@Test
+	void saveUpdatedLastAccessedTimeBeyondTouchGranularity() {
+		this.repository.setTouchGranularity(Duration.ofMinutes(1));
+		MapSession delegate = new MapSession();
+		JdbcSession session = this.repository.new JdbcSession(delegate, "primaryKey", false);
+		session.setLastAccessedTime(delegate.getLastAccessedTime().plusSeconds(30));
+		this.repository.save(session);
+		session.setLastAccessedTime(delegate.getLastAccessedTime().plusSeconds(30));
+
+		this.repository.save(session);
+
+		verify(this.jdbcOperations, times(1)).update(matches("^UPDATE SPRING_SESSION\\s*SET.*"),
+				isA(PreparedStatementSetter.class));
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
+	@Test
+	void saveUpdatedLastAccessedTimeBeyondHalfOfMaxInactiveInterval() {
+		this.repository.setTouchGranularity(Duration.ofHours(1));
+		MapSession delegate = new MapSession();
+		delegate.setMaxInactiveInterval(Duration.ofMinutes(30));
+		JdbcSession session = this.repository.new JdbcSession(delegate, "primaryKey", false);
+		session.setLastAccessedTime(delegate.getLastAccessedTime().plus(Duration.ofMinutes(15)));
+
+		this.repository.save(session);
+
+		verify(this.jdbcOperations, times(1)).update(matches("^UPDATE SPRING_SESSION\\s*SET.*"),
+				isA(PreparedStatementSetter.class));
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
+	@Test
+	void setTouchGranularityNegative() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> this.repository.setTouchGranularity(Duration.ofSeconds(-1)))
+			.withMessage("touchGranularity must not be negative");
+	}
+
+	@Test
+	void saveUpdatedAttributeWithSaveBatchWindow() {
+		this.repository.setSaveBatchWindow(Duration.ofMillis(1));
+		JdbcSession session = this.repository.new JdbcSession(new MapSession(), "primaryKey", false);
+		session.setAttribute("testName", "testValue");
+
+		this.repository.save(session);
+
+		assertThat(session.hasPendingChanges()).isFalse();
+		verify(this.jdbcOperations, times(1)).update(startsWith("INSERT INTO SPRING_SESSION_ATTRIBUTES"),
+				isA(PreparedStatementSetter.class));
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
+	@Test
+	void saveNewWithSingleTableStorage() {
+		this.repository.setSingleTableStorage(true);
+		JdbcSession session = this.repository.createSession();
+		session.setAttribute("testName", "testValue");
+
+		this.repository.save(session);
+
+		assertThat(session.isNew()).isFalse();
+		verify(this.jdbcOperations, times(1)).update(contains("ATTRIBUTE_BYTES)"), isA(PreparedStatementSetter.class));
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
+	@Test
+	void saveUpdatedAttributeWithSingleTableStorage() {
+		this.repository.setSingleTableStorage(true);
+		JdbcSession session = this.repository.new JdbcSession(new MapSession(), "primaryKey", false);
+		session.setAttribute("testName", "testValue");
+
+		this.repository.save(session);
+
+		assertThat(session.getDelta()).isEmpty();
+		verify(this.jdbcOperations, times(1)).update(contains("ATTRIBUTE_BYTES = ?"),
+				isA(PreparedStatementSetter.class));
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
+	@Test
+	void saveUpdatedLastAccessedTimeWithSingleTableStorage() {
+		this.repository.setSingleTableStorage(true);
+		JdbcSession session = this.repository.new JdbcSession(new MapSession(), "primaryKey", false);
+		session.setLastAccessedTime(Instant.now());
+
+		this.repository.save(session);
+
+		verify(this.jdbcOperations, times(1)).update(
+				and(startsWith("UPDATE SPRING_SESSION"), not(contains("ATTRIBUTE_BYTES"))),
+				isA(PreparedStatementSetter.class));
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void getSessionWithSingleTableStorage() throws SQLException {
+		this.repository.setSingleTableStorage(true);
+		byte[] attributeBytes = new SerializingConverter().convert("savedValue");
+		ResultSet resultSet = mock(ResultSet.class);
+		given(resultSet.getString("SESSION_ID")).willReturn("testSessionId");
+		given(resultSet.getString("PRIMARY_ID")).willReturn("primaryKey");
+		given(resultSet.getLong("CREATION_TIME")).willReturn(Instant.now().toEpochMilli());
+		given(resultSet.getLong("LAST_ACCESS_TIME")).willReturn(Instant.now().toEpochMilli());
+		given(resultSet.getInt("MAX_INACTIVE_INTERVAL")).willReturn(1800);
+		given(resultSet.findColumn("ATTRIBUTE_BYTES")).willReturn(6);
+		given(resultSet.getBytes(6)).willReturn(SessionAttributesCodec.encode(Map.of("savedName", attributeBytes)));
+		given(this.jdbcOperations
+			.query(contains("S.ATTRIBUTE_BYTES"), isA(PreparedStatementSetter.class), isA(RowMapper.class))).willAnswer(
+					(invocation) -> List.of(invocation.<RowMapper<JdbcSession>>getArgument(2).mapRow(resultSet, 0)));
+
+		JdbcSession session = this.repository.findById("testSessionId");
+
+		assertThat(session.getId()).isEqualTo("testSessionId");
+		assertThat(session.isNew()).isFalse();
+		assertThat(session.getAttributeNames()).containsExactly("savedName");
+		assertThat(session.<String>getAttribute("savedName")).isEqualTo("savedValue");
+		verify(this.jdbcOperations, times(1)).query(contains("S.ATTRIBUTE_BYTES"), isA(PreparedStatementSetter.class),
+				isA(RowMapper.class));
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void saveWithSaveModeAlwaysAndSkipUnchangedAttributesWithSingleTableStorage() throws SQLException {
+		this.repository.setSingleTableStorage(true);
+		this.repository.setSaveMode(SaveMode.ALWAYS);
+		this.repository.setSkipUnchangedAttributes(true);
+		SerializingConverter serializer = new SerializingConverter();
+		ResultSet resultSet = mock(ResultSet.class);
+		given(resultSet.getString("SESSION_ID")).willReturn("testSessionId");
+		given(resultSet.getString("PRIMARY_ID")).willReturn("primaryKey");
+		given(resultSet.getLong("CREATION_TIME")).willReturn(Instant.now().toEpochMilli());
+		given(resultSet.getLong("LAST_ACCESS_TIME")).willReturn(Instant.now().toEpochMilli());
+		given(resultSet.getInt("MAX_INACTIVE_INTERVAL")).willReturn(1800);
+		given(resultSet.findColumn("ATTRIBUTE_BYTES")).willReturn(6);
+		given(resultSet.getBytes(6)).willReturn(SessionAttributesCodec.encode(Map.of("name1",
+				serializer.convert("value1"), "name2", serializer.convert(new ArrayList<>(List.of("a"))))));
+		given(this.jdbcOperations
+			.query(contains("S.ATTRIBUTE_BYTES"), isA(PreparedStatementSetter.class), isA(RowMapper.class))).willAnswer(
+					(invocation) -> List.of(invocation.<RowMapper<JdbcSession>>getArgument(2).mapRow(resultSet, 0)));
+		JdbcSession session = this.repository.findById("testSessionId");
+		assertThat(session.<String>getAttribute("name1")).isEqualTo("value1");
+		this.repository.save(session);
+
+		verify(this.jdbcOperations, never()).update(anyString(), isA(PreparedStatementSetter.class));
+
+		session = this.repository.findById("testSessionId");
+		session.<List<String>>getAttribute("name2").add("b");
+		this.repository.save(session);
+
+		verify(this.jdbcOperations, times(1)).update(contains("ATTRIBUTE_BYTES = ?"),
+				isA(PreparedStatementSetter.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void saveWithSaveModeOnGetAttributeAndSkipUnchangedAttributes() {
+		this.repository.setSelectiveAttributeFetch(true);
+		this.repository.setSaveMode(SaveMode.ON_GET_ATTRIBUTE);
+		this.repository.setSkipUnchangedAttributes(true);
+		JdbcSession session = this.repository.new JdbcSession(new MapSession(), "primaryKey", false, false);
+		given(this.jdbcOperations.query(startsWith("SELECT ATTRIBUTE_BYTES"), isA(PreparedStatementSetter.class),
+				isA(RowMapper.class)))
+			.willReturn(List.of(new SerializingConverter().convert("value1")));
+
+		assertThat(session.<String>getAttribute("name1")).isEqualTo("value1");
+		session.setAttribute("name1", "value1");
+		this.repository.save(session);
+
+		verify(this.jdbcOperations, never()).update(anyString(), isA(PreparedStatementSetter.class));
+
+		session.setAttribute("name1", "value2");
+		this.repository.save(session);
+
+		verify(this.jdbcOperations, times(1)).update(startsWith("UPDATE SPRING_SESSION_ATTRIBUTES"),
+				isA(PreparedStatementSetter.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void getAttributeWithAttributeSerializer() {
+		BinarySessionAttributeSerializer serializer = new BinarySessionAttributeSerializer();
+		this.repository.setSelectiveAttributeFetch(true);
+		this.repository.setAttributeSerializer(serializer);
+		JdbcSession session = this.repository.new JdbcSession(new MapSession(), "primaryKey", false, false);
+		given(this.jdbcOperations.query(startsWith("SELECT ATTRIBUTE_BYTES"), isA(PreparedStatementSetter.class),
+				isA(RowMapper.class)))
+			.willReturn(List.of(serializer.serialize("value1")));
+
+		assertThat(session.<String>getAttribute("name1")).isEqualTo("value1");
+	}
+
 	@Test
 	void saveUnchanged() {
 		JdbcSession session = this.repository.new JdbcSession(new MapSession(), "primaryKey", false);
@@ -594,6 +825,44 @@ class JdbcIndexedSessionRepositoryTests {
 				isA(ResultSetExtractor.class));
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	void getSessionWithSelectiveAttributeFetch() {
+		this.repository.setSelectiveAttributeFetch(true);
+		JdbcSession saved = this.repository.new JdbcSession(new MapSession(), "primaryKey", false, false);
+		given(this.jdbcOperations.query(startsWith("SELECT S.PRIMARY_ID"), isA(PreparedStatementSetter.class),
+				isA(RowMapper.class)))
+			.willReturn(Collections.singletonList(saved));
+		given(this.jdbcOperations.query(startsWith("SELECT ATTRIBUTE_BYTES"), isA(PreparedStatementSetter.class),
+				isA(RowMapper.class)))
+			.willReturn(Collections.emptyList());
+
+		JdbcSession session = this.repository.findById(saved.getId());
+
+		assertThat(session.getId()).isEqualTo(saved.getId());
+		verify(this.jdbcOperations, times(1)).query(startsWith("SELECT S.PRIMARY_ID"),
+				isA(PreparedStatementSetter.class), isA(RowMapper.class));
+		verifyNoMoreInteractions(this.jdbcOperations);
+		assertThat(session.<String>getAttribute("missingName")).isNull();
+		assertThat(session.<String>getAttribute("missingName")).isNull();
+		verify(this.jdbcOperations, times(1)).query(startsWith("SELECT ATTRIBUTE_BYTES"),
+				isA(PreparedStatementSetter.class), isA(RowMapper.class));
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
+	@Test
+	void getAttributeNamesWithSelectiveAttributeFetch() {
+		JdbcSession session = this.repository.new JdbcSession(new MapSession(), "primaryKey", false, false);
+		given(this.jdbcOperations.queryForList(startsWith("SELECT ATTRIBUTE_NAME"), eq(String.class), eq("primaryKey")))
+			.willReturn(List.of("name1", "name2"));
+
+		assertThat(session.getAttributeNames()).containsExactlyInAnyOrder("name1", "name2");
+		assertThat(session.getAttributeNames()).containsExactlyInAnyOrder("name1", "name2");
+		verify(this.jdbcOperations, times(1)).queryForList(startsWith("SELECT ATTRIBUTE_NAME"), eq(String.class),
+				eq("primaryKey"));
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
 	@Test
 	void delete() {
 		String sessionId = "testSessionId";
@@ -661,6 +930,181 @@ class JdbcIndexedSessionRepositoryTests {
 		verify(this.jdbcOperations, times(1)).update(startsWith("DELETE"), anyLong());
 	}
 
+	@Test
+	void cleanupExpiredSessionsInBatches() {
+		this.repository.setCleanupBatchSize(2);
+		given(this.jdbcOperations.update(contains("FETCH FIRST 2 ROWS ONLY"), anyLong())).willReturn(2, 2, 1);
+
+		this.repository.cleanUpExpiredSessions();
+
+		verify(this.jdbcOperations, times(3)).update(contains("FETCH FIRST 2 ROWS ONLY"), anyLong());
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
+	@Test
+	void cleanupExpiredSessionsInBatchesWithTimeBudget() {
+		this.repository.setCleanupBatchSize(2);
+		this.repository.setCleanupBatchInterval(Duration.ofMillis(10));
+		this.repository.setCleanupTimeBudget(Duration.ofMillis(1));
+		given(this.jdbcOperations.update(startsWith("DELETE"), anyLong())).willReturn(2);
+
+		this.repository.cleanUpExpiredSessions();
+
+		verify(this.jdbcOperations, atMost(2)).update(startsWith("DELETE"), anyLong());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void cleanupExpiredSessionsWithApplicationEventPublisher() {
+		ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+		this.repository.setApplicationEventPublisher(eventPublisher);
+		JdbcSession session1 = this.repository.new JdbcSession(new MapSession(), "primaryKey1", false);
+		JdbcSession session2 = this.repository.new JdbcSession(new MapSession(), "primaryKey2", false);
+		given(this.jdbcOperations.query(isA(PreparedStatementCreator.class), isA(RowMapper.class)))
+			.willReturn(List.of(session1, session2));
+		given(this.jdbcOperations.batchUpdate(contains("WHERE PRIMARY_ID = ?"),
+				isA(BatchPreparedStatementSetter.class)))
+			.willReturn(new int[] { 1, 1 });
+
+		this.repository.cleanUpExpiredSessions();
+
+		ArgumentCaptor<SessionExpiredEvent> event = ArgumentCaptor.forClass(SessionExpiredEvent.class);
+		verify(eventPublisher, times(2)).publishEvent(event.capture());
+		assertThat(event.getAllValues()).extracting(SessionExpiredEvent::getSessionId)
+			.containsExactly(session1.getId(), session2.getId());
+		verify(this.jdbcOperations, times(1)).query(isA(PreparedStatementCreator.class), isA(RowMapper.class));
+		verify(this.jdbcOperations, times(1)).batchUpdate(contains("WHERE PRIMARY_ID = ?"),
+				isA(BatchPreparedStatementSetter.class));
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void cleanupExpiredSessionsWithApplicationEventPublisherAndLoadExpiredSessionAttributes() {
+		ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+		this.repository.setApplicationEventPublisher(eventPublisher);
+		this.repository.setLoadExpiredSessionAttributes(true);
+		JdbcSession session1 = this.repository.new JdbcSession(new MapSession(), "primaryKey1", false, false);
+		JdbcSession session2 = this.repository.new JdbcSession(new MapSession(), "primaryKey2", false, false);
+		JdbcSession loadedSession1 = this.repository.new JdbcSession(new MapSession(session1.getId()), "primaryKey1",
+				false);
+		loadedSession1.setAttribute("testName", "testValue");
+		JdbcSession loadedSession2 = this.repository.new JdbcSession(new MapSession(session2.getId()), "primaryKey2",
+				false);
+		given(this.jdbcOperations.query(isA(PreparedStatementCreator.class), isA(RowMapper.class)))
+			.willReturn(List.of(session1, session2));
+		given(this.jdbcOperations.query(contains("WHERE S.PRIMARY_ID IN (?, ?)"), isA(PreparedStatementSetter.class),
+				isA(ResultSetExtractor.class)))
+			.willReturn(List.of(loadedSession1, loadedSession1, loadedSession2));
+		given(this.jdbcOperations.batchUpdate(contains("WHERE PRIMARY_ID = ?"),
+				isA(BatchPreparedStatementSetter.class)))
+			.willReturn(new int[] { 1, 1 });
+
+		this.repository.cleanUpExpiredSessions();
+
+		ArgumentCaptor<SessionExpiredEvent> event = ArgumentCaptor.forClass(SessionExpiredEvent.class);
+		verify(eventPublisher, times(2)).publishEvent(event.capture());
+		assertThat(event.getAllValues()).extracting(SessionExpiredEvent::getSessionId)
+			.containsExactly(session1.getId(), session2.getId());
+		assertThat(event.getAllValues().get(0).<JdbcSession>getSession().<String>getAttribute("testName"))
+			.isEqualTo("testValue");
+		verify(this.jdbcOperations, times(1)).query(isA(PreparedStatementCreator.class), isA(RowMapper.class));
+		verify(this.jdbcOperations, times(1)).query(contains("WHERE S.PRIMARY_ID IN (?, ?)"),
+				isA(PreparedStatementSetter.class), isA(ResultSetExtractor.class));
+		verify(this.jdbcOperations, times(1)).batchUpdate(contains("WHERE PRIMARY_ID = ?"),
+				isA(BatchPreparedStatementSetter.class));
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void cleanupExpiredSessionsWithApplicationEventPublisherWhenNotDeletedThenNoEvent() {
+		ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+		this.repository.setApplicationEventPublisher(eventPublisher);
+		this.repository.setSingleTableStorage(true);
+		JdbcSession session1 = this.repository.new JdbcSession(new MapSession(), "primaryKey1", false);
+		JdbcSession session2 = this.repository.new JdbcSession(new MapSession(), "primaryKey2", false);
+		given(this.jdbcOperations.query(isA(PreparedStatementCreator.class), isA(RowMapper.class)))
+			.willReturn(List.of(session1, session2));
+		given(this.jdbcOperations.batchUpdate(contains("WHERE PRIMARY_ID = ?"),
+				isA(BatchPreparedStatementSetter.class)))
+			.willReturn(new int[] { 0, 1 });
+		List<SessionRepositoryObservationContext> contexts = observeInto(this.repository);
+
+		this.repository.cleanUpExpiredSessions();
+
+		ArgumentCaptor<SessionExpiredEvent> event = ArgumentCaptor.forClass(SessionExpiredEvent.class);
+		verify(eventPublisher, times(1)).publishEvent(event.capture());
+		assertThat(event.getValue().getSessionId()).isEqualTo(session2.getId());
+		assertThat(contexts).singleElement().satisfies((context) -> assertThat(context.getResultCount()).isEqualTo(1));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void cleanupExpiredSessionsWithApplicationEventPublisherNoExpiredSessions() {
+		ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+		this.repository.setApplicationEventPublisher(eventPublisher);
+		given(this.jdbcOperations.query(isA(PreparedStatementCreator.class), isA(RowMapper.class)))
+			.willReturn(Collections.emptyList());
+
+		this.repository.cleanUpExpiredSessions();
+
+		verifyNoMoreInteractions(eventPublisher);
+		verify(this.jdbcOperations, times(1)).query(isA(PreparedStatementCreator.class), isA(RowMapper.class));
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
+	@Test
+	void cleanupExpiredSessionsWithObservationRegistry() {
+		List<SessionRepositoryObservationContext> contexts = observeInto(this.repository);
+		given(this.jdbcOperations.update(startsWith("DELETE"), anyLong())).willReturn(3);
+
+		this.repository.cleanUpExpiredSessions();
+
+		assertThat(contexts).singleElement().satisfies((context) -> {
+			assertThat(context.getOperation()).isEqualTo(Operation.CLEANUP);
+			assertThat(context.getResultCount()).isEqualTo(3);
+			assertThat(context.getLowCardinalityKeyValue("spring.session.backend").getValue()).isEqualTo("jdbc");
+			assertThat(context.getLowCardinalityKeyValue("outcome").getValue()).isEqualTo("SUCCESS");
+		});
+	}
+
+	@Test
+	void saveWithObservationRegistry() {
+		List<SessionRepositoryObservationContext> contexts = observeInto(this.repository);
+		JdbcSession session = this.repository.createSession();
+		session.setAttribute("testName", "testValue");
+
+		this.repository.save(session);
+
+		assertThat(contexts).singleElement().satisfies((context) -> {
+			assertThat(context.getOperation()).isEqualTo(Operation.SAVE);
+			assertThat(context.getAttributeCount()).isEqualTo(1);
+			assertThat(context.getDeltaSize()).isEqualTo(1);
+		});
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void findByIdWithObservationRegistryWhenQueryFails() {
+		List<SessionRepositoryObservationContext> contexts = observeInto(this.repository);
+		given(this.jdbcOperations.query(isA(String.class), isA(PreparedStatementSetter.class),
+				isA(ResultSetExtractor.class)))
+			.willThrow(new IllegalStateException("test"));
+
+		assertThatIllegalStateException().isThrownBy(() -> this.repository.findById("testId"));
+		assertThat(contexts).singleElement().satisfies((context) -> {
+			assertThat(context.getOperation()).isEqualTo(Operation.FIND_BY_ID);
+			assertThat(context.getLowCardinalityKeyValue("outcome").getValue()).isEqualTo("ERROR");
+		});
+	}
+
+	@Test
+	void setCleanupBatchSizeNegative() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.repository.setCleanupBatchSize(-1))
+			.withMessage("cleanupBatchSize must not be negative");
+	}
+
 	@Test // gh-1120
 	void getAttributeNamesAndRemove() {
 		JdbcSession session = this.repository.createSession();
@@ -709,6 +1153,21 @@ class JdbcIndexedSessionRepositoryTests {
 		verifyNoMoreInteractions(this.jdbcOperations);
 	}
 
+	@Test
+	void saveWithSaveModeOnGetAttributeAndPeekAttribute() {
+		this.repository.setSaveMode(SaveMode.ON_GET_ATTRIBUTE);
+		MapSession delegate = new MapSession();
+		delegate.setAttribute("attribute1", (Supplier<String>) () -> "value1");
+		delegate.setAttribute("attribute2", (Supplier<String>) () -> "value2");
+		JdbcSession session = this.repository.new JdbcSession(delegate, UUID.randomUUID().toString(), false);
+		assertThat(session.<String>peekAttribute("attribute1")).isEqualTo("value1");
+		session.setAttribute("attribute2", "value3");
+		this.repository.save(session);
+		verify(this.jdbcOperations).update(matches("^UPDATE SPRING_SESSION_ATTRIBUTES\\s*SET.*"),
+				isA(PreparedStatementSetter.class));
+		verifyNoMoreInteractions(this.jdbcOperations);
+	}
+
 	@Test
 	void saveWithSaveModeOnGetAttributeAndNewAttributeSetAndGet() {
 		this.repository.setSaveMode(SaveMode.ON_GET_ATTRIBUTE);
@@ -830,4 +1289,24 @@ class JdbcIndexedSessionRepositoryTests {
 		assertThat(session.changeSessionId()).isEqualTo("test");
 	}
 
+	private static List<SessionRepositoryObservationContext> observeInto(JdbcIndexedSessionRepository repository) {
+		List<SessionRepositoryObservationContext> contexts = new ArrayList<>();
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+
+			@Override
+			public void onStop(Observation.Context context) {
+				contexts.add((SessionRepositoryObservationContext) context);
+			}
+
+			@Override
+			public boolean supportsContext(Observation.Context context) {
+				return context instanceof SessionRepositoryObservationContext;
+			}
+
+		});
+		repository.setObservationRegistry(observationRegistry);
+		return contexts;
+	}
+
 }
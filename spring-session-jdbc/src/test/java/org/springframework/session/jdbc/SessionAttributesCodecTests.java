@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.jdbc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link SessionAttributesCodec}.
+ *
+ * @author agent (agent@local)
+ */
+class SessionAttributesCodecTests {
+
+	@Test
+	void encodeAndDecode() {
+		Map<String, byte[]> attributes = new LinkedHashMap<>();
+		attributes.put("name1", "value1".getBytes(StandardCharsets.UTF_8));
+		attributes.put("name2", new byte[0]);
+
+		Map<String, byte[]> decoded = SessionAttributesCodec.decode(SessionAttributesCodec.encode(attributes));
+
+		assertThat(decoded).containsOnlyKeys("name1", "name2");
+		assertThat(decoded.get("name1")).isEqualTo("value1".getBytes(StandardCharsets.UTF_8));
+		assertThat(decoded.get("name2")).isEmpty();
+	}
+
+	@Test
+	void encodeAndDecodeEmpty() {
+		assertThat(SessionAttributesCodec.decode(SessionAttributesCodec.encode(Map.of()))).isEmpty();
+	}
+
+	@Test
+	void decodeUnsupportedVersion() {
+		assertThatIllegalStateException().isThrownBy(() -> SessionAttributesCodec.decode(new byte[] { 2, 0, 0, 0, 0 }))
+			.withMessage("Unsupported session attributes version 2");
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.session.jdbc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link SessionSaveBatcher}.
+ */
+class SessionSaveBatcherTests {
+
+	private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+	private final List<String> individuallySaved = new CopyOnWriteArrayList<>();
+
+	@Test
+	void saveWhenConcurrentThenSavedInOneBatch() throws Exception {
+		SessionSaveBatcher<String> batcher = new SessionSaveBatcher<>(Duration.ofMillis(500), 10, 10, this.batches::add,
+				this.individuallySaved::add);
+		CyclicBarrier barrier = new CyclicBarrier(3);
+		List<CompletableFuture<Void>> saves = new ArrayList<>();
+		for (String session : List.of("a", "b", "c")) {
+			saves.add(CompletableFuture.runAsync(() -> {
+				await(barrier);
+				batcher.save(session);
+			}));
+		}
+		CompletableFuture.allOf(saves.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+		assertThat(this.batches).hasSize(1);
+		assertThat(this.batches.get(0)).containsExactlyInAnyOrder("a", "b", "c");
+		assertThat(this.individuallySaved).isEmpty();
+	}
+
+	@Test
+	void saveWhenBatchFailsThenSavedIndividually() {
+		SessionSaveBatcher<String> batcher = new SessionSaveBatcher<>(Duration.ofMillis(1), 10, 10, (sessions) -> {
+			throw new IllegalStateException("batch failed");
+		}, this.individuallySaved::add);
+
+		batcher.save("a");
+
+		assertThat(this.individuallySaved).containsExactly("a");
+	}
+
+	@Test
+	void saveWhenIndividualSaveFailsThenRethrows() {
+		SessionSaveBatcher<String> batcher = new SessionSaveBatcher<>(Duration.ofMillis(1), 10, 10, (sessions) -> {
+			throw new IllegalStateException("batch failed");
+		}, (session) -> {
+			throw new IllegalStateException("save failed");
+		});
+
+		assertThatIllegalStateException().isThrownBy(() -> batcher.save("a")).withMessage("save failed");
+	}
+
+	@Test
+	void saveWhenBatchWriterThrowsErrorThenEverySaveCompletes() {
+		SessionSaveBatcher<String> batcher = new SessionSaveBatcher<>(Duration.ofMillis(500), 10, 10, (sessions) -> {
+			throw new AssertionError("batch failed");
+		}, this.individuallySaved::add);
+		CyclicBarrier barrier = new CyclicBarrier(3);
+		List<CompletableFuture<Void>> saves = new ArrayList<>();
+		for (String session : List.of("a", "b", "c")) {
+			saves.add(CompletableFuture.runAsync(() -> {
+				await(barrier);
+				batcher.save(session);
+			}));
+		}
+
+		for (CompletableFuture<Void> save : saves) {
+			assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> save.get(10, TimeUnit.SECONDS))
+				.withCauseInstanceOf(AssertionError.class);
+		}
+		assertThat(this.individuallySaved).isEmpty();
+	}
+
+	private static void await(CyclicBarrier barrier) {
+		try {
+			barrier.await(10, TimeUnit.SECONDS);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
@@ -55,6 +55,26 @@ class JdbcSchemaUtilsTests {
 		assertThat(schemaScript).contains("NEW_TABLE_NAME", "NEW_TABLE_NAME_ATTRIBUTES");
 	}
 
+	@ParameterizedTest
+	@MethodSource("getCreateSingleTableSchemaFiles")
+	void replaceCreateSingleTableSchemaTableName(Resource schema) throws IOException {
+		Resource newTableNameSchema = JdbcSchemaUtils.replaceDefaultTableName(schema, "NEW_TABLE_NAME");
+		String schemaScript = new String(newTableNameSchema.getInputStream().readAllBytes());
+		assertThat(schemaScript).doesNotContain("SPRING_SESSION", "SPRING_SESSION_IX1", "SPRING_SESSION_IX2",
+				"SPRING_SESSION_IX3", "NEW_TABLE_NAME_ATTRIBUTES");
+		assertThat(schemaScript).contains("NEW_TABLE_NAME", "NEW_TABLE_NAME_IX1", "NEW_TABLE_NAME_IX2",
+				"NEW_TABLE_NAME_IX3", "ATTRIBUTE_BYTES");
+	}
+
+	@ParameterizedTest
+	@MethodSource("getDropSingleTableSchemaFiles")
+	void replaceDropSingleTableSchemaTableName(Resource schema) throws IOException {
+		Resource newTableNameSchema = JdbcSchemaUtils.replaceDefaultTableName(schema, "NEW_TABLE_NAME");
+		String schemaScript = new String(newTableNameSchema.getInputStream().readAllBytes());
+		assertThat(schemaScript).doesNotContain("SPRING_SESSION", "NEW_TABLE_NAME_ATTRIBUTES");
+		assertThat(schemaScript).contains("NEW_TABLE_NAME");
+	}
+
 	private static Stream<Resource> getCreateSchemaFiles() throws IOException {
 		return getSchemaFiles().filter((resource) -> !resource.getFilename().contains("drop"));
 	}
@@ -63,7 +83,23 @@ class JdbcSchemaUtilsTests {
 		return getSchemaFiles().filter((resource) -> resource.getFilename().contains("drop"));
 	}
 
+	private static Stream<Resource> getCreateSingleTableSchemaFiles() throws IOException {
+		return getSingleTableSchemaFiles().filter((resource) -> !resource.getFilename().contains("drop"));
+	}
+
+	private static Stream<Resource> getDropSingleTableSchemaFiles() throws IOException {
+		return getSingleTableSchemaFiles().filter((resource) -> resource.getFilename().contains("drop"));
+	}
+
 	private static Stream<Resource> getSchemaFiles() throws IOException {
+		return getAllSchemaFiles().filter((resource) -> !resource.getFilename().contains("single-table"));
+	}
+
+	private static Stream<Resource> getSingleTableSchemaFiles() throws IOException {
+		return getAllSchemaFiles().filter((resource) -> resource.getFilename().contains("single-table"));
+	}
+
+	private static Stream<Resource> getAllSchemaFiles() throws IOException {
 		return Arrays.stream(new PathMatchingResourcePatternResolver()
 			.getResources("classpath*:org/springframework/session/jdbc/schema-*.sql"));
 	}